@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import com.google.gson.JsonParser;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.accounting.common.AccountingRuleType;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.accountdetails.domain.AccountType;
+import org.apache.fineract.portfolio.charge.domain.Charge;
+import org.apache.fineract.portfolio.charge.domain.ChargeCalculationType;
+import org.apache.fineract.portfolio.charge.domain.ChargePaymentMode;
+import org.apache.fineract.portfolio.charge.domain.ChargeTimeType;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModelPeriod;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.apache.fineract.portfolio.loanproduct.domain.RecalculationFrequencyType;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
+import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
+import org.apache.fineract.portfolio.savings.domain.SavingsProduct;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds the loan and savings domain objects used by the benchmarks in memory, without a database or Spring context.
+ *
+ * Entities that are normally only loaded by JPA are created through their protected constructors and their fields set
+ * by reflection, the same way the unit tests of the provider do.
+ */
+final class BenchmarkFixtures {
+
+    static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2020, 1, 1);
+    static final MathContext MATH_CONTEXT = new MathContext(12, RoundingMode.HALF_EVEN);
+    static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+
+    private static final BigDecimal PRINCIPAL = BigDecimal.valueOf(100000);
+    private static final BigDecimal ANNUAL_INTEREST_RATE = BigDecimal.valueOf(12);
+    private static final String EVERY_DAY_IS_A_WORKING_DAY = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU";
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Sets up the thread local state the domain objects read: tenant, business date and rounding mode. Must be called
+     * from the thread running the benchmark, so from a {@link org.openjdk.jmh.annotations.Setup} of a thread scoped
+     * state.
+     */
+    static void setUpContext(final LocalDate businessDate) {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "default", "UTC", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, businessDate)));
+    }
+
+    static void clearContext() {
+        ThreadLocalContextUtil.clearTenant();
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>());
+    }
+
+    static HolidayDetailDTO holidayDetails() {
+        final WorkingDays workingDays = instantiate(WorkingDays.class);
+        ReflectionTestUtils.setField(workingDays, "recurrence", EVERY_DAY_IS_A_WORKING_DAY);
+        ReflectionTestUtils.setField(workingDays, "repaymentReschedulingType", RepaymentRescheduleType.MOVE_TO_NEXT_WORKING_DAY.getValue());
+        ReflectionTestUtils.setField(workingDays, "extendTermForDailyRepayments", false);
+        ReflectionTestUtils.setField(workingDays, "extendTermForRepaymentsOnHolidays", false);
+        return new HolidayDetailDTO(false, List.of(), workingDays);
+    }
+
+    static LoanApplicationTerms loanApplicationTerms(final InterestMethod interestMethod, final int numberOfRepayments,
+            final PeriodFrequencyType repaymentFrequency, final boolean interestRecalculation, final HolidayDetailDTO holidayDetails) {
+        final ApplicationCurrency applicationCurrency = instantiate(ApplicationCurrency.class);
+        ReflectionTestUtils.setField(applicationCurrency, "code", CURRENCY.getCode());
+        ReflectionTestUtils.setField(applicationCurrency, "name", "US Dollar");
+        ReflectionTestUtils.setField(applicationCurrency, "decimalPlaces", CURRENCY.getDigitsAfterDecimal());
+        ReflectionTestUtils.setField(applicationCurrency, "nameCode", "currency.USD");
+        ReflectionTestUtils.setField(applicationCurrency, "displaySymbol", "$");
+
+        final Money principal = Money.of(CURRENCY, PRINCIPAL);
+        final DaysInYearType daysInYearType = interestRecalculation ? DaysInYearType.ACTUAL : DaysInYearType.DAYS_360;
+        final DaysInMonthType daysInMonthType = interestRecalculation ? DaysInMonthType.ACTUAL : DaysInMonthType.DAYS_30;
+        final InterestCalculationPeriodMethod interestCalculationPeriodMethod = interestRecalculation
+                ? InterestCalculationPeriodMethod.DAILY
+                : InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD;
+        return LoanApplicationTerms.assembleFrom(applicationCurrency, numberOfRepayments, repaymentFrequency, numberOfRepayments, 1,
+                repaymentFrequency, null, null, AmortizationMethod.EQUAL_INSTALLMENTS, interestMethod, ANNUAL_INTEREST_RATE,
+                PeriodFrequencyType.YEARS, ANNUAL_INTEREST_RATE, interestCalculationPeriodMethod, false, principal, DISBURSEMENT_DATE,
+                null, null, null, null, null, null, null, Money.zero(CURRENCY), false, null, new ArrayList<>(), null, null,
+                daysInMonthType, daysInYearType, interestRecalculation,
+                interestRecalculation ? RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD : null, null,
+                InterestRecalculationCompoundingMethod.NONE, null, null, null, null,
+                LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE, null, PRINCIPAL, new ArrayList<>(), false, 0, false,
+                holidayDetails, false, false, false, null, false, false);
+    }
+
+    /**
+     * Flat fees due on dates spread evenly over the term of the loan, alternating between fees and penalties.
+     */
+    static Set<LoanCharge> loanCharges(final int numberOfCharges, final LocalDate lastDueDate) {
+        final Set<LoanCharge> charges = new HashSet<>();
+        final long termInDays = lastDueDate.toEpochDay() - DISBURSEMENT_DATE.toEpochDay();
+        for (int i = 1; i <= numberOfCharges; i++) {
+            final boolean penalty = i % 2 == 0;
+            final Charge charge = chargeDefinition(penalty);
+            final LocalDate dueDate = DISBURSEMENT_DATE.plusDays(termInDays * i / (numberOfCharges + 1));
+            final LoanCharge loanCharge = new LoanCharge(null, charge, PRINCIPAL, BigDecimal.valueOf(25), ChargeTimeType.SPECIFIED_DUE_DATE,
+                    ChargeCalculationType.FLAT, dueDate, ChargePaymentMode.REGULAR, null, null);
+            ReflectionTestUtils.setField(loanCharge, "id", (long) i);
+            charges.add(loanCharge);
+        }
+        return charges;
+    }
+
+    static List<LoanRepaymentScheduleInstallment> installments(final LoanScheduleModel loanSchedule) {
+        final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>();
+        for (final LoanScheduleModelPeriod period : loanSchedule.getPeriods()) {
+            if (period.isRepaymentPeriod()) {
+                installments.add(new LoanRepaymentScheduleInstallment(null, period.periodNumber(), period.periodFromDate(),
+                        period.periodDueDate(), period.principalDue(), period.interestDue(), period.feeChargesDue(),
+                        period.penaltyChargesDue(), period.isRecalculatedInterestComponent(), null));
+            }
+        }
+        return installments;
+    }
+
+    /**
+     * Repayments of the installment amount spread evenly between the disbursement and the last due date; with more
+     * transactions than installments the installments are paid in several parts.
+     */
+    static List<LoanTransaction> repayments(final List<LoanRepaymentScheduleInstallment> installments, final int numberOfTransactions) {
+        final LocalDate lastDueDate = installments.get(installments.size() - 1).getDueDate();
+        final long termInDays = lastDueDate.toEpochDay() - DISBURSEMENT_DATE.toEpochDay();
+        Money totalDue = Money.zero(CURRENCY);
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            totalDue = totalDue.plus(installment.getDue(CURRENCY));
+        }
+        final Money amount = totalDue.dividedBy(numberOfTransactions, RoundingMode.HALF_EVEN);
+
+        final List<LoanTransaction> repayments = new ArrayList<>();
+        for (int i = 1; i <= numberOfTransactions; i++) {
+            final LocalDate date = DISBURSEMENT_DATE.plusDays(termInDays * i / numberOfTransactions);
+            final LoanTransaction repayment = LoanTransaction.repayment(null, amount, null, date, null);
+            ReflectionTestUtils.setField(repayment, "id", (long) i);
+            repayments.add(repayment);
+        }
+        return repayments;
+    }
+
+    /**
+     * An active savings account opened on the disbursement date, with deposits and withdrawals spread evenly over the
+     * given number of months.
+     */
+    static SavingsAccount savingsAccount(final SavingsCompoundingInterestPeriodType compounding,
+            final SavingsPostingInterestPeriodType posting, final int numberOfTransactions, final int months) {
+        final SavingsProduct product = SavingsProduct.createNew("benchmark", "bm", null, CURRENCY, BigDecimal.valueOf(5), compounding,
+                posting, SavingsInterestCalculationType.DAILY_BALANCE, SavingsInterestCalculationDaysInYearType.DAYS_365, null, null,
+                null, false, AccountingRuleType.NONE, new HashSet<>(), false, null, false, null, false, null, null, null, null, false,
+                null, false, null, null, null, false, null, null);
+        final SavingsAccount account = SavingsAccount.createNewApplicationForSubmittal(null, null, product, null, "000000001", null,
+                AccountType.INDIVIDUAL, DISBURSEMENT_DATE, null, BigDecimal.valueOf(5), compounding, posting,
+                SavingsInterestCalculationType.DAILY_BALANCE, SavingsInterestCalculationDaysInYearType.DAYS_365, null, null, null, false,
+                new HashSet<>(), false, null, false, null, null, false, null, null, false);
+        ReflectionTestUtils.setField(account, "id", 1L);
+        ReflectionTestUtils.setField(account, "status", SavingsAccountStatusType.ACTIVE.getValue());
+        ReflectionTestUtils.setField(account, "depositType", DepositAccountType.SAVINGS_DEPOSIT.getValue());
+        ReflectionTestUtils.setField(account, "activatedOnDate", DISBURSEMENT_DATE);
+        account.setHelpers(new SavingsAccountTransactionSummaryWrapper(), new SavingsHelper(null) {
+
+            @Override
+            public Collection<Long> fetchPostInterestTransactionIds(final Long accountId) {
+                return List.of();
+            }
+        });
+
+        final List<SavingsAccountTransaction> transactions = account.getTransactions();
+        final long days = DISBURSEMENT_DATE.plusMonths(months).toEpochDay() - DISBURSEMENT_DATE.toEpochDay();
+        for (int i = 0; i < numberOfTransactions; i++) {
+            final LocalDate date = DISBURSEMENT_DATE.plusDays(days * i / numberOfTransactions);
+            final LocalDateTime createdDate = date.atStartOfDay();
+            // deposit twice as often as withdraw so the balance keeps growing
+            final SavingsAccountTransaction transaction = i % 3 == 2
+                    ? SavingsAccountTransaction.withdrawal(account, null, null, date, Money.of(CURRENCY, BigDecimal.valueOf(40)),
+                            createdDate, null, null)
+                    : SavingsAccountTransaction.deposit(account, null, null, date, Money.of(CURRENCY, BigDecimal.valueOf(100)),
+                            createdDate, null, null);
+            ReflectionTestUtils.setField(transaction, "id", (long) i + 1);
+            transactions.add(transaction);
+        }
+        return account;
+    }
+
+    private static Charge chargeDefinition(final boolean penalty) {
+        final String json = "{\"name\":\"" + (penalty ? "penalty" : "fee") + "\",\"amount\":25,\"currencyCode\":\"" + CURRENCY.getCode()
+                + "\",\"chargeAppliesTo\":1,\"chargeTimeType\":" + ChargeTimeType.SPECIFIED_DUE_DATE.getValue()
+                + ",\"chargeCalculationType\":" + ChargeCalculationType.FLAT.getValue() + ",\"chargePaymentMode\":"
+                + ChargePaymentMode.REGULAR.getValue() + ",\"penalty\":" + penalty + ",\"active\":true,\"locale\":\"en\"}";
+        final JsonCommand command = new JsonCommand(null, JsonParser.parseString(json), new FromJsonHelper());
+        return Charge.fromJson(command, null, null, null, false);
+    }
+
+    private static <T> T instantiate(final Class<T> type) {
+        try {
+            return BeanUtils.instantiateClass(type.getDeclaredConstructor());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No default constructor on " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.AbstractLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DecliningBalanceInterestLoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Re-processes the repayments of a loan against its schedule with the repayment strategies, either all of them as on a
+ * backdated transaction or only the ones from the last repayment on.
+ */
+@State(Scope.Thread)
+public class LoanRepaymentProcessingBenchmark {
+
+    private static final String PROCESSOR_PACKAGE = "org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.";
+    private static final String PROCESSOR_SUFFIX = "LoanRepaymentScheduleTransactionProcessor";
+
+    @Param({ "FineractStyle", "HeavensFamily", "Creocore", "EarlyPayment", "RBI", "PrincipalInterestPenaltyFeesOrder",
+            "InterestPrincipalPenaltyFeesOrder" })
+    private String processor;
+
+    @Param({ "12", "60", "360" })
+    private int numberOfRepayments;
+
+    @Param({ "1", "4" })
+    private int transactionsPerInstallment;
+
+    @Param({ "0", "10" })
+    private int numberOfCharges;
+
+    private AbstractLoanRepaymentScheduleTransactionProcessor transactionProcessor;
+    private List<LoanRepaymentScheduleInstallment> installments;
+    private List<LoanTransaction> repayments;
+    private Set<LoanCharge> charges;
+    private LocalDate lastRepaymentDate;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws ReflectiveOperationException {
+        BenchmarkFixtures.setUpContext(BenchmarkFixtures.DISBURSEMENT_DATE);
+        this.transactionProcessor = (AbstractLoanRepaymentScheduleTransactionProcessor) Class
+                .forName(PROCESSOR_PACKAGE + this.processor + PROCESSOR_SUFFIX).getDeclaredConstructor().newInstance();
+        this.transactionProcessor.configureTransactionReplay(true, false);
+
+        final HolidayDetailDTO holidayDetails = BenchmarkFixtures.holidayDetails();
+        final LocalDate lastDueDate = BenchmarkFixtures.DISBURSEMENT_DATE.plusMonths(this.numberOfRepayments);
+        this.charges = BenchmarkFixtures.loanCharges(this.numberOfCharges, lastDueDate);
+        final LoanApplicationTerms loanApplicationTerms = BenchmarkFixtures.loanApplicationTerms(InterestMethod.DECLINING_BALANCE,
+                this.numberOfRepayments, PeriodFrequencyType.MONTHS, false, holidayDetails);
+        final LoanScheduleModel loanSchedule = new DecliningBalanceInterestLoanScheduleGenerator().generate(BenchmarkFixtures.MATH_CONTEXT,
+                loanApplicationTerms, this.charges, holidayDetails);
+        this.installments = BenchmarkFixtures.installments(loanSchedule);
+        this.repayments = BenchmarkFixtures.repayments(this.installments, this.numberOfRepayments * this.transactionsPerInstallment);
+        this.lastRepaymentDate = this.repayments.get(this.repayments.size() - 1).getTransactionDate();
+
+        // the first run maps the repayments to the installments, which the partial replay takes back from
+        reprocessAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BenchmarkFixtures.clearContext();
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail reprocessAll() {
+        return this.transactionProcessor.handleTransaction(BenchmarkFixtures.DISBURSEMENT_DATE, this.repayments, BenchmarkFixtures.CURRENCY,
+                this.installments, this.charges);
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail reprocessFromLastRepayment() {
+        return this.transactionProcessor.reprocessTransactionsFrom(this.lastRepaymentDate, List.of(), BenchmarkFixtures.DISBURSEMENT_DATE,
+                this.repayments, BenchmarkFixtures.CURRENCY, this.installments, this.charges);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.time.LocalDate;
+import java.util.Set;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DecliningBalanceInterestLoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.FlatInterestLoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Generates the repayment schedule of a loan with the declining balance and flat interest generators.
+ */
+@State(Scope.Thread)
+public class LoanScheduleGenerationBenchmark {
+
+    @Param({ "DECLINING_BALANCE", "FLAT" })
+    private InterestMethod interestMethod;
+
+    @Param({ "12", "60", "360" })
+    private int numberOfRepayments;
+
+    @Param({ "MONTHS", "WEEKS", "DAYS" })
+    private PeriodFrequencyType repaymentFrequency;
+
+    @Param({ "false", "true" })
+    private boolean interestRecalculation;
+
+    @Param({ "0", "10" })
+    private int numberOfCharges;
+
+    private LoanScheduleGenerator generator;
+    private HolidayDetailDTO holidayDetails;
+    private Set<LoanCharge> charges;
+    private LoanApplicationTerms loanApplicationTerms;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        BenchmarkFixtures.setUpContext(BenchmarkFixtures.DISBURSEMENT_DATE);
+        this.generator = this.interestMethod.isDecliningBalnce() ? new DecliningBalanceInterestLoanScheduleGenerator()
+                : new FlatInterestLoanScheduleGenerator();
+        this.holidayDetails = BenchmarkFixtures.holidayDetails();
+        this.charges = BenchmarkFixtures.loanCharges(this.numberOfCharges, lastDueDate());
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        // the generator updates the terms while it walks the periods, so every invocation needs its own
+        this.loanApplicationTerms = BenchmarkFixtures.loanApplicationTerms(this.interestMethod, this.numberOfRepayments,
+                this.repaymentFrequency, this.interestRecalculation, this.holidayDetails);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BenchmarkFixtures.clearContext();
+    }
+
+    @Benchmark
+    public LoanScheduleModel generate() {
+        return this.generator.generate(BenchmarkFixtures.MATH_CONTEXT, this.loanApplicationTerms, this.charges, this.holidayDetails);
+    }
+
+    private LocalDate lastDueDate() {
+        return switch (this.repaymentFrequency) {
+            case DAYS -> BenchmarkFixtures.DISBURSEMENT_DATE.plusDays(this.numberOfRepayments);
+            case WEEKS -> BenchmarkFixtures.DISBURSEMENT_DATE.plusWeeks(this.numberOfRepayments);
+            case MONTHS -> BenchmarkFixtures.DISBURSEMENT_DATE.plusMonths(this.numberOfRepayments);
+            default -> BenchmarkFixtures.DISBURSEMENT_DATE.plusYears(this.numberOfRepayments);
+        };
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.math.BigDecimal;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Sums amounts the way the schedule and summary totals are built, chaining {@link Money#plus(Money)} against a
+ * {@link MoneyAccumulator}.
+ */
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    @Param({ "12", "360" })
+    private int numberOfAmounts;
+
+    private Money[] amounts;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        BenchmarkFixtures.setUpContext(BenchmarkFixtures.DISBURSEMENT_DATE);
+        this.amounts = new Money[this.numberOfAmounts];
+        for (int i = 0; i < this.numberOfAmounts; i++) {
+            this.amounts[i] = Money.of(BenchmarkFixtures.CURRENCY, BigDecimal.valueOf(83333 + i * 7L, 2));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BenchmarkFixtures.clearContext();
+    }
+
+    @Benchmark
+    public Money sumWithMoney() {
+        Money total = Money.zero(BenchmarkFixtures.CURRENCY);
+        for (final Money amount : this.amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumWithAccumulator() {
+        final MoneyAccumulator total = MoneyAccumulator.zero(BenchmarkFixtures.CURRENCY);
+        for (final Money amount : this.amounts) {
+            total.plus(amount);
+        }
+        return total.toMoney();
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Calculates the interest of a savings account over its whole history, as the interest posting job does.
+ */
+@State(Scope.Thread)
+public class SavingsInterestCalculationBenchmark {
+
+    private static final int FINANCIAL_YEAR_BEGINNING_MONTH = 1;
+
+    @Param({ "100", "1000", "10000" })
+    private int numberOfTransactions;
+
+    @Param({ "12", "60" })
+    private int months;
+
+    @Param({ "DAILY", "MONTHLY" })
+    private SavingsCompoundingInterestPeriodType compounding;
+
+    @Param({ "MONTHLY", "QUATERLY" })
+    private SavingsPostingInterestPeriodType posting;
+
+    private SavingsAccount savingsAccount;
+    private LocalDate upToInterestCalculationDate;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.upToInterestCalculationDate = BenchmarkFixtures.DISBURSEMENT_DATE.plusMonths(this.months);
+        BenchmarkFixtures.setUpContext(this.upToInterestCalculationDate);
+        this.savingsAccount = BenchmarkFixtures.savingsAccount(this.compounding, this.posting, this.numberOfTransactions, this.months);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BenchmarkFixtures.clearContext();
+    }
+
+    @Benchmark
+    public List<PostingPeriod> calculateInterest() {
+        return this.savingsAccount.calculateInterestUsing(BenchmarkFixtures.MATH_CONTEXT, this.upToInterestCalculationDate, false, false,
+                FINANCIAL_YEAR_BEGINNING_MONTH, null, false, false);
+    }
+}
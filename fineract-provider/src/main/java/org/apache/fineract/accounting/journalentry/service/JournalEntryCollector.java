@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException.GlJournalEntryInvalidReason;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the journal entries that the {@link AccountingProcessorHelper} creates for one business transaction and
+ * writes them with a single JDBC batch insert, instead of flushing every debit and credit leg on its own.
+ *
+ * Before the entries are written, the debits and credits of every transaction are checked to balance. Outside of
+ * {@link #collect(Runnable)} entries are saved one by one, as before.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalEntryCollector {
+
+    private static final String INSERT_SQL = "INSERT INTO acc_gl_journal_entry (account_id, office_id, reversal_id, currency_code, "
+            + "transaction_id, loan_transaction_id, savings_transaction_id, client_transaction_id, share_transaction_id, reversed, "
+            + "ref_num, manual_entry, entry_date, type_enum, amount, description, entity_type_enum, entity_id, payment_details_id, "
+            + "is_running_balance_calculated, office_running_balance, organization_running_balance, createdby_id, created_date, "
+            + "lastmodifiedby_id, lastmodified_date) "
+            + "VALUES (?, ?, null, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, 0, 0, ?, ?, ?, ?)";
+
+    private static final ThreadLocal<List<JournalEntry>> collected = new ThreadLocal<>();
+
+    private final JournalEntryRepository glJournalEntryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<Long> auditorAware;
+
+    /**
+     * Runs the work and writes all journal entries it created at its end. Nested calls join the outermost one.
+     */
+    public void collect(final Runnable work) {
+        if (collected.get() != null) {
+            work.run();
+            return;
+        }
+        final List<JournalEntry> entries = new ArrayList<>();
+        collected.set(entries);
+        try {
+            work.run();
+        } finally {
+            collected.remove();
+        }
+        write(entries);
+    }
+
+    public void add(final JournalEntry journalEntry) {
+        final List<JournalEntry> entries = collected.get();
+        if (entries == null) {
+            this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        } else {
+            entries.add(journalEntry);
+        }
+    }
+
+    private void write(final List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        validateBalanced(entries);
+
+        final Long userId = this.auditorAware.getCurrentAuditor().orElse(null);
+        final Timestamp now = Timestamp.valueOf(DateUtils.getLocalDateTimeOfSystem());
+        final List<Object[]> params = new ArrayList<>(entries.size());
+        for (final JournalEntry entry : entries) {
+            params.add(new Object[] { entry.getGlAccount().getId(), entry.getOffice().getId(), entry.getCurrencyCode(),
+                    entry.getTransactionId(), entry.getLoanTransaction() == null ? null : entry.getLoanTransaction().getId(),
+                    entry.getSavingsTransaction() == null ? null : entry.getSavingsTransaction().getId(),
+                    entry.getClientTransaction() == null ? null : entry.getClientTransaction().getId(), entry.getShareTransactionId(),
+                    entry.isReversed(), entry.getReferenceNumber(), entry.isManualEntry(), entry.getTransactionDate(), entry.getType(),
+                    entry.getAmount(), entry.getDescription(), entry.getEntityType(), entry.getEntityId(),
+                    entry.getPaymentDetails() == null ? null : entry.getPaymentDetails().getId(), userId, now, userId, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, params);
+    }
+
+    private static void validateBalanced(final List<JournalEntry> entries) {
+        final Map<String, BigDecimal> balances = new HashMap<>();
+        final Map<String, JournalEntry> firstEntries = new HashMap<>();
+        for (final JournalEntry entry : entries) {
+            final String key = entry.getCurrencyCode() + ':' + entry.getTransactionId();
+            final BigDecimal amount = entry.isDebitEntry() ? entry.getAmount() : entry.getAmount().negate();
+            balances.merge(key, amount, BigDecimal::add);
+            firstEntries.putIfAbsent(key, entry);
+        }
+        for (final Map.Entry<String, BigDecimal> balance : balances.entrySet()) {
+            if (balance.getValue().signum() != 0) {
+                final JournalEntry entry = firstEntries.get(balance.getKey());
+                throw new JournalEntryInvalidException(GlJournalEntryInvalidReason.DEBIT_CREDIT_SUM_MISMATCH, entry.getTransactionDate(),
+                        null, null);
+            }
+        }
+    }
+}
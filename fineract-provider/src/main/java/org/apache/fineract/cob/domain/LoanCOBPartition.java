@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.domain;
+
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.Getter;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * Checkpoint of one ID-range partition of a loan close of business run. The last processed loan id is moved forward in
+ * the same transaction that commits a chunk, so a run that dies half way resumes right after the last committed chunk.
+ */
+@Getter
+@Entity
+@Table(name = "m_cob_loan_partition", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_cob_loan_partition", columnNames = { "business_date", "partition_number" }) })
+public class LoanCOBPartition extends AbstractPersistableCustom {
+
+    @Column(name = "business_date", nullable = false, columnDefinition = "DATE")
+    private LocalDate businessDate;
+
+    @Column(name = "partition_number", nullable = false)
+    private Integer partitionNumber;
+
+    @Column(name = "min_loan_id", nullable = false)
+    private Long minLoanId;
+
+    @Column(name = "max_loan_id", nullable = false)
+    private Long maxLoanId;
+
+    @Column(name = "last_processed_loan_id")
+    private Long lastProcessedLoanId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private LoanCOBPartitionStatus status;
+
+    protected LoanCOBPartition() {}
+
+    private LoanCOBPartition(final LocalDate businessDate, final Integer partitionNumber, final Long minLoanId, final Long maxLoanId) {
+        this.businessDate = businessDate;
+        this.partitionNumber = partitionNumber;
+        this.minLoanId = minLoanId;
+        this.maxLoanId = maxLoanId;
+        this.processedCount = 0L;
+        this.failedCount = 0L;
+        this.status = LoanCOBPartitionStatus.PENDING;
+    }
+
+    public static LoanCOBPartition instance(final LocalDate businessDate, final Integer partitionNumber, final Long minLoanId,
+            final Long maxLoanId) {
+        return new LoanCOBPartition(businessDate, partitionNumber, minLoanId, maxLoanId);
+    }
+
+    /**
+     * First loan id that still has to be processed in this partition.
+     */
+    public Long resumeFromLoanId() {
+        return this.lastProcessedLoanId == null ? this.minLoanId : this.lastProcessedLoanId + 1;
+    }
+
+    public boolean isCompleted() {
+        return LoanCOBPartitionStatus.COMPLETED.equals(this.status);
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.domain;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LoanCOBPartitionRepository extends JpaRepository<LoanCOBPartition, Long> {
+
+    List<LoanCOBPartition> findByBusinessDateOrderByPartitionNumber(LocalDate businessDate);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LoanCOBPartition p set p.lastProcessedLoanId = :lastProcessedLoanId, p.processedCount = p.processedCount + :processed, "
+            + "p.failedCount = p.failedCount + :failed where p.id = :partitionId")
+    void checkpoint(@Param("partitionId") Long partitionId, @Param("lastProcessedLoanId") Long lastProcessedLoanId,
+            @Param("processed") Long processed, @Param("failed") Long failed);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LoanCOBPartition p set p.status = :status where p.id = :partitionId")
+    void updateStatus(@Param("partitionId") Long partitionId, @Param("status") LoanCOBPartitionStatus status);
+}
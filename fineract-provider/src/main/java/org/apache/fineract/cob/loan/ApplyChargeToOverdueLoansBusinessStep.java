@@ -19,9 +19,6 @@
 package org.apache.fineract.cob.loan;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
@@ -42,14 +39,10 @@ public class ApplyChargeToOverdueLoansBusinessStep implements LoanCOBBusinessSte
     public Loan execute(Loan input) {
         final Long penaltyWaitPeriodValue = configurationDomainService.retrievePenaltyWaitPeriod();
         final Boolean backdatePenalties = configurationDomainService.isBackdatePenaltiesEnabled();
-        final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = loanReadPlatformService
-                .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue, backdatePenalties);
-        // TODO: this is very much not effective to get all overdue installments for each loan, a new method needs to be
-        // implemented for it
-        Map<Long, List<OverdueLoanScheduleData>> groupedOverdueData = overdueLoanScheduledInstallments.stream()
-                .collect(Collectors.groupingBy(OverdueLoanScheduleData::getLoanId));
-        for (Long loanId : groupedOverdueData.keySet()) {
-            loanWritePlatformService.applyOverdueChargesForLoan(loanId, groupedOverdueData.get(loanId));
+        final Collection<OverdueLoanScheduleData> overdueInstallments = loanReadPlatformService
+                .retrieveOverdueInstallmentsForLoan(input.getId(), penaltyWaitPeriodValue, backdatePenalties);
+        if (!overdueInstallments.isEmpty()) {
+            loanWritePlatformService.applyOverdueChargesForLoan(input.getId(), overdueInstallments);
         }
         return input;
     }
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the {@link LoanCOBBusinessStep} beans configured in <code>fineract.cob.loan.business-steps</code> (by their
+ * enum styled name) and runs them in the configured order on a loan.
+ */
+@Component
+public class LoanCOBBusinessStepService {
+
+    private final List<LoanCOBBusinessStep> orderedSteps;
+
+    @Autowired
+    public LoanCOBBusinessStepService(final List<LoanCOBBusinessStep> availableSteps, final FineractProperties fineractProperties) {
+        final Map<String, LoanCOBBusinessStep> stepsByName = availableSteps.stream()
+                .collect(Collectors.toMap(LoanCOBBusinessStep::getEnumStyledName, Function.identity()));
+        final List<String> configuredSteps = fineractProperties.getCob() == null || fineractProperties.getCob().getLoan() == null
+                ? null
+                : fineractProperties.getCob().getLoan().getBusinessSteps();
+
+        final List<LoanCOBBusinessStep> steps = new ArrayList<>();
+        if (configuredSteps == null || configuredSteps.isEmpty()) {
+            steps.addAll(availableSteps);
+        } else {
+            for (final String stepName : configuredSteps) {
+                final LoanCOBBusinessStep step = stepsByName.get(stepName.trim());
+                if (step == null) {
+                    throw new IllegalStateException("Unknown loan COB business step configured: " + stepName);
+                }
+                steps.add(step);
+            }
+        }
+        this.orderedSteps = Collections.unmodifiableList(steps);
+    }
+
+    public Loan run(final Loan loan) {
+        Loan result = loan;
+        for (final LoanCOBBusinessStep step : this.orderedSteps) {
+            result = step.execute(result);
+        }
+        return result;
+    }
+
+    public List<LoanCOBBusinessStep> getOrderedSteps() {
+        return this.orderedSteps;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.domain.LoanCOBPartition;
+import org.apache.fineract.cob.domain.LoanCOBPartitionRepository;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.service.LoanAssembler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the configured business steps on one chunk of loans. The whole chunk, together with the partition checkpoint, is
+ * committed in a single transaction. When the chunk fails it is replayed loan by loan so that one broken loan does not
+ * hold back the rest of the chunk.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanCOBChunkProcessor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final LoanAssembler loanAssembler;
+    private final LoanRepositoryWrapper loanRepositoryWrapper;
+    private final LoanCOBBusinessStepService businessStepService;
+    private final LoanCOBPartitionRepository partitionRepository;
+
+    /**
+     * @return the loans of the chunk that could not be processed, with their failure
+     */
+    public List<Throwable> processChunk(final LoanCOBPartition partition, final List<Long> loanIds) {
+        final Long lastLoanId = loanIds.get(loanIds.size() - 1);
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                for (final Long loanId : loanIds) {
+                    processLoan(loanId);
+                }
+                this.partitionRepository.checkpoint(partition.getId(), lastLoanId, (long) loanIds.size(), 0L);
+            });
+            return List.of();
+        } catch (RuntimeException e) {
+            log.warn("Loan COB chunk {} - {} of partition {} failed, falling back to loan by loan processing", loanIds.get(0),
+                    lastLoanId, partition.getPartitionNumber(), e);
+        }
+        return processLoanByLoan(partition, loanIds);
+    }
+
+    private List<Throwable> processLoanByLoan(final LoanCOBPartition partition, final List<Long> loanIds) {
+        final List<Throwable> errors = new ArrayList<>();
+        for (final Long loanId : loanIds) {
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    processLoan(loanId);
+                    this.partitionRepository.checkpoint(partition.getId(), loanId, 1L, 0L);
+                });
+            } catch (RuntimeException e) {
+                log.error("Loan COB failed for loan {}", loanId, e);
+                errors.add(e);
+                this.transactionTemplate
+                        .executeWithoutResult(status -> this.partitionRepository.checkpoint(partition.getId(), loanId, 0L, 1L));
+            }
+        }
+        return errors;
+    }
+
+    private void processLoan(final Long loanId) {
+        final Loan loan = this.loanAssembler.assembleFrom(loanId);
+        final Loan processed = this.businessStepService.run(loan);
+        this.loanRepositoryWrapper.save(processed);
+    }
+}
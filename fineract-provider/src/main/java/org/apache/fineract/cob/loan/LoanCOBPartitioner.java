@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.cob.domain.LoanCOBPartition;
+import org.apache.fineract.cob.domain.LoanCOBPartitionRepository;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Splits the active loan portfolio into contiguous ID ranges holding at most <code>partitionSize</code> loans each.
+ * Loan ids are walked with keyset paging so only one page of ids is ever held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanCOBPartitioner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final LoanCOBPartitionRepository partitionRepository;
+
+    /**
+     * Returns the partitions of the given business date, creating them on the first call. Partitions of a previous,
+     * interrupted run of the same business date are returned as they are so the run can resume from their checkpoint.
+     */
+    @Transactional
+    public List<LoanCOBPartition> retrieveOrCreatePartitions(final LocalDate businessDate, final int partitionSize) {
+        final List<LoanCOBPartition> existing = this.partitionRepository.findByBusinessDateOrderByPartitionNumber(businessDate);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+
+        final List<LoanCOBPartition> partitions = new ArrayList<>();
+        Long lastLoanId = 0L;
+        int partitionNumber = 0;
+        List<Long> page = fetchActiveLoanIds(lastLoanId, partitionSize);
+        while (!page.isEmpty()) {
+            final Long minLoanId = page.get(0);
+            lastLoanId = page.get(page.size() - 1);
+            partitions.add(LoanCOBPartition.instance(businessDate, ++partitionNumber, minLoanId, lastLoanId));
+            page = page.size() < partitionSize ? List.of() : fetchActiveLoanIds(lastLoanId, partitionSize);
+        }
+        return this.partitionRepository.saveAll(partitions);
+    }
+
+    /**
+     * Fetches the next chunk of active loan ids of a partition, starting at <code>fromLoanId</code> (inclusive).
+     */
+    public List<Long> fetchChunk(final LoanCOBPartition partition, final Long fromLoanId, final int chunkSize) {
+        final String sql = "select l.id from m_loan l where l.loan_status_id = ? and l.id >= ? and l.id <= ? order by l.id "
+                + this.sqlGenerator.limit(chunkSize);
+        return this.jdbcTemplate.queryForList(sql, Long.class, LoanStatus.ACTIVE.getValue(), fromLoanId, partition.getMaxLoanId());
+    }
+
+    private List<Long> fetchActiveLoanIds(final Long afterLoanId, final int pageSize) {
+        final String sql = "select l.id from m_loan l where l.loan_status_id = ? and l.id > ? order by l.id "
+                + this.sqlGenerator.limit(pageSize);
+        return this.jdbcTemplate.queryForList(sql, Long.class, LoanStatus.ACTIVE.getValue(), afterLoanId);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.domain.LoanCOBPartition;
+import org.apache.fineract.cob.domain.LoanCOBPartitionRepository;
+import org.apache.fineract.cob.domain.LoanCOBPartitionStatus;
+import org.apache.fineract.cob.loan.LoanCOBChunkProcessor;
+import org.apache.fineract.cob.loan.LoanCOBPartitioner;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobExecuter;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loan close of business: active loans are split into ID-range partitions which are processed in parallel on the shared
+ * {@link JobExecuter} worker pool, each partition chunk by chunk. Every chunk loads its loans once, runs all configured
+ * {@link org.apache.fineract.cob.loan.LoanCOBBusinessStep}s and is committed together with the partition checkpoint.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanCOBServiceImpl implements LoanCOBService {
+
+    private static final String THREAD_POOL_SIZE_PARAM = "thread-pool-size";
+
+    private final FineractProperties fineractProperties;
+    private final LoanCOBPartitioner partitioner;
+    private final LoanCOBChunkProcessor chunkProcessor;
+    private final LoanCOBPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobExecuter jobExecuter;
+
+    @Override
+    @CronTarget(jobName = JobName.LOAN_COB)
+    public void executeLoanCOB() throws JobExecutionException {
+        final FineractProperties.FineractLoanCobProperties properties = this.fineractProperties.getCob().getLoan();
+        final LocalDate cobDate = ThreadLocalContextUtil.getBusinessDateByType(BusinessDateType.COB_DATE);
+
+        final List<LoanCOBPartition> pending = new ArrayList<>();
+        for (final LoanCOBPartition partition : this.partitioner.retrieveOrCreatePartitions(cobDate, properties.getPartitionSize())) {
+            if (!partition.isCompleted()) {
+                pending.add(partition);
+            }
+        }
+        if (pending.isEmpty()) {
+            log.info("Loan COB for {} has nothing left to process", cobDate);
+            return;
+        }
+
+        final int threadPoolSize = Math.max(1, Math.min(resolveThreadPoolSize(properties), pending.size()));
+        log.info("Loan COB for {}: processing {} partition(s) on {} thread(s)", cobDate, pending.size(), threadPoolSize);
+
+        // one partition per chunk, run on the shared job worker pool
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final String failures = this.jobExecuter.executeJob(pending, (partitions, sb) -> {
+            for (final LoanCOBPartition partition : partitions) {
+                try {
+                    errors.addAll(processPartition(partition, properties.getChunkSize()));
+                } catch (RuntimeException e) {
+                    log.error("Loan COB partition {} failed", partition.getPartitionNumber(), e);
+                    errors.add(e);
+                }
+            }
+        }, threadPoolSize, 1);
+        if (!failures.isEmpty()) {
+            // the run was cancelled, unfinished partitions are resumed by the next run
+            errors.add(new IllegalStateException(failures));
+        }
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private List<Throwable> processPartition(final LoanCOBPartition partition, final int chunkSize) {
+        final List<Throwable> errors = new ArrayList<>();
+        Long fromLoanId = partition.resumeFromLoanId();
+        List<Long> chunk = this.partitioner.fetchChunk(partition, fromLoanId, chunkSize);
+        while (!chunk.isEmpty()) {
+            errors.addAll(this.chunkProcessor.processChunk(partition, chunk));
+            fromLoanId = chunk.get(chunk.size() - 1) + 1;
+            chunk = chunk.size() < chunkSize ? List.of() : this.partitioner.fetchChunk(partition, fromLoanId, chunkSize);
+        }
+        this.transactionTemplate.executeWithoutResult(
+                status -> this.partitionRepository.updateStatus(partition.getId(), LoanCOBPartitionStatus.COMPLETED));
+        log.info("Loan COB partition {} ({} - {}) completed", partition.getPartitionNumber(), partition.getMinLoanId(),
+                partition.getMaxLoanId());
+        return errors;
+    }
+
+    private int resolveThreadPoolSize(final FineractProperties.FineractLoanCobProperties properties) {
+        final Object jobParameter = ThreadLocalContextUtil.getJobParams() == null ? null
+                : ThreadLocalContextUtil.getJobParams().get(THREAD_POOL_SIZE_PARAM);
+        return jobParameter == null ? properties.getThreadPoolSize() : Integer.parseInt(String.valueOf(jobParameter));
+    }
+}
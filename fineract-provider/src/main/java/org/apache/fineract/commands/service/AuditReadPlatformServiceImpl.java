@@ -49,6 +49,8 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.infrastructure.security.utils.SQLBuilder;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.data.OfficeHierarchyData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
@@ -93,10 +95,11 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     private final SavingsProductReadPlatformService savingsProductReadPlatformService;
     private final DepositProductReadPlatformService depositProductReadPlatformService;
     private final ColumnValidator columnValidator;
+    private final OfficeHierarchyService officeHierarchyService;
 
     private static final class AuditMapper implements RowMapper<AuditData> {
 
-        public String schema(final boolean includeJson, final String hierarchy) {
+        public String schema(final boolean includeJson, final String officeScope) {
 
             String commandAsJsonString = "";
             if (includeJson) {
@@ -116,10 +119,10 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
                     + " left join m_loan l on l.id = aud.loan_id" + " left join m_savings_account s on s.id = aud.savings_account_id"
                     + " left join r_enum_value ev on ev.enum_name = 'processing_result_enum' and ev.enum_id = aud.processing_result_enum";
 
-            // data scoping: head office (hierarchy = ".") can see all audit
-            // entries
-            if (!hierarchy.equals(".")) {
-                partSql += " join m_office o2 on o2.id = aud.office_id and o2.hierarchy like '" + hierarchy + "%' ";
+            // data scoping: offices whose branch covers the whole tree (head
+            // office) can see all audit entries
+            if (!OfficeHierarchyData.UNRESTRICTED_SCOPE.equals(officeScope)) {
+                partSql += " join m_office o2 on o2.id = aud.office_id and " + officeScope + " ";
             }
 
             return partSql;
@@ -174,12 +177,13 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         this.paginationParametersDataValidator.validateParameterValues(parameters, supportedOrderByValues, "audits");
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
+        final String officeScope = this.officeHierarchyService.retrieveOfficeHierarchy().sqlScope("o2.id",
+                currentUser.getOffice().getId());
 
         final AuditMapper rm = new AuditMapper();
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
-        sqlBuilder.append(rm.schema(includeJson, hierarchy));
+        sqlBuilder.append(rm.schema(includeJson, officeScope));
         sqlBuilder.append(' ').append(extraCriteria.getSQLTemplate());
         if (parameters.isOrderByRequested()) {
             sqlBuilder.append(' ').append(parameters.orderBySql());
@@ -213,10 +217,11 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         }
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
+        final String officeScope = this.officeHierarchyService.retrieveOfficeHierarchy().sqlScope("o2.id",
+                currentUser.getOffice().getId());
 
         final AuditMapper rm = new AuditMapper();
-        String sql = "select " + rm.schema(includeJson, hierarchy);
+        String sql = "select " + rm.schema(includeJson, officeScope);
 
         Boolean isLimitedChecker = false;
         if (useType.equals("makerchecker")) {
@@ -241,11 +246,12 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     public AuditData retrieveAuditEntry(final Long auditId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
+        final String officeScope = this.officeHierarchyService.retrieveOfficeHierarchy().sqlScope("o2.id",
+                currentUser.getOffice().getId());
 
         final AuditMapper rm = new AuditMapper();
 
-        final String sql = "select " + rm.schema(true, hierarchy) + " where aud.id = ? ";
+        final String sql = "select " + rm.schema(true, officeScope) + " where aud.id = ? ";
 
         final AuditData auditResult = this.jdbcTemplate.queryForObject(sql, rm, auditId); // NOSONAR
 
@@ -3304,6 +3304,24 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder enableHotSavingsAccount(final Long accountId) {
+        this.actionName = "ENABLEHOTACCOUNT";
+        this.entityName = "SAVINGSACCOUNT";
+        this.savingsId = accountId;
+        this.entityId = null;
+        this.href = "/savingsaccounts/" + accountId + "?command=enableHotAccount";
+        return this;
+    }
+
+    public CommandWrapperBuilder disableHotSavingsAccount(final Long accountId) {
+        this.actionName = "DISABLEHOTACCOUNT";
+        this.entityName = "SAVINGSACCOUNT";
+        this.savingsId = accountId;
+        this.entityId = null;
+        this.href = "/savingsaccounts/" + accountId + "?command=disableHotAccount";
+        return this;
+    }
+
     public CommandWrapperBuilder blockSavingsAccount(final Long accountId) {
         this.actionName = "BLOCK";
         this.entityName = "SAVINGSACCOUNT";
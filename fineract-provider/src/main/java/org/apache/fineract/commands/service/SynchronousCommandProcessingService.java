@@ -24,7 +24,9 @@ import java.lang.reflect.Type;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.batch.exception.ErrorHandler;
@@ -42,10 +44,12 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryOutboxService;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
+import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.search.service.SearchIndexService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
@@ -56,6 +60,9 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class SynchronousCommandProcessingService implements CommandProcessingService {
 
+    private static final Gson GSON = new Gson();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+
     private final PlatformSecurityContext context;
     private final ApplicationContext applicationContext;
     private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
@@ -63,6 +70,10 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private final CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final HookReadPlatformService hookReadPlatformService;
+    private final HookDeliveryOutboxService hookDeliveryOutboxService;
+    private final HookDeliveryService hookDeliveryService;
+    private final SearchIndexService searchIndexService;
 
     @Transactional
     @Override
@@ -126,6 +137,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         result.setRollbackTransaction(null);
 
         publishEvent(wrapper.entityName(), wrapper.actionName(), command, result);
+        this.searchIndexService.refreshAfterCommit(wrapper.entityName(), result);
 
         return result;
     }
@@ -220,54 +232,58 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     }
 
     private void publishEvent(final String entityName, final String actionName, JsonCommand command, final Object result) {
-        Gson gson = new Gson();
         try {
             final AppUser appUser = this.context.authenticatedUser(CommandWrapper.wrap(actionName, entityName, null, null));
 
-            final HookEventSource hookEventSource = new HookEventSource(entityName, actionName);
-
             // TODO: Add support for publishing array events
-            if (command.json() != null && command.json().startsWith("{")) {
-                Type type = new TypeToken<Map<String, Object>>() {
-
-                }.getType();
-                Map<String, Object> myMap = gson.fromJson(command.json(), type);
+            if (command.json() == null || !command.json().startsWith("{")) {
+                return;
+            }
+            final List<Hook> hooks = this.hookReadPlatformService.retrieveHooksByEvent(entityName, actionName);
+            if (hooks.isEmpty()) {
+                return;
+            }
 
-                Map<String, Object> reqmap = new HashMap<>();
-                reqmap.put("entityName", entityName);
-                reqmap.put("actionName", actionName);
-                reqmap.put("createdBy", context.authenticatedUser().getId());
-                reqmap.put("createdByName", context.authenticatedUser().getUsername());
-                reqmap.put("createdByFullName", context.authenticatedUser().getDisplayName());
+            Map<String, Object> myMap = GSON.fromJson(command.json(), MAP_TYPE);
 
-                reqmap.put("request", myMap);
-                if (result instanceof CommandProcessingResult) {
-                    CommandProcessingResult resultCopy = CommandProcessingResult
-                            .fromCommandProcessingResult((CommandProcessingResult) result);
+            Map<String, Object> reqmap = new HashMap<>();
+            reqmap.put("entityName", entityName);
+            reqmap.put("actionName", actionName);
+            reqmap.put("createdBy", appUser.getId());
+            reqmap.put("createdByName", appUser.getUsername());
+            reqmap.put("createdByFullName", appUser.getDisplayName());
 
-                    reqmap.put("officeId", resultCopy.getOfficeId());
-                    reqmap.put("clientId", resultCopy.getClientId());
-                    resultCopy.setOfficeId(null);
-                    reqmap.put("response", resultCopy);
-                } else if (result instanceof ErrorInfo) {
-                    ErrorInfo ex = (ErrorInfo) result;
-                    reqmap.put("status", "Exception");
+            reqmap.put("request", myMap);
+            if (result instanceof CommandProcessingResult) {
+                CommandProcessingResult resultCopy = CommandProcessingResult.fromCommandProcessingResult((CommandProcessingResult) result);
 
-                    Map<String, Object> errorMap = gson.fromJson(ex.getMessage(), type);
-                    errorMap.put("errorCode", ex.getErrorCode());
-                    errorMap.put("statusCode", ex.getStatusCode());
+                reqmap.put("officeId", resultCopy.getOfficeId());
+                reqmap.put("clientId", resultCopy.getClientId());
+                resultCopy.setOfficeId(null);
+                reqmap.put("response", resultCopy);
+            } else if (result instanceof ErrorInfo) {
+                ErrorInfo ex = (ErrorInfo) result;
+                reqmap.put("status", "Exception");
 
-                    reqmap.put("response", errorMap);
-                }
+                Map<String, Object> errorMap = GSON.fromJson(ex.getMessage(), MAP_TYPE);
+                errorMap.put("errorCode", ex.getErrorCode());
+                errorMap.put("statusCode", ex.getStatusCode());
 
-                reqmap.put("timestamp", Instant.now().toString());
+                reqmap.put("response", errorMap);
+            }
 
-                final String serializedResult = this.toApiResultJsonSerializer.serialize(reqmap);
+            reqmap.put("timestamp", Instant.now().toString());
 
-                final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, appUser,
-                        ThreadLocalContextUtil.getContext());
+            final String serializedResult = this.toApiResultJsonSerializer.serialize(reqmap);
 
-                applicationContext.publishEvent(applicationEvent);
+            final List<Long> hookIds = hooks.stream().map(Hook::getId).collect(Collectors.toList());
+            if (result instanceof ErrorInfo) {
+                // the transaction of the command is rolled back, the event has to survive it
+                this.hookDeliveryService.deliver(this.hookDeliveryOutboxService.addInNewTransaction(hookIds, entityName, actionName,
+                        serializedResult));
+            } else {
+                this.hookDeliveryService.deliverAfterCommit(this.hookDeliveryOutboxService.add(hookIds, entityName, actionName,
+                        serializedResult));
             }
         } catch (Exception e) {
             log.error("Error", e);
@@ -21,9 +21,11 @@ package org.apache.fineract.infrastructure.bulkimport.api;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
@@ -32,6 +34,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.data.ImportData;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportRowErrorData;
 import org.apache.fineract.infrastructure.bulkimport.exceptions.ImportTypeNotFoundException;
 import org.apache.fineract.infrastructure.bulkimport.service.BulkImportWorkbookService;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
@@ -92,6 +95,16 @@ public class BulkImportApiResource {
         return this.toApiJsonSerializer.serialize(settings, importData);
     }
 
+    @GET
+    @Path("{importDocumentId}/errors")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveImportRowErrors(@PathParam("importDocumentId") final Long importDocumentId) {
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+        final List<ImportRowErrorData> errors = this.bulkImportWorkbookService.getImportRowErrors(importDocumentId);
+        return this.toApiJsonSerializer.serialize(errors);
+    }
+
     @GET
     @Path("getOutputTemplateLocation")
     public String retriveOutputTemplateLocation(@QueryParam("importDocumentId") final String importDocumentId) {
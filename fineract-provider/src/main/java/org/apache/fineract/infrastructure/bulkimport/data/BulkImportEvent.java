@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.data;
 
+import java.io.File;
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.core.domain.FineractEvent;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -26,16 +27,22 @@ public final class BulkImportEvent extends FineractEvent {
 
     private final Workbook workbook;
 
+    private final File importFile;
+
+    private final ImportFormatType importFormat;
+
     private final Long importId;
 
     private final String locale;
 
     private final String dateFormat;
 
-    private BulkImportEvent(final Object source, final Workbook workbook, final Long importId, final String locale, final String dateFormat,
-            FineractContext context) {
+    private BulkImportEvent(final Object source, final Workbook workbook, final File importFile, final ImportFormatType importFormat,
+            final Long importId, final String locale, final String dateFormat, FineractContext context) {
         super(source, context);
         this.workbook = workbook;
+        this.importFile = importFile;
+        this.importFormat = importFormat;
         this.importId = importId;
         this.locale = locale;
         this.dateFormat = dateFormat;
@@ -43,13 +50,34 @@ public final class BulkImportEvent extends FineractEvent {
 
     public static BulkImportEvent instance(final Object source, final Workbook workbook, final Long importId, final String locale,
             final String dateFormat, FineractContext context) {
-        return new BulkImportEvent(source, workbook, importId, locale, dateFormat, context);
+        return new BulkImportEvent(source, workbook, null, null, importId, locale, dateFormat, context);
+    }
+
+    /**
+     * Event for an import which is read row by row from the given file instead of from a workbook. The listener deletes
+     * the file once the import is done.
+     */
+    public static BulkImportEvent streamingInstance(final Object source, final File importFile, final ImportFormatType importFormat,
+            final Long importId, final String locale, final String dateFormat, FineractContext context) {
+        return new BulkImportEvent(source, null, importFile, importFormat, importId, locale, dateFormat, context);
     }
 
     public Workbook getWorkbook() {
         return workbook;
     }
 
+    public File getImportFile() {
+        return importFile;
+    }
+
+    public ImportFormatType getImportFormat() {
+        return importFormat;
+    }
+
+    public boolean isStreaming() {
+        return importFile != null;
+    }
+
     public Long getImportId() {
         return importId;
     }
@@ -19,24 +19,37 @@
 package org.apache.fineract.infrastructure.bulkimport.importhandler.loanrepayment;
 
 import com.google.common.base.Splitter;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.bulkimport.constants.LoanRepaymentConstants;
 import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRow;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowMapper;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.StreamingImportHandler;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.core.serialization.JsonParserHelper;
 import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionData;
 import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.apache.fineract.portfolio.paymenttype.data.PaymentTypeData;
+import org.apache.fineract.portfolio.paymenttype.service.PaymentTypeReadPlatformService;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
@@ -48,21 +61,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
-public class LoanRepaymentImportHandler implements ImportHandler {
+public class LoanRepaymentImportHandler implements ImportHandler, StreamingImportHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoanRepaymentImportHandler.class);
     private Workbook workbook;
     private List<LoanTransactionData> loanRepayments;
     private Long loanAccountId;
     private final LoanReadPlatformService loanReadPlatformService;
+    private final PaymentTypeReadPlatformService paymentTypeReadPlatformService;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
 
     @Autowired
     public LoanRepaymentImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final LoanReadPlatformService loanReadPlatformService) {
+            final LoanReadPlatformService loanReadPlatformService, final PaymentTypeReadPlatformService paymentTypeReadPlatformService) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.loanReadPlatformService = loanReadPlatformService;
+        this.paymentTypeReadPlatformService = paymentTypeReadPlatformService;
     }
 
     @Override
@@ -113,21 +128,12 @@ public class LoanRepaymentImportHandler implements ImportHandler {
         int successCount = 0;
         int errorCount = 0;
         String errorMessage = "";
-        GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
-        gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
+        final Gson gson = createGson(dateFormat);
 
         for (LoanTransactionData loanRepayment : loanRepayments) {
             try {
 
-                JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
-                loanRepaymentJsonob.remove("manuallyReversed");
-                loanRepaymentJsonob.remove("numberOfRepayments");
-                String payload = loanRepaymentJsonob.toString();
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .loanRepaymentTransaction(loanRepayment.getAccountId()) //
-                        .withJson(payload) //
-                        .build(); //
-                commandsSourceWritePlatformService.logCommandSource(commandRequest);
+                commandsSourceWritePlatformService.logCommandSource(toCommand(gson, loanRepayment));
                 successCount++;
                 Cell statusCell = loanRepaymentSheet.getRow(loanRepayment.getRowIndex()).createCell(LoanRepaymentConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
@@ -148,4 +154,106 @@ public class LoanRepaymentImportHandler implements ImportHandler {
         return Count.instance(successCount, errorCount);
     }
 
+    private static Gson createGson(final String dateFormat) {
+        final GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
+        gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
+        return gsonBuilder.create();
+    }
+
+    private static CommandWrapper toCommand(final Gson gson, final LoanTransactionData loanRepayment) {
+        JsonObject loanRepaymentJsonob = gson.toJsonTree(loanRepayment).getAsJsonObject();
+        loanRepaymentJsonob.remove("manuallyReversed");
+        loanRepaymentJsonob.remove("numberOfRepayments");
+        String payload = loanRepaymentJsonob.toString();
+        return new CommandWrapperBuilder() //
+                .loanRepaymentTransaction(loanRepayment.getAccountId()) //
+                .withJson(payload) //
+                .build(); //
+    }
+
+    @Override
+    public GlobalEntityType getEntityType() {
+        return GlobalEntityType.LOAN_TRANSACTIONS;
+    }
+
+    @Override
+    public String getSheetName() {
+        return TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME;
+    }
+
+    @Override
+    public int getPrimaryColumn() {
+        return LoanRepaymentConstants.AMOUNT_COL;
+    }
+
+    @Override
+    public int getStatusColumn() {
+        return LoanRepaymentConstants.STATUS_COL;
+    }
+
+    @Override
+    public ImportRowMapper newRowMapper(final String locale, final String dateFormat) {
+        final Map<String, Long> paymentTypeIds = new HashMap<>();
+        for (final PaymentTypeData paymentType : this.paymentTypeReadPlatformService.retrieveAllPaymentTypes()) {
+            paymentTypeIds.put(paymentType.getName(), paymentType.getId());
+        }
+        return new LoanRepaymentRowMapper(locale, dateFormat, paymentTypeIds);
+    }
+
+    /**
+     * Reads the repayment rows of one streaming import. Payment types are resolved once per import and loan ids once per
+     * loan account, instead of searching the workbook and the database for every row.
+     */
+    private final class LoanRepaymentRowMapper implements ImportRowMapper {
+
+        private final String locale;
+        private final String dateFormat;
+        private final DateTimeFormatter dateFormatter;
+        private final Gson gson;
+        private final Map<String, Long> paymentTypeIds;
+        private final Map<String, Long> loanIds = new ConcurrentHashMap<>();
+
+        LoanRepaymentRowMapper(final String locale, final String dateFormat, final Map<String, Long> paymentTypeIds) {
+            this.locale = locale;
+            this.dateFormat = dateFormat;
+            this.dateFormatter = DateTimeFormatter.ofPattern(dateFormat, JsonParserHelper.localeFromString(locale));
+            this.gson = createGson(dateFormat);
+            this.paymentTypeIds = paymentTypeIds;
+        }
+
+        @Override
+        public String getOrderingKey(final ImportRow row) {
+            return loanAccountNumber(row);
+        }
+
+        @Override
+        public CommandWrapper toCommand(final ImportRow row) {
+            final String loanAccountNumber = loanAccountNumber(row);
+            if (loanAccountNumber == null) {
+                throw new GeneralPlatformDomainRuleException("error.msg.import.loan.account.number.required",
+                        "Loan account number is mandatory");
+            }
+            final Long loanId = this.loanIds.computeIfAbsent(loanAccountNumber, loanReadPlatformService::retrieveLoanIdByAccountNumber);
+            if (loanId == null) {
+                throw new GeneralPlatformDomainRuleException("error.msg.import.loan.account.number.invalid",
+                        "Loan with account number " + loanAccountNumber + " does not exist", loanAccountNumber);
+            }
+            final BigDecimal repaymentAmount = row.getDecimal(LoanRepaymentConstants.AMOUNT_COL);
+            final LocalDate repaymentDate = row.getDate(LoanRepaymentConstants.REPAID_ON_DATE_COL, this.dateFormatter);
+            final Long repaymentTypeId = this.paymentTypeIds.getOrDefault(row.getString(LoanRepaymentConstants.REPAYMENT_TYPE_COL), 0L);
+            final String accountNumber = row.getString(LoanRepaymentConstants.ACCOUNT_NO_COL);
+            final Integer checkNumber = row.getInteger(LoanRepaymentConstants.CHECK_NO_COL);
+            final Integer routingCode = row.getInteger(LoanRepaymentConstants.ROUTING_CODE_COL);
+            final Integer receiptNumber = row.getInteger(LoanRepaymentConstants.RECEIPT_NO_COL);
+            final Integer bankNumber = row.getInteger(LoanRepaymentConstants.BANK_NO_COL);
+            return LoanRepaymentImportHandler.toCommand(this.gson,
+                    LoanTransactionData.importInstance(repaymentAmount, repaymentDate, repaymentTypeId, accountNumber, checkNumber,
+                            routingCode, receiptNumber, bankNumber, loanId, "", row.getRowIndex(), this.locale, this.dateFormat));
+        }
+
+        private String loanAccountNumber(final ImportRow row) {
+            final String loanAccountInfo = row.getString(LoanRepaymentConstants.LOAN_ACCOUNT_NO_COL);
+            return loanAccountInfo == null ? null : Splitter.on('-').splitToList(loanAccountInfo).get(0);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a CSV file (RFC 4180: comma separated, optionally double quoted values with <code>""</code> as escaped quote)
+ * laid out like the first sheet of the corresponding import template.
+ */
+public final class CsvImportRowReader implements ImportRowReader {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final File file;
+
+    public CsvImportRowReader(final File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(final String sheetName, final Consumer<ImportRow> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8)) {
+            int rowIndex = 0;
+            List<String> values = new ArrayList<>();
+            final StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            boolean atValueStart = true;
+            int c = reader.read();
+            if (c == BYTE_ORDER_MARK) {
+                c = reader.read();
+            }
+            while (c != -1) {
+                final char ch = (char) c;
+                if (quoted) {
+                    if (ch == QUOTE) {
+                        reader.mark(1);
+                        if (reader.read() == QUOTE) {
+                            value.append(QUOTE);
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        value.append(ch);
+                    }
+                } else if (ch == QUOTE && atValueStart) {
+                    quoted = true;
+                    atValueStart = false;
+                } else if (ch == SEPARATOR) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                    atValueStart = true;
+                } else if (ch == '\n' || ch == '\r') {
+                    if (ch == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    values.add(value.toString());
+                    consumer.accept(new ImportRow(rowIndex++, values));
+                    values = new ArrayList<>();
+                    value.setLength(0);
+                    atValueStart = true;
+                } else {
+                    value.append(ch);
+                    atValueStart = false;
+                }
+                c = reader.read();
+            }
+            if (!values.isEmpty() || value.length() > 0) {
+                values.add(value.toString());
+                consumer.accept(new ImportRow(rowIndex, values));
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import com.google.common.hash.Hashing;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.TimeZone;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * One row of an import sheet as read by an {@link ImportRowReader}. Cell values are kept as text: numbers (including
+ * Excel dates) as their plain decimal representation and everything else as it was entered.
+ */
+public final class ImportRow {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone(ZoneOffset.UTC);
+
+    private final int rowIndex;
+    private final List<String> values;
+
+    public ImportRow(final int rowIndex, final List<String> values) {
+        this.rowIndex = rowIndex;
+        this.values = values;
+    }
+
+    public int getRowIndex() {
+        return this.rowIndex;
+    }
+
+    public String getString(final int colIndex) {
+        if (colIndex >= this.values.size() || this.values.get(colIndex) == null) {
+            return null;
+        }
+        final String value = this.values.get(colIndex).trim();
+        return value.isEmpty() ? null : ImportHandlerUtils.trimEmptyDecimalPortion(value);
+    }
+
+    public BigDecimal getDecimal(final int colIndex) {
+        final String value = getString(colIndex);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw invalidValue(colIndex, value);
+        }
+    }
+
+    public Integer getInteger(final int colIndex) {
+        final BigDecimal value = getDecimal(colIndex);
+        return value == null ? null : value.intValue();
+    }
+
+    /**
+     * Reads a date either entered as text in the given format (CSV) or stored as an Excel date serial number (XLSX).
+     */
+    public LocalDate getDate(final int colIndex, final DateTimeFormatter formatter) {
+        final String value = getString(colIndex);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value, formatter);
+        } catch (DateTimeParseException e) {
+            try {
+                final double serial = Double.parseDouble(value);
+                if (DateUtil.isValidExcelDate(serial)) {
+                    return DateUtil.getJavaDate(serial, UTC).toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+                }
+            } catch (NumberFormatException notANumber) {
+                // reported below
+            }
+            throw invalidValue(colIndex, value);
+        }
+    }
+
+    /**
+     * SHA-256 of the row index and the cell values, leaving out the given column (the import status) and trailing empty
+     * cells. A row uploaded again unchanged, in the same position, has the same fingerprint.
+     */
+    public String getFingerprint(final int ignoredColumn) {
+        int lastColumn = this.values.size() - 1;
+        while (lastColumn >= 0 && (lastColumn == ignoredColumn || getString(lastColumn) == null)) {
+            lastColumn--;
+        }
+        final StringBuilder content = new StringBuilder().append(this.rowIndex);
+        for (int colIndex = 0; colIndex <= lastColumn; colIndex++) {
+            if (colIndex != ignoredColumn) {
+                content.append('\u001f').append(Objects.toString(getString(colIndex), ""));
+            }
+        }
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
+    private GeneralPlatformDomainRuleException invalidValue(final int colIndex, final String value) {
+        return new GeneralPlatformDomainRuleException("error.msg.import.invalid.cell.value",
+                "Invalid value '" + value + "' in column " + (colIndex + 1) + " of row " + (this.rowIndex + 1), value, colIndex,
+                this.rowIndex);
+    }
+}
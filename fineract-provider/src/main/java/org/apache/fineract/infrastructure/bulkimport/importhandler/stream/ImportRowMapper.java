@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import org.apache.fineract.commands.domain.CommandWrapper;
+
+/**
+ * Turns the rows of one import into commands. A mapper is created per import and is called from several worker
+ * threads at the same time, so it must be thread safe.
+ */
+public interface ImportRowMapper {
+
+    /**
+     * Key of the account the row applies to. Rows with the same key are run one after the other, in file order.
+     */
+    String getOrderingKey(ImportRow row);
+
+    /**
+     * Validates the row and returns the command to run for it, throwing a platform exception describing the problem if
+     * the row is not valid.
+     */
+    CommandWrapper toCommand(ImportRow row);
+}
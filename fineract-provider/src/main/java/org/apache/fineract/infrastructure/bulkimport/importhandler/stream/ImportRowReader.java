@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+
+/**
+ * Reads the rows of an uploaded import file one at a time, without loading the whole file into memory.
+ */
+public interface ImportRowReader {
+
+    /**
+     * Passes every row of the named sheet to the consumer in file order, starting with the header row. Files without
+     * sheets (CSV) ignore the sheet name.
+     */
+    void read(String sheetName, Consumer<ImportRow> consumer) throws IOException;
+
+    static ImportRowReader forFile(final File file, final ImportFormatType format) {
+        switch (format) {
+            case XLSX:
+                return new XlsxImportRowReader(file);
+            case CSV:
+                return new CsvImportRowReader(file);
+            default:
+                throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension",
+                        "Uploaded file extension is not recognized.");
+        }
+    }
+}
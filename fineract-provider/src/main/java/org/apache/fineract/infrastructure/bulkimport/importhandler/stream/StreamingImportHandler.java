@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
+
+/**
+ * Implemented by import handlers which can import XLSX and CSV files row by row, without building a POI workbook. The
+ * rows are turned into commands by an {@link ImportRowMapper} and run by the streaming import pipeline.
+ */
+public interface StreamingImportHandler {
+
+    GlobalEntityType getEntityType();
+
+    /**
+     * Name of the sheet holding the rows to import in an XLSX file.
+     */
+    String getSheetName();
+
+    /**
+     * Column which is filled in on every row to import; rows without a value are skipped.
+     */
+    int getPrimaryColumn();
+
+    /**
+     * Column holding the import status, rows already marked as imported are skipped.
+     */
+    int getStatusColumn();
+
+    ImportRowMapper newRowMapper(String locale, String dateFormat);
+}
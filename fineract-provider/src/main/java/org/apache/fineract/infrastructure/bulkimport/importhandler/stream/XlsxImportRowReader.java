@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Reads an XLSX sheet with the SAX based event API of POI, so only the shared strings table and the current row are
+ * kept in memory.
+ */
+public final class XlsxImportRowReader implements ImportRowReader {
+
+    private final File file;
+
+    public XlsxImportRowReader(final File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(final String sheetName, final Consumer<ImportRow> consumer) throws IOException {
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = OPCPackage.open(this.file, PackageAccess.READ);
+            final ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(opcPackage);
+            final XSSFReader reader = new XSSFReader(opcPackage);
+            final StylesTable styles = reader.getStylesTable();
+            final XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (sheetName.equals(sheets.getSheetName())) {
+                        final XMLReader parser = SAXHelper.newXMLReader();
+                        parser.setContentHandler(
+                                new XSSFSheetXMLHandler(styles, null, strings, new RowHandler(consumer), new RawValueFormatter(), false));
+                        parser.parse(new InputSource(sheet));
+                        return;
+                    }
+                }
+            }
+            throw new GeneralPlatformDomainRuleException("error.msg.import.sheet.not.found",
+                    "Sheet " + sheetName + " not found in the uploaded file", sheetName);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read sheet " + sheetName + " of " + this.file.getName(), e);
+        } finally {
+            if (opcPackage != null) {
+                opcPackage.revert();
+            }
+        }
+    }
+
+    /**
+     * Keeps numeric cells (and so dates) as plain numbers instead of applying the number format of the cell.
+     */
+    private static final class RawValueFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(final double value, final int formatIndex, final String formatString,
+                final boolean use1904Windowing) {
+            return NumberToTextConverter.toText(value);
+        }
+    }
+
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<ImportRow> consumer;
+        private List<String> values;
+
+        RowHandler(final Consumer<ImportRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(final int rowNum) {
+            this.values = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(final int rowNum) {
+            this.consumer.accept(new ImportRow(rowNum, this.values));
+        }
+
+        @Override
+        public void cell(final String cellReference, final String formattedValue, final XSSFComment comment) {
+            // empty cells are not reported, so pad the row up to the column of this cell
+            final int colIndex = cellReference == null ? this.values.size() : new CellReference(cellReference).getCol();
+            while (this.values.size() < colIndex) {
+                this.values.add(null);
+            }
+            this.values.add(formattedValue);
+        }
+
+        @Override
+        public void headerFooter(final String text, final boolean isHeader, final String tagName) {
+            // not needed for imports
+        }
+    }
+}
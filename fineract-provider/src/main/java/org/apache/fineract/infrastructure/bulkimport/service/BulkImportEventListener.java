@@ -18,18 +18,23 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.service;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URLConnection;
 import java.util.HashSet;
 import java.util.Set;
+import org.apache.commons.io.FileUtils;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowReader;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.StreamingImportHandler;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
@@ -53,14 +58,17 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
     private final ApplicationContext applicationContext;
     private final ImportDocumentRepository importRepository;
     private final DocumentWritePlatformService documentService;
+    private final StreamingImportService streamingImportService;
 
     @Autowired
     public BulkImportEventListener(final TenantDetailsService tenantDetailsService, final ApplicationContext context,
-            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService) {
+            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService,
+            final StreamingImportService streamingImportService) {
         this.tenantDetailsService = tenantDetailsService;
         this.applicationContext = context;
         this.importRepository = importRepository;
         this.documentService = documentService;
+        this.streamingImportService = streamingImportService;
     }
 
     @Override
@@ -133,6 +141,11 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
 
         }
 
+        if (event.isStreaming()) {
+            processStreaming(event, importDocument, importHandler);
+            return;
+        }
+
         final Workbook workbook = event.getWorkbook();
         final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
         importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
@@ -163,4 +176,33 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
         this.documentService.updateDocument(documentCommand, bis);
     }
 
+    /**
+     * Streaming imports keep the uploaded file as it is; the errors of failed rows are recorded on the import document
+     * instead of being written into the file, and imported rows are remembered with the hash of the file so they are
+     * skipped when the same file is uploaded again.
+     */
+    private void processStreaming(final BulkImportEvent event, final ImportDocument importDocument, final ImportHandler importHandler) {
+        try {
+            if (!(importHandler instanceof StreamingImportHandler)) {
+                throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension",
+                        "Uploaded file extension is not recognized.");
+            }
+            final String fileHash;
+            try {
+                fileHash = Files.asByteSource(event.getImportFile()).hash(Hashing.sha256()).toString();
+            } catch (IOException e) {
+                throw new GeneralPlatformDomainRuleException("error.msg.io.exception",
+                        "IO exception occured while reading the import file: " + e.getMessage(), e);
+            }
+            final Count count = this.streamingImportService.process(importDocument.getId(), fileHash,
+                    (StreamingImportHandler) importHandler, ImportRowReader.forFile(event.getImportFile(), event.getImportFormat()),
+                    event.getLocale(), event.getDateFormat());
+            importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount() + count.getErrorCount(),
+                    count.getSuccessCount(), count.getErrorCount());
+            this.importRepository.saveAndFlush(importDocument);
+        } finally {
+            FileUtils.deleteQuietly(event.getImportFile());
+        }
+    }
+
 }
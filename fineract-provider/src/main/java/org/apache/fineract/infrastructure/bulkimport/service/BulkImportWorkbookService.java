@@ -20,9 +20,11 @@ package org.apache.fineract.infrastructure.bulkimport.service;
 
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.List;
 import javax.ws.rs.core.Response;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.data.ImportData;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportRowErrorData;
 import org.apache.fineract.infrastructure.documentmanagement.data.DocumentData;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 
@@ -33,6 +35,11 @@ public interface BulkImportWorkbookService {
 
     Collection<ImportData> getImports(GlobalEntityType type);
 
+    /**
+     * Errors of the rows that failed in a streaming (XLSX or CSV) import.
+     */
+    List<ImportRowErrorData> getImportRowErrors(Long importDocumentId);
+
     DocumentData getOutputTemplateLocation(String importDocumentId);
 
     Response getOutputTemplate(String importDocumentId);
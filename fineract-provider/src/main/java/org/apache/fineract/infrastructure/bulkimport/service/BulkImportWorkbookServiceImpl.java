@@ -18,25 +18,28 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.service;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import javax.ws.rs.core.Response;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.data.ImportData;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportRowErrorData;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.StreamingImportHandler;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -49,6 +52,7 @@ import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWri
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.tika.Tika;
 import org.apache.tika.io.TikaInputStream;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
@@ -70,41 +74,32 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
     private final DocumentRepository documentRepository;
     private final ImportDocumentRepository importDocumentRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final StreamingImportService streamingImportService;
 
     @Autowired
     public BulkImportWorkbookServiceImpl(final ApplicationContext applicationContext, final PlatformSecurityContext securityContext,
             final DocumentWritePlatformService documentWritePlatformService, final DocumentRepository documentRepository,
-            final ImportDocumentRepository importDocumentRepository, final JdbcTemplate jdbcTemplate) {
+            final ImportDocumentRepository importDocumentRepository, final JdbcTemplate jdbcTemplate,
+            final StreamingImportService streamingImportService) {
         this.applicationContext = applicationContext;
         this.securityContext = securityContext;
         this.documentWritePlatformService = documentWritePlatformService;
         this.documentRepository = documentRepository;
         this.importDocumentRepository = importDocumentRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.streamingImportService = streamingImportService;
     }
 
     @Override
     public Long importWorkbook(String entity, InputStream inputStream, FormDataContentDisposition fileDetail, final String locale,
             final String dateFormat) {
+        File importFile = null;
         try {
             if (entity != null && inputStream != null && fileDetail != null && locale != null && dateFormat != null) {
-                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                IOUtils.copy(inputStream, baos);
-                final byte[] bytes = baos.toByteArray();
-                InputStream clonedInputStream = new ByteArrayInputStream(bytes);
-                final BufferedInputStream bis = new BufferedInputStream(new ByteArrayInputStream(bytes));
-                final Tika tika = new Tika();
-                final TikaInputStream tikaInputStream = TikaInputStream.get(bis);
-                final String fileType = tika.detect(tikaInputStream);
-                if (!fileType.contains("msoffice") && !fileType.contains("application/vnd.ms-excel")) {
-                    // We had a problem where we tried to upload the downloaded
-                    // file from the import options, it was somehow changed the
-                    // extension we use this fix.
-                    throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension",
-                            "Uploaded file extension is not recognized.");
-
-                }
-                Workbook workbook = new HSSFWorkbook(clonedInputStream);
+                // spool the upload to disk once instead of keeping copies of it in memory
+                importFile = File.createTempFile("fineract-import-", ".tmp");
+                FileUtils.copyInputStreamToFile(inputStream, importFile);
+                final ImportFormatType format = detectFormat(importFile, fileDetail.getFileName());
                 GlobalEntityType entityType = null;
                 int primaryColumn = 0;
                 if (entity.trim().equalsIgnoreCase(GlobalEntityType.CLIENTS_PERSON.toString())) {
@@ -165,11 +160,27 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                     entityType = GlobalEntityType.USERS;
                     primaryColumn = 0;
                 } else {
-                    workbook.close();
                     throw new GeneralPlatformDomainRuleException("error.msg.unable.to.find.resource", "Unable to find requested resource");
 
                 }
-                return publishEvent(primaryColumn, fileDetail, bis, entityType, workbook, locale, dateFormat);
+                if (format != ImportFormatType.XLS && findStreamingHandler(entityType) != null) {
+                    final Long importDocumentId = createImportDocument(fileDetail, importFile, entityType, 0);
+                    applicationContext.publishEvent(BulkImportEvent.streamingInstance(this, importFile, format, importDocumentId, locale,
+                            dateFormat, ThreadLocalContextUtil.getContext()));
+                    // the listener deletes the file once the import is done
+                    importFile = null;
+                    return importDocumentId;
+                }
+                if (format == ImportFormatType.CSV) {
+                    throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension",
+                            "Uploaded file extension is not recognized.");
+                }
+                final Workbook workbook;
+                try (InputStream workbookInputStream = Files.newInputStream(importFile.toPath())) {
+                    workbook = format == ImportFormatType.XLS ? new HSSFWorkbook(workbookInputStream)
+                            : new XSSFWorkbook(workbookInputStream);
+                }
+                return publishEvent(primaryColumn, fileDetail, importFile, entityType, workbook, locale, dateFormat);
             }
             throw new GeneralPlatformDomainRuleException("error.msg.null", "One or more of the given parameters not found");
         } catch (IOException e) {
@@ -177,27 +188,65 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
             throw new GeneralPlatformDomainRuleException("error.msg.io.exception",
                     "IO exception occured with " + fileDetail.getFileName() + " " + e.getMessage(), e);
 
+        } finally {
+            FileUtils.deleteQuietly(importFile);
         }
     }
 
-    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail,
-            final InputStream clonedInputStreamWorkbook, final GlobalEntityType entityType, final Workbook workbook, final String locale,
-            final String dateFormat) {
+    private ImportFormatType detectFormat(final File importFile, final String fileName) throws IOException {
+        final String fileType;
+        try (TikaInputStream tikaInputStream = TikaInputStream.get(importFile.toPath())) {
+            fileType = new Tika().detect(tikaInputStream, fileName);
+        }
+        if (fileType.contains("msoffice") || fileType.contains("application/vnd.ms-excel")) {
+            return ImportFormatType.XLS;
+        }
+        if (fileType.contains("ooxml") || fileType.equals(ImportFormatType.XLSX.getFormat())) {
+            return ImportFormatType.XLSX;
+        }
+        if (fileType.equals(ImportFormatType.CSV.getFormat())
+                || (fileType.startsWith("text/plain") && fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv"))) {
+            return ImportFormatType.CSV;
+        }
+        // We had a problem where we tried to upload the downloaded
+        // file from the import options, it was somehow changed the
+        // extension we use this fix.
+        throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension", "Uploaded file extension is not recognized.");
+    }
+
+    private StreamingImportHandler findStreamingHandler(final GlobalEntityType entityType) {
+        return this.applicationContext.getBeansOfType(StreamingImportHandler.class).values().stream()
+                .filter(handler -> handler.getEntityType() == entityType).findFirst().orElse(null);
+    }
+
+    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail, final File importFile,
+            final GlobalEntityType entityType, final Workbook workbook, final String locale, final String dateFormat) throws IOException {
+
+        final Long importDocumentId = createImportDocument(fileDetail, importFile, entityType,
+                ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn));
+        BulkImportEvent event = BulkImportEvent.instance(this, workbook, importDocumentId, locale, dateFormat,
+                ThreadLocalContextUtil.getContext());
+        applicationContext.publishEvent(event);
+        return importDocumentId;
+    }
+
+    private Long createImportDocument(final FormDataContentDisposition fileDetail, final File importFile,
+            final GlobalEntityType entityType, final Integer totalRecords) throws IOException {
 
         final String fileName = fileDetail.getFileName();
 
-        final Long documentId = this.documentWritePlatformService.createInternalDocument(
-                DocumentWritePlatformServiceJpaRepositoryImpl.DocumentManagementEntity.IMPORT.name(),
-                this.securityContext.authenticatedUser().getId(), null, clonedInputStreamWorkbook,
-                URLConnection.guessContentTypeFromName(fileName), fileName, null, fileName);
+        final Long documentId;
+        try (InputStream documentInputStream = Files.newInputStream(importFile.toPath())) {
+            documentId = this.documentWritePlatformService.createInternalDocument(
+                    DocumentWritePlatformServiceJpaRepositoryImpl.DocumentManagementEntity.IMPORT.name(),
+                    this.securityContext.authenticatedUser().getId(), null, documentInputStream,
+                    URLConnection.guessContentTypeFromName(fileName), fileName, null, fileName);
+        }
         final Document document = this.documentRepository.findById(documentId).orElse(null);
 
         final ImportDocument importDocument = ImportDocument.instance(document, DateUtils.getLocalDateTimeOfTenant(), entityType.getValue(),
-                this.securityContext.authenticatedUser(), ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn));
+                this.securityContext.authenticatedUser(), totalRecords);
         this.importDocumentRepository.saveAndFlush(importDocument);
-        BulkImportEvent event = BulkImportEvent.instance(this, workbook, importDocument.getId(), locale, dateFormat,
-                ThreadLocalContextUtil.getContext());
-        applicationContext.publishEvent(event);
         return importDocument.getId();
     }
 
@@ -211,6 +260,12 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
         return this.jdbcTemplate.query(sql, rm, new Object[] { type.getValue() }); // NOSONAR
     }
 
+    @Override
+    public List<ImportRowErrorData> getImportRowErrors(final Long importDocumentId) {
+        this.securityContext.authenticatedUser();
+        return this.streamingImportService.retrieveRowErrors(importDocumentId);
+    }
+
     private static final class ImportMapper implements RowMapper<ImportData> {
 
         public String schema() {
@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportRowErrorData;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowReader;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.StreamingImportHandler;
+
+public interface StreamingImportService {
+
+    /**
+     * Imports the rows read by the reader. Rows are validated and run on the bulk import worker pool; rows for the same
+     * account stay in file order. Progress and the errors of failed rows are recorded on the import document while the
+     * import runs. The rows of an earlier import of a file with the same <code>fileHash</code> are skipped.
+     */
+    Count process(Long importDocumentId, String fileHash, StreamingImportHandler handler, ImportRowReader reader, String locale,
+            String dateFormat);
+
+    List<ImportRowErrorData> retrieveRowErrors(Long importDocumentId);
+}
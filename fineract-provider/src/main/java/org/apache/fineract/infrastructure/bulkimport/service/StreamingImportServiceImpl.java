@@ -0,0 +1,346 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportRowErrorData;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRow;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowMapper;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowReader;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.StreamingImportHandler;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs streaming imports on a bounded pool of <code>fineract.bulk-import.worker-count</code> threads.
+ *
+ * Every import is split into one lane per worker. The reading thread assigns each row to a lane by its ordering key
+ * (the account it applies to), so rows for the same account are validated and run one after the other in file order
+ * while different accounts are imported in parallel. The lane queues are bounded, so reading waits for the workers and
+ * a large file never sits in memory as a whole.
+ *
+ * The commands of a lane are run in groups of <code>fineract.bulk-import.group-size</code> rows sharing one
+ * transaction. When a group fails it is rolled back and its rows are run again one by one, each in its own
+ * transaction as before, so the failing rows are reported individually and the others are still imported.
+ *
+ * The uploaded file is stored as it is, without status cells, so every imported row is recorded by its fingerprint in
+ * <code>m_import_row_imported</code>, in the transaction of its command when run in a group, together with the SHA-256
+ * of the file which is also stored with the import document. When the same file is uploaded again, for example after
+ * an import was interrupted or failed for a transient reason, the rows imported before are skipped instead of being
+ * posted a second time. Rows of other files are never skipped, and the records are deleted once their import is older
+ * than <code>fineract.bulk-import.imported-row-retention-days</code>.
+ */
+@Slf4j
+@Service
+public class StreamingImportServiceImpl implements StreamingImportService {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final ImportRow END_OF_ROWS = new ImportRow(-1, List.of());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final TransactionTemplate groupTransactionTemplate;
+    private final FineractProperties.FineractBulkImportProperties properties;
+    private final ExecutorService workers;
+
+    @Autowired
+    public StreamingImportServiceImpl(final JdbcTemplate jdbcTemplate,
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final PlatformTransactionManager transactionManager, final FineractProperties fineractProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.groupTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.groupTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = fineractProperties.getBulkImport();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.properties.getWorkerCount(), runnable -> {
+            final Thread thread = new Thread(runnable, "bulk-import-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.workers.shutdownNow();
+    }
+
+    @Override
+    public Count process(final Long importDocumentId, final String fileHash, final StreamingImportHandler handler,
+            final ImportRowReader reader, final String locale, final String dateFormat) {
+        this.jdbcTemplate.update("update m_import_document set file_hash = ? where id = ?", fileHash, importDocumentId);
+        expireImportedRows();
+
+        final ImportRowMapper mapper = handler.newRowMapper(locale, dateFormat);
+        final ImportProgress progress = new ImportProgress(importDocumentId, fileHash, handler.getEntityType().getValue(),
+                handler.getStatusColumn());
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        final List<Lane> lanes = new ArrayList<>(this.properties.getWorkerCount());
+        final List<Future<?>> running = new ArrayList<>(this.properties.getWorkerCount());
+        for (int i = 0; i < this.properties.getWorkerCount(); i++) {
+            final Lane lane = new Lane(mapper, progress);
+            lanes.add(lane);
+            running.add(this.workers.submit(() -> runInContext(context, authentication, lane)));
+        }
+
+        try {
+            reader.read(handler.getSheetName(), row -> {
+                if (row.getRowIndex() == TemplatePopulateImportConstants.ROWHEADER_INDEX
+                        || row.getString(handler.getPrimaryColumn()) == null
+                        || TemplatePopulateImportConstants.STATUS_CELL_IMPORTED.equals(row.getString(handler.getStatusColumn()))) {
+                    return;
+                }
+                final int rowsRead = progress.read.incrementAndGet();
+                try {
+                    final String orderingKey = mapper.getOrderingKey(row);
+                    lanes.get(Math.floorMod(Objects.hashCode(orderingKey), lanes.size())).add(row);
+                } catch (RuntimeException e) {
+                    progress.failed(row.getRowIndex(), e);
+                }
+                if (rowsRead % this.properties.getProgressInterval() == 0) {
+                    recordProgress(progress);
+                }
+            });
+        } catch (IOException e) {
+            throw new GeneralPlatformDomainRuleException("error.msg.io.exception",
+                    "IO exception occured while reading the import file: " + e.getMessage(), e);
+        } finally {
+            lanes.forEach(lane -> lane.add(END_OF_ROWS));
+            for (final Future<?> lane : running) {
+                try {
+                    Uninterruptibles.getUninterruptibly(lane);
+                } catch (ExecutionException e) {
+                    log.error("Bulk import worker of import {} failed", importDocumentId, e.getCause());
+                }
+            }
+            recordProgress(progress);
+        }
+        if (progress.skipped.get() > 0) {
+            log.info("Skipped {} rows of import {} which were imported before", progress.skipped.get(), importDocumentId);
+        }
+        return Count.instance(progress.succeeded.get(), progress.failed.get());
+    }
+
+    @Override
+    public List<ImportRowErrorData> retrieveRowErrors(final Long importDocumentId) {
+        final String sql = "select e.row_index, e.error_message from m_import_document_error e where e.import_document_id = ?"
+                + " order by e.row_index";
+        return this.jdbcTemplate.query(sql,
+                (rs, rowNum) -> ImportRowErrorData.instance(rs.getInt("row_index"), rs.getString("error_message")), importDocumentId);
+    }
+
+    private void recordProgress(final ImportProgress progress) {
+        final List<Object[]> errors = new ArrayList<>();
+        ImportRowErrorData error;
+        while ((error = progress.errors.poll()) != null) {
+            errors.add(new Object[] { progress.importDocumentId, error.getRowIndex(), error.getErrorMessage() });
+        }
+        if (!errors.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(
+                    "insert into m_import_document_error (import_document_id, row_index, error_message) values (?, ?, ?)", errors);
+        }
+        this.jdbcTemplate.update("update m_import_document set total_records = ?, success_count = ?, failure_count = ? where id = ?",
+                progress.read.get() - progress.skipped.get(), progress.succeeded.get(), progress.failed.get(), progress.importDocumentId);
+    }
+
+    private void expireImportedRows() {
+        final LocalDateTime expiredBefore = DateUtils.getLocalDateTimeOfTenant().minusDays(this.properties.getImportedRowRetentionDays());
+        final int expired = this.jdbcTemplate.update("delete from m_import_row_imported where import_document_id in"
+                + " (select d.id from m_import_document d where d.import_time < ?)", expiredBefore);
+        if (expired > 0) {
+            log.debug("Deleted {} imported row records of imports before {}", expired, expiredBefore);
+        }
+    }
+
+    private boolean isImported(final ImportProgress progress, final String fingerprint) {
+        final Integer count = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_import_row_imported where entity_type = ? and file_hash = ? and fingerprint = ?", Integer.class,
+                progress.entityType, progress.fileHash, fingerprint);
+        return count != null && count > 0;
+    }
+
+    private void markImported(final ImportProgress progress, final PendingRow pending) {
+        this.jdbcTemplate.update("insert into m_import_row_imported (entity_type, file_hash, fingerprint, import_document_id, row_index)"
+                + " values (?, ?, ?, ?, ?)", progress.entityType, progress.fileHash, pending.fingerprint, progress.importDocumentId,
+                pending.rowIndex);
+    }
+
+    private void runGroup(final List<PendingRow> group, final ImportProgress progress) {
+        if (group.isEmpty()) {
+            return;
+        }
+        if (group.size() > 1) {
+            try {
+                this.groupTransactionTemplate.executeWithoutResult(status -> group.forEach(pending -> {
+                    this.commandsSourceWritePlatformService.logCommandSource(pending.command);
+                    markImported(progress, pending);
+                }));
+                progress.succeeded.addAndGet(group.size());
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Import group of {} rows failed, running its rows one by one", group.size(), e);
+            }
+        }
+        // single rows run outside of a surrounding transaction, so the deadlock retry of logCommandSource still applies
+        for (final PendingRow pending : group) {
+            try {
+                this.commandsSourceWritePlatformService.logCommandSource(pending.command);
+            } catch (RuntimeException e) {
+                log.debug("Import of row {} failed", pending.rowIndex, e);
+                progress.failed(pending.rowIndex, e);
+                continue;
+            }
+            progress.succeeded.incrementAndGet();
+            try {
+                markImported(progress, pending);
+            } catch (DuplicateKeyException e) {
+                log.warn("Row {} of import {} was imported by another import of the same file at the same time", pending.rowIndex,
+                        progress.importDocumentId);
+            }
+        }
+    }
+
+    private static void runInContext(final FineractContext context, final Authentication authentication, final Runnable runnable) {
+        ThreadLocalContextUtil.init(context);
+        if (authentication != null) {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        try {
+            runnable.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.reset();
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final ImportRowMapper mapper;
+        private final ImportProgress progress;
+        private final BlockingQueue<ImportRow> rows;
+
+        Lane(final ImportRowMapper mapper, final ImportProgress progress) {
+            this.mapper = mapper;
+            this.progress = progress;
+            this.rows = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        }
+
+        void add(final ImportRow row) {
+            Uninterruptibles.putUninterruptibly(this.rows, row);
+        }
+
+        @Override
+        public void run() {
+            final List<PendingRow> group = new ArrayList<>(properties.getGroupSize());
+            ImportRow row;
+            while ((row = Uninterruptibles.takeUninterruptibly(this.rows)) != END_OF_ROWS) {
+                try {
+                    final String fingerprint = row.getFingerprint(this.progress.statusColumn);
+                    if (isImported(this.progress, fingerprint)) {
+                        this.progress.skipped.incrementAndGet();
+                    } else {
+                        group.add(new PendingRow(row.getRowIndex(), fingerprint, this.mapper.toCommand(row)));
+                    }
+                } catch (RuntimeException e) {
+                    this.progress.failed(row.getRowIndex(), e);
+                }
+                if (group.size() >= properties.getGroupSize()) {
+                    runGroup(group, this.progress);
+                    group.clear();
+                }
+            }
+            runGroup(group, this.progress);
+        }
+    }
+
+    private static final class PendingRow {
+
+        private final int rowIndex;
+        private final String fingerprint;
+        private final CommandWrapper command;
+
+        PendingRow(final int rowIndex, final String fingerprint, final CommandWrapper command) {
+            this.rowIndex = rowIndex;
+            this.fingerprint = fingerprint;
+            this.command = command;
+        }
+    }
+
+    private static final class ImportProgress {
+
+        private final Long importDocumentId;
+        private final String fileHash;
+        private final Integer entityType;
+        private final int statusColumn;
+        private final AtomicInteger read = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Queue<ImportRowErrorData> errors = new ConcurrentLinkedQueue<>();
+
+        ImportProgress(final Long importDocumentId, final String fileHash, final Integer entityType, final int statusColumn) {
+            this.importDocumentId = importDocumentId;
+            this.fileHash = fileHash;
+            this.entityType = entityType;
+            this.statusColumn = statusColumn;
+        }
+
+        void failed(final int rowIndex, final RuntimeException e) {
+            this.failed.incrementAndGet();
+            this.errors.add(ImportRowErrorData.instance(rowIndex,
+                    StringUtils.abbreviate(ImportHandlerUtils.getErrorMessage(e), MAX_ERROR_MESSAGE_LENGTH)));
+        }
+    }
+}
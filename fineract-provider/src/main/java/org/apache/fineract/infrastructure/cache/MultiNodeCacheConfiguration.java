@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache;
+
+import java.util.UUID;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.cache.domain.CacheType;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationListener;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationPublisher;
+import org.apache.fineract.infrastructure.cache.service.MultiNodeCacheManager;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractMultiNodeCacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+/**
+ * Sets up the cluster-wide cache invalidation used by the {@link CacheType#MULTI_NODE} cache type. All nodes have to
+ * point to the same ActiveMQ broker, so the broker URL has to be configured explicitly. A <code>vm://</code> URL starts
+ * an embedded, non persistent broker which is only useful for a single node and for tests; it is accepted with a
+ * warning because evictions never reach the other nodes.
+ *
+ * The connection factories are deliberately not exposed as beans so they do not interfere with the JMS setup of the
+ * notification module.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty("fineract.cache.multi-node.enabled")
+public class MultiNodeCacheConfiguration {
+
+    @Autowired
+    private FineractProperties fineractProperties;
+
+    @Autowired
+    private JCacheCacheManager localCacheManager;
+
+    private final String origin = UUID.randomUUID().toString();
+
+    @PostConstruct
+    public void validate() {
+        final String brokerUrl = getProperties().getBrokerUrl();
+        if (StringUtils.isBlank(brokerUrl)) {
+            throw new IllegalArgumentException(
+                    "The multi-node cache is enabled but no broker is configured. Please set FINERACT_CACHE_MULTI_NODE_BROKER_URL to the "
+                            + "ActiveMQ broker shared by all nodes.");
+        }
+        if (brokerUrl.startsWith("vm:")) {
+            log.warn("The multi-node cache uses the in-VM broker {}; cache evictions will not reach any other node", brokerUrl);
+        }
+    }
+
+    @Bean
+    public MultiNodeCacheManager multiNodeCacheManager() {
+        return new MultiNodeCacheManager(this.localCacheManager, cacheInvalidationPublisher());
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher() {
+        final JmsTemplate jmsTemplate = new JmsTemplate(new CachingConnectionFactory(cacheInvalidationConnectionFactory()));
+        jmsTemplate.setPubSubDomain(true);
+        return new CacheInvalidationPublisher(jmsTemplate, getProperties().getTopic(), this.origin);
+    }
+
+    @Bean
+    public DefaultMessageListenerContainer cacheInvalidationListenerContainer() {
+        final DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(cacheInvalidationConnectionFactory());
+        container.setPubSubDomain(true);
+        container.setDestinationName(getProperties().getTopic());
+        container.setMessageListener(new CacheInvalidationListener(this.localCacheManager, this.origin));
+        return container;
+    }
+
+    private ActiveMQConnectionFactory cacheInvalidationConnectionFactory() {
+        return new ActiveMQConnectionFactory(getProperties().getBrokerUrl());
+    }
+
+    private FineractMultiNodeCacheProperties getProperties() {
+        return this.fineractProperties.getCache().getMultiNode();
+    }
+}
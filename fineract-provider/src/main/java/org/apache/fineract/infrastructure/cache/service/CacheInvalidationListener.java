@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Applies the cache invalidations broadcast by the other nodes to the local caches of this node. Messages sent by this
+ * node itself are ignored, the local caches were already evicted when they were published.
+ */
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final CacheManager localCacheManager;
+    private final String origin;
+
+    public CacheInvalidationListener(final CacheManager localCacheManager, final String origin) {
+        this.localCacheManager = localCacheManager;
+        this.origin = origin;
+    }
+
+    @Override
+    public void onMessage(final Message message) {
+        if (!(message instanceof MapMessage)) {
+            log.warn("Ignoring unexpected cache invalidation message {}", message);
+            return;
+        }
+        try {
+            final MapMessage mapMessage = (MapMessage) message;
+            if (this.origin.equals(mapMessage.getString(CacheInvalidationPublisher.ORIGIN_PROPERTY))) {
+                return;
+            }
+            final String cacheName = mapMessage.getString(CacheInvalidationPublisher.CACHE_NAME_PROPERTY);
+            final Cache cache = cacheName == null ? null : this.localCacheManager.getCache(cacheName);
+            if (cache == null) {
+                return;
+            }
+            final String key = mapMessage.getString(CacheInvalidationPublisher.KEY_PROPERTY);
+            if (key == null) {
+                cache.clear();
+            } else {
+                cache.evict(key);
+            }
+            log.debug("Invalidated cache {} (key {}) on request of node {}", cacheName, key,
+                    mapMessage.getString(CacheInvalidationPublisher.ORIGIN_PROPERTY));
+        } catch (JMSException e) {
+            log.error("Could not read cache invalidation message {}", message, e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import javax.jms.MapMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Broadcasts cache evictions to the other nodes of the cluster over a JMS topic.
+ *
+ * When called inside a transaction the message is only sent after commit, so that another node cannot reload the old
+ * value into its cache before the change is visible in the database.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    static final String ORIGIN_PROPERTY = "origin";
+    static final String CACHE_NAME_PROPERTY = "cacheName";
+    static final String KEY_PROPERTY = "key";
+
+    private final JmsTemplate jmsTemplate;
+    private final String topic;
+    private final String origin;
+
+    public CacheInvalidationPublisher(final JmsTemplate jmsTemplate, final String topic, final String origin) {
+        this.jmsTemplate = jmsTemplate;
+        this.topic = topic;
+        this.origin = origin;
+    }
+
+    public String getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Evicts a single entry on the other nodes. Only {@link String} keys (which is what all Fineract caches use) can be
+     * sent, for any other key the whole cache is cleared instead.
+     */
+    public void publishEvict(final String cacheName, final Object key) {
+        publish(cacheName, key instanceof String ? (String) key : null);
+    }
+
+    public void publishClear(final String cacheName) {
+        publish(cacheName, null);
+    }
+
+    private void publish(final String cacheName, final String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    send(cacheName, key);
+                }
+            });
+        } else {
+            send(cacheName, key);
+        }
+    }
+
+    private void send(final String cacheName, final String key) {
+        try {
+            this.jmsTemplate.send(this.topic, session -> {
+                final MapMessage message = session.createMapMessage();
+                message.setString(ORIGIN_PROPERTY, this.origin);
+                message.setString(CACHE_NAME_PROPERTY, cacheName);
+                if (key != null) {
+                    message.setString(KEY_PROPERTY, key);
+                }
+                return message;
+            });
+        } catch (JmsException e) {
+            // the local cache is already evicted and the other nodes fall back on the expiry of their entries
+            log.error("Could not broadcast invalidation of cache {} (key {})", cacheName, key, e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * {@link CacheManager} for running several Fineract nodes against the same database.
+ *
+ * Every node keeps using its own local caches as a near-cache; evictions and clears (as triggered by
+ * <code>@CacheEvict</code>) are applied locally and then broadcast to the other nodes through the
+ * {@link CacheInvalidationPublisher}, which evict the same entries from their local caches.
+ */
+public class MultiNodeCacheManager implements CacheManager {
+
+    private final CacheManager localCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public MultiNodeCacheManager(final CacheManager localCacheManager, final CacheInvalidationPublisher invalidationPublisher) {
+        this.localCacheManager = localCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final Cache cache = this.caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        final Cache localCache = this.localCacheManager.getCache(name);
+        if (localCache == null) {
+            return null;
+        }
+        return this.caches.computeIfAbsent(name, key -> new InvalidatingCache(localCache, this.invalidationPublisher));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.localCacheManager.getCacheNames();
+    }
+
+    /**
+     * Clears the local caches of this node only, the other nodes are not notified.
+     */
+    public void clearLocalCaches() {
+        for (final String cacheName : this.localCacheManager.getCacheNames()) {
+            final Cache cache = this.localCacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static final class InvalidatingCache implements Cache {
+
+        private final Cache delegate;
+        private final CacheInvalidationPublisher invalidationPublisher;
+
+        InvalidatingCache(final Cache delegate, final CacheInvalidationPublisher invalidationPublisher) {
+            this.delegate = delegate;
+            this.invalidationPublisher = invalidationPublisher;
+        }
+
+        @Override
+        public String getName() {
+            return this.delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return this.delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+            return this.delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Class<T> type) {
+            return this.delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Callable<T> valueLoader) {
+            return this.delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(final Object key, final Object value) {
+            this.delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(final Object key, final Object value) {
+            return this.delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(final Object key) {
+            this.delegate.evict(key);
+            this.invalidationPublisher.publishEvict(getName(), key);
+        }
+
+        @Override
+        public boolean evictIfPresent(final Object key) {
+            final boolean present = this.delegate.evictIfPresent(key);
+            this.invalidationPublisher.publishEvict(getName(), key);
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            this.delegate.clear();
+            this.invalidationPublisher.publishClear(getName());
+        }
+
+        @Override
+        public boolean invalidate() {
+            final boolean present = this.delegate.invalidate();
+            this.invalidationPublisher.publishClear(getName());
+            return present;
+        }
+    }
+}
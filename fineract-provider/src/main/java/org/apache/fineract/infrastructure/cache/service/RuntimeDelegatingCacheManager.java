@@ -27,8 +27,10 @@ import org.apache.fineract.infrastructure.cache.CacheEnumerations;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
@@ -41,6 +43,9 @@ import org.springframework.stereotype.Component;
  *
  * By default it is {@link NoOpCacheManager} but we can change that by checking some persisted configuration in the
  * database on startup and allow user to switch implementation through UI/API
+ *
+ * The multi node cache is only available when <code>fineract.cache.multi-node.enabled</code> is set, see
+ * {@link MultiNodeCacheManager}.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
@@ -49,11 +54,14 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private final CacheManager cacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
+    private final MultiNodeCacheManager multiNodeCacheManager;
     private CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager) {
+    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager,
+            final ObjectProvider<MultiNodeCacheManager> multiNodeCacheManager) {
         this.cacheManager = cacheManager;
+        this.multiNodeCacheManager = multiNodeCacheManager.getIfAvailable();
         this.currentCacheManager = this.noOpCacheManager;
     }
 
@@ -71,29 +79,28 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
         final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
         final boolean ehcacheEnabled = this.currentCacheManager instanceof JCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean distributedCacheEnabled = this.currentCacheManager instanceof MultiNodeCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
-        return caches;
+        if (this.multiNodeCacheManager == null) {
+            return Arrays.asList(noCache, singleNodeCache);
+        }
+        return Arrays.asList(noCache, singleNodeCache, distributedCache);
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final boolean distributedCacheEnabled,
+            final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        final boolean noCacheEnabled = !ehcacheEnabled && !distributedCacheEnabled;
 
         switch (toCacheType) {
             case INVALID:
@@ -116,9 +123,24 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                 }
             break;
             case MULTI_NODE:
+                if (this.multiNodeCacheManager == null) {
+                    if (!distributedCacheEnabled) {
+                        throw new GeneralPlatformDomainRuleException("error.msg.cache.multi.node.not.configured",
+                                "Multi node cache is not available, it has to be enabled with fineract.cache.multi-node.enabled");
+                    }
+                    // configured by another node of the cluster, there is no way to receive invalidations here
+                    LOG.warn("Multi node cache is configured but not enabled on this node, caching is switched off");
+                    this.currentCacheManager = this.noOpCacheManager;
+                    break;
+                }
                 if (!distributedCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                if (!(this.currentCacheManager instanceof MultiNodeCacheManager)) {
+                    // entries cached while this node did not receive invalidations may be stale
+                    this.multiNodeCacheManager.clearLocalCaches();
+                }
+                this.currentCacheManager = this.multiNodeCacheManager;
             break;
         }
 
@@ -49,9 +49,9 @@ public class EmailCampaignDomainServiceImpl implements EmailCampaignDomainServic
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new SendEmailOnLoanApproved());
-        businessEventNotifierService.addPostBusinessEventListener(LoanRejectedBusinessEvent.class, new SendEmailOnLoanRejected());
-        businessEventNotifierService.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanApprovedBusinessEvent.class, new SendEmailOnLoanApproved());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanRejectedBusinessEvent.class, new SendEmailOnLoanRejected());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
                 new SendEmailOnLoanRepayment());
     }
 
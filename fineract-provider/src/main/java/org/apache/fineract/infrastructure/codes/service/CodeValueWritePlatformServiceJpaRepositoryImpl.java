@@ -30,6 +30,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.dataqueries.service.DatatableSchemaCache;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,16 +52,18 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
     private final CodeValueRepository codeValueRepository;
     private final CodeRepository codeRepository;
     private final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final DatatableSchemaCache datatableSchemaCache;
 
     @Autowired
     public CodeValueWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
             final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final CodeValueRepository codeValueRepository,
-            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer, final DatatableSchemaCache datatableSchemaCache) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.codeValueRepository = codeValueRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.datatableSchemaCache = datatableSchemaCache;
     }
 
     @Transactional
@@ -70,6 +73,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaCache.invalidate();
 
             this.fromApiJsonDeserializer.validateForCreate(command.json());
 
@@ -115,6 +119,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaCache.invalidate();
 
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
@@ -147,6 +152,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaCache.invalidate();
 
             final Code code = this.codeRepository.findById(codeId).orElseThrow(() -> new CodeNotFoundException(codeId));
 
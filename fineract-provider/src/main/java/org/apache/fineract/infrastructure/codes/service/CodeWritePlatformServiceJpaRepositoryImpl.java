@@ -30,6 +30,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.dataqueries.service.DatatableSchemaCache;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,13 +49,15 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
     private final PlatformSecurityContext context;
     private final CodeRepository codeRepository;
     private final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final DatatableSchemaCache datatableSchemaCache;
 
     @Autowired
     public CodeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
-            final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer, final DatatableSchemaCache datatableSchemaCache) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.datatableSchemaCache = datatableSchemaCache;
     }
 
     @Transactional
@@ -90,6 +93,7 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
             this.context.authenticatedUser();
 
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
+            this.datatableSchemaCache.invalidate();
 
             final Code code = retrieveCodeBy(codeId);
             final Map<String, Object> changes = code.update(command);
@@ -124,6 +128,7 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
         if (code.isSystemDefined()) {
             throw new SystemDefinedCodeCannotBeChangedException();
         }
+        this.datatableSchemaCache.invalidate();
 
         try {
             this.codeRepository.delete(code);
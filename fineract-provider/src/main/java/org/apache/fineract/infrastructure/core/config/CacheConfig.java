@@ -23,10 +23,13 @@ import java.time.Duration;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
+import org.apache.fineract.infrastructure.dataqueries.service.DatatableSchemaCache;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,6 +37,9 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class CacheConfig {
 
+    @Autowired
+    private FineractProperties fineractProperties;
+
     @Bean
     public JCacheCacheManager ehCacheManager() {
         JCacheCacheManager jCacheCacheManager = new JCacheCacheManager();
@@ -47,7 +53,7 @@ public class CacheConfig {
 
         javax.cache.configuration.Configuration<Object, Object> defaultTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
                 CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.noExpiration()).build());
+                        .withExpiry(defaultExpiry()).build());
 
         cacheManager.createCache("users", defaultTemplate);
         cacheManager.createCache("usersByUsername", defaultTemplate);
@@ -55,6 +61,7 @@ public class CacheConfig {
         cacheManager.createCache("offices", defaultTemplate);
         cacheManager.createCache("officesForDropdown", defaultTemplate);
         cacheManager.createCache("officesById", defaultTemplate);
+        cacheManager.createCache("officeHierarchy", defaultTemplate);
         cacheManager.createCache("charges", defaultTemplate);
         cacheManager.createCache("funds", defaultTemplate);
         cacheManager.createCache("code_values", defaultTemplate);
@@ -68,6 +75,37 @@ public class CacheConfig {
 
         cacheManager.createCache("userTFAccessToken", accessTokenTemplate);
 
+        // bounds how long a lost job state change from another node can go unnoticed
+        javax.cache.configuration.Configuration<Object, Object> jobStateTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(1))).build());
+
+        cacheManager.createCache("jobsBlockingUpdates", jobStateTemplate);
+
+        cacheManager.createCache(DatatableSchemaCache.CACHE_NAME, datatableSchemaTemplate());
+
         return cacheManager;
     }
+
+    private javax.cache.configuration.Configuration<Object, Object> datatableSchemaTemplate() {
+        final FineractProperties.FineractDatatableSchemaCacheProperties properties = this.fineractProperties.getDatatable()
+                .getSchemaCache();
+        final ExpiryPolicy<Object, Object> expiry = properties.getTimeToLive() <= 0 ? ExpiryPolicyBuilder.noExpiration()
+                : ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(properties.getTimeToLive()));
+        return Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(Math.max(properties.getMaxSize(), 1)))
+                .withExpiry(expiry).build());
+    }
+
+    /**
+     * Entries expire after <code>fineract.cache.time-to-live</code> seconds (no expiry when 0). With the multi node
+     * cache this bounds how long an entry can stay stale when an invalidation message from another node got lost.
+     */
+    private ExpiryPolicy<Object, Object> defaultExpiry() {
+        final FineractProperties.FineractCacheProperties cacheProperties = this.fineractProperties.getCache();
+        if (cacheProperties == null || cacheProperties.getTimeToLive() <= 0) {
+            return ExpiryPolicyBuilder.noExpiration();
+        }
+        return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(cacheProperties.getTimeToLive()));
+    }
 }
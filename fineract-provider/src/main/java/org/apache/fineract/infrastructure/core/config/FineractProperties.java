@@ -41,6 +41,36 @@ public class FineractProperties {
 
     private FineractTemplateProperties template;
 
+    private FineractCobProperties cob;
+
+    private FineractJobProperties job;
+
+    private FineractCacheProperties cache;
+
+    private FineractReadReplicaProperties readReplica;
+
+    private FineractReportProperties report;
+
+    private FineractSecurityProperties security;
+
+    private FineractHookProperties hook;
+
+    private FineractLoanProperties loan;
+
+    private FineractSearchProperties search;
+
+    private FineractDatatableProperties datatable;
+
+    private FineractBulkImportProperties bulkImport;
+
+    private FineractSmsProperties sms;
+
+    private FineractSavingsProperties savings;
+
+    private FineractBusinessEventProperties businessEvent;
+
+    private FineractNotificationProperties notification;
+
     @Getter
     @Setter
     public static class FineractTenantProperties {
@@ -115,4 +145,244 @@ public class FineractProperties {
         private boolean regexWhitelistEnabled;
         private List<String> regexWhitelist;
     }
+
+    @Getter
+    @Setter
+    public static class FineractCobProperties {
+
+        private FineractLoanCobProperties loan;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractLoanCobProperties {
+
+        private int partitionSize;
+        private int chunkSize;
+        private int threadPoolSize;
+        private List<String> businessSteps;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractJobProperties {
+
+        private int executorPoolSize;
+        private int chunkSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCacheProperties {
+
+        private long timeToLive;
+        private FineractMultiNodeCacheProperties multiNode;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractMultiNodeCacheProperties {
+
+        private boolean enabled;
+        private String brokerUrl;
+        private String topic;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractReadReplicaProperties {
+
+        private boolean enabled;
+        private long maxLag;
+        private long lagCheckInterval;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractReportProperties {
+
+        private int fetchSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSecurityProperties {
+
+        private FineractBasicAuthProperties basicauth;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBasicAuthProperties {
+
+        private boolean enabled;
+        private FineractCredentialCacheProperties credentialCache;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCredentialCacheProperties {
+
+        private boolean enabled;
+        private long timeToLive;
+        private int maxSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractHookProperties {
+
+        private FineractHookDeliveryProperties delivery;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractHookDeliveryProperties {
+
+        private int poolSize;
+        private int queueCapacity;
+        private int batchSize;
+        private int maxAttempts;
+        private long retryDelay;
+        private long maxRetryDelay;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractLoanProperties {
+
+        private FineractTransactionReplayProperties transactionReplay;
+        private FineractHolidayRescheduleProperties holidayReschedule;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractTransactionReplayProperties {
+
+        private boolean partialEnabled;
+        private boolean verify;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractHolidayRescheduleProperties {
+
+        private int chunkSize;
+        private int threadPoolSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSearchProperties {
+
+        private FineractSearchIndexProperties index;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSearchIndexProperties {
+
+        private boolean enabled;
+        private int maxMatches;
+        private int fetchSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractDatatableProperties {
+
+        private FineractDatatableSchemaCacheProperties schemaCache;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractDatatableSchemaCacheProperties {
+
+        private boolean enabled;
+        private int maxSize;
+        private int timeToLive;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBulkImportProperties {
+
+        private int workerCount;
+        private int queueCapacity;
+        private int groupSize;
+        private int progressInterval;
+        private int importedRowRetentionDays;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSmsProperties {
+
+        private FineractSmsDispatchProperties dispatch;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSmsDispatchProperties {
+
+        private int claimSize;
+        private int batchSize;
+        private int maxInFlight;
+        private double providerRateLimit;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSavingsProperties {
+
+        private FineractSavingsHotAccountProperties hotAccount;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSavingsHotAccountProperties {
+
+        private boolean enabled;
+        private int stripes;
+        private int queueCapacity;
+        private int maxBatchSize;
+        private long refreshInterval;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBusinessEventProperties {
+
+        private FineractBusinessEventAsyncProperties async;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBusinessEventAsyncProperties {
+
+        private int poolSize;
+        private int queueCapacity;
+        private boolean outboxEnabled;
+        private int batchSize;
+        private int maxAttempts;
+        private long retryDelay;
+        private long maxRetryDelay;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractNotificationProperties {
+
+        private FineractNotificationBatchProperties batch;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractNotificationBatchProperties {
+
+        private int maxSize;
+        private long flushInterval;
+        private int queueCapacity;
+        private boolean asyncSend;
+    }
 }
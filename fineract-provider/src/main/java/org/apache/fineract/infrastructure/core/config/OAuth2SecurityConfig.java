@@ -29,6 +29,9 @@ import org.apache.fineract.infrastructure.security.filter.TwoFactorAuthenticatio
 import org.apache.fineract.infrastructure.security.service.TenantAwareJpaPlatformUserDetailsService;
 import org.apache.fineract.infrastructure.security.vote.SelfServiceUserAccessVote;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -58,12 +61,17 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtGra
 import org.springframework.security.web.access.expression.WebExpressionVoter;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.context.SecurityContextPersistenceFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @ConditionalOnProperty("fineract.security.oauth.enabled")
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 public class OAuth2SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    // Health and info stay public for probes; every other exposed actuator endpoint (metrics) needs an authenticated user
+    private static final RequestMatcher PROTECTED_ACTUATOR_ENDPOINTS = EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class,
+            InfoEndpoint.class);
+
     @Autowired
     private TwoFactorAuthenticationFilter twoFactorAuthenticationFilter;
 
@@ -83,7 +91,8 @@ public class OAuth2SecurityConfig extends WebSecurityConfigurerAdapter {
 
         http //
                 .csrf().disable() // NOSONAR only creating a service that is used by non-browser clients
-                .antMatcher("/api/**").authorizeRequests() //
+                .requestMatchers(matchers -> matchers.antMatchers("/api/**").requestMatchers(PROTECTED_ACTUATOR_ENDPOINTS)) //
+                .authorizeRequests() //
                 .antMatchers(HttpMethod.OPTIONS, "/api/**").permitAll() //
                 .antMatchers(HttpMethod.POST, "/api/*/echo").permitAll() //
                 .antMatchers(HttpMethod.POST, "/api/*/authentication").permitAll() //
@@ -92,6 +101,8 @@ public class OAuth2SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers(HttpMethod.POST, "/api/*/self/registration/user").permitAll() //
                 .antMatchers(HttpMethod.POST, "/api/*/twofactor/validate").fullyAuthenticated() //
                 .antMatchers("/api/*/twofactor").fullyAuthenticated() //
+                .requestMatchers(PROTECTED_ACTUATOR_ENDPOINTS) //
+                .access("isFullyAuthenticated() and hasAuthority('TWOFACTOR_AUTHENTICATED')") //
                 .antMatchers("/api/**").access("isFullyAuthenticated() and hasAuthority('TWOFACTOR_AUTHENTICATED')") //
                 .accessDecisionManager(accessDecisionManager()).and() //
                 .exceptionHandling().authenticationEntryPoint(new OAuth2ExceptionEntryPoint()).and()
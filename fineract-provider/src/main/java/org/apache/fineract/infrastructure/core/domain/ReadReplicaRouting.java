@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.domain;
+
+/**
+ * Tells the tenant datasource routing whether the read replica of the tenant may be used for the current thread.
+ */
+public enum ReadReplicaRouting {
+
+    /**
+     * Always use the primary database; the default for writes, jobs and background threads.
+     */
+    PRIMARY,
+
+    /**
+     * Use the replica for read-only transactions only.
+     */
+    READ_ONLY_TRANSACTIONS,
+
+    /**
+     * Use the replica for everything, used for running reports.
+     */
+    REPLICA;
+
+    public static ReadReplicaRouting forRequest(final String httpMethod, final boolean reportRequest) {
+        if (!"GET".equalsIgnoreCase(httpMethod)) {
+            return PRIMARY;
+        }
+        return reportRequest ? REPLICA : READ_ONLY_TRANSACTIONS;
+    }
+}
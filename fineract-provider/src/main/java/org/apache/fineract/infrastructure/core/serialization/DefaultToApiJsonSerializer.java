@@ -21,6 +21,7 @@ package org.apache.fineract.infrastructure.core.serialization;
 import com.google.gson.Gson;
 import java.util.Collection;
 import java.util.Set;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -108,6 +109,22 @@ public class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<T> {
         return serializeWithSettings(delegatedSerializer, settings, singleObject);
     }
 
+    @Override
+    public StreamingOutput serializeToStream(final ApiRequestJsonSerializationSettings settings, final Page<T> page,
+            final Set<String> supportedResponseParameters) {
+        // resolved up front so that unsupported fields are reported before the response is committed
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        final Gson gson;
+        if (delegatedSerializer != null) {
+            gson = delegatedSerializer;
+        } else if (settings.isPrettyPrint()) {
+            gson = this.excludeNothingWithPrettyPrintingOn.getGson();
+        } else {
+            gson = this.excludeNothingWithPrettyPrintingOff.getGson();
+        }
+        return out -> this.helper.serializeJsonTo(gson, page, out);
+    }
+
     private String serializeWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object[] dataObject) {
         String json = null;
         if (gson != null) {
@@ -21,6 +21,13 @@ package org.apache.fineract.infrastructure.core.serialization;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -29,7 +36,12 @@ import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.infrastructure.core.api.DateAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaDateTimeAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaMonthDayAdapter;
@@ -44,19 +56,25 @@ import org.springframework.stereotype.Service;
 
 /**
  * Helper class for serialization of Java objects into JSON using Google's GSON.
+ *
+ * The serializers for partial responses (<code>fields=</code>) are cached per set of fields and pretty print flag: a
+ * {@link Gson} keeps the type adapters it reflectively built for each class, which a new instance per request throws
+ * away. The fields come from the request, so the caches are cleared when they grow beyond
+ * {@value #MAX_CACHED_SERIALIZERS} entries.
  */
+@Slf4j
 @Service
 public final class GoogleGsonSerializerHelper {
 
-    public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
-        final ExclusionStrategy strategy = new ParameterListInclusionStrategy(responseParameters);
+    static final int MAX_CACHED_SERIALIZERS = 512;
 
-        final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
-        registerTypeAdapters(builder);
-        if (prettyPrint) {
-            builder.setPrettyPrinting();
-        }
-        return builder.create();
+    private final Map<List<Object>, Gson> inclusionSerializers = new ConcurrentHashMap<>();
+    private final Map<List<Object>, Gson> exclusionSerializers = new ConcurrentHashMap<>();
+
+    public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
+        final Set<String> parameterNamesToInclude = Set.copyOf(responseParameters);
+        return cached(this.inclusionSerializers, prettyPrint, parameterNamesToInclude,
+                () -> createGson(new ParameterListInclusionStrategy(parameterNamesToInclude), prettyPrint));
     }
 
     public Gson createGsonBuilderWithParameterExclusionSerializationStrategy(final Set<String> supportedParameters,
@@ -78,14 +96,9 @@ public final class GoogleGsonSerializerHelper {
             parameterNamesToSkip.removeAll(responseParameters);
         }
 
-        final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
-
-        final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
-        registerTypeAdapters(builder);
-        if (prettyPrint) {
-            builder.setPrettyPrinting();
-        }
-        return builder.create();
+        final Set<String> parameterNamesToSkipCopy = Set.copyOf(parameterNamesToSkip);
+        return cached(this.exclusionSerializers, prettyPrint, parameterNamesToSkipCopy,
+                () -> createGson(new ParameterListExclusionStrategy(parameterNamesToSkipCopy), prettyPrint));
     }
 
     public String serializedJsonFrom(final Gson serializer, final Object[] dataObjects) {
@@ -96,6 +109,46 @@ public final class GoogleGsonSerializerHelper {
         return serializer.toJson(singleDataObject);
     }
 
+    /**
+     * Writes the JSON of the data object straight to the output stream, as UTF-8, rather than building it as a
+     * {@link String} first.
+     */
+    public void serializeJsonTo(final Gson serializer, final Object dataObject, final OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            serializer.toJson(dataObject, writer);
+        } catch (final JsonIOException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        writer.flush();
+    }
+
+    private static Gson cached(final Map<List<Object>, Gson> serializers, final boolean prettyPrint, final Set<String> parameterNames,
+            final Supplier<Gson> serializerFactory) {
+        final List<Object> key = List.of(prettyPrint, parameterNames);
+        final Gson serializer = serializers.get(key);
+        if (serializer != null) {
+            return serializer;
+        }
+        if (serializers.size() >= MAX_CACHED_SERIALIZERS) {
+            log.warn("Partial response serializer cache is full ({} entries), clearing it", serializers.size());
+            serializers.clear();
+        }
+        return serializers.computeIfAbsent(key, k -> serializerFactory.get());
+    }
+
+    private static Gson createGson(final ExclusionStrategy strategy, final boolean prettyPrint) {
+        final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
+        registerTypeAdapters(builder);
+        if (prettyPrint) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
+    }
+
     public static GsonBuilder createGsonBuilder() {
         return createGsonBuilder(false);
     }
@@ -20,6 +20,7 @@ package org.apache.fineract.infrastructure.core.serialization;
 
 import java.util.Collection;
 import java.util.Set;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.service.Page;
 
 public interface ToApiJsonSerializer<T> {
@@ -46,4 +47,10 @@ public interface ToApiJsonSerializer<T> {
     String serialize(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
 
     String serialize(ApiRequestJsonSerializationSettings settings, Page<T> singleObject, Set<String> supportedResponseParameters);
+
+    /**
+     * Same as {@link #serialize(ApiRequestJsonSerializationSettings, Page, Set)} but writes the JSON straight to the
+     * response instead of building it as a {@link String} first, for list endpoints returning many objects.
+     */
+    StreamingOutput serializeToStream(ApiRequestJsonSerializationSettings settings, Page<T> page, Set<String> supportedResponseParameters);
 }
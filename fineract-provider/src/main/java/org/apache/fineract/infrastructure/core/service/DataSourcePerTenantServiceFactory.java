@@ -22,6 +22,8 @@ import static org.apache.fineract.infrastructure.core.domain.FineractPlatformTen
 import static org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection.toProtocol;
 
 import com.zaxxer.hikari.HikariConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.infrastructure.core.config.FineractProperties;
@@ -41,22 +43,46 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class DataSourcePerTenantServiceFactory {
 
+    // Hikari ignores idle timeouts below 10 seconds
+    private static final long MIN_IDLE_TIMEOUT_MILLIS = 10000L;
+
     private final HikariConfig hikariConfig;
     private final FineractProperties fineractProperties;
     private final ApplicationContext context;
     private final DataSource tenantDataSource;
     private final HikariDataSourceFactory hikariDataSourceFactory;
+    private final MeterRegistry meterRegistry;
 
     public DataSourcePerTenantServiceFactory(@Qualifier("hikariTenantDataSource") DataSource tenantDataSource, HikariConfig hikariConfig,
-            FineractProperties fineractProperties, ApplicationContext context, HikariDataSourceFactory hikariDataSourceFactory) {
+            FineractProperties fineractProperties, ApplicationContext context, HikariDataSourceFactory hikariDataSourceFactory,
+            MeterRegistry meterRegistry) {
         this.hikariConfig = hikariConfig;
         this.fineractProperties = fineractProperties;
         this.context = context;
         this.tenantDataSource = tenantDataSource;
         this.hikariDataSourceFactory = hikariDataSourceFactory;
+        this.meterRegistry = meterRegistry;
     }
 
     public DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnection) {
+        final boolean readOnly = fineractProperties.getMode().isReadOnlyMode();
+        return createDataSource(tenantConnection, readOnly, "_pool");
+    }
+
+    /**
+     * Creates a read-only datasource for the read replica of the tenant, described by the read only schema details of
+     * the tenant connection.
+     */
+    public DataSource createNewReadReplicaDataSourceFor(final FineractPlatformTenantConnection tenantConnection) {
+        return createDataSource(tenantConnection, true, "_replica_pool");
+    }
+
+    public boolean hasReadReplica(final FineractPlatformTenantConnection tenantConnection) {
+        return getPropertyValue(tenantConnection.getReadOnlySchemaServer(), TenantConstants.PROPERTY_RO_SCHEMA_SERVER_NAME, null) != null;
+    }
+
+    private DataSource createDataSource(final FineractPlatformTenantConnection tenantConnection, final boolean readOnly,
+            final String poolNameSuffix) {
         String protocol = toProtocol(tenantDataSource);
         // Default properties for Writing
         String schemaServer = tenantConnection.getSchemaServer();
@@ -66,7 +92,7 @@ public class DataSourcePerTenantServiceFactory {
         String schemaPassword = tenantConnection.getSchemaPassword();
         String schemaConnectionParameters = tenantConnection.getSchemaConnectionParameters();
         // Properties to ReadOnly case
-        if (fineractProperties.getMode().isReadOnlyMode()) {
+        if (readOnly) {
             schemaServer = getPropertyValue(tenantConnection.getReadOnlySchemaServer(), TenantConstants.PROPERTY_RO_SCHEMA_SERVER_NAME,
                     schemaServer);
             schemaPort = getPropertyValue(tenantConnection.getReadOnlySchemaServerPort(), TenantConstants.PROPERTY_RO_SCHEMA_SERVER_PORT,
@@ -84,14 +110,21 @@ public class DataSourcePerTenantServiceFactory {
         log.debug("{}", jdbcUrl);
 
         HikariConfig config = new HikariConfig();
-        config.setReadOnly(fineractProperties.getMode().isReadOnlyMode());
+        config.setReadOnly(readOnly);
         config.setJdbcUrl(jdbcUrl);
-        config.setPoolName(schemaName + "_pool");
+        config.setPoolName(schemaName + poolNameSuffix);
         config.setUsername(schemaUsername);
         config.setPassword(schemaPassword);
-        config.setMinimumIdle(tenantConnection.getInitialSize());
+        // pool sizing per tenant, min idle falls back to the initial size when not set
+        config.setMinimumIdle(tenantConnection.getMinIdle() > 0 ? tenantConnection.getMinIdle() : tenantConnection.getInitialSize());
         config.setMaximumPoolSize(tenantConnection.getMaxActive());
         config.setValidationTimeout(tenantConnection.getValidationInterval());
+        if (tenantConnection.getMinEvictableIdleTimeMillis() > 0) {
+            config.setIdleTimeout(Math.max(tenantConnection.getMinEvictableIdleTimeMillis(), MIN_IDLE_TIMEOUT_MILLIS));
+        }
+        if (tenantConnection.isLogAbandoned() && tenantConnection.getRemoveAbandonedTimeout() > 0) {
+            config.setLeakDetectionThreshold(TimeUnit.SECONDS.toMillis(tenantConnection.getRemoveAbandonedTimeout()));
+        }
         config.setDriverClassName(hikariConfig.getDriverClassName());
         config.setConnectionTestQuery(hikariConfig.getConnectionTestQuery());
         config.setAutoCommit(hikariConfig.isAutoCommit());
@@ -99,6 +132,12 @@ public class DataSourcePerTenantServiceFactory {
         // https://github.com/brettwooldridge/HikariCP/wiki/MBean-(JMX)-Monitoring-and-Management
         config.setRegisterMbeans(true);
 
+        // hikaricp.connections.* meters (active, pending, usage, acquire time, timeouts) tagged with the pool name,
+        // available through the actuator metrics endpoint
+        if (meterRegistry != null) {
+            config.setMetricRegistry(meterRegistry);
+        }
+
         // https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
         // These are the properties for each Tenant DB; the same configuration
         // is also in src/main/resources/META-INF/spring/hikariDataSource.xml
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether the read replica of a tenant is fit to serve reads. The replication lag is checked at most once per
+ * <code>fineract.read-replica.lag-check-interval</code> seconds per tenant connection, in between the last result is
+ * used. A replica that is more than <code>fineract.read-replica.max-lag</code> seconds behind, whose replication is
+ * stopped or which cannot be reached is not used until the next check.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReadReplicaLagChecker {
+
+    private static final String MYSQL_REPLICA_STATUS = "SHOW SLAVE STATUS";
+    private static final String POSTGRESQL_REPLICA_LAG = "select cast(case when pg_is_in_recovery() then "
+            + "coalesce(extract(epoch from (now() - pg_last_xact_replay_timestamp())), 0) else 0 end as bigint)";
+
+    private final DatabaseTypeResolver databaseTypeResolver;
+    private final FineractProperties fineractProperties;
+    private final Map<Long, ReplicaState> replicaStates = new ConcurrentHashMap<>();
+
+    public boolean isUsable(final Long connectionId, final DataSource replicaDataSource) {
+        final ReplicaState state = this.replicaStates.computeIfAbsent(connectionId, id -> new ReplicaState());
+        final long now = System.currentTimeMillis();
+        // only one thread checks, the others keep using the last result
+        if (now >= state.nextCheck && state.checking.compareAndSet(false, true)) {
+            try {
+                state.usable = checkLag(connectionId, replicaDataSource);
+                state.nextCheck = now + TimeUnit.SECONDS.toMillis(getProperties().getLagCheckInterval());
+            } finally {
+                state.checking.set(false);
+            }
+        }
+        return state.usable;
+    }
+
+    private boolean checkLag(final Long connectionId, final DataSource replicaDataSource) {
+        try {
+            final Long lag = retrieveLagInSeconds(new JdbcTemplate(replicaDataSource));
+            if (lag == null) {
+                log.warn("Replication of the read replica of tenant connection {} is not running, reading from the primary", connectionId);
+                return false;
+            }
+            if (lag > getProperties().getMaxLag()) {
+                log.warn("Read replica of tenant connection {} is {} seconds behind, reading from the primary", connectionId, lag);
+                return false;
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not check the read replica of tenant connection {}, reading from the primary", connectionId, e);
+            return false;
+        }
+    }
+
+    private Long retrieveLagInSeconds(final JdbcTemplate jdbcTemplate) {
+        if (this.databaseTypeResolver.isMySQL()) {
+            final List<Long> lags = jdbcTemplate.query(MYSQL_REPLICA_STATUS,
+                    (rs, rowNum) -> JdbcSupport.getLong(rs, "Seconds_Behind_Master"));
+            // no replication status, the database is not a replica
+            return lags.isEmpty() ? Long.valueOf(0L) : lags.get(0);
+        }
+        return jdbcTemplate.queryForObject(POSTGRESQL_REPLICA_LAG, Long.class);
+    }
+
+    private FineractProperties.FineractReadReplicaProperties getProperties() {
+        return this.fineractProperties.getReadReplica();
+    }
+
+    private static final class ReplicaState {
+
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private volatile boolean usable;
+        private volatile long nextCheck;
+    }
+}
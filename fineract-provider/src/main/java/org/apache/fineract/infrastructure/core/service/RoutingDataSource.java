@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import javax.sql.DataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.stereotype.Service;
 
@@ -34,24 +35,33 @@ import org.springframework.stereotype.Service;
  *
  * The {@link RoutingDataSourceService} is responsible for returning the appropriate {@link DataSource} for the tenant
  * of this request.
+ *
+ * Connections are handed out lazily: the target data source is chosen when the first statement is created, not when a
+ * transaction manager asks for the connection. Transaction managers take the connection before the transaction is
+ * marked read-only, so routing read-only transactions to the read replica depends on this.
  */
 @Service(value = "routingDataSource")
-public class RoutingDataSource extends AbstractDataSource {
+public class RoutingDataSource extends LazyConnectionDataSourceProxy {
 
     @Autowired
     private RoutingDataSourceServiceFactory dataSourceServiceFactory;
 
-    @Override
-    public Connection getConnection() throws SQLException {
-        return determineTargetDataSource().getConnection();
+    public RoutingDataSource() {
+        setTargetDataSource(new AbstractDataSource() {
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                return determineTargetDataSource().getConnection();
+            }
+
+            @Override
+            public Connection getConnection(final String username, final String password) throws SQLException {
+                return determineTargetDataSource().getConnection(username, password);
+            }
+        });
     }
 
     public DataSource determineTargetDataSource() {
         return this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
     }
-
-    @Override
-    public Connection getConnection(final String username, final String password) throws SQLException {
-        return determineTargetDataSource().getConnection(username, password);
-    }
 }
@@ -25,6 +25,7 @@ import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
 import org.apache.fineract.infrastructure.core.domain.ActionContext;
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.ReadReplicaRouting;
 import org.springframework.util.Assert;
 
 /**
@@ -38,6 +39,7 @@ public final class ThreadLocalContextUtil {
     private static final ThreadLocal<String> authTokenContext = new ThreadLocal<>();
     private static final ThreadLocal<HashMap<BusinessDateType, LocalDate>> businessDateContext = new ThreadLocal<>();
     private static final ThreadLocal<ActionContext> actionContext = new ThreadLocal<>();
+    private static final ThreadLocal<ReadReplicaRouting> readReplicaRoutingContext = new ThreadLocal<>();
 
     private ThreadLocalContextUtil() {}
 
@@ -65,6 +67,18 @@ public final class ThreadLocalContextUtil {
         contextHolder.remove();
     }
 
+    public static ReadReplicaRouting getReadReplicaRouting() {
+        return readReplicaRoutingContext.get() == null ? ReadReplicaRouting.PRIMARY : readReplicaRoutingContext.get();
+    }
+
+    public static void setReadReplicaRouting(final ReadReplicaRouting readReplicaRouting) {
+        readReplicaRoutingContext.set(readReplicaRouting);
+    }
+
+    public static void clearReadReplicaRouting() {
+        readReplicaRoutingContext.remove();
+    }
+
     public static String getAuthToken() {
         return authTokenContext.get();
     }
@@ -120,6 +134,20 @@ public final class ThreadLocalContextUtil {
         setActionContext(fineractContext.getActionContext());
     }
 
+    /**
+     * Removes everything {@link #init(FineractContext)} or the setters put on the current thread, so a pooled thread does
+     * not carry the context of its previous task.
+     */
+    public static void reset() {
+        contextHolder.remove();
+        tenantContext.remove();
+        authTokenContext.remove();
+        businessDateContext.remove();
+        actionContext.remove();
+        readReplicaRoutingContext.remove();
+        jobParams.remove();
+    }
+
     public static void setJobParams(final Map<String, Object> params) {
         jobParams.set(params);
     }
@@ -18,58 +18,97 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.domain.ReadReplicaRouting;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Implementation that returns a new or existing connection pool datasource based on the tenant details stored in a
  * {@link ThreadLocal} variable for this request.
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ *
+ * This is called for every JDBC/JPA operation, so the lookup of an existing datasource does not lock; a datasource is
+ * created only once per tenant connection.
+ *
+ * With <code>fineract.read-replica.enabled</code> reads are sent to the read replica of the tenant (the read only schema
+ * of the tenant connection) when {@link ThreadLocalContextUtil#getReadReplicaRouting()} allows it, as long as the
+ * {@link ReadReplicaLagChecker} considers the replica to be up to date.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final Map<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final Map<Long, Optional<DataSource>> tenantToReadReplicaDataSourceMap = new ConcurrentHashMap<>();
     private final DataSource tenantDataSource;
 
     private final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory;
+    private final ReadReplicaLagChecker readReplicaLagChecker;
+    private final boolean readReplicaEnabled;
 
     @Autowired
     public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource,
-            final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory) {
+            final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory, final ReadReplicaLagChecker readReplicaLagChecker,
+            final FineractProperties fineractProperties) {
         this.tenantDataSource = tenantDataSource;
         this.dataSourcePerTenantServiceFactory = dataSourcePerTenantServiceFactory;
+        this.readReplicaLagChecker = readReplicaLagChecker;
+        // an instance in read only mode already reads from the replica only
+        this.readReplicaEnabled = fineractProperties.getReadReplica() != null && fineractProperties.getReadReplica().isEnabled()
+                && !fineractProperties.getMode().isReadOnlyMode();
     }
 
     @Override
     public DataSource retrieveDataSource() {
-        // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
-
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+        if (tenant == null) {
+            // default to tenant database datasource
+            return this.tenantDataSource;
+        }
 
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
+        // if tenantConnection information available switch to the
+        // appropriate datasource for that tenant.
+        final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+        if (this.readReplicaEnabled && isReadReplicaRequested()) {
+            final DataSource replicaDS = retrieveReadReplicaDataSource(tenantConnection);
+            if (replicaDS != null) {
+                return replicaDS;
             }
         }
 
-        return tenantDataSource;
+        final DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+        if (possibleDS != null) {
+            return possibleDS;
+        }
+        return this.tenantToDataSourceMap.computeIfAbsent(tenantConnection.getConnectionId(),
+                connectionId -> this.dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection));
+    }
+
+    private DataSource retrieveReadReplicaDataSource(final FineractPlatformTenantConnection tenantConnection) {
+        final Optional<DataSource> replicaDS = this.tenantToReadReplicaDataSourceMap.computeIfAbsent(tenantConnection.getConnectionId(),
+                connectionId -> this.dataSourcePerTenantServiceFactory.hasReadReplica(tenantConnection)
+                        ? Optional.of(this.dataSourcePerTenantServiceFactory.createNewReadReplicaDataSourceFor(tenantConnection))
+                        : Optional.empty());
+        if (replicaDS.isPresent() && this.readReplicaLagChecker.isUsable(tenantConnection.getConnectionId(), replicaDS.get())) {
+            return replicaDS.get();
+        }
+        return null;
+    }
+
+    private static boolean isReadReplicaRequested() {
+        final ReadReplicaRouting routing = ThreadLocalContextUtil.getReadReplicaRouting();
+        if (routing == ReadReplicaRouting.REPLICA) {
+            return true;
+        }
+        return routing == ReadReplicaRouting.READ_ONLY_TRANSACTIONS && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
     }
 }
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.cache.service.MultiNodeCacheManager;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the column headers of the datatables of each tenant, including the allowed values of their code columns, so
+ * that reading and writing datatable entries does not query <code>information_schema</code> and the code tables on every
+ * request.
+ *
+ * The headers are kept in the local <code>{@value #CACHE_NAME}</code> cache, independent of the cache type chosen by
+ * the user, whose size and time to live are set by <code>fineract.datatable.schema-cache.*</code>. With the multi node
+ * cache configured, invalidations are broadcast to the other nodes as well; the time to live bounds how long another
+ * node can keep using headers it loaded while a change was being committed, or when no invalidation reaches it.
+ *
+ * On this node every tenant also has a schema version which is increased whenever a datatable is created, changed or
+ * dropped and whenever a code or code value changes. Headers loaded under an older version are never returned, so a
+ * load that races with an invalidation cannot put stale headers back into the cache. Other caches derived from
+ * datatable metadata (batch requests, reports) can use {@link #getVersion()} the same way.
+ */
+@Component
+public class DatatableSchemaCache {
+
+    public static final String CACHE_NAME = "datatableSchema";
+
+    private final boolean enabled;
+    private final Cache cache;
+    private final Cache localCache;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DatatableSchemaCache(final FineractProperties fineractProperties, final JCacheCacheManager localCacheManager,
+            final ObjectProvider<MultiNodeCacheManager> multiNodeCacheManager) {
+        final FineractProperties.FineractDatatableSchemaCacheProperties properties = fineractProperties.getDatatable().getSchemaCache();
+        this.enabled = properties.isEnabled() && properties.getMaxSize() > 0;
+        final CacheManager cacheManager = multiNodeCacheManager.getIfAvailable();
+        this.localCache = localCacheManager.getCache(CACHE_NAME);
+        this.cache = cacheManager != null ? cacheManager.getCache(CACHE_NAME) : this.localCache;
+    }
+
+    /**
+     * Returns the column headers of the datatable, calling the loader only if they are not cached for the current
+     * schema version of the tenant. The returned list is a copy that the caller may change.
+     */
+    public List<ResultsetColumnHeaderData> getColumnHeaders(final String datatable,
+            final Supplier<List<ResultsetColumnHeaderData>> loader) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (!this.enabled || tenantIdentifier == null) {
+            return loader.get();
+        }
+        final long version = version(tenantIdentifier).get();
+        final String key = tenantIdentifier + ":" + datatable;
+        final CachedColumnHeaders cached = this.cache.get(key, CachedColumnHeaders.class);
+        if (cached != null && cached.version == version) {
+            return new ArrayList<>(cached.columnHeaders);
+        }
+
+        final List<ResultsetColumnHeaderData> columnHeaders = loader.get();
+        this.cache.put(key, new CachedColumnHeaders(version, Collections.unmodifiableList(new ArrayList<>(columnHeaders))));
+        // an invalidation may have happened while loading, in which case the entry is ignored on the next read anyway
+        return columnHeaders;
+    }
+
+    /**
+     * Current schema version of the tenant on this node, increased on every datatable or code change.
+     */
+    public long getVersion() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        return tenantIdentifier == null ? 0L : version(tenantIdentifier).get();
+    }
+
+    /**
+     * Invalidates the cached datatable metadata of the current tenant, on all nodes with the multi node cache. When
+     * called inside a transaction the metadata of this node is invalidated again once the transaction completes, so
+     * that headers loaded by concurrent requests before the change became visible are not kept.
+     */
+    public void invalidate() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (tenantIdentifier == null) {
+            return;
+        }
+        final AtomicLong version = version(tenantIdentifier);
+        version.incrementAndGet();
+        // changes are rare, all tenants are cleared as the cache cannot evict the entries of a single one
+        this.cache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    version.incrementAndGet();
+                    DatatableSchemaCache.this.localCache.clear();
+                }
+            });
+        }
+    }
+
+    private AtomicLong version(final String tenantIdentifier) {
+        return this.versions.computeIfAbsent(tenantIdentifier, k -> new AtomicLong());
+    }
+
+    private static String currentTenantIdentifier() {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant == null ? null : tenant.getTenantIdentifier();
+    }
+
+    private static final class CachedColumnHeaders implements Serializable {
+
+        private final long version;
+        private final List<ResultsetColumnHeaderData> columnHeaders;
+
+        CachedColumnHeaders(final long version, final List<ResultsetColumnHeaderData> columnHeaders) {
+            this.version = version;
+            this.columnHeaders = columnHeaders;
+        }
+    }
+}
@@ -26,6 +26,12 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(String sql);
 
+    /**
+     * Runs the query on a forward-only, read-only cursor and passes every row to the handler as soon as it is read. The
+     * result is never held in memory as a whole.
+     */
+    void streamGenericResultSet(String sql, GenericResultsetRowHandler rowHandler);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
     String replace(String str, String pattern, String replace);
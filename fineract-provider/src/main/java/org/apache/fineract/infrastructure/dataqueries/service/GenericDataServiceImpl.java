@@ -18,6 +18,11 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoField;
@@ -25,6 +30,7 @@ import java.util.ArrayList;
 import java.util.List;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -37,9 +43,12 @@ import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoun
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Slf4j
@@ -48,13 +57,22 @@ public class GenericDataServiceImpl implements GenericDataService {
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
     private final DatabaseIndependentQueryService databaseIndependentQueryService;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final FineractProperties fineractProperties;
+    private final DatatableSchemaCache datatableSchemaCache;
 
     @Autowired
     public GenericDataServiceImpl(final RoutingDataSource dataSource, final JdbcTemplate jdbcTemplate,
-            DatabaseIndependentQueryService databaseIndependentQueryService) {
+            DatabaseIndependentQueryService databaseIndependentQueryService, final PlatformTransactionManager transactionManager,
+            final FineractProperties fineractProperties, final DatatableSchemaCache datatableSchemaCache) {
         this.dataSource = dataSource;
         this.databaseIndependentQueryService = databaseIndependentQueryService;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.fineractProperties = fineractProperties;
+        this.datatableSchemaCache = datatableSchemaCache;
+        // PostgreSQL only honours the fetch size when not in auto-commit mode
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     @Override
@@ -95,6 +113,46 @@ public class GenericDataServiceImpl implements GenericDataService {
         }
     }
 
+    @Override
+    public void streamGenericResultSet(final String sql, final GenericResultsetRowHandler rowHandler) {
+        final int fetchSize = this.fineractProperties.getReport().getFetchSize();
+        try {
+            this.readOnlyTransactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.query(con -> {
+                final PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY); // NOSONAR
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, (ResultSetExtractor<Void>) rs -> {
+                try {
+                    final ResultSetMetaData rsmd = rs.getMetaData();
+                    final int columnCount = rsmd.getColumnCount();
+                    final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columnCount);
+                    for (int i = 1; i <= columnCount; i++) {
+                        columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnLabel(i), rsmd.getColumnTypeName(i)));
+                    }
+                    rowHandler.processColumnHeaders(columnHeaders);
+
+                    while (rs.next()) {
+                        final List<String> columnValues = new ArrayList<>(columnCount);
+                        for (int i = 1; i <= columnCount; i++) {
+                            // same text as SqlRowSet#getString in fillGenericResultSet, the driver formats dates differently
+                            final Object columnValue = rs.getObject(i);
+                            columnValues.add(columnValue == null ? null : columnValue.toString());
+                        }
+                        rowHandler.processRow(columnValues);
+                    }
+                    rowHandler.finish();
+                } catch (IOException e) {
+                    // the client went away, stop reading
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            }));
+        } catch (DataAccessException e) {
+            log.error("Reporting error: {}", e.getMessage());
+            throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName(), e);
+        }
+    }
+
     @Override
     public String replace(final String str, final String pattern, final String replace) {
         // JPW - this replace may / may not be any better or quicker than the
@@ -201,6 +259,16 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     @Override
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable, boolean fieldsSkip) {
+        final List<ResultsetColumnHeaderData> columnHeaders = this.datatableSchemaCache.getColumnHeaders(datatable,
+                () -> retrieveColumnHeaders(datatable));
+        if (fieldsSkip) {
+            columnHeaders.removeIf(
+                    columnHeader -> "created_at".equals(columnHeader.getColumnName()) || "updated_at".equals(columnHeader.getColumnName()));
+        }
+        return columnHeaders;
+    }
+
+    private List<ResultsetColumnHeaderData> retrieveColumnHeaders(final String datatable) {
         final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
 
         final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
@@ -225,24 +293,13 @@ public class GenericDataServiceImpl implements GenericDataService {
                     columnValues = retreiveColumnValues(codeName);
                 }
             }
-            if ((columnName.equals("created_at") || columnName.equals("updated_at"))) {
-                if (!fieldsSkip) {
-                    columnHeaders.add(ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable,
-                            columnIsPrimaryKey, columnValues, codeName));
-                }
-            } else {
-                columnHeaders.add(ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable,
-                        columnIsPrimaryKey, columnValues, codeName));
-            }
-
+            columnHeaders.add(ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable, columnIsPrimaryKey,
+                    columnValues, codeName));
         }
 
         return columnHeaders;
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
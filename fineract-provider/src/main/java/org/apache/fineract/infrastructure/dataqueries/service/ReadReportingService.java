@@ -44,6 +44,12 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
 
+    /**
+     * Streams the report in the format of a serialized {@link GenericResultsetData} without loading it into memory.
+     */
+    StreamingOutput retrieveReportJson(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport,
+            boolean prettyPrint);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams,
             boolean isSelfServiceUserReport);
 
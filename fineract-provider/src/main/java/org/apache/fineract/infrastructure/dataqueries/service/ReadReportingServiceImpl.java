@@ -22,11 +22,19 @@ import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -43,6 +51,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
@@ -67,6 +76,9 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ReadReportingServiceImpl implements ReadReportingService {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final Type COLUMN_HEADERS_TYPE = new TypeToken<List<ResultsetColumnHeaderData>>() {}.getType();
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
@@ -77,77 +89,132 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
-        return out -> {
-            try {
+        // resolved up front so that an unknown report is reported before the response is committed
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+        return out -> streamReport(name, sql, new CsvRowHandler(newWriter(out)));
+    }
 
-                final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                final StringBuilder sb = generateCsvFileBuffer(result);
+    @Override
+    public StreamingOutput retrieveReportJson(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final boolean prettyPrint) {
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+        return out -> streamReport(name, sql, new JsonRowHandler(newWriter(out), prettyPrint));
+    }
 
-                final InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+    private void streamReport(final String name, final String sql, final GenericResultsetRowHandler rowHandler) throws IOException {
+        final long startTime = System.currentTimeMillis();
+        try {
+            this.genericDataService.streamGenericResultSet(sql, rowHandler);
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("FINISHING streamed Report: {}     Elapsed Time: {}", LogParameterEscapeUtil.escapeLogParameter(name),
+                    System.currentTimeMillis() - startTime);
+        }
+    }
 
-                final byte[] outputByte = new byte[4096];
-                Integer readLen = in.read(outputByte, 0, 4096);
+    private static Writer newWriter(final OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+    }
 
-                while (readLen != -1) {
-                    out.write(outputByte, 0, readLen);
-                    readLen = in.read(outputByte, 0, 4096);
-                }
-                // in.close();
-                // out.flush();
-                // out.close();
-            } catch (final Exception e) {
-                throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
-            }
-        };
+    private static boolean isNumericColumnType(final String columnType) {
+        return columnType.equals("DECIMAL") || columnType.equals("DOUBLE") || columnType.equals("BIGINT") || columnType.equals("SMALLINT")
+                || columnType.equals("INT");
     }
 
-    private StringBuilder generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuilder writer = new StringBuilder();
+    /**
+     * Writes the rows as CSV: numbers as they are, everything else quoted.
+     */
+    private final class CsvRowHandler implements GenericResultsetRowHandler {
+
+        private static final String DOUBLE_QUOTE = "\"";
+        private static final String TWO_DOUBLE_QUOTES = DOUBLE_QUOTE + DOUBLE_QUOTE;
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        log.info("NO. of Columns: {}", columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
+        private final Writer writer;
+        private boolean[] numericColumns;
+        private long rowCount;
+
+        CsvRowHandler(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            log.info("NO. of Columns: {}", columnHeaders.size());
+            this.numericColumns = new boolean[columnHeaders.size()];
+            for (int i = 0; i < columnHeaders.size(); i++) {
+                this.numericColumns[i] = isNumericColumnType(columnHeaders.get(i).getColumnType());
+                if (i > 0) {
+                    this.writer.write(',');
+                }
+                this.writer.write('"' + columnHeaders.get(i).getColumnName() + '"');
             }
+            this.writer.write('\n');
+            // get the first bytes out while the database is still producing rows
+            this.writer.flush();
         }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        log.info("NO. of Rows: {}", data.size());
-        for (ResultsetRowData element : data) {
-            row = element.getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
+
+        @Override
+        public void processRow(final List<String> row) throws IOException {
+            for (int j = 0; j < row.size(); j++) {
+                if (j > 0) {
+                    this.writer.write(',');
+                }
+                final String currVal = row.get(j);
                 if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
+                    if (this.numericColumns[j]) {
+                        this.writer.write(currVal);
                     } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                        this.writer.write('"' + genericDataService.replace(currVal, DOUBLE_QUOTE, TWO_DOUBLE_QUOTES) + '"');
                     }
-
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
                 }
             }
-            writer.append('\n');
+            this.writer.write('\n');
+            this.rowCount++;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            log.info("NO. of Rows: {}", this.rowCount);
+            this.writer.flush();
+        }
+    }
+
+    /**
+     * Writes the rows in the same JSON format as a serialized {@link GenericResultsetData}.
+     */
+    private static final class JsonRowHandler implements GenericResultsetRowHandler {
+
+        private final Gson gson;
+        private final JsonWriter jsonWriter;
+
+        JsonRowHandler(final Writer writer, final boolean prettyPrint) throws IOException {
+            this.gson = GoogleGsonSerializerHelper.createGsonBuilder(prettyPrint).create();
+            this.jsonWriter = this.gson.newJsonWriter(writer);
+        }
+
+        @Override
+        public void processColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.jsonWriter.beginObject();
+            this.jsonWriter.name("columnHeaders");
+            this.gson.toJson(columnHeaders, COLUMN_HEADERS_TYPE, this.jsonWriter);
+            this.jsonWriter.name("data");
+            this.jsonWriter.beginArray();
+            this.jsonWriter.flush();
         }
 
-        return writer;
+        @Override
+        public void processRow(final List<String> row) throws IOException {
+            this.gson.toJson(ResultsetRowData.create(row), ResultsetRowData.class, this.jsonWriter);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            this.jsonWriter.endArray();
+            this.jsonWriter.endObject();
+            this.jsonWriter.flush();
+        }
     }
 
     @Override
@@ -124,6 +124,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     private final ColumnValidator columnValidator;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final SqlInjectionPreventerService preventSqlInjectionService;
+    private final DatatableSchemaCache datatableSchemaCache;
 
     @Override
     public List<DatatableData> retrieveDatatableNames(final String appTable) {
@@ -588,6 +589,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaCache.invalidate();
             this.fromApiJsonDeserializer.validateForCreate(command.json());
 
             final JsonElement element = this.fromJsonHelper.parse(command.json());
@@ -941,6 +943,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaCache.invalidate();
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
             final JsonElement element = this.fromJsonHelper.parse(command.json());
@@ -1138,6 +1141,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaCache.invalidate();
             if (!isRegisteredDataTable(datatableName)) {
                 throw new DatatableNotFoundException(datatableName);
             }
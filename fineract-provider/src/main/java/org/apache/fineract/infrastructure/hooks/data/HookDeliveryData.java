@@ -16,16 +16,22 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.event;
+package org.apache.fineract.infrastructure.hooks.data;
 
-import java.io.Serializable;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * An event waiting in the hook delivery outbox to be sent to one hook.
+ */
 @RequiredArgsConstructor
 @Getter
-public class HookEventSource implements Serializable {
+public final class HookDeliveryData {
 
+    private final Long id;
+    private final Long hookId;
     private final String entityName;
     private final String actionName;
+    private final String payload;
+    private final int attempts;
 }
@@ -135,6 +135,10 @@ public class Hook extends AbstractAuditableCustom {
         return this.config;
     }
 
+    public boolean isActive() {
+        return Boolean.TRUE.equals(this.isActive);
+    }
+
     public Map<String, Object> update(final JsonCommand command) {
 
         final Map<String, Object> actualChanges = new LinkedHashMap<>(5);
@@ -18,11 +18,14 @@
  */
 package org.apache.fineract.infrastructure.hooks.processor;
 
+import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -32,7 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import retrofit2.Call;
-import retrofit2.Callback;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -44,6 +47,8 @@ public final class ProcessorHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProcessorHelper.class);
 
+    private static final int MAX_CACHED_SERVICES = 1000;
+
     @SuppressWarnings("unused")
     private static final X509TrustManager insecureX509TrustManager = new X509TrustManager() {
 
@@ -66,6 +71,8 @@ public final class ProcessorHelper {
      */
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
+    private final OkHttpClient client;
+    private final Map<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
 
     public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
@@ -73,6 +80,7 @@ public final class ProcessorHelper {
         } else {
             insecureSSLContext = null;
         }
+        client = createClient();
     }
 
     private OkHttpClient createClient() {
@@ -96,46 +104,37 @@ public final class ProcessorHelper {
         return insecureSSLContext;
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url) {
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
-
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
+    /**
+     * Returns the service for the URL. Services are kept per URL and share one HTTP client, so that the connections to an
+     * endpoint are reused between deliveries.
+     */
+    public WebHookService createWebHookService(final String url) {
+        if (this.webHookServices.size() >= MAX_CACHED_SERVICES) {
+            this.webHookServices.clear();
+        }
+        return this.webHookServices.computeIfAbsent(url, this::buildWebHookService);
     }
 
-    public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
+    private WebHookService buildWebHookService(final String url) {
         final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
         retrofitBuilder.baseUrl(url);
-        retrofitBuilder.client(client);
+        retrofitBuilder.client(this.client);
         retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
         final Retrofit retrofit = retrofitBuilder.build();
         return retrofit.create(WebHookService.class);
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url, String payload) {
-
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
-
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
+    /**
+     * Sends the request on the calling thread.
+     *
+     * @throws IOException
+     *             if the endpoint could not be reached or did not accept the request, so that the delivery is retried
+     */
+    public void execute(final Call<?> call, final String url) throws IOException {
+        final Response<?> response = call.execute();
+        LOG.debug("URL: {} - Status: {}", url, response.code());
+        if (!response.isSuccessful()) {
+            throw new IOException("URL: " + url + " - Status: " + response.code());
+        }
     }
 }
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+
+/**
+ * Persistent outbox of the events that still have to be delivered to hooks.
+ *
+ * Every delivery is leased when it is added or claimed, so that a delivery is only picked up again by the delivery job
+ * once the node that owns it has failed to deliver it within the lease.
+ */
+public interface HookDeliveryOutboxService {
+
+    /**
+     * Adds the event for every hook within the current transaction, it is only visible once the command committed.
+     */
+    List<Long> add(Collection<Long> hookIds, String entityName, String actionName, String payload);
+
+    /**
+     * Adds the event for every hook in a transaction of its own, for events of commands that are rolled back.
+     */
+    List<Long> addInNewTransaction(Collection<Long> hookIds, String entityName, String actionName, String payload);
+
+    List<HookDeliveryData> retrieve(Collection<Long> deliveryIds);
+
+    /**
+     * Leases and returns up to <code>limit</code> deliveries that are due.
+     */
+    List<HookDeliveryData> claimDue(int limit);
+
+    void delivered(Long deliveryId);
+
+    /**
+     * Schedules the next attempt with an exponential back-off, or moves the delivery to the dead letter table once it
+     * has used up all its attempts.
+     */
+    void failed(HookDeliveryData delivery, String error);
+}
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HookDeliveryOutboxServiceImpl implements HookDeliveryOutboxService {
+
+    /**
+     * How long a node owns a delivery it added or claimed before the delivery job hands it to another attempt.
+     */
+    static final long LEASE_SECONDS = 300;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final HookDeliveryMapper MAPPER = new HookDeliveryMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final FineractProperties fineractProperties;
+
+    @Override
+    @Transactional
+    public List<Long> add(final Collection<Long> hookIds, final String entityName, final String actionName, final String payload) {
+        return insert(hookIds, entityName, actionName, payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> addInNewTransaction(final Collection<Long> hookIds, final String entityName, final String actionName,
+            final String payload) {
+        return insert(hookIds, entityName, actionName, payload);
+    }
+
+    private List<Long> insert(final Collection<Long> hookIds, final String entityName, final String actionName, final String payload) {
+        final String sql = "insert into m_hook_delivery "
+                + "(hook_id, entity_name, action_name, payload, attempts, next_attempt_time, created_date) values (?, ?, ?, ?, 0, ?, ?)";
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final Timestamp leasedUntil = Timestamp.valueOf(now.plusSeconds(LEASE_SECONDS));
+        final List<Long> deliveryIds = new ArrayList<>(hookIds.size());
+        for (final Long hookId : hookIds) {
+            final KeyHolder keyHolder = new GeneratedKeyHolder();
+            this.jdbcTemplate.update(con -> {
+                final PreparedStatement ps = con.prepareStatement(sql, new String[] { "id" });
+                ps.setLong(1, hookId);
+                ps.setString(2, entityName);
+                ps.setString(3, actionName);
+                ps.setString(4, payload);
+                ps.setTimestamp(5, leasedUntil);
+                ps.setTimestamp(6, Timestamp.valueOf(now));
+                return ps;
+            }, keyHolder);
+            deliveryIds.add(keyHolder.getKey().longValue());
+        }
+        return deliveryIds;
+    }
+
+    @Override
+    public List<HookDeliveryData> retrieve(final Collection<Long> deliveryIds) {
+        if (deliveryIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final String sql = "select " + MAPPER.schema() + " where d.id in (" + StringUtils.repeat("?", ",", deliveryIds.size())
+                + ") order by d.id";
+        return this.jdbcTemplate.query(sql, MAPPER, deliveryIds.toArray()); // NOSONAR
+    }
+
+    @Override
+    @Transactional
+    public List<HookDeliveryData> claimDue(final int limit) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final String sql = "select " + MAPPER.schema() + " where d.next_attempt_time <= ? order by d.next_attempt_time, d.id "
+                + this.sqlGenerator.limit(limit);
+        final List<HookDeliveryData> due = this.jdbcTemplate.query(sql, MAPPER, Timestamp.valueOf(now)); // NOSONAR
+        if (due.isEmpty()) {
+            return due;
+        }
+
+        // another node may have claimed some of them in the meantime
+        final Timestamp leasedUntil = Timestamp.valueOf(now.plusSeconds(LEASE_SECONDS));
+        final List<Object[]> params = new ArrayList<>(due.size());
+        for (final HookDeliveryData delivery : due) {
+            params.add(new Object[] { leasedUntil, delivery.getId(), Timestamp.valueOf(now) });
+        }
+        final int[] updated = this.jdbcTemplate
+                .batchUpdate("update m_hook_delivery set next_attempt_time = ? where id = ? and next_attempt_time <= ?", params);
+        final List<HookDeliveryData> claimed = new ArrayList<>(due.size());
+        for (int i = 0; i < due.size(); i++) {
+            if (updated[i] != 0) {
+                claimed.add(due.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public void delivered(final Long deliveryId) {
+        this.jdbcTemplate.update("delete from m_hook_delivery where id = ?", deliveryId);
+    }
+
+    @Override
+    @Transactional
+    public void failed(final HookDeliveryData delivery, final String error) {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHook().getDelivery();
+        final int attempts = delivery.getAttempts() + 1;
+        final String lastError = StringUtils.abbreviate(error, MAX_ERROR_LENGTH);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+
+        if (attempts >= properties.getMaxAttempts()) {
+            log.warn("Giving up delivering {} {} event {} to hook {} after {} attempts: {}", delivery.getEntityName(),
+                    delivery.getActionName(), delivery.getId(), delivery.getHookId(), attempts, lastError);
+            this.jdbcTemplate.update("insert into m_hook_delivery_dead_letter "
+                    + "(hook_id, entity_name, action_name, payload, attempts, last_error, created_date, failed_date) "
+                    + "select hook_id, entity_name, action_name, payload, ?, ?, created_date, ? from m_hook_delivery where id = ?",
+                    attempts, lastError, Timestamp.valueOf(now), delivery.getId());
+            delivered(delivery.getId());
+            return;
+        }
+
+        final long delay = retryDelay(attempts, properties);
+        this.jdbcTemplate.update("update m_hook_delivery set attempts = ?, last_error = ?, next_attempt_time = ? where id = ?", attempts,
+                lastError, Timestamp.valueOf(now.plusSeconds(delay)), delivery.getId());
+    }
+
+    static long retryDelay(final int attempts, final FineractProperties.FineractHookDeliveryProperties properties) {
+        final long maxDelay = Math.max(properties.getRetryDelay(), properties.getMaxRetryDelay());
+        // retryDelay, 2 * retryDelay, 4 * retryDelay, ... without overflowing for large attempt counts
+        final int shift = Math.min(attempts - 1, 30);
+        final long delay = Math.max(properties.getRetryDelay(), 1L) << shift;
+        return Math.min(delay, maxDelay);
+    }
+
+    private static final class HookDeliveryMapper implements RowMapper<HookDeliveryData> {
+
+        public String schema() {
+            return " d.id as id, d.hook_id as hookId, d.entity_name as entityName, d.action_name as actionName, d.payload as payload, "
+                    + "d.attempts as attempts from m_hook_delivery d";
+        }
+
+        @Override
+        public HookDeliveryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new HookDeliveryData(rs.getLong("id"), rs.getLong("hookId"), rs.getString("entityName"), rs.getString("actionName"),
+                    rs.getString("payload"), rs.getInt("attempts"));
+        }
+    }
+}
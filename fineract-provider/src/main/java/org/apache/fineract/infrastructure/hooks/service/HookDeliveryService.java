@@ -16,23 +16,19 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.event;
+package org.apache.fineract.infrastructure.hooks.service;
 
-import lombok.Getter;
-import org.apache.fineract.infrastructure.core.domain.FineractContext;
-import org.apache.fineract.infrastructure.core.domain.FineractEvent;
-import org.apache.fineract.useradministration.domain.AppUser;
+import java.util.List;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
-@Getter
-public class HookEvent extends FineractEvent {
+public interface HookDeliveryService {
 
-    private final String payload;
+    /**
+     * Delivers the events once the current transaction committed, or right away if there is none.
+     */
+    void deliverAfterCommit(List<Long> deliveryIds);
 
-    private final AppUser appUser;
+    void deliver(List<Long> deliveryIds);
 
-    public HookEvent(final HookEventSource source, final String payload, final AppUser appUser, FineractContext fineractContext) {
-        super(source, fineractContext);
-        this.payload = payload;
-        this.appUser = appUser;
-    }
+    void deliverPendingHookEvents() throws JobExecutionException;
 }
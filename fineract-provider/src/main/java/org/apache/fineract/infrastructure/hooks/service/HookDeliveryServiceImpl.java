@@ -0,0 +1,234 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Delivers the hook events of the {@link HookDeliveryOutboxService} on a bounded pool of delivery threads.
+ *
+ * Events are handed to the pool when the command that raised them committed. If the queue of the pool is full the
+ * events stay in the outbox and are picked up by the <code>Deliver Hook Events</code> job once their lease expired, so
+ * a slow or unavailable endpoint never holds up the commands or fills up the memory. The events of a hook are sent one
+ * after the other over the same connection; once one of them fails, the remaining ones are left to the job as well.
+ * Failed events are retried with an exponential back-off until they are moved to the dead letter table.
+ *
+ * Delivery is at least once: an endpoint may receive an event again if the node stopped between sending it and removing
+ * it from the outbox.
+ */
+@Slf4j
+@Service
+public class HookDeliveryServiceImpl implements HookDeliveryService {
+
+    private final HookDeliveryOutboxService outboxService;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final FineractProperties fineractProperties;
+    private final ThreadPoolExecutor executorService;
+
+    @Autowired
+    public HookDeliveryServiceImpl(final HookDeliveryOutboxService outboxService, final HookRepository hookRepository,
+            final HookProcessorProvider hookProcessorProvider, final FineractProperties fineractProperties) {
+        this.outboxService = outboxService;
+        this.hookRepository = hookRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.fineractProperties = fineractProperties;
+        final FineractProperties.FineractHookDeliveryProperties properties = fineractProperties.getHook().getDelivery();
+        this.executorService = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), new HookDeliveryThreadFactory());
+    }
+
+    @Override
+    public void deliverAfterCommit(final List<Long> deliveryIds) {
+        if (deliveryIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    deliver(deliveryIds);
+                }
+            });
+        } else {
+            deliver(deliveryIds);
+        }
+    }
+
+    @Override
+    public void deliver(final List<Long> deliveryIds) {
+        if (deliveryIds.isEmpty()) {
+            return;
+        }
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication auth = currentAuthentication();
+        try {
+            this.executorService
+                    .execute(() -> runInContext(context, auth, () -> deliverAll(this.outboxService.retrieve(deliveryIds), context)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Hook delivery queue is full, {} hook events are left to the Deliver Hook Events job", deliveryIds.size());
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.DELIVER_HOOK_EVENTS)
+    public void deliverPendingHookEvents() throws JobExecutionException {
+        final int batchSize = this.fineractProperties.getHook().getDelivery().getBatchSize();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication auth = currentAuthentication();
+        final List<Throwable> errors = new ArrayList<>();
+
+        List<HookDeliveryData> claimed;
+        do {
+            claimed = this.outboxService.claimDue(batchSize);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final List<HookDeliveryData> deliveries : groupByHook(claimed).values()) {
+                FutureTask<Void> task = new FutureTask<>(() -> runInContext(context, auth, () -> deliverToHook(deliveries, context)), null);
+                try {
+                    this.executorService.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // the pool is busy, deliver on the job thread instead, which already has the context and needs to keep it
+                    task = new FutureTask<>(() -> deliverToHook(deliveries, context), null);
+                    task.run();
+                }
+                futures.add(task);
+            }
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new JobExecutionException(List.of(e));
+                } catch (ExecutionException e) {
+                    errors.add(e.getCause());
+                }
+            }
+        } while (claimed.size() == batchSize);
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    private void deliverAll(final List<HookDeliveryData> deliveries, final FineractContext context) {
+        for (final List<HookDeliveryData> hookDeliveries : groupByHook(deliveries).values()) {
+            deliverToHook(hookDeliveries, context);
+        }
+    }
+
+    private void deliverToHook(final List<HookDeliveryData> deliveries, final FineractContext context) {
+        final Long hookId = deliveries.get(0).getHookId();
+        final Hook hook = this.hookRepository.findById(hookId).orElse(null);
+        final HookProcessor processor = hook == null || !hook.isActive() ? null : this.hookProcessorProvider.getProcessor(hook);
+        if (processor == null) {
+            log.info("Hook {} no longer exists, is inactive or has an unknown template, discarding {} hook events", hookId,
+                    deliveries.size());
+            deliveries.forEach(delivery -> this.outboxService.delivered(delivery.getId()));
+            return;
+        }
+
+        for (final HookDeliveryData delivery : deliveries) {
+            try {
+                processor.process(hook, delivery.getPayload(), delivery.getEntityName(), delivery.getActionName(), context);
+            } catch (Exception e) {
+                log.warn("Hook {} failed in HookProcessor {} for tenantIdentifier {}, entityName: {}, actionName: {}, attempt {}", hookId,
+                        processor.getClass().getSimpleName(), context.getTenantContext().getTenantIdentifier(), delivery.getEntityName(),
+                        delivery.getActionName(), delivery.getAttempts() + 1, e);
+                this.outboxService.failed(delivery, e.toString());
+                // the endpoint is unlikely to accept the next ones right now
+                return;
+            }
+            this.outboxService.delivered(delivery.getId());
+        }
+    }
+
+    private static Map<Long, List<HookDeliveryData>> groupByHook(final List<HookDeliveryData> deliveries) {
+        final Map<Long, List<HookDeliveryData>> deliveriesByHook = new LinkedHashMap<>();
+        for (final HookDeliveryData delivery : deliveries) {
+            deliveriesByHook.computeIfAbsent(delivery.getHookId(), hookId -> new ArrayList<>()).add(delivery);
+        }
+        return deliveriesByHook;
+    }
+
+    private static void runInContext(final FineractContext context, final Authentication auth, final Runnable runnable) {
+        ThreadLocalContextUtil.init(context);
+        if (auth != null) {
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+        try {
+            runnable.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.reset();
+        }
+    }
+
+    private static Authentication currentAuthentication() {
+        return SecurityContextHolder.getContext() == null ? null : SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static final class HookDeliveryThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "hook-delivery-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -59,6 +59,9 @@ public class ScheduledJobRunHistory extends AbstractPersistableCustom {
     @Column(name = "error_log")
     private String errorLog;
 
+    @Column(name = "execution_statistics")
+    private String executionStatistics;
+
     public ScheduledJobRunHistory() {
 
     }
@@ -75,4 +78,8 @@ public class ScheduledJobRunHistory extends AbstractPersistableCustom {
         this.errorLog = errorLog;
     }
 
+    public void updateExecutionStatistics(final String executionStatistics) {
+        this.executionStatistics = executionStatistics;
+    }
+
 }
@@ -21,176 +21,263 @@ package org.apache.fineract.infrastructure.jobs.service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Runs the work of a job on a shared, bounded worker pool.
+ *
+ * The work is cut into small chunks which are put on a queue; a job run gets a number of workers (the
+ * <code>number-of-threads</code> job parameter, bounded by the pool size) that keep pulling the next chunk until the
+ * queue is empty. A worker that draws slow accounts therefore no longer holds back the others. Tenant, authentication,
+ * business dates and job parameters of the calling thread are carried over to the workers.
+ *
+ * A run is cancelled when the calling thread is interrupted or the application shuts down: chunks that have not been
+ * started yet are skipped, whether they run on the workers or on the calling thread. The time spent on every chunk is
+ * collected in a {@link JobExecutionStatistics} which is stored with the run history of the job.
+ */
+@Slf4j
 @Component
 public class JobExecuter {
 
     public static final String ENTITY_COLLECTION = "entityCollection";
     public static final String EXCEPTION_BUILDER = "exceptionBuilder";
 
+    public static final String NUMBER_OF_THREADS_PARAM = "number-of-threads";
+    public static final String CHUNK_SIZE_PARAM = "chunk-size";
+
+    private static final int DEFAULT_POOL_SIZE = 8;
+    private static final int DEFAULT_CHUNK_SIZE = 50;
+
+    private static final ThreadLocal<JobExecutionStatistics> statistics = new ThreadLocal<>();
+
+    private final ExecutorService executorService;
+    private final int poolSize;
+    private final int defaultChunkSize;
+    private final Set<AtomicBoolean> runningExecutions = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public JobExecuter(final FineractProperties fineractProperties) {
+        final FineractProperties.FineractJobProperties jobProperties = fineractProperties.getJob();
+        this.poolSize = jobProperties == null || jobProperties.getExecutorPoolSize() <= 0 ? DEFAULT_POOL_SIZE
+                : jobProperties.getExecutorPoolSize();
+        this.defaultChunkSize = jobProperties == null || jobProperties.getChunkSize() <= 0 ? DEFAULT_CHUNK_SIZE
+                : jobProperties.getChunkSize();
+        this.executorService = new ThreadPoolExecutor(this.poolSize, this.poolSize, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new JobWorkerThreadFactory());
+    }
+
     public <V> String executeJob(List<V> baseList, final JobRunner<List<V>> jobRunner) {
-        final StringBuilder sb = new StringBuilder();
-        if (!baseList.isEmpty()) {
-            int numberOfThreads = getNumberOfThreads();
-            int listSize = baseList.size();
-            if (numberOfThreads <= 1 || numberOfThreads > listSize) {
-                jobRunner.runJob(baseList, sb);
-            } else {
-                int subListSize = listSize / numberOfThreads;
-                List<StringBuilder> bufferes = new ArrayList<>(numberOfThreads);
-                try {
-                    List<Thread> threads = new ArrayList<>();
-                    List<List<V>> subLists = splitList(baseList, subListSize, numberOfThreads);
-                    for (List<V> subList : subLists) {
-                        final StringBuilder threadsb = new StringBuilder();
-                        bufferes.add(threadsb);
-                        if (subList.size() > 0) {
-                            Thread thread = new Thread(new JobRunnerThread<>(jobRunner, subList, threadsb));
-                            thread.start();
-                            threads.add(thread);
-                        }
-                    }
-                    for (Thread thread : threads) {
-                        thread.join();
-                    }
-                    for (StringBuilder threadsb : bufferes) {
-                        sb.append(threadsb.toString());
-                    }
-                } catch (InterruptedException e) {
-                    sb.append("Thread Interrupted for " + jobRunner.toString() + " : " + e.getMessage());
-                }
-            }
+        return executeJob(baseList, jobRunner, getNumberOfThreads(), getChunkSize());
+    }
 
+    public <V> String executeJob(final List<V> baseList, final JobRunner<List<V>> jobRunner, final int numberOfThreads,
+            final int chunkSize) {
+        final List<List<V>> chunks = new ArrayList<>();
+        for (int from = 0; from < baseList.size(); from += chunkSize) {
+            chunks.add(baseList.subList(from, Math.min(from + chunkSize, baseList.size())));
         }
-        return sb.toString();
+        return execute(chunks, jobRunner, numberOfThreads);
     }
 
     public <K, V> String executeJob(Map<K, V> baseMap, final JobRunner<Map<K, V>> jobRunner) {
-        final StringBuilder sb = new StringBuilder();
+        final List<Map<K, V>> chunks = new ArrayList<>();
         if (!baseMap.isEmpty()) {
-            int numberOfThreads = getNumberOfThreads();
-            int size = baseMap.size();
-            if (numberOfThreads <= 1 || numberOfThreads > size) {
-                jobRunner.runJob(baseMap, sb);
-            } else {
-                TreeMap<K, V> sortedMap = new TreeMap<>(baseMap);
-                int subCollectionSize = size / numberOfThreads;
-                List<StringBuilder> bufferes = new ArrayList<>(numberOfThreads);
-                List<SortedMap<K, V>> mapsList = splitMap(sortedMap, subCollectionSize, numberOfThreads);
-                List<Thread> threads = new ArrayList<>(mapsList.size());
-                try {
-                    for (SortedMap<K, V> map : mapsList) {
-                        final StringBuilder threadsb = new StringBuilder();
-                        bufferes.add(threadsb);
-                        if (!map.isEmpty()) {
-                            Thread thread = new Thread(new JobRunnerThread<>(jobRunner, map, threadsb));
-                            thread.start();
-                            threads.add(thread);
-                        }
-                    }
-
-                    for (Thread thread : threads) {
-                        thread.join();
-                    }
-                    for (StringBuilder threadsb : bufferes) {
-                        sb.append(threadsb.toString());
-                    }
-                } catch (InterruptedException e) {
-                    sb.append("Thread Interrupted for " + jobRunner.toString() + " : " + e.getMessage());
-                }
+            final int chunkSize = getChunkSize();
+            final SortedMap<K, V> sortedMap = new TreeMap<>(baseMap);
+            final List<K> keys = new ArrayList<>(sortedMap.keySet());
+            for (int from = 0; from < keys.size(); from += chunkSize) {
+                final int to = from + chunkSize;
+                chunks.add(to < keys.size() ? sortedMap.subMap(keys.get(from), keys.get(to)) : sortedMap.tailMap(keys.get(from)));
             }
-
         }
-        return sb.toString();
+        return execute(chunks, jobRunner, getNumberOfThreads());
+    }
+
+    /**
+     * Returns and clears the statistics collected by the job runs of the current thread.
+     */
+    public static JobExecutionStatistics drainStatistics() {
+        final JobExecutionStatistics result = statistics.get();
+        statistics.remove();
+        return result;
     }
 
-    private static class JobRunnerThread<T> implements Runnable {
+    @PreDestroy
+    public void shutdown() {
+        this.runningExecutions.forEach(cancelled -> cancelled.set(true));
+        this.executorService.shutdownNow();
+    }
 
-        final FineractPlatformTenant tenant;
-        final T jobDetail;
-        final JobRunner<T> jobRunner;
-        final StringBuilder sb;
-        final Authentication auth;
+    private <T> String execute(final List<T> chunks, final JobRunner<T> jobRunner, final int numberOfThreads) {
+        final StringBuilder sb = new StringBuilder();
+        if (chunks.isEmpty()) {
+            return sb.toString();
+        }
 
-        public JobRunnerThread(final JobRunner<T> jobRunner, final T jobDetail, final StringBuilder sb) {
-            this.tenant = ThreadLocalContextUtil.getTenant();
-            this.jobRunner = jobRunner;
-            this.jobDetail = jobDetail;
-            this.sb = sb;
-            if (SecurityContextHolder.getContext() == null) {
-                this.auth = null;
+        final JobExecutionStatistics stats = currentStatistics();
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        this.runningExecutions.add(cancelled);
+        try {
+            final int workers = Math.max(1, Math.min(Math.min(numberOfThreads, this.poolSize), chunks.size()));
+            if (workers == 1) {
+                // nothing to parallelise, keep the work on the calling thread
+                executeOnCallingThread(chunks, jobRunner, sb, stats, cancelled);
             } else {
-                this.auth = SecurityContextHolder.getContext().getAuthentication();
+                executeOnWorkers(chunks, jobRunner, workers, sb, stats, cancelled);
             }
+        } finally {
+            this.runningExecutions.remove(cancelled);
         }
+        return sb.toString();
+    }
 
-        @Override
-        public void run() {
-            ThreadLocalContextUtil.setTenant(tenant);
-            if (this.auth != null) {
-                SecurityContextHolder.getContext().setAuthentication(this.auth);
+    private <T> void executeOnCallingThread(final List<T> chunks, final JobRunner<T> jobRunner, final StringBuilder sb,
+            final JobExecutionStatistics stats, final AtomicBoolean cancelled) {
+        for (int index = 0; index < chunks.size(); index++) {
+            if (cancelled.get() || Thread.currentThread().isInterrupted()) {
+                log.warn("Job run {} cancelled, {} of {} chunks were not processed", jobRunner, chunks.size() - index, chunks.size());
+                stats.skipped(chunks.size() - index);
+                return;
             }
-            this.jobRunner.runJob(this.jobDetail, this.sb);
+            runChunk(jobRunner, chunks.get(index), sb, stats);
         }
-
     }
 
-    private <V> List<List<V>> splitList(List<V> list, int size, int MaxSize) {
-        int listSize = list.size();
-        List<List<V>> parts = new ArrayList<>();
-        int partSize = 0;
-        for (int i = 0; i < listSize; i += size) {
-            partSize++;
-            if (i + size < listSize) {
-                if (partSize == MaxSize) {
-                    parts.add(list.subList(i, listSize));
-                    break;
-                }
-                parts.add(list.subList(i, i + size));
-            } else {
-                parts.add(list.subList(i, listSize));
+    private <T> void executeOnWorkers(final List<T> chunks, final JobRunner<T> jobRunner, final int workers, final StringBuilder sb,
+            final JobExecutionStatistics stats, final AtomicBoolean cancelled) {
+        final Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            pending.add(i);
+        }
+        final StringBuilder[] buffers = new StringBuilder[chunks.size()];
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Map<String, Object> jobParams = ThreadLocalContextUtil.getJobParams();
+        final Authentication auth = SecurityContextHolder.getContext() == null ? null
+                : SecurityContextHolder.getContext().getAuthentication();
+
+        final List<Future<?>> futures = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                futures.add(this.executorService.submit(() -> {
+                    ThreadLocalContextUtil.init(context);
+                    ThreadLocalContextUtil.setJobParams(jobParams);
+                    if (auth != null) {
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                    }
+                    try {
+                        Integer index;
+                        while (!cancelled.get() && (index = pending.poll()) != null) {
+                            buffers[index] = new StringBuilder();
+                            runChunk(jobRunner, chunks.get(index), buffers[index], stats);
+                        }
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.reset();
+                    }
+                }));
             }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            sb.append("Thread Interrupted for ").append(jobRunner).append(" : ").append(e.getMessage());
+        } catch (ExecutionException e) {
+            cancelled.set(true);
+            log.error("Job chunk execution failed for {}", jobRunner, e.getCause());
+            sb.append("Job execution failed for ").append(jobRunner).append(" : ").append(e.getCause().getMessage());
         }
-        return parts;
-    }
-
-    private <K, V> List<SortedMap<K, V>> splitMap(final SortedMap<K, V> map, final int size, int MaxSize) {
-        List<K> keys = new ArrayList<>(map.keySet());
-        List<SortedMap<K, V>> parts = new ArrayList<>();
-        final int listSize = map.size();
-        int partSize = 0;
-        for (int i = 0; i < listSize; i += size) {
-            partSize++;
-            if (i + size < listSize) {
-                if (partSize == MaxSize) {
-                    parts.add(map.tailMap(keys.get(i)));
-                    break;
-                }
-                parts.add(map.subMap(keys.get(i), keys.get(i + size)));
-            } else {
-                parts.add(map.tailMap(keys.get(i)));
+
+        if (cancelled.get() && !pending.isEmpty()) {
+            log.warn("Job run {} cancelled, {} of {} chunks were not processed", jobRunner, pending.size(), chunks.size());
+            stats.skipped(pending.size());
+        }
+        for (StringBuilder buffer : buffers) {
+            if (buffer != null) {
+                sb.append(buffer);
             }
         }
-        return parts;
+    }
+
+    private <T> void runChunk(final JobRunner<T> jobRunner, final T chunk, final StringBuilder sb, final JobExecutionStatistics stats) {
+        final long start = System.nanoTime();
+        try {
+            jobRunner.runJob(chunk, sb);
+        } finally {
+            stats.record(chunkSize(chunk), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private static int chunkSize(final Object chunk) {
+        if (chunk instanceof List) {
+            return ((List<?>) chunk).size();
+        }
+        if (chunk instanceof Map) {
+            return ((Map<?, ?>) chunk).size();
+        }
+        return 1;
+    }
+
+    private static JobExecutionStatistics currentStatistics() {
+        JobExecutionStatistics stats = statistics.get();
+        if (stats == null) {
+            stats = new JobExecutionStatistics();
+            statistics.set(stats);
+        }
+        return stats;
     }
 
     private int getNumberOfThreads() {
-        Map<String, Object> jobParams = ThreadLocalContextUtil.getJobParams();
-        int numberOfThreads = 1;
-        if (jobParams != null && jobParams.containsKey("number-of-threads")) {
-            numberOfThreads = Integer.parseInt(String.valueOf(jobParams.get("number-of-threads")));
-            if (numberOfThreads == 0) {
-                numberOfThreads = 1;
-            }
+        final int numberOfThreads = getIntJobParameter(NUMBER_OF_THREADS_PARAM, 1);
+        return numberOfThreads <= 0 ? 1 : numberOfThreads;
+    }
+
+    private int getChunkSize() {
+        final int chunkSize = getIntJobParameter(CHUNK_SIZE_PARAM, this.defaultChunkSize);
+        return chunkSize <= 0 ? this.defaultChunkSize : chunkSize;
+    }
+
+    private static int getIntJobParameter(final String name, final int defaultValue) {
+        final Map<String, Object> jobParams = ThreadLocalContextUtil.getJobParams();
+        if (jobParams != null && jobParams.containsKey(name)) {
+            return Integer.parseInt(String.valueOf(jobParams.get(name)));
         }
-        return numberOfThreads;
+        return defaultValue;
     }
 
+    private static final class JobWorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "job-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-chunk timings of the work a job run handed to {@link JobExecuter}. Only the first {@link #MAX_RECORDED_CHUNKS}
+ * chunk timings are kept individually, the aggregates cover all chunks.
+ */
+public class JobExecutionStatistics {
+
+    static final int MAX_RECORDED_CHUNKS = 500;
+
+    private final List<Long> chunkMillis = new ArrayList<>();
+    private int chunks;
+    private long items;
+    private long totalMillis;
+    private long minMillis = Long.MAX_VALUE;
+    private long maxMillis;
+    private int skippedChunks;
+
+    public synchronized void record(final int chunkItems, final long millis) {
+        this.chunks++;
+        this.items += chunkItems;
+        this.totalMillis += millis;
+        this.minMillis = Math.min(this.minMillis, millis);
+        this.maxMillis = Math.max(this.maxMillis, millis);
+        if (this.chunkMillis.size() < MAX_RECORDED_CHUNKS) {
+            this.chunkMillis.add(millis);
+        }
+    }
+
+    public synchronized void skipped(final int skipped) {
+        this.skippedChunks += skipped;
+    }
+
+    public synchronized int getChunks() {
+        return this.chunks;
+    }
+
+    public synchronized long getItems() {
+        return this.items;
+    }
+
+    public synchronized int getSkippedChunks() {
+        return this.skippedChunks;
+    }
+
+    /**
+     * Compact JSON representation stored in the job run history.
+     */
+    public synchronized String toJson() {
+        final StringBuilder sb = new StringBuilder(64 + this.chunkMillis.size() * 4);
+        sb.append("{\"chunks\":").append(this.chunks).append(",\"items\":").append(this.items).append(",\"skippedChunks\":")
+                .append(this.skippedChunks).append(",\"totalChunkMillis\":").append(this.totalMillis).append(",\"minChunkMillis\":")
+                .append(this.chunks == 0 ? 0 : this.minMillis).append(",\"avgChunkMillis\":")
+                .append(this.chunks == 0 ? 0 : this.totalMillis / this.chunks).append(",\"maxChunkMillis\":").append(this.maxMillis)
+                .append(",\"chunkMillis\":[");
+        for (int i = 0; i < this.chunkMillis.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(this.chunkMillis.get(i));
+        }
+        return sb.append("]}").toString();
+    }
+}
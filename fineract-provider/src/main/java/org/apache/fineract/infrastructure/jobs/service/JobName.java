@@ -54,7 +54,8 @@ public enum JobName {
                                                                                                                                                                                                                                                             "Post Accrual Interest for Savings"), POST_LOAN_REPAYMENT_REMINDER(
                                                                                                                                                                                                                                                                     "Post Loan Repayment Reminder"), PROCESS_LOAN_REPAYMENT_REMINDER(
                                                                                                                                                                                                                                                                             "Process Loan Repayment Reminder"), NOTIFY_FAILED_STANDING_INSTRUCTIONS(
-                                                                                                                                                                                                                                                                                    "Notify Failed Standing Instructions");
+                                                                                                                                                                                                                                                                                    "Notify Failed Standing Instructions"), LOAN_COB("Loan COB"), DELIVER_HOOK_EVENTS("Deliver Hook Events"), REBUILD_SEARCH_INDEX("Rebuild Search Index"), REBUILD_LOAN_ARREARS_AGEING(
+                                                                                                                                                                                                                                                                                    "Rebuild Loan Arrears Ageing"), DELIVER_BUSINESS_EVENTS("Deliver Business Events");
 
     private final String name;
 
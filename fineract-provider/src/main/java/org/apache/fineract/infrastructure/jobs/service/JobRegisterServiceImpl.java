@@ -87,6 +87,9 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     @Autowired
     private JobParameterRepository jobParameterRepository;
 
+    @Autowired
+    private SchedulerJobStateRegistry jobStateRegistry;
+
     private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
 
     // This cannot be injected as Autowired due to circular dependency
@@ -111,6 +114,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
                 jobDetails.updateTriggerMisfired(false);
                 this.schedularWritePlatformService.saveOrUpdate(jobDetails);
             }
+            // scheduling marked the jobs of the tenant as not running
+            this.jobStateRegistry.jobStateChanged();
             final SchedulerDetail schedulerDetail = this.schedularWritePlatformService.retriveSchedulerDetail();
             if (schedulerDetail.isResetSchedulerOnBootup()) {
                 schedulerDetail.updateSuspendedState(false);
@@ -167,6 +172,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             scheduledJobDetail.updateErrorLog(stackTrace);
             this.schedularWritePlatformService.saveOrUpdate(scheduledJobDetail);
         }
+        // scheduling marked the job as not running
+        this.jobStateRegistry.jobStateChanged();
     }
 
     @Override
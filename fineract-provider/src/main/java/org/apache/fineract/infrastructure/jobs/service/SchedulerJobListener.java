@@ -55,6 +55,7 @@ public class SchedulerJobListener implements JobListener {
     private final AppUserRepositoryWrapper userRepository;
     private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
     private final BusinessDateReadPlatformService businessDateReadPlatformService;
+    private final SchedulerJobStateRegistry jobStateRegistry;
     private int stackTraceLevel = 0;
 
     @Override
@@ -70,6 +71,10 @@ public class SchedulerJobListener implements JobListener {
         SecurityContextHolder.getContext().setAuthentication(auth);
         HashMap<BusinessDateType, LocalDate> businessDates = businessDateReadPlatformService.getBusinessDates();
         ThreadLocalContextUtil.setBusinessDates(businessDates);
+        // discard statistics a previous job on this thread might have left behind
+        JobExecuter.drainStatistics();
+        // the job was marked as running when the trigger was not vetoed
+        this.jobStateRegistry.jobStateChanged();
     }
 
     @Override
@@ -124,8 +129,13 @@ public class SchedulerJobListener implements JobListener {
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
                 new Date(), status, errorMessage, triggerType, errorLog);
         // scheduledJobDetails.addRunHistory(runHistory);
+        final JobExecutionStatistics executionStatistics = JobExecuter.drainStatistics();
+        if (executionStatistics != null) {
+            runHistory.updateExecutionStatistics(executionStatistics.toJson());
+        }
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
+        this.jobStateRegistry.jobStateChanged();
 
     }
 
@@ -47,14 +47,17 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
     private final DatabaseSpecificSQLGenerator sqlGenerator;
 
     private final PaginationHelper paginationHelper;
+    private final SchedulerJobStateRegistry jobStateRegistry;
 
     @Autowired
     public SchedulerJobRunnerReadServiceImpl(final JdbcTemplate jdbcTemplate, final ColumnValidator columnValidator,
-            DatabaseSpecificSQLGenerator sqlGenerator, PaginationHelper paginationHelper) {
+            DatabaseSpecificSQLGenerator sqlGenerator, PaginationHelper paginationHelper,
+            final SchedulerJobStateRegistry jobStateRegistry) {
         this.jdbcTemplate = jdbcTemplate;
         this.columnValidator = columnValidator;
         this.sqlGenerator = sqlGenerator;
         this.paginationHelper = paginationHelper;
+        this.jobStateRegistry = jobStateRegistry;
     }
 
     @Override
@@ -110,9 +113,8 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
     @Override
     public boolean isUpdatesAllowed() {
-        final String sql = "select job.display_name from job job where job.currently_running=true and job.updates_allowed=false";
-        final List<String> names = this.jdbcTemplate.queryForList(sql, String.class);
-        if (names != null && names.size() > 0) {
+        final List<String> names = this.jobStateRegistry.getJobsBlockingUpdates();
+        if (!names.isEmpty()) {
             final String listVals = names.toString();
             final String jobNames = listVals.substring(listVals.indexOf("[") + 1, listVals.indexOf("]"));
             throw new OperationNotAllowedException(jobNames);
@@ -144,7 +146,7 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
                     " job.id,job.display_name as displayName,job.next_run_time as nextRunTime,job.initializing_errorlog as initializingError,job.cron_expression as cronExpression,job.is_active as active,job.currently_running as currentlyRunning,")
                     .append(" runHistory.version,runHistory.start_time as lastRunStartTime,runHistory.end_time as lastRunEndTime,runHistory."
                             + sqlGenerator.escape("status")
-                            + ",runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog ")
+                            + ",runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog,runHistory.execution_statistics as executionStatistics ")
                     .append(" from job job  left join job_run_history runHistory ON job.id=runHistory.job_id and job.previous_run_start_time=runHistory.start_time ");
         }
 
@@ -169,11 +171,12 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
             final String jobRunErrorMessage = rs.getString("jobRunErrorMessage");
             final String triggerType = rs.getString("triggerType");
             final String jobRunErrorLog = rs.getString("jobRunErrorLog");
+            final String executionStatistics = rs.getString("executionStatistics");
 
             JobDetailHistoryData lastRunHistory = null;
             if (version > 0) {
                 lastRunHistory = new JobDetailHistoryData(version, jobRunStartTime, jobRunEndTime, status, jobRunErrorMessage, triggerType,
-                        jobRunErrorLog);
+                        jobRunErrorLog, executionStatistics);
             }
             final JobDetailData jobDetail = new JobDetailData(id, displayName, nextRunTime, initializingError, cronExpression, active,
                     currentlyRunning, lastRunHistory);
@@ -190,7 +193,7 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
             sqlBuilder = new StringBuilder(200)
                     .append(" runHistory.version,runHistory.start_time as runStartTime,runHistory.end_time as runEndTime,runHistory."
                             + sqlGenerator.escape("status")
-                            + ",runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog ")
+                            + ",runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog,runHistory.execution_statistics as executionStatistics ")
                     .append(" from job job join job_run_history runHistory ON job.id=runHistory.job_id");
         }
 
@@ -207,8 +210,9 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
             final String jobRunErrorMessage = rs.getString("jobRunErrorMessage");
             final String triggerType = rs.getString("triggerType");
             final String jobRunErrorLog = rs.getString("jobRunErrorLog");
+            final String executionStatistics = rs.getString("executionStatistics");
             final JobDetailHistoryData jobDetailHistory = new JobDetailHistoryData(version, jobRunStartTime, jobRunEndTime, status,
-                    jobRunErrorMessage, triggerType, jobRunErrorLog);
+                    jobRunErrorMessage, triggerType, jobRunErrorLog, executionStatistics);
             return jobDetailHistory;
         }
 
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.cache.service.MultiNodeCacheManager;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the names of the running jobs that do not allow updates in memory, per tenant, so that the write path does not
+ * have to query the job table for every command.
+ *
+ * The state is loaded from the database on first use and dropped by the {@link SchedulerJobListener} whenever a job
+ * starts or finishes. The registry always uses the local cache, independent of the cache type chosen by the user; with
+ * the multi node cache configured the changes are broadcast to the other nodes as well.
+ */
+@Component
+public class SchedulerJobStateRegistry {
+
+    static final String CACHE_NAME = "jobsBlockingUpdates";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache cache;
+
+    @Autowired
+    public SchedulerJobStateRegistry(final JdbcTemplate jdbcTemplate, final JCacheCacheManager localCacheManager,
+            final ObjectProvider<MultiNodeCacheManager> multiNodeCacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        final CacheManager cacheManager = multiNodeCacheManager.getIfAvailable();
+        this.cache = (cacheManager != null ? cacheManager : localCacheManager).getCache(CACHE_NAME);
+    }
+
+    /**
+     * Returns the display names of the jobs of the current tenant that are running and do not allow updates.
+     */
+    public List<String> getJobsBlockingUpdates() {
+        return this.cache.get(currentTenantIdentifier(), this::retrieveJobsBlockingUpdates);
+    }
+
+    /**
+     * To be called after a change of the running state of a job of the current tenant was committed.
+     */
+    public void jobStateChanged() {
+        this.cache.evict(currentTenantIdentifier());
+    }
+
+    private List<String> retrieveJobsBlockingUpdates() {
+        final String sql = "select job.display_name from job job where job.currently_running=true and job.updates_allowed=false";
+        return List.copyOf(this.jdbcTemplate.queryForList(sql, String.class));
+    }
+
+    private static String currentTenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformService;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.ReadReplicaRouting;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.data.PlatformRequestLog;
@@ -127,6 +128,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                 }
                 final FineractPlatformTenant tenant = this.basicAuthTenantDetailsService.loadTenantById(tenantIdentifier, isReportRequest);
                 ThreadLocalContextUtil.setTenant(tenant);
+                ThreadLocalContextUtil.setReadReplicaRouting(ReadReplicaRouting.forRequest(request.getMethod(), isReportRequest));
                 HashMap<BusinessDateType, LocalDate> businessDates = this.businessDateReadPlatformService.getBusinessDates();
                 ThreadLocalContextUtil.setBusinessDates(businessDates);
                 String authToken = request.getHeader("Authorization");
@@ -135,12 +137,14 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                     ThreadLocalContextUtil.setAuthToken(authToken.replaceFirst("Basic ", ""));
                 }
 
-                if (!firstRequestProcessed) {
+                // actuator requests carry no path info, so leave the base URL to the first API request
+                if (!firstRequestProcessed && request.getPathInfo() != null) {
                     final String baseUrl = request.getRequestURL().toString().replace(request.getPathInfo(), "/");
                     System.setProperty("baseUrl", baseUrl);
 
-                    final boolean ehcacheEnabled = this.configurationDomainService.isEhcacheEnabled();
-                    if (ehcacheEnabled) {
+                    if (this.configurationDomainService.isDistributedCacheEnabled()) {
+                        this.cacheWritePlatformService.switchToCache(CacheType.MULTI_NODE);
+                    } else if (this.configurationDomainService.isEhcacheEnabled()) {
                         this.cacheWritePlatformService.switchToCache(CacheType.SINGLE_NODE);
                     } else {
                         this.cacheWritePlatformService.switchToCache(CacheType.NO_CACHE);
@@ -157,6 +161,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Fineract Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            ThreadLocalContextUtil.clearReadReplicaRouting();
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             LOG.debug("{}", this.toApiJsonSerializer.serialize(log));
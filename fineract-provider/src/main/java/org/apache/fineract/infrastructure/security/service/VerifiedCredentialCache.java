@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the basic auth credentials that were recently verified against the password hash of a user, so that
+ * repeated requests with the same credentials do not pay for a password hash (bcrypt) each time.
+ *
+ * Entries are keyed by tenant and a HMAC of the username and password under a key that only lives in the memory of
+ * this node; the plain password is never stored. An entry is only used while the encoded password of the user is still
+ * the one it was verified against, so a password change made on another node invalidates it as soon as the user is
+ * reloaded. Entries expire after <code>fineract.security.basicauth.credential-cache.time-to-live</code> seconds.
+ */
+@Slf4j
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String METRIC_NAME = "fineract.security.credential.cache";
+
+    private final boolean enabled;
+    private final long timeToLiveMillis;
+    private final int maxSize;
+    private final Map<String, VerifiedCredential> entries = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> macs;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public VerifiedCredentialCache(final FineractProperties fineractProperties, final MeterRegistry meterRegistry) {
+        final FineractProperties.FineractCredentialCacheProperties properties = fineractProperties.getSecurity().getBasicauth()
+                .getCredentialCache();
+        this.enabled = properties.isEnabled() && properties.getTimeToLive() > 0 && properties.getMaxSize() > 0;
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(properties.getTimeToLive());
+        this.maxSize = properties.getMaxSize();
+
+        final byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        final SecretKeySpec key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not initialise " + HMAC_ALGORITHM, e);
+            }
+        });
+
+        this.hits = Counter.builder(METRIC_NAME).tag("result", "hit").description("Basic auth requests verified from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME).tag("result", "miss")
+                .description("Basic auth requests that needed a password hash check").register(meterRegistry);
+        meterRegistry.gauge(METRIC_NAME + ".size", this.entries, Map::size);
+    }
+
+    /**
+     * Returns true if the password was recently verified for the user of the current tenant and the encoded password of
+     * the user did not change since.
+     */
+    public boolean isVerified(final String username, final String presentedPassword, final String encodedPassword) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (!this.enabled || tenantIdentifier == null) {
+            return false;
+        }
+        final String key = key(tenantIdentifier, username, presentedPassword);
+        final VerifiedCredential credential = this.entries.get(key);
+        if (credential == null) {
+            this.misses.increment();
+            return false;
+        }
+        if (credential.isExpired(System.currentTimeMillis()) || !credential.encodedPassword.equals(encodedPassword)) {
+            this.entries.remove(key, credential);
+            this.misses.increment();
+            return false;
+        }
+        this.hits.increment();
+        return true;
+    }
+
+    public void put(final String username, final String presentedPassword, final String encodedPassword) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (!this.enabled || tenantIdentifier == null || encodedPassword == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (this.entries.size() >= this.maxSize) {
+            this.entries.values().removeIf(credential -> credential.isExpired(now));
+            if (this.entries.size() >= this.maxSize) {
+                log.warn("Verified credential cache is full ({} entries), clearing it", this.entries.size());
+                this.entries.clear();
+            }
+        }
+        this.entries.put(key(tenantIdentifier, username, presentedPassword),
+                new VerifiedCredential(tenantIdentifier, username, encodedPassword, now + this.timeToLiveMillis));
+    }
+
+    /**
+     * Forgets all verified credentials of the user of the current tenant, to be called when the password of the user
+     * changes or the user is disabled, locked or deleted.
+     */
+    public void invalidate(final String username) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (tenantIdentifier == null || username == null) {
+            return;
+        }
+        this.entries.values()
+                .removeIf(credential -> credential.tenantIdentifier.equals(tenantIdentifier) && credential.username.equals(username));
+    }
+
+    private String key(final String tenantIdentifier, final String username, final String presentedPassword) {
+        final Mac mac = this.macs.get();
+        mac.update(tenantIdentifier.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        final byte[] digest = mac.doFinal(presentedPassword.getBytes(StandardCharsets.UTF_8));
+        return tenantIdentifier + ':' + Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static String currentTenantIdentifier() {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant == null ? null : tenant.getTenantIdentifier();
+    }
+
+    private static final class VerifiedCredential {
+
+        private final String tenantIdentifier;
+        private final String username;
+        private final String encodedPassword;
+        private final long expiresAt;
+
+        VerifiedCredential(final String tenantIdentifier, final String username, final String encodedPassword, final long expiresAt) {
+            this.tenantIdentifier = tenantIdentifier;
+            this.username = username;
+            this.encodedPassword = encodedPassword;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now) {
+            return now >= this.expiresAt;
+        }
+    }
+}
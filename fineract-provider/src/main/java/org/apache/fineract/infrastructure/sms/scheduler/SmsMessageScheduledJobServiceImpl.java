@@ -34,7 +34,6 @@ import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignCon
 import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
 import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
-import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
@@ -44,18 +43,15 @@ import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
-import org.apache.fineract.infrastructure.sms.service.SmsReadPlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -66,28 +62,26 @@ import org.springframework.web.client.RestTemplate;
 public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJobService {
 
     private final SmsMessageRepository smsMessageRepository;
-    private final SmsReadPlatformService smsReadPlatformService;
     private final RestTemplate restTemplate = new RestTemplate();
     private final SmsConfigUtils smsConfigUtils;
     private final NotificationSenderService notificationSenderService;
-    private ExecutorService genericExecutorService;
+    private final SmsOutboundDispatcher smsOutboundDispatcher;
     private ExecutorService triggeredExecutorService;
 
     /**
      * SmsMessageScheduledJobServiceImpl constructor
      **/
     @Autowired
-    public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository, SmsReadPlatformService smsReadPlatformService,
-            final SmsConfigUtils smsConfigUtils, final NotificationSenderService notificationSenderService) {
+    public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository, final SmsConfigUtils smsConfigUtils,
+            final NotificationSenderService notificationSenderService, final SmsOutboundDispatcher smsOutboundDispatcher) {
         this.smsMessageRepository = smsMessageRepository;
-        this.smsReadPlatformService = smsReadPlatformService;
         this.smsConfigUtils = smsConfigUtils;
         this.notificationSenderService = notificationSenderService;
+        this.smsOutboundDispatcher = smsOutboundDispatcher;
     }
 
     @PostConstruct
     public void initializeExecutorService() {
-        genericExecutorService = Executors.newSingleThreadExecutor();
         triggeredExecutorService = Executors.newSingleThreadExecutor();
     }
 
@@ -95,55 +89,12 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
      * Send batches of SMS messages to the SMS gateway (or intermediate gateway)
      **/
     @Override
-    @Transactional
     @CronTarget(jobName = JobName.SEND_MESSAGES_TO_SMS_GATEWAY)
     public void sendMessagesToGateway() {
-        Integer pageLimit = 200;
-        Integer page = 0;
-        int totalRecords = 0;
-        do {
-            PageRequest pageRequest = PageRequest.of(0, pageLimit);
-            org.springframework.data.domain.Page<SmsMessage> pendingMessages = this.smsMessageRepository
-                    .findByStatusType(SmsMessageStatusType.PENDING.getValue(), pageRequest);
-            List<SmsMessage> toSaveMessages = new ArrayList<>();
-            List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
-            try {
-
-                if (pendingMessages.getContent().size() > 0) {
-                    final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-                    Iterator<SmsMessage> pendingMessageIterator = pendingMessages.iterator();
-                    Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-                    while (pendingMessageIterator.hasNext()) {
-                        SmsMessage smsData = pendingMessageIterator.next();
-                        if (smsData.isNotification()) {
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSendNotificationMessages.add(smsData);
-                        } else {
-                            SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(smsData.getId(),
-                                    tenantIdentifier, null, null, smsData.getMobileNo(), smsData.getMessage(),
-                                    smsData.getSmsCampaign().getProviderId());
-                            apiQueueResourceDatas.add(apiQueueResourceData);
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSaveMessages.add(smsData);
-                        }
-                    }
-                    if (toSaveMessages.size() > 0) {
-                        this.smsMessageRepository.saveAll(toSaveMessages);
-                        this.smsMessageRepository.flush();
-                        this.genericExecutorService.execute(new SmsTask(apiQueueResourceDatas, ThreadLocalContextUtil.getContext()));
-                    }
-                    if (!toSendNotificationMessages.isEmpty()) {
-                        this.notificationSenderService.sendNotification(toSendNotificationMessages);
-                    }
-                    // new MyThread(ThreadLocalContextUtil.getTenant(),
-                    // apiQueueResourceDatas).start();
-                }
-            } catch (Exception e) {
-                throw new ConnectionFailureException(SmsCampaignConstants.SMS, e);
-            }
-            page++;
-            totalRecords = pendingMessages.getTotalPages();
-        } while (page < totalRecords);
+        final int claimed = this.smsOutboundDispatcher.dispatchPending();
+        if (claimed > 0) {
+            log.info("{} SMS message(s) sent to the intermediate gateway", claimed);
+        }
     }
 
     private void connectAndSendToIntermediateServer(Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas) {
@@ -227,89 +178,37 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
      * get SMS message delivery reports from the SMS gateway (or intermediate gateway)
      **/
     @Override
-    @Transactional
     @CronTarget(jobName = JobName.GET_DELIVERY_REPORTS_FROM_SMS_GATEWAY)
     public void getDeliveryReports() {
-        int page = 0;
-        int totalRecords = 0;
-        Integer limit = 200;
+        final int limit = 200;
+        long lastId = 0L;
+        List<Long> smsMessageInternalIds;
         do {
-            Page<Long> smsMessageInternalIds = this.smsReadPlatformService.retrieveAllWaitingForDeliveryReport(limit);
-            // only proceed if there are sms message with status type enum 300
+            smsMessageInternalIds = this.smsOutboundDispatcher.retrieveWaitingForDeliveryReport(lastId, limit);
+            if (smsMessageInternalIds.isEmpty()) {
+                break;
+            }
+            lastId = smsMessageInternalIds.get(smsMessageInternalIds.size() - 1);
             try {
-
-                if (smsMessageInternalIds.getPageItems().size() > 0) {
-                    // make request
-                    Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms/report",
-                            new Gson().toJson(smsMessageInternalIds.getPageItems()));
-                    URI uri = (URI) hostConfig.get("uri");
-                    HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
-                    ResponseEntity<Collection<SmsMessageDeliveryReportData>> responseOne = restTemplate.exchange(uri, HttpMethod.POST,
-                            entity, new ParameterizedTypeReference<Collection<SmsMessageDeliveryReportData>>() {
-
-                            });
-
-                    Collection<SmsMessageDeliveryReportData> smsMessageDeliveryReportDatas = responseOne.getBody();
-                    Iterator<SmsMessageDeliveryReportData> responseReportIterator = smsMessageDeliveryReportDatas.iterator();
-                    while (responseReportIterator.hasNext()) {
-                        SmsMessageDeliveryReportData smsMessageDeliveryReportData = responseReportIterator.next();
-                        Integer deliveryStatus = smsMessageDeliveryReportData.getDeliveryStatus();
-
-                        if (!smsMessageDeliveryReportData.getHasError() && deliveryStatus != 100) {
-                            SmsMessage smsMessage = this.smsMessageRepository.findById(smsMessageDeliveryReportData.getId()).orElse(null);
-                            Integer statusType = smsMessage.getStatusType();
-
-                            switch (deliveryStatus) {
-                                case 0:
-                                    statusType = SmsMessageStatusType.INVALID.getValue();
-                                break;
-                                case 150:
-                                    statusType = SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue();
-                                break;
-                                case 200:
-                                    statusType = SmsMessageStatusType.SENT.getValue();
-                                break;
-                                case 300:
-                                    statusType = SmsMessageStatusType.DELIVERED.getValue();
-                                break;
-
-                                case 400:
-                                    statusType = SmsMessageStatusType.FAILED.getValue();
-                                break;
-
-                                default:
-                                    statusType = smsMessage.getStatusType();
-                                break;
-                            }
-
-                            boolean statusChanged = !statusType.equals(smsMessage.getStatusType());
-
-                            // update the status Type enum
-                            smsMessage.setStatusType(statusType);
-
-                            // update the externalId
-                            smsMessage.setExternalId(smsMessageDeliveryReportData.getExternalId());
-
-                            // save the SmsMessage entity
-                            this.smsMessageRepository.save(smsMessage);
-
-                            if (statusChanged) {
-                                log.info("Status of SMS message id: {} successfully changed to {}", smsMessage.getId(), statusType);
-                            }
-                        }
-                    }
-
-                    if (smsMessageDeliveryReportDatas.size() > 0) {
-                        log.info("{} delivery report(s) successfully received from the intermediate gateway - sms",
-                                smsMessageDeliveryReportDatas.size());
-                    }
+                Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms/report",
+                        new Gson().toJson(smsMessageInternalIds));
+                URI uri = (URI) hostConfig.get("uri");
+                HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
+                ResponseEntity<Collection<SmsMessageDeliveryReportData>> responseOne = restTemplate.exchange(uri, HttpMethod.POST, entity,
+                        new ParameterizedTypeReference<Collection<SmsMessageDeliveryReportData>>() {
+
+                        });
+
+                Collection<SmsMessageDeliveryReportData> smsMessageDeliveryReportDatas = responseOne.getBody();
+                if (smsMessageDeliveryReportDatas != null && !smsMessageDeliveryReportDatas.isEmpty()) {
+                    final int changed = this.smsOutboundDispatcher.applyDeliveryReports(smsMessageDeliveryReportDatas);
+                    log.info("{} delivery report(s) successfully received from the intermediate gateway - sms, {} status change(s)",
+                            smsMessageDeliveryReportDatas.size(), changed);
                 }
             } catch (Exception e) {
                 log.error("Error occured.", e);
             }
-            page++;
-            totalRecords = smsMessageInternalIds.getTotalFilteredRecords();
-        } while (page < totalRecords);
+        } while (smsMessageInternalIds.size() == limit);
     }
 
     class SmsTask implements Runnable, ApplicationListener<ContextClosedEvent> {
@@ -330,7 +229,7 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
 
         @Override
         public void onApplicationEvent(ContextClosedEvent event) {
-            genericExecutorService.shutdown();
+            triggeredExecutorService.shutdown();
             log.info("Shutting down the ExecutorService");
         }
     }
@@ -0,0 +1,332 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.scheduler;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
+import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
+import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageApiQueueResourceData;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Moves pending outbound SMS messages to the message gateway.
+ *
+ * Pending messages are read in id order, <code>fineract.sms.dispatch.claim-size</code> at a time, continuing after the
+ * last id read instead of re-reading the first page. Every page is claimed with one batch of conditional updates in its
+ * own transaction, so a message claimed by another node is skipped and the claim is committed before anything is sent.
+ * The claimed messages are posted to the gateway in requests of <code>fineract.sms.dispatch.batch-size</code> messages,
+ * with up to <code>fineract.sms.dispatch.max-in-flight</code> requests running at once and at most
+ * <code>fineract.sms.dispatch.provider-rate-limit</code> messages per second going to each provider (0 means no limit).
+ * Messages of a request the gateway did not accept are put back to pending and sent again by the next run.
+ *
+ * Delivery reports are applied with one batch update per page of reports on the thread of the delivery report job and
+ * never wait for the send requests.
+ */
+@Slf4j
+@Component
+public class SmsOutboundDispatcher {
+
+    private static final int DELIVERY_STATUS_PENDING = 100;
+    private static final String MOVE_STATUS_SQL = "update sms_messages_outbound set status_enum = ? where id = ? and status_enum = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final TransactionTemplate claimTransactionTemplate;
+    private final SmsConfigUtils smsConfigUtils;
+    private final SmsMessageRepository smsMessageRepository;
+    private final NotificationSenderService notificationSenderService;
+    private final FineractProperties.FineractSmsDispatchProperties properties;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ExecutorService senders;
+    private final Semaphore inFlight;
+    private final Map<String, RateLimiter> providerRateLimiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SmsOutboundDispatcher(final JdbcTemplate jdbcTemplate, final DatabaseSpecificSQLGenerator sqlGenerator,
+            final PlatformTransactionManager transactionManager, final SmsConfigUtils smsConfigUtils,
+            final SmsMessageRepository smsMessageRepository, final NotificationSenderService notificationSenderService,
+            final FineractProperties fineractProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlGenerator = sqlGenerator;
+        this.claimTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.smsConfigUtils = smsConfigUtils;
+        this.smsMessageRepository = smsMessageRepository;
+        this.notificationSenderService = notificationSenderService;
+        this.properties = fineractProperties.getSms().getDispatch();
+        final int maxInFlight = Math.max(this.properties.getMaxInFlight(), 1);
+        this.inFlight = new Semaphore(maxInFlight);
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            final Thread thread = new Thread(runnable, "sms-dispatch-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.senders.shutdownNow();
+    }
+
+    /**
+     * Claims and sends all messages of the current tenant that are pending when the call starts and returns the number
+     * of messages claimed. Returns once every gateway request has completed.
+     */
+    public int dispatchPending() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final List<Future<?>> requests = new ArrayList<>();
+        int claimedCount = 0;
+        long lastId = 0L;
+        try {
+            while (true) {
+                final List<PendingSms> page = retrievePending(lastId);
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).id;
+                final List<PendingSms> claimed = this.claimTransactionTemplate.execute(status -> claim(page));
+                claimedCount += claimed.size();
+
+                final List<Long> notificationIds = new ArrayList<>();
+                final Map<Long, List<SmsMessageApiQueueResourceData>> byProvider = new LinkedHashMap<>();
+                for (final PendingSms sms : claimed) {
+                    if (sms.notification) {
+                        notificationIds.add(sms.id);
+                    } else {
+                        byProvider.computeIfAbsent(sms.providerId, providerId -> new ArrayList<>()).add(SmsMessageApiQueueResourceData
+                                .instance(sms.id, tenantIdentifier, null, null, sms.mobileNo, sms.message, sms.providerId));
+                    }
+                }
+                if (!notificationIds.isEmpty()) {
+                    this.claimTransactionTemplate.executeWithoutResult(status -> this.notificationSenderService
+                            .sendNotification(this.smsMessageRepository.findAllById(notificationIds)));
+                }
+                for (final Map.Entry<Long, List<SmsMessageApiQueueResourceData>> provider : byProvider.entrySet()) {
+                    final RateLimiter rateLimiter = rateLimiter(tenantIdentifier, provider.getKey());
+                    final List<SmsMessageApiQueueResourceData> messages = provider.getValue();
+                    for (int from = 0; from < messages.size(); from += batchSize()) {
+                        final List<SmsMessageApiQueueResourceData> batch = messages.subList(from,
+                                Math.min(from + batchSize(), messages.size()));
+                        if (rateLimiter != null) {
+                            rateLimiter.acquire(batch.size());
+                        }
+                        this.inFlight.acquireUninterruptibly();
+                        requests.add(this.senders.submit(() -> send(context, batch)));
+                    }
+                }
+            }
+        } finally {
+            for (final Future<?> request : requests) {
+                try {
+                    Uninterruptibles.getUninterruptibly(request);
+                } catch (ExecutionException e) {
+                    log.error("Sending SMS messages to the gateway failed", e.getCause());
+                }
+            }
+        }
+        return claimedCount;
+    }
+
+    /**
+     * Ids of the messages waiting for a delivery report, in id order after <code>afterId</code>.
+     */
+    public List<Long> retrieveWaitingForDeliveryReport(final long afterId, final int limit) {
+        final String sql = "select id from sms_messages_outbound where status_enum = ? and id > ? order by id "
+                + this.sqlGenerator.limit(limit);
+        return this.jdbcTemplate.queryForList(sql, Long.class, SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue(), afterId);
+    }
+
+    /**
+     * Applies the delivery reports received from the gateway and returns the number of messages whose status changed.
+     */
+    public int applyDeliveryReports(final Collection<SmsMessageDeliveryReportData> reports) {
+        final List<Object[]> statusUpdates = new ArrayList<>(reports.size());
+        final List<Object[]> externalIdUpdates = new ArrayList<>();
+        for (final SmsMessageDeliveryReportData report : reports) {
+            if (Boolean.TRUE.equals(report.getHasError()) || report.getDeliveryStatus() == null
+                    || report.getDeliveryStatus() == DELIVERY_STATUS_PENDING) {
+                continue;
+            }
+            final SmsMessageStatusType status = statusOfDeliveryReport(report.getDeliveryStatus());
+            if (status == null) {
+                externalIdUpdates.add(new Object[] { report.getExternalId(), report.getId() });
+            } else {
+                statusUpdates.add(new Object[] { status.getValue(), report.getExternalId(), report.getId() });
+            }
+        }
+        int changed = 0;
+        if (!statusUpdates.isEmpty()) {
+            final int[] updated = this.jdbcTemplate
+                    .batchUpdate("update sms_messages_outbound set status_enum = ?, external_id = ? where id = ?", statusUpdates);
+            for (int i = 0; i < updated.length; i++) {
+                // status_enum is not compared, so count only the reports that moved the message on
+                if (updated[i] != 0 && !SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue().equals(statusUpdates.get(i)[0])) {
+                    changed++;
+                }
+            }
+        }
+        if (!externalIdUpdates.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("update sms_messages_outbound set external_id = ? where id = ?", externalIdUpdates);
+        }
+        return changed;
+    }
+
+    static SmsMessageStatusType statusOfDeliveryReport(final int deliveryStatus) {
+        switch (deliveryStatus) {
+            case 0:
+                return SmsMessageStatusType.INVALID;
+            case 150:
+                return SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT;
+            case 200:
+                return SmsMessageStatusType.SENT;
+            case 300:
+                return SmsMessageStatusType.DELIVERED;
+            case 400:
+                return SmsMessageStatusType.FAILED;
+            default:
+                return null;
+        }
+    }
+
+    private List<PendingSms> retrievePending(final long afterId) {
+        final String sql = "select smo.id as id, smo.mobile_no as mobileNo, smo.message as message, smo.is_notification as notification, "
+                + "sc.provider_id as providerId from sms_messages_outbound smo left join sms_campaign sc on sc.id = smo.campaign_id "
+                + "where smo.status_enum = ? and smo.id > ? order by smo.id " + this.sqlGenerator.limit(this.properties.getClaimSize());
+        return this.jdbcTemplate.query(sql, (rs, rowNum) -> {
+            final long id = rs.getLong("id");
+            final String mobileNo = rs.getString("mobileNo");
+            final String message = rs.getString("message");
+            final boolean notification = rs.getBoolean("notification");
+            final long providerId = rs.getLong("providerId");
+            return new PendingSms(id, mobileNo, message, notification, rs.wasNull() ? null : providerId);
+        }, SmsMessageStatusType.PENDING.getValue(), afterId); // NOSONAR
+    }
+
+    private List<PendingSms> claim(final List<PendingSms> pending) {
+        final List<Object[]> params = new ArrayList<>(pending.size());
+        for (final PendingSms sms : pending) {
+            params.add(new Object[] { SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue(), sms.id,
+                    SmsMessageStatusType.PENDING.getValue() });
+        }
+        final int[] updated = this.jdbcTemplate.batchUpdate(MOVE_STATUS_SQL, params);
+        final List<PendingSms> claimed = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            // another node may have claimed some of them in the meantime
+            if (updated[i] != 0) {
+                claimed.add(pending.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private void send(final FineractContext context, final List<SmsMessageApiQueueResourceData> batch) {
+        ThreadLocalContextUtil.init(context);
+        try {
+            final Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms",
+                    SmsMessageApiQueueResourceData.toJsonString(batch));
+            final ResponseEntity<String> response = this.restTemplate.exchange((URI) hostConfig.get("uri"), HttpMethod.POST,
+                    (HttpEntity<?>) hostConfig.get("entity"), new ParameterizedTypeReference<String>() {});
+            if (response != null && !response.getStatusCode().equals(HttpStatus.ACCEPTED)) {
+                throw new ConnectionFailureException(SmsCampaignConstants.SMS);
+            }
+        } catch (RuntimeException e) {
+            log.warn("The gateway did not accept {} SMS messages, they are sent again by the next run: {}", batch.size(), e.getMessage());
+            release(batch);
+        } finally {
+            ThreadLocalContextUtil.reset();
+            this.inFlight.release();
+        }
+    }
+
+    private void release(final List<SmsMessageApiQueueResourceData> batch) {
+        final List<Object[]> params = new ArrayList<>(batch.size());
+        for (final SmsMessageApiQueueResourceData sms : batch) {
+            params.add(new Object[] { SmsMessageStatusType.PENDING.getValue(), sms.getInternalId(),
+                    SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue() });
+        }
+        this.jdbcTemplate.batchUpdate(MOVE_STATUS_SQL, params);
+    }
+
+    private RateLimiter rateLimiter(final String tenantIdentifier, final Long providerId) {
+        final double rate = this.properties.getProviderRateLimit();
+        if (rate <= 0) {
+            return null;
+        }
+        return this.providerRateLimiters.computeIfAbsent(tenantIdentifier + ":" + providerId, key -> RateLimiter.create(rate));
+    }
+
+    private int batchSize() {
+        return Math.max(this.properties.getBatchSize(), 1);
+    }
+
+    private static final class PendingSms {
+
+        private final long id;
+        private final String mobileNo;
+        private final String message;
+        private final boolean notification;
+        private final Long providerId;
+
+        PendingSms(final long id, final String mobileNo, final String message, final boolean notification, final Long providerId) {
+            this.id = id;
+            this.mobileNo = mobileNo;
+            this.message = message;
+            this.notification = notification;
+            this.providerId = providerId;
+        }
+    }
+}
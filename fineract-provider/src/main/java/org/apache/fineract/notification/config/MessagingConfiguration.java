@@ -22,6 +22,7 @@ import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import org.apache.activemq.ActiveMQConnectionFactory;
 import org.apache.fineract.infrastructure.core.config.EnableFineractEventsCondition;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.notification.eventandlistener.ActiveMQNotificationEventListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +44,9 @@ public class MessagingConfiguration {
     @Autowired
     private Environment env;
 
+    @Autowired
+    private FineractProperties fineractProperties;
+
     @Autowired
     private ActiveMQNotificationEventListener notificationEventListener;
 
@@ -57,6 +61,8 @@ public class MessagingConfiguration {
     public ActiveMQConnectionFactory amqConnectionFactory() {
         ActiveMQConnectionFactory amqConnectionFactory = new ActiveMQConnectionFactory(); // NOSONAR
         amqConnectionFactory.setTrustAllPackages(true);
+        // notifications are sent in batches after commit, the broker acknowledgement is not awaited
+        amqConnectionFactory.setUseAsyncSend(this.fineractProperties.getNotification().getBatch().isAsyncSend());
         try {
             amqConnectionFactory.setBrokerURL(DEFAULT_BROKER_URL);
         } catch (Exception e) {
@@ -18,12 +18,19 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.ObjectMessage;
 import javax.jms.Session;
+import javax.jms.TextMessage;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.core.config.EnableFineractEventListenerCondition;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
 import org.apache.fineract.notification.data.NotificationData;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Profile;
@@ -37,12 +44,29 @@ import org.springframework.stereotype.Component;
 public class ActiveMQNotificationEventListener implements SessionAwareMessageListener {
 
     private final NotificationEventListener notificationEventListener;
+    private final TenantDetailsService tenantDetailsService;
 
     @Override
     public void onMessage(Message message, Session session) throws JMSException {
-        if (message instanceof ObjectMessage) {
-            NotificationData notificationData = (NotificationData) ((ObjectMessage) message).getObject();
-            notificationEventListener.receive(notificationData);
+        final List<NotificationData> notifications;
+        if (message instanceof TextMessage) {
+            notifications = NotificationBatchCodec.decode(((TextMessage) message).getText());
+        } else if (message instanceof ObjectMessage) {
+            // single notifications published before batching was introduced
+            notifications = List.of((NotificationData) ((ObjectMessage) message).getObject());
+        } else {
+            return;
+        }
+
+        final Map<String, List<NotificationData>> notificationsByTenant = notifications.stream()
+                .collect(Collectors.groupingBy(NotificationData::getTenantIdentifier, LinkedHashMap::new, Collectors.toList()));
+        for (final Map.Entry<String, List<NotificationData>> tenantNotifications : notificationsByTenant.entrySet()) {
+            ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById(tenantNotifications.getKey()));
+            try {
+                this.notificationEventListener.receive(tenantNotifications.getValue());
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
         }
     }
 }
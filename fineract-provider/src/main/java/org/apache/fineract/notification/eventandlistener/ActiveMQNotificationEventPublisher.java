@@ -18,38 +18,133 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.jms.Queue;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.activemq.command.ActiveMQQueue;
 import org.apache.fineract.infrastructure.core.config.EnableFineractEventsCondition;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.notification.data.NotificationData;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Profile;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Publishes notifications to the notification queue in batches.
+ *
+ * Notifications raised in a transaction are queued once it commits and are dropped if it rolls back. Queued
+ * notifications are sent every <code>fineract.notification.batch.flush-interval</code> milliseconds, or as soon as
+ * <code>max-size</code> of them are waiting, as one text message holding a JSON array of up to <code>max-size</code>
+ * notifications, which {@link ActiveMQNotificationEventListener} stores together.
+ */
+@Slf4j
 @Service
 @Profile("activeMqEnabled")
 @Conditional(EnableFineractEventsCondition.class)
-@RequiredArgsConstructor
 public class ActiveMQNotificationEventPublisher implements NotificationEventPublisher {
 
+    private final Queue notificationQueue = new ActiveMQQueue("NotificationQueue");
+    private final Map<String, Queue> genericQueues = new ConcurrentHashMap<>();
     private final JmsTemplate jmsTemplate;
     private final JmsTemplate jmsTemplateGeneralActiveMq;
     private final FromJsonHelper fromApiJsonHelper;
+    private final FineractProperties.FineractNotificationBatchProperties properties;
+    private final BlockingQueue<NotificationData> pending;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+
+    public ActiveMQNotificationEventPublisher(final JmsTemplate jmsTemplate, final JmsTemplate jmsTemplateGeneralActiveMq,
+            final FromJsonHelper fromApiJsonHelper, final FineractProperties fineractProperties) {
+        this.jmsTemplate = jmsTemplate;
+        this.jmsTemplateGeneralActiveMq = jmsTemplateGeneralActiveMq;
+        this.fromApiJsonHelper = fromApiJsonHelper;
+        this.properties = fineractProperties.getNotification().getBatch();
+        this.pending = new LinkedBlockingQueue<>(this.properties.getQueueCapacity());
+    }
+
+    @PostConstruct
+    public void startFlushing() {
+        this.flusher.scheduleWithFixedDelay(this::flush, this.properties.getFlushInterval(), this.properties.getFlushInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopFlushing() throws InterruptedException {
+        this.flusher.shutdown();
+        this.flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
 
     @Override
     public void broadcastNotification(NotificationData notificationData) {
-        Queue queue = new ActiveMQQueue("NotificationQueue");
-        this.jmsTemplate.send(queue, session -> session.createObjectMessage(notificationData));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    enqueue(notificationData);
+                }
+            });
+        } else {
+            enqueue(notificationData);
+        }
     }
 
     @Override
     public void broadcastGenericActiveMqNotification(NotificationData notificationData, String queueName) {
-        Queue queue = new ActiveMQQueue(queueName);
+        Queue queue = this.genericQueues.computeIfAbsent(queueName, ActiveMQQueue::new);
         this.jmsTemplateGeneralActiveMq.send(queue,
                 session -> session.createObjectMessage(this.fromApiJsonHelper.toJson(notificationData)));
     }
 
+    private void enqueue(final NotificationData notificationData) {
+        if (this.flusher.isShutdown()) {
+            // the application is stopping and the last flush may already have run, so nothing would send it any more
+            send(List.of(notificationData));
+            return;
+        }
+        if (!this.pending.offer(notificationData)) {
+            // the buffer is full, so the broker is not keeping up: send on the caller thread instead of dropping it
+            send(List.of(notificationData));
+            return;
+        }
+        if (this.pending.size() >= this.properties.getMaxSize()) {
+            try {
+                this.flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    private void flush() {
+        final List<NotificationData> batch = new ArrayList<>(this.properties.getMaxSize());
+        while (this.pending.drainTo(batch, this.properties.getMaxSize()) > 0) {
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(final List<NotificationData> batch) {
+        try {
+            final String body = NotificationBatchCodec.encode(batch);
+            this.jmsTemplate.send(this.notificationQueue, session -> session.createTextMessage(body));
+        } catch (RuntimeException e) {
+            log.error("Error while broadcasting {} notification(s)", batch.size(), e);
+        }
+    }
 }
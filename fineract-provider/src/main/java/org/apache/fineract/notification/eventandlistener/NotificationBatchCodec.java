@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.eventandlistener;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.apache.fineract.notification.data.NotificationData;
+
+/**
+ * Encodes a batch of notifications as one JSON array, the body of the text messages sent to the notification queue.
+ */
+final class NotificationBatchCodec {
+
+    private static final Gson GSON = new Gson();
+    private static final Type BATCH_TYPE = new TypeToken<List<NotificationData>>() {}.getType();
+
+    private NotificationBatchCodec() {}
+
+    static String encode(final List<NotificationData> notifications) {
+        return GSON.toJson(notifications, BATCH_TYPE);
+    }
+
+    static List<NotificationData> decode(final String json) {
+        return GSON.fromJson(json, BATCH_TYPE);
+    }
+}
@@ -18,10 +18,12 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationWritePlatformService;
@@ -37,27 +39,32 @@ public class NotificationEventListener {
     private final AppUserRepository appUserRepository;
 
     public void receive(NotificationData notificationData) {
-        Long appUserId = notificationData.getActorId();
-
-        Set<Long> userIds = notificationData.getUserIds();
+        receive(List.of(notificationData));
+    }
 
-        if (notificationData.getOfficeId() != null) {
-            List<Long> tempUserIds = new ArrayList<>(userIds);
-            for (Long userId : tempUserIds) {
-                AppUser appUser = appUserRepository.findById(userId).orElseThrow();
-                if (!Objects.equals(appUser.getOffice().getId(), notificationData.getOfficeId())) {
-                    userIds.remove(userId);
-                }
+    /**
+     * Stores a batch of notifications of the current tenant. The offices of the users of office-scoped notifications
+     * are read with one query and the notifications are written together.
+     */
+    public void receive(List<NotificationData> notifications) {
+        final Set<Long> officeScopedUserIds = notifications.stream().filter(notificationData -> notificationData.getOfficeId() != null)
+                .flatMap(notificationData -> notificationData.getUserIds().stream()).collect(Collectors.toSet());
+        final Map<Long, Long> officeIdByUserId = new HashMap<>();
+        if (!officeScopedUserIds.isEmpty()) {
+            for (AppUser appUser : appUserRepository.findAllById(officeScopedUserIds)) {
+                officeIdByUserId.put(appUser.getId(), appUser.getOffice().getId());
             }
         }
 
-        // Don't notify the same user who triggered the event
-        if (userIds.contains(appUserId)) {
-            userIds.remove(appUserId);
+        for (NotificationData notificationData : notifications) {
+            Set<Long> userIds = notificationData.getUserIds();
+            if (notificationData.getOfficeId() != null) {
+                userIds.removeIf(userId -> !Objects.equals(officeIdByUserId.get(userId), notificationData.getOfficeId()));
+            }
+            // Don't notify the same user who triggered the event
+            userIds.remove(notificationData.getActorId());
         }
 
-        notificationWritePlatformService.notify(userIds, notificationData.getObjectType(), notificationData.getObjectId(),
-                notificationData.getAction(), notificationData.getActorId(), notificationData.getContent(),
-                notificationData.isSystemGenerated());
+        notificationWritePlatformService.notify(notifications);
     }
 }
@@ -76,31 +76,36 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(ClientCreateBusinessEvent.class, new ClientCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsApproveBusinessEvent.class, new SavingsAccountApprovedListener());
-        businessEventNotifierService.addPostBusinessEventListener(CentersCreateBusinessEvent.class, new CenterCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(GroupsCreateBusinessEvent.class, new GroupCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class, new SavingsAccountDepositListener());
-        businessEventNotifierService.addPostBusinessEventListener(ShareProductDividentsCreateBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(ClientCreateBusinessEvent.class, new ClientCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(SavingsApproveBusinessEvent.class,
+                new SavingsAccountApprovedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(CentersCreateBusinessEvent.class, new CenterCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(GroupsCreateBusinessEvent.class, new GroupCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(SavingsDepositBusinessEvent.class,
+                new SavingsAccountDepositListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(ShareProductDividentsCreateBusinessEvent.class,
                 new ShareProductDividendCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(FixedDepositAccountCreateBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(FixedDepositAccountCreateBusinessEvent.class,
                 new FixedDepositAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(RecurringDepositAccountCreateBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(RecurringDepositAccountCreateBusinessEvent.class,
                 new RecurringDepositAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsPostInterestBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(SavingsPostInterestBusinessEvent.class,
                 new SavingsPostInterestListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCreatedBusinessEvent.class, new LoanCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new LoanApprovedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCloseBusinessEvent.class, new LoanClosedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCloseAsRescheduleBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanCreatedBusinessEvent.class, new LoanCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanApprovedBusinessEvent.class, new LoanApprovedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanCloseBusinessEvent.class, new LoanClosedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanCloseAsRescheduleBusinessEvent.class,
                 new LoanCloseAsRescheduledListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
                 new LoanMakeRepaymentListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanProductCreateBusinessEvent.class, new LoanProductCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsCreateBusinessEvent.class, new SavingsAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsCloseBusinessEvent.class, new SavingsAccountClosedListener());
-        businessEventNotifierService.addPostBusinessEventListener(ShareAccountCreateBusinessEvent.class, new ShareAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(ShareAccountApproveBusinessEvent.class,
+        businessEventNotifierService.addAsyncPostBusinessEventListener(LoanProductCreateBusinessEvent.class,
+                new LoanProductCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(SavingsCreateBusinessEvent.class,
+                new SavingsAccountCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(SavingsCloseBusinessEvent.class, new SavingsAccountClosedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(ShareAccountCreateBusinessEvent.class,
+                new ShareAccountCreatedListener());
+        businessEventNotifierService.addAsyncPostBusinessEventListener(ShareAccountApproveBusinessEvent.class,
                 new ShareAccountApprovedListener());
     }
 
@@ -19,6 +19,7 @@
 package org.apache.fineract.notification.service;
 
 import java.util.Collection;
+import org.apache.fineract.notification.data.NotificationData;
 
 public interface NotificationWritePlatformService {
 
@@ -27,4 +28,6 @@ public interface NotificationWritePlatformService {
 
     Long notify(Collection<Long> userIds, String objectType, Long objectId, String action, Long actorId, String notificationContent,
             boolean isSystemGenerated);
+
+    void notify(Collection<NotificationData> notifications);
 }
@@ -18,15 +18,18 @@
  */
 package org.apache.fineract.notification.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +42,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
     private final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper;
     private final AppUserRepository appUserRepository;
     private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Long notify(Long userId, String objectType, Long objectIdentifier, String action, Long actorId, String notificationContent,
@@ -80,6 +84,22 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
         return generatedNotificationId;
     }
 
+    @Override
+    public void notify(Collection<NotificationData> notifications) {
+        final LocalDateTime createdAt = DateUtils.getLocalDateTimeOfSystem();
+        final List<Object[]> mappings = new ArrayList<>();
+        for (NotificationData notificationData : notifications) {
+            Long generatedNotificationId = insertIntoNotificationGenerator(notificationData.getObjectType(), notificationData.getObjectId(),
+                    notificationData.getAction(), notificationData.getActorId(), notificationData.getContent(),
+                    notificationData.isSystemGenerated());
+            for (Long userId : notificationData.getUserIds()) {
+                mappings.add(new Object[] { generatedNotificationId, userId, false, createdAt });
+            }
+        }
+        this.jdbcTemplate.batchUpdate("insert into notification_mapper (notification_id, user_id, is_read, created_at) values (?, ?, ?, ?)",
+                mappings);
+    }
+
     private List<Long> insertIntoNotificationMapper(Collection<Long> userIds, Long generatedNotificationId) {
         List<Long> mappedIds = new ArrayList<>();
         for (Long userId : userIds) {
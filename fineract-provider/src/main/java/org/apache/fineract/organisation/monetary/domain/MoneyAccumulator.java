@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable running total of amounts in one currency, for loops that add up many {@link Money} values.
+ *
+ * Chaining {@link Money#plus(Money)} creates a new {@link Money}, currency and rounded amount for every term; the
+ * accumulator only keeps the sum and turns it into a {@link Money} when {@link #toMoney()} is called. The result is the
+ * same as chaining {@link Money#plus}: amounts of {@link Money} values are already rounded to the decimal places of the
+ * currency so they are added as they are, other amounts are rounded after each addition like {@link Money} does.
+ *
+ * Instances are not thread safe and are meant to live inside a single method.
+ */
+public final class MoneyAccumulator {
+
+    private final String currencyCode;
+    private final int digitsAfterDecimal;
+    private final Integer inMultiplesOf;
+    private final boolean roundedToMultiples;
+    private BigDecimal amount;
+
+    private MoneyAccumulator(final String currencyCode, final int digitsAfterDecimal, final Integer inMultiplesOf,
+            final BigDecimal amount) {
+        this.currencyCode = currencyCode;
+        this.digitsAfterDecimal = digitsAfterDecimal;
+        this.inMultiplesOf = inMultiplesOf;
+        this.roundedToMultiples = this.digitsAfterDecimal == 0 && this.inMultiplesOf != null && this.inMultiplesOf > 0;
+        this.amount = amount;
+    }
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(currency.getCode(), currency.getDigitsAfterDecimal(), currency.getCurrencyInMultiplesOf(),
+                BigDecimal.ZERO);
+    }
+
+    /**
+     * Starts with the amount and currency of the given {@link Money}.
+     */
+    public static MoneyAccumulator of(final Money money) {
+        return new MoneyAccumulator(money.getCurrencyCode(), money.getCurrencyDigitsAfterDecimal(), money.getCurrencyInMultiplesOf(),
+                money.getAmount());
+    }
+
+    public MoneyAccumulator plus(final Money money) {
+        checkCurrency(money);
+        if (!money.isZero()) {
+            add(money.getAmount());
+        }
+        return this;
+    }
+
+    public MoneyAccumulator plus(final BigDecimal amountToAdd) {
+        if (amountToAdd != null && amountToAdd.signum() != 0) {
+            this.amount = Money.round(this.amount.add(amountToAdd), this.digitsAfterDecimal, this.inMultiplesOf);
+        }
+        return this;
+    }
+
+    public MoneyAccumulator minus(final Money money) {
+        checkCurrency(money);
+        if (!money.isZero()) {
+            add(money.getAmount().negate());
+        }
+        return this;
+    }
+
+    public boolean isZero() {
+        return this.amount.signum() == 0;
+    }
+
+    public boolean isGreaterThanZero() {
+        return this.amount.signum() > 0;
+    }
+
+    public Money toMoney() {
+        return Money.of(new MonetaryCurrency(this.currencyCode, this.digitsAfterDecimal, this.inMultiplesOf), this.amount);
+    }
+
+    private void add(final BigDecimal roundedAmount) {
+        if (this.roundedToMultiples) {
+            this.amount = Money.round(this.amount.add(roundedAmount), this.digitsAfterDecimal, this.inMultiplesOf);
+        } else {
+            this.amount = this.amount.add(roundedAmount);
+        }
+    }
+
+    private void checkCurrency(final Money money) {
+        if (!this.currencyCode.equals(money.getCurrencyCode())) {
+            throw new UnsupportedOperationException("currencies are different.");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The office tree of a tenant, with the ids of the offices below every office.
+ *
+ * Data scoping uses {@link #sqlScope(String, Long)} to restrict a query to the offices a user may see with an integer
+ * predicate on the office id instead of matching <code>m_office.hierarchy</code> with <code>like</code>.
+ */
+public final class OfficeHierarchyData {
+
+    /**
+     * Up to this many offices are listed in the scope predicate, larger branches are read from
+     * <code>m_office_closure</code>.
+     */
+    static final int MAX_INLINE_OFFICES = 500;
+
+    /**
+     * The condition returned by {@link #sqlScope(String, Long)} for an office that sees every office.
+     */
+    public static final String UNRESTRICTED_SCOPE = "1=1";
+
+    private final int officeCount;
+    private final Map<Long, List<Long>> descendantIdsByOfficeId;
+
+    private OfficeHierarchyData(final int officeCount, final Map<Long, List<Long>> descendantIdsByOfficeId) {
+        this.officeCount = officeCount;
+        this.descendantIdsByOfficeId = descendantIdsByOfficeId;
+    }
+
+    /**
+     * Builds the tree from the parent of every office, <code>null</code> for the head office.
+     */
+    public static OfficeHierarchyData of(final Map<Long, Long> parentIdByOfficeId) {
+        final Map<Long, List<Long>> childIdsByOfficeId = new HashMap<>();
+        parentIdByOfficeId.forEach((officeId, parentId) -> {
+            if (parentId != null) {
+                childIdsByOfficeId.computeIfAbsent(parentId, id -> new ArrayList<>()).add(officeId);
+            }
+        });
+
+        final Map<Long, List<Long>> descendantIdsByOfficeId = new HashMap<>();
+        for (final Long officeId : parentIdByOfficeId.keySet()) {
+            final List<Long> descendantIds = new ArrayList<>();
+            final Deque<Long> pending = new ArrayDeque<>();
+            pending.push(officeId);
+            while (!pending.isEmpty()) {
+                final Long id = pending.pop();
+                // guards against a cycle in corrupt data
+                if (descendantIds.size() > parentIdByOfficeId.size()) {
+                    break;
+                }
+                descendantIds.add(id);
+                childIdsByOfficeId.getOrDefault(id, Collections.emptyList()).forEach(pending::push);
+            }
+            Collections.sort(descendantIds);
+            descendantIdsByOfficeId.put(officeId, Collections.unmodifiableList(descendantIds));
+        }
+        return new OfficeHierarchyData(parentIdByOfficeId.size(), descendantIdsByOfficeId);
+    }
+
+    /**
+     * The office and all offices below it, or an empty list for an unknown office.
+     */
+    public List<Long> getDescendantIds(final Long officeId) {
+        return this.descendantIdsByOfficeId.getOrDefault(officeId, Collections.emptyList());
+    }
+
+    /**
+     * Returns a SQL condition that holds when the office id in <code>officeIdColumn</code> is the given office or below
+     * it. The condition is always true for the head office, lists the office ids of small branches and reads the
+     * offices of large or unknown branches from <code>m_office_closure</code>.
+     */
+    public String sqlScope(final String officeIdColumn, final Long officeId) {
+        final List<Long> descendantIds = getDescendantIds(officeId);
+        if (!descendantIds.isEmpty() && descendantIds.size() == this.officeCount) {
+            return UNRESTRICTED_SCOPE;
+        }
+        if (!descendantIds.isEmpty() && descendantIds.size() <= MAX_INLINE_OFFICES) {
+            return officeIdColumn + " in (" + descendantIds.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")";
+        }
+        return officeIdColumn + " in (select oc.descendant_id from m_office_closure oc where oc.ancestor_id = " + officeId + ")";
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import org.apache.fineract.organisation.office.data.OfficeHierarchyData;
+
+public interface OfficeHierarchyService {
+
+    /**
+     * The office tree of the current tenant, cached until an office is created or moved.
+     */
+    OfficeHierarchyData retrieveOfficeHierarchy();
+
+    /**
+     * Brings <code>m_office_closure</code> in line with the parents in <code>m_office</code> within the current
+     * transaction.
+     */
+    void updateOfficeClosure();
+}
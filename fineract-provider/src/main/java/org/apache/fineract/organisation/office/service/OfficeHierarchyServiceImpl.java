@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.organisation.office.data.OfficeHierarchyData;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class OfficeHierarchyServiceImpl implements OfficeHierarchyService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Cacheable(value = "officeHierarchy", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier()")
+    public OfficeHierarchyData retrieveOfficeHierarchy() {
+        return OfficeHierarchyData.of(retrieveParentIds());
+    }
+
+    @Override
+    @Transactional
+    public void updateOfficeClosure() {
+        final Map<Long, Long> parentIdByOfficeId = retrieveParentIds();
+        final OfficeHierarchyData hierarchy = OfficeHierarchyData.of(parentIdByOfficeId);
+        final Set<List<Long>> existing = new HashSet<>(this.jdbcTemplate.query(
+                "select oc.ancestor_id, oc.descendant_id from m_office_closure oc",
+                (rs, rowNum) -> List.of(rs.getLong("ancestor_id"), rs.getLong("descendant_id"))));
+
+        final List<Object[]> added = new ArrayList<>();
+        for (final Long ancestorId : parentIdByOfficeId.keySet()) {
+            for (final Long descendantId : hierarchy.getDescendantIds(ancestorId)) {
+                if (!existing.remove(List.of(ancestorId, descendantId))) {
+                    added.add(new Object[] { ancestorId, descendantId });
+                }
+            }
+        }
+        // whatever is left no longer matches a parent relation
+        final List<Object[]> removed = new ArrayList<>(existing.size());
+        existing.forEach(pair -> removed.add(pair.toArray()));
+
+        if (!removed.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("delete from m_office_closure where ancestor_id = ? and descendant_id = ?", removed);
+        }
+        if (!added.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("insert into m_office_closure (ancestor_id, descendant_id) values (?, ?)", added);
+        }
+    }
+
+    private Map<Long, Long> retrieveParentIds() {
+        final Map<Long, Long> parentIdByOfficeId = new LinkedHashMap<>();
+        final RowCallbackHandler handler = rs -> parentIdByOfficeId.put(rs.getLong("id"), JdbcSupport.getLong(rs, "parent_id"));
+        this.jdbcTemplate.query("select o.id, o.parent_id from m_office o", handler);
+        return parentIdByOfficeId;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent.service;
+
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
+
+/**
+ * Runs the asynchronous post-processing listeners of business events once the transaction that raised them committed.
+ */
+public interface AsyncBusinessEventDispatcher {
+
+    <T extends BusinessEvent<?>> void addListener(Class<T> eventType, BusinessEventListener<T> listener);
+
+    /**
+     * Hands the event to its asynchronous listeners once the current transaction committed, or right away if there is no
+     * transaction. Nothing is done if the transaction is rolled back.
+     */
+    void dispatchAfterCommit(BusinessEvent<?> businessEvent);
+
+    /**
+     * Delivers the events of the outbox whose listeners failed or that could not be handed to the pool.
+     */
+    void deliverPendingBusinessEvents() throws JobExecutionException;
+}
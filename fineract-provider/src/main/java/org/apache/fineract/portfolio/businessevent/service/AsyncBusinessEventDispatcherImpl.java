@@ -0,0 +1,441 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Constructor;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the asynchronous post-processing listeners of business events on a bounded pool of
+ * <code>fineract.business-event.async.pool-size</code> threads once the transaction that raised the event committed.
+ *
+ * Every listener runs in a transaction of its own against a freshly loaded copy of the entity of the event, so a failing
+ * or slow listener affects neither the transaction that raised the event nor the other listeners. The time spent in
+ * every listener is recorded in the <code>fineract.business-event.listener</code> timer, tagged with the event, the
+ * listener and the outcome.
+ *
+ * With <code>fineract.business-event.async.outbox-enabled</code> every delivery of an event about an entity is first
+ * written to <code>m_business_event_outbox</code> in the transaction that raised the event, and removed in the
+ * transaction of the listener. Deliveries that fail, that find the pool busy or that were pending when the node stopped
+ * are picked up by the <code>Deliver Business Events</code> job and retried with an exponential back-off. Without the
+ * outbox the deliveries only live in memory; when the queue of the pool is full they run on the committing thread
+ * instead.
+ *
+ * Listeners are identified by their class name in the outbox, so a listener class must only be registered once per
+ * event type.
+ */
+@Slf4j
+@Service
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class AsyncBusinessEventDispatcherImpl implements AsyncBusinessEventDispatcher {
+
+    /**
+     * How long a node owns a delivery it added or claimed before the delivery job hands it to another attempt.
+     */
+    static final long LEASE_SECONDS = 300;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String LISTENER_TIMER = "fineract.business-event.listener";
+    private static final BusinessEventDeliveryMapper MAPPER = new BusinessEventDeliveryMapper();
+
+    private final Map<Class, List<BusinessEventListener>> listeners = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final TransactionTemplate listenerTransactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final FineractProperties.FineractBusinessEventAsyncProperties properties;
+    private final ThreadPoolExecutor executorService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public AsyncBusinessEventDispatcherImpl(final JdbcTemplate jdbcTemplate, final DatabaseSpecificSQLGenerator sqlGenerator,
+            final PlatformTransactionManager transactionManager, final MeterRegistry meterRegistry,
+            final FineractProperties fineractProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlGenerator = sqlGenerator;
+        this.listenerTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.listenerTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.properties = fineractProperties.getBusinessEvent().getAsync();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executorService = new ThreadPoolExecutor(this.properties.getPoolSize(), this.properties.getPoolSize(), 60L,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(this.properties.getQueueCapacity()), runnable -> {
+                    final Thread thread = new Thread(runnable, "business-event-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Override
+    public <T extends BusinessEvent<?>> void addListener(final Class<T> eventType, final BusinessEventListener<T> listener) {
+        this.listeners.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void dispatchAfterCommit(final BusinessEvent<?> businessEvent) {
+        final List<BusinessEventListener> eventListeners = this.listeners.get(businessEvent.getClass());
+        if (eventListeners == null || eventListeners.isEmpty()) {
+            return;
+        }
+        final Object value = businessEvent.get();
+        final String valueType = valueType(value);
+        final Long valueId = valueId(value);
+
+        final List<BusinessEventDelivery> deliveries = new ArrayList<>(eventListeners.size());
+        for (final BusinessEventListener listener : eventListeners) {
+            final String listenerName = listener.getClass().getName();
+            final Long outboxId = this.properties.isOutboxEnabled() && valueId != null
+                    ? insert(businessEvent.getClass().getName(), valueType, valueId, listenerName)
+                    : null;
+            deliveries.add(new BusinessEventDelivery(outboxId, businessEvent.getClass().getName(), valueType, valueId, listenerName, 0,
+                    valueId == null ? businessEvent : null));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    submit(deliveries);
+                }
+            });
+        } else {
+            submit(deliveries);
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.DELIVER_BUSINESS_EVENTS)
+    public void deliverPendingBusinessEvents() throws JobExecutionException {
+        if (!this.properties.isOutboxEnabled()) {
+            return;
+        }
+        final List<Throwable> errors = new ArrayList<>();
+        List<BusinessEventDelivery> claimed;
+        do {
+            claimed = claimDue(this.properties.getBatchSize());
+            for (final BusinessEventDelivery delivery : claimed) {
+                final RuntimeException error = deliver(delivery);
+                if (error != null) {
+                    errors.add(error);
+                }
+            }
+        } while (claimed.size() == this.properties.getBatchSize());
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private void submit(final List<BusinessEventDelivery> deliveries) {
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication auth = SecurityContextHolder.getContext() == null ? null
+                : SecurityContextHolder.getContext().getAuthentication();
+        for (final BusinessEventDelivery delivery : deliveries) {
+            try {
+                this.executorService.execute(() -> runInContext(context, auth, () -> deliver(delivery)));
+            } catch (RejectedExecutionException e) {
+                if (delivery.outboxId != null) {
+                    log.debug("Business event queue is full, delivery {} is left to the Deliver Business Events job", delivery.outboxId);
+                } else {
+                    // the transaction has already committed, so this only holds up the response; the calling thread already
+                    // has the context and keeps it for its remaining work
+                    deliver(delivery);
+                }
+            }
+        }
+    }
+
+    private RuntimeException deliver(final BusinessEventDelivery delivery) {
+        final BusinessEventListener listener = findListener(delivery);
+        if (listener == null) {
+            log.warn("No listener {} is registered for {} any more, discarding the event", delivery.listenerName, delivery.eventType);
+            removeFromOutbox(delivery);
+            return null;
+        }
+
+        final Timer.Sample sample = Timer.start(this.meterRegistry);
+        String outcome = "success";
+        try {
+            this.listenerTransactionTemplate.executeWithoutResult(status -> {
+                final BusinessEvent<?> event = resolve(delivery);
+                if (event == null) {
+                    log.debug("{} {} of {} no longer exists, discarding the event", delivery.valueType, delivery.valueId,
+                            delivery.eventType);
+                } else {
+                    listener.onBusinessEvent(event);
+                }
+                removeFromOutbox(delivery);
+            });
+            return null;
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.warn("Listener {} failed for {} of {} {}", delivery.listenerName, delivery.eventType, delivery.valueType, delivery.valueId,
+                    e);
+            if (delivery.outboxId != null) {
+                failed(delivery, e.toString());
+            }
+            return e;
+        } finally {
+            sample.stop(this.meterRegistry.timer(LISTENER_TIMER, "event", StringUtils.substringAfterLast(delivery.eventType, "."),
+                    "listener", StringUtils.substringAfterLast(delivery.listenerName, "."), "outcome", outcome));
+        }
+    }
+
+    private BusinessEventListener findListener(final BusinessEventDelivery delivery) {
+        for (final Map.Entry<Class, List<BusinessEventListener>> entry : this.listeners.entrySet()) {
+            if (entry.getKey().getName().equals(delivery.eventType)) {
+                for (final BusinessEventListener listener : entry.getValue()) {
+                    if (listener.getClass().getName().equals(delivery.listenerName)) {
+                        return listener;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the event around a copy of its entity loaded in the transaction of the listener, as the entity the event
+     * was raised with belongs to the committed transaction.
+     */
+    private BusinessEvent<?> resolve(final BusinessEventDelivery delivery) {
+        if (delivery.event != null) {
+            return delivery.event;
+        }
+        try {
+            final Class<?> eventClass = Class.forName(delivery.eventType);
+            final Class<?> valueClass = Class.forName(delivery.valueType);
+            if (!BusinessEvent.class.isAssignableFrom(eventClass)) {
+                throw new IllegalStateException(delivery.eventType + " is not a business event");
+            }
+            final Object value = Long.class.equals(valueClass) ? delivery.valueId : this.entityManager.find(valueClass, delivery.valueId);
+            if (value == null) {
+                return null;
+            }
+            for (final Constructor<?> constructor : eventClass.getConstructors()) {
+                if (constructor.getParameterCount() == 1 && constructor.getParameterTypes()[0].isInstance(value)) {
+                    return (BusinessEvent<?>) constructor.newInstance(value);
+                }
+            }
+            throw new IllegalStateException(delivery.eventType + " has no constructor taking a " + delivery.valueType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot rebuild " + delivery.eventType + " of " + delivery.valueType, e);
+        }
+    }
+
+    /**
+     * The class the listener transaction looks the value up by. Walks up to the {@link Entity} class, so a value that is
+     * an instance of a generated subclass of the entity is still found.
+     */
+    static String valueType(final Object value) {
+        if (value == null) {
+            return null;
+        }
+        for (Class<?> type = value.getClass(); type != null; type = type.getSuperclass()) {
+            if (type.isAnnotationPresent(Entity.class)) {
+                return type.getName();
+            }
+        }
+        return value.getClass().getName();
+    }
+
+    private static Long valueId(final Object value) {
+        if (value instanceof AbstractPersistableCustom) {
+            return ((AbstractPersistableCustom) value).getId();
+        }
+        return value instanceof Long ? (Long) value : null;
+    }
+
+    private Long insert(final String eventType, final String valueType, final Long valueId, final String listenerName) {
+        final String sql = "insert into m_business_event_outbox "
+                + "(event_type, value_type, value_id, listener, attempts, next_attempt_time, created_date) values (?, ?, ?, ?, 0, ?, ?)";
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(con -> {
+            final PreparedStatement ps = con.prepareStatement(sql, new String[] { "id" });
+            ps.setString(1, eventType);
+            ps.setString(2, valueType);
+            ps.setLong(3, valueId);
+            ps.setString(4, listenerName);
+            ps.setTimestamp(5, Timestamp.valueOf(now.plusSeconds(LEASE_SECONDS)));
+            ps.setTimestamp(6, Timestamp.valueOf(now));
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private List<BusinessEventDelivery> claimDue(final int limit) {
+        return this.listenerTransactionTemplate.execute(status -> {
+            final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+            final String sql = "select " + MAPPER.schema() + " where o.next_attempt_time <= ? order by o.next_attempt_time, o.id "
+                    + this.sqlGenerator.limit(limit);
+            final List<BusinessEventDelivery> due = this.jdbcTemplate.query(sql, MAPPER, Timestamp.valueOf(now)); // NOSONAR
+            if (due.isEmpty()) {
+                return due;
+            }
+
+            // another node may have claimed some of them in the meantime
+            final Timestamp leasedUntil = Timestamp.valueOf(now.plusSeconds(LEASE_SECONDS));
+            final List<Object[]> params = new ArrayList<>(due.size());
+            for (final BusinessEventDelivery delivery : due) {
+                params.add(new Object[] { leasedUntil, delivery.outboxId, Timestamp.valueOf(now) });
+            }
+            final int[] updated = this.jdbcTemplate.batchUpdate(
+                    "update m_business_event_outbox set next_attempt_time = ? where id = ? and next_attempt_time <= ?", params);
+            final List<BusinessEventDelivery> claimed = new ArrayList<>(due.size());
+            for (int i = 0; i < due.size(); i++) {
+                if (updated[i] != 0) {
+                    claimed.add(due.get(i));
+                }
+            }
+            return claimed;
+        });
+    }
+
+    private void removeFromOutbox(final BusinessEventDelivery delivery) {
+        if (delivery.outboxId != null) {
+            this.jdbcTemplate.update("delete from m_business_event_outbox where id = ?", delivery.outboxId);
+        }
+    }
+
+    private void failed(final BusinessEventDelivery delivery, final String error) {
+        final int attempts = delivery.attempts + 1;
+        final String lastError = StringUtils.abbreviate(error, MAX_ERROR_LENGTH);
+        if (attempts >= this.properties.getMaxAttempts()) {
+            log.warn("Giving up delivering {} of {} {} to {} after {} attempts: {}", delivery.eventType, delivery.valueType,
+                    delivery.valueId, delivery.listenerName, attempts, lastError);
+            removeFromOutbox(delivery);
+            return;
+        }
+        final long delay = retryDelay(attempts, this.properties);
+        this.jdbcTemplate.update("update m_business_event_outbox set attempts = ?, last_error = ?, next_attempt_time = ? where id = ?",
+                attempts, lastError, Timestamp.valueOf(DateUtils.getLocalDateTimeOfSystem().plusSeconds(delay)), delivery.outboxId);
+    }
+
+    static long retryDelay(final int attempts, final FineractProperties.FineractBusinessEventAsyncProperties properties) {
+        final long maxDelay = Math.max(properties.getRetryDelay(), properties.getMaxRetryDelay());
+        // retryDelay, 2 * retryDelay, 4 * retryDelay, ... without overflowing for large attempt counts
+        final int shift = Math.min(attempts - 1, 30);
+        final long delay = Math.max(properties.getRetryDelay(), 1L) << shift;
+        return Math.min(delay, maxDelay);
+    }
+
+    private static void runInContext(final FineractContext context, final Authentication auth, final Runnable runnable) {
+        ThreadLocalContextUtil.init(context);
+        if (auth != null) {
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+        try {
+            runnable.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.reset();
+        }
+    }
+
+    private static final class BusinessEventDelivery {
+
+        private final Long outboxId;
+        private final String eventType;
+        private final String valueType;
+        private final Long valueId;
+        private final String listenerName;
+        private final int attempts;
+        private final BusinessEvent<?> event;
+
+        BusinessEventDelivery(final Long outboxId, final String eventType, final String valueType, final Long valueId,
+                final String listenerName, final int attempts, final BusinessEvent<?> event) {
+            this.outboxId = outboxId;
+            this.eventType = eventType;
+            this.valueType = valueType;
+            this.valueId = valueId;
+            this.listenerName = listenerName;
+            this.attempts = attempts;
+            this.event = event;
+        }
+    }
+
+    private static final class BusinessEventDeliveryMapper implements RowMapper<BusinessEventDelivery> {
+
+        public String schema() {
+            return " o.id as id, o.event_type as eventType, o.value_type as valueType, o.value_id as valueId, o.listener as listener, "
+                    + "o.attempts as attempts from m_business_event_outbox o";
+        }
+
+        @Override
+        public BusinessEventDelivery mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new BusinessEventDelivery(rs.getLong("id"), rs.getString("eventType"), rs.getString("valueType"), rs.getLong("valueId"),
+                    rs.getString("listener"), rs.getInt("attempts"), null);
+        }
+    }
+}
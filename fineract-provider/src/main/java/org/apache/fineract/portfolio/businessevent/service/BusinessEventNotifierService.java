@@ -50,6 +50,13 @@ public interface BusinessEventNotifierService {
      */
     <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener);
 
+    /**
+     * Method is to register a class as listener for post-processing of any Business event that runs once the transaction
+     * that raised the event has committed, on a background thread and in a transaction of its own. It is never called for
+     * rolled back work and cannot fail or slow down the transaction that raised the event.
+     */
+    <T extends BusinessEvent<?>> void addAsyncPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener);
+
     /**
      * Method should be called to notify listeners after Business event execution for any post-processing of event
      */
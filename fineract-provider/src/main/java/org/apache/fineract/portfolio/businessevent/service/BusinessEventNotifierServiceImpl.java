@@ -18,21 +18,28 @@
  */
 package org.apache.fineract.portfolio.businessevent.service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
 import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
 import org.apache.fineract.portfolio.common.domain.BusinessEventNotificationConstants;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierService {
 
-    private final Map<Class, List<BusinessEventListener>> preListeners = new HashMap<>();
-    private final Map<Class, List<BusinessEventListener>> postListeners = new HashMap<>();
+    private final Map<Class, List<BusinessEventListener>> preListeners = new ConcurrentHashMap<>();
+    private final Map<Class, List<BusinessEventListener>> postListeners = new ConcurrentHashMap<>();
+    private final AsyncBusinessEventDispatcher asyncBusinessEventDispatcher;
+
+    @Autowired
+    public BusinessEventNotifierServiceImpl(final AsyncBusinessEventDispatcher asyncBusinessEventDispatcher) {
+        this.asyncBusinessEventDispatcher = asyncBusinessEventDispatcher;
+    }
 
     @Override
     public void notifyPreBusinessEvent(BusinessEvent<?> businessEvent) {
@@ -46,12 +53,7 @@ public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierSe
 
     @Override
     public <T extends BusinessEvent<?>> void addPreBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
-        List<BusinessEventListener> businessEventListeners = preListeners.get(eventType);
-        if (businessEventListeners == null) {
-            businessEventListeners = new ArrayList<>();
-            preListeners.put(eventType, businessEventListeners);
-        }
-        businessEventListeners.add(listener);
+        preListeners.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(listener);
     }
 
     @Override
@@ -62,16 +64,17 @@ public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierSe
                 eventListener.onBusinessEvent(businessEvent);
             }
         }
+        asyncBusinessEventDispatcher.dispatchAfterCommit(businessEvent);
     }
 
     @Override
     public <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
-        List<BusinessEventListener> businessEventListeners = postListeners.get(eventType);
-        if (businessEventListeners == null) {
-            businessEventListeners = new ArrayList<>();
-            postListeners.put(eventType, businessEventListeners);
-        }
-        businessEventListeners.add(listener);
+        postListeners.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public <T extends BusinessEvent<?>> void addAsyncPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
+        asyncBusinessEventDispatcher.addListener(eventType, listener);
     }
 
     @Override
@@ -50,6 +50,8 @@ import org.apache.fineract.infrastructure.dataqueries.service.EntityDatatableChe
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.data.OfficeHierarchyData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
@@ -103,6 +105,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     private final ColumnValidator columnValidator;
     private final ClientCollateralManagementRepositoryWrapper clientCollateralManagementRepositoryWrapper;
     private final ClientBusinessOwnerReadPlatformService clientBusinessOwnerReadPlatformService;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Override
     public ClientData retrieveTemplate(final Long officeId, final boolean staffInSelectedOfficeOnly) {
@@ -185,19 +188,20 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
             throw new PlatformApiDataValidationException(dataValidationErrors);
         }
 
-        final String userOfficeHierarchy = this.context.officeHierarchy();
-        final String underHierarchySearchString = userOfficeHierarchy + "%";
+        final OfficeHierarchyData officeHierarchy = this.officeHierarchyService.retrieveOfficeHierarchy();
+        final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
         final String appUserID = String.valueOf(context.authenticatedUser().getId());
 
         // if (searchParameters.isScopedByOfficeHierarchy()) {
         // this.context.validateAccessRights(searchParameters.getHierarchy());
         // underHierarchySearchString = searchParameters.getHierarchy() + "%";
         // }
-        List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString, underHierarchySearchString));
+        List<Object> paramList = new ArrayList<>();
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
         sqlBuilder.append(this.clientMapper.schema());
-        sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
+        sqlBuilder.append(" where (").append(officeHierarchy.sqlScope("o.id", userOfficeId)).append(" or ")
+                .append(officeHierarchy.sqlScope("transferToOffice.id", userOfficeId)).append(") ");
 
         if (searchParameters != null) {
             if (searchParameters.isSelfUser()) {
@@ -301,13 +305,12 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public ClientData retrieveOne(final Long clientId) {
         try {
-            final String hierarchy = this.context.officeHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final OfficeHierarchyData officeHierarchy = this.officeHierarchyService.retrieveOfficeHierarchy();
+            final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
 
-            final String sql = "select " + this.clientMapper.schema()
-                    + " where ( o.hierarchy like ? or transferToOffice.hierarchy like ?) and c.id = ?";
-            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, // NOSONAR
-                    hierarchySearchString, hierarchySearchString, clientId);
+            final String sql = "select " + this.clientMapper.schema() + " where ( " + officeHierarchy.sqlScope("o.id", userOfficeId)
+                    + " or " + officeHierarchy.sqlScope("transferToOffice.id", userOfficeId) + ") and c.id = ?";
+            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, clientId); // NOSONAR
             // Get client collaterals
             final Collection<ClientCollateralManagement> clientCollateralManagements = this.clientCollateralManagementRepositoryWrapper
                     .getCollateralsPerClient(clientId);
@@ -356,26 +359,24 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public Collection<ClientData> retrieveClientMembersOfGroup(final Long groupId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final String officeScope = this.officeHierarchyService.retrieveOfficeHierarchy().sqlScope("o.id", currentUser.getOffice().getId());
 
-        final String sql = "select " + this.membersOfGroupMapper.schema() + " where o.hierarchy like ? and pgc.group_id = ?";
+        final String sql = "select " + this.membersOfGroupMapper.schema() + " where " + officeScope + " and pgc.group_id = ?";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, hierarchySearchString, groupId); // NOSONAR
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, groupId); // NOSONAR
     }
 
     @Override
     public Collection<ClientData> retrieveActiveClientMembersOfGroup(final Long groupId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final String officeScope = this.officeHierarchyService.retrieveOfficeHierarchy().sqlScope("o.id", currentUser.getOffice().getId());
 
         final String sql = "select " + this.membersOfGroupMapper.schema()
-                + " where o.hierarchy like ? and pgc.group_id = ? and c.status_enum = ? ";
+                + " where " + officeScope + " and pgc.group_id = ? and c.status_enum = ? ";
 
         return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, // NOSONAR
-                hierarchySearchString, groupId, ClientStatus.ACTIVE.getValue());
+                groupId, ClientStatus.ACTIVE.getValue());
     }
 
     private static final class ClientMembersOfGroupMapper implements RowMapper<ClientData> {
@@ -557,14 +558,14 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public Collection<ClientData> retrieveActiveClientMembersOfCenter(final Long centerId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final String officeScope = this.officeHierarchyService.retrieveOfficeHierarchy().sqlScope("o.id", currentUser.getOffice().getId());
 
         final String sql = "select " + this.membersOfGroupMapper.schema()
-                + " left join m_group g on pgc.group_id=g.id where o.hierarchy like ? and g.parent_id = ? and c.status_enum = ? group by c.id";
+                + " left join m_group g on pgc.group_id=g.id where " + officeScope
+                + " and g.parent_id = ? and c.status_enum = ? group by c.id";
 
         return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, // NOSONAR
-                hierarchySearchString, centerId, ClientStatus.ACTIVE.getValue());
+                centerId, ClientStatus.ACTIVE.getValue());
     }
 
     private static final class ClientMapper implements RowMapper<ClientData> {
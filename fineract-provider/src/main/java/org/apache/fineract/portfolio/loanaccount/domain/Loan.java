@@ -3285,8 +3285,16 @@ public class Loan extends AbstractAuditableWithUTCDateTimeCustom {
                 regenerateRepaymentScheduleWithInterestRecalculation(scheduleGeneratorDTO);
             }
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
-            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                    allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges());
+            if (this.repaymentScheduleDetail().isInterestRecalculationEnabled() || isForeclosure() || hasWriteOffTransaction()) {
+                changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
+                        allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges());
+            } else {
+                // the schedule is unchanged, only the transactions from the earliest affected date need re-processing
+                final List<LoanTransaction> reversedTransactions = adjustedTransaction == null ? List.of() : List.of(adjustedTransaction);
+                changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.reprocessTransactionsFrom(recalculateFrom,
+                        reversedTransactions, getDisbursementDate(), allNonContraTransactionsPostDisbursement, getCurrency(),
+                        getRepaymentScheduleInstallments(), charges());
+            }
             for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
                 mapEntry.getValue().updateLoan(this);
             }
@@ -3695,6 +3703,16 @@ public class Loan extends AbstractAuditableWithUTCDateTimeCustom {
         return changedTransactionDetail;
     }
 
+    // includes reversed write-offs, as the written off amounts stay on the installments until all transactions are re-processed
+    private boolean hasWriteOffTransaction() {
+        for (final LoanTransaction transaction : this.loanTransactions) {
+            if (transaction.isWriteOff()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public LoanTransaction findWriteOffTransaction() {
 
         LoanTransaction writeOff = null;
@@ -604,6 +604,23 @@ public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCus
         }
     }
 
+    /**
+     * Takes back the principal and interest a transaction paid, or the interest it waived, on this installment. Used to
+     * reprocess the transactions of a loan from a date onwards instead of from the disbursement.
+     */
+    public void undoTransactionPortions(final LocalDate transactionDate, final Money principalPortion, final Money interestPortion,
+            final boolean interestWaiver) {
+        final MonetaryCurrency currency = principalPortion.getCurrency();
+        if (interestWaiver) {
+            this.interestWaived = defaultToNullIfZero(getInterestWaived(currency).minus(interestPortion).getAmount());
+        } else {
+            this.principalCompleted = defaultToNullIfZero(getPrincipalCompleted(currency).minus(principalPortion).getAmount());
+            this.interestPaid = defaultToNullIfZero(getInterestPaid(currency).minus(interestPortion).getAmount());
+            trackAdvanceAndLateTotalsForRepaymentPeriod(transactionDate, currency, principalPortion.plus(interestPortion).negated());
+        }
+        checkIfRepaymentPeriodObligationsAreMet(transactionDate, currency);
+    }
+
     private void trackAdvanceAndLateTotalsForRepaymentPeriod(final LocalDate transactionDate, final MonetaryCurrency currency,
             final Money amountPaidInRepaymentPeriod) {
         if (isInAdvance(transactionDate)) {
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Set;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 
 /**
  * A wrapper around loan schedule related data exposing needed behaviour by loan.
@@ -33,12 +34,14 @@ public class LoanRepaymentScheduleProcessingWrapper {
     public void reprocess(final MonetaryCurrency currency, final LocalDate disbursementDate,
             final List<LoanRepaymentScheduleInstallment> repaymentPeriods, final Set<LoanCharge> loanCharges) {
 
-        Money totalInterest = Money.zero(currency);
-        Money totalPrincipal = Money.zero(currency);
+        final MoneyAccumulator interestAccumulator = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator principalAccumulator = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentPeriods) {
-            totalInterest = totalInterest.plus(installment.getInterestCharged(currency));
-            totalPrincipal = totalPrincipal.plus(installment.getPrincipal(currency));
+            interestAccumulator.plus(installment.getInterestCharged(currency));
+            principalAccumulator.plus(installment.getPrincipal(currency));
         }
+        final Money totalInterest = interestAccumulator.toMoney();
+        final Money totalPrincipal = principalAccumulator.toMoney();
         LocalDate startDate = disbursementDate;
         for (final LoanRepaymentScheduleInstallment period : repaymentPeriods) {
 
@@ -68,7 +71,7 @@ public class LoanRepaymentScheduleProcessingWrapper {
             final MonetaryCurrency monetaryCurrency, LoanRepaymentScheduleInstallment period, final Money totalPrincipal,
             final Money totalInterest, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(monetaryCurrency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(monetaryCurrency);
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge() && !loanCharge.isDueAtDisbursement()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
@@ -83,15 +86,15 @@ public class LoanRepaymentScheduleProcessingWrapper {
                             amount = amount.add(period.getPrincipal(monetaryCurrency).getAmount());
                         }
                         BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                        cumulative = cumulative.plus(loanChargeAmt);
+                        cumulative.plus(loanChargeAmt);
                     } else {
-                        cumulative = cumulative.plus(loanCharge.amountOrPercentage());
+                        cumulative.plus(loanCharge.amountOrPercentage());
                     }
                 } else if (loanCharge.isOverdueInstallmentCharge()
                         && (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                                 || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart))
                         && loanCharge.getChargeCalculation().isPercentageBased()) {
-                    cumulative = cumulative.plus(loanCharge.chargeAmount());
+                    cumulative.plus(loanCharge.chargeAmount());
                 } else if ((loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart))
                         && loanCharge.getChargeCalculation().isPercentageBased()) {
@@ -117,66 +120,66 @@ public class LoanRepaymentScheduleProcessingWrapper {
                         }
                     }
                     BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                    cumulative = cumulative.plus(loanChargeAmt);
+                    cumulative.plus(loanChargeAmt);
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart)) {
-                    cumulative = cumulative.plus(loanCharge.amount());
+                    cumulative.plus(loanCharge.amount());
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativeFeeChargesWaivedWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge() && !loanCharge.isDueAtDisbursement()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
+                        cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWaived(currency));
+                    cumulative.plus(loanCharge.getAmountWaived(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativeFeeChargesWrittenOffWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge() && !loanCharge.isDueAtDisbursement()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
+                        cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWrittenOff(currency));
+                    cumulative.plus(loanCharge.getAmountWrittenOff(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesDueWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, LoanRepaymentScheduleInstallment period,
             final Money totalPrincipal, final Money totalInterest, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
@@ -192,15 +195,15 @@ public class LoanRepaymentScheduleProcessingWrapper {
                             amount = amount.add(period.getPrincipal(currency).getAmount());
                         }
                         BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                        cumulative = cumulative.plus(loanChargeAmt);
+                        cumulative.plus(loanChargeAmt);
                     } else {
-                        cumulative = cumulative.plus(loanCharge.amountOrPercentage());
+                        cumulative.plus(loanCharge.amountOrPercentage());
                     }
                 } else if (loanCharge.isOverdueInstallmentCharge()
                         && (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                                 || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart))
                         && loanCharge.getChargeCalculation().isPercentageBased()) {
-                    cumulative = cumulative.plus(loanCharge.chargeAmount());
+                    cumulative.plus(loanCharge.chargeAmount());
                 } else if ((loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart))
                         && loanCharge.getChargeCalculation().isPercentageBased()) {
@@ -213,58 +216,58 @@ public class LoanRepaymentScheduleProcessingWrapper {
                         amount = amount.add(totalPrincipal.getAmount());
                     }
                     BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                    cumulative = cumulative.plus(loanChargeAmt);
+                    cumulative.plus(loanChargeAmt);
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart)) {
-                    cumulative = cumulative.plus(loanCharge.amount());
+                    cumulative.plus(loanCharge.amount());
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesWaivedWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
+                        cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWaived(currency));
+                    cumulative.plus(loanCharge.getAmountWaived(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesWrittenOffWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
+                        cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)
                         || loanCharge.isDueForCollectionForDisburseToSavingsAndIncluding(periodStart)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWrittenOff(currency));
+                    cumulative.plus(loanCharge.getAmountWrittenOff(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 }
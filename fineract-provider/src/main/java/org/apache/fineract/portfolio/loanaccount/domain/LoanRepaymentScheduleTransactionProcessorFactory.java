@@ -18,6 +18,9 @@
  */
 package org.apache.fineract.portfolio.loanaccount.domain;
 
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.AbstractLoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.EarlyPaymentLoanRepaymentScheduleTransactionProcessor;
@@ -30,12 +33,15 @@ import org.apache.fineract.portfolio.loanproduct.domain.LoanTransactionProcessin
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class LoanRepaymentScheduleTransactionProcessorFactory {
 
+    private final FineractProperties fineractProperties;
+
     public LoanRepaymentScheduleTransactionProcessor determineProcessor(
             final LoanTransactionProcessingStrategy transactionProcessingStrategy) {
 
-        LoanRepaymentScheduleTransactionProcessor processor = new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
+        AbstractLoanRepaymentScheduleTransactionProcessor processor = new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
 
         if (transactionProcessingStrategy != null) {
 
@@ -68,6 +74,9 @@ public class LoanRepaymentScheduleTransactionProcessorFactory {
             }
         }
 
+        final FineractProperties.FineractTransactionReplayProperties transactionReplay = this.fineractProperties.getLoan()
+                .getTransactionReplay();
+        processor.configureTransactionReplay(transactionReplay.isPartialEnabled(), transactionReplay.isVerify());
         return processor;
     }
 }
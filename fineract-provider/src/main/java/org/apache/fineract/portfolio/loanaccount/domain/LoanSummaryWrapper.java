@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Set;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.springframework.stereotype.Component;
 
 /**
@@ -33,173 +34,173 @@ public final class LoanSummaryWrapper {
 
     public Money calculateTotalPrincipalRepaid(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getPrincipalCompleted(currency));
+            total.plus(installment.getPrincipalCompleted(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPrincipalWrittenOff(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getPrincipalWrittenOff(currency));
+            total.plus(installment.getPrincipalWrittenOff(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPrincipalOverdueOn(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency, final LocalDate overdueAsOf) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
             if (installment.isOverdueOn(overdueAsOf)) {
-                total = total.plus(installment.getPrincipalOutstanding(currency));
+                total.plus(installment.getPrincipalOutstanding(currency));
             }
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalInterestCharged(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getInterestCharged(currency));
+            total.plus(installment.getInterestCharged(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalInterestRepaid(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getInterestPaid(currency));
+            total.plus(installment.getInterestPaid(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalInterestWaived(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getInterestWaived(currency));
+            total.plus(installment.getInterestWaived(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalInterestWrittenOff(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getInterestWrittenOff(currency));
+            total.plus(installment.getInterestWrittenOff(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalInterestOverdueOn(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency, final LocalDate overdueAsOf) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
             if (installment.isOverdueOn(overdueAsOf)) {
-                total = total.plus(installment.getInterestOutstanding(currency));
+                total.plus(installment.getInterestOutstanding(currency));
             }
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalFeeChargesCharged(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getFeeChargesCharged(currency));
+            total.plus(installment.getFeeChargesCharged(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalFeeChargesRepaid(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getFeeChargesPaid(currency));
+            total.plus(installment.getFeeChargesPaid(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalFeeChargesWaived(Set<LoanCharge> charges, final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanCharge charge : charges) {
             if (charge.isActive() && !charge.isPenaltyCharge()) {
-                total = total.plus(charge.getAmountWaived(currency));
+                total.plus(charge.getAmountWaived(currency));
             }
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalFeeChargesWrittenOff(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getFeeChargesWrittenOff(currency));
+            total.plus(installment.getFeeChargesWrittenOff(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalFeeChargesOverdueOn(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency, final LocalDate overdueAsOf) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
             if (installment.isOverdueOn(overdueAsOf)) {
-                total = total.plus(installment.getFeeChargesOutstanding(currency));
+                total.plus(installment.getFeeChargesOutstanding(currency));
             }
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPenaltyChargesCharged(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getPenaltyChargesCharged(currency));
+            total.plus(installment.getPenaltyChargesCharged(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPenaltyChargesRepaid(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getPenaltyChargesPaid(currency));
+            total.plus(installment.getPenaltyChargesPaid(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPenaltyChargesWaived(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getPenaltyChargesWaived(currency));
+            total.plus(installment.getPenaltyChargesWaived(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPenaltyChargesWrittenOff(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
-            total = total.plus(installment.getPenaltyChargesWrittenOff(currency));
+            total.plus(installment.getPenaltyChargesWrittenOff(currency));
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalPenaltyChargesOverdueOn(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
             final MonetaryCurrency currency, final LocalDate overdueAsOf) {
-        Money total = Money.zero(currency);
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentScheduleInstallments) {
             if (installment.isOverdueOn(overdueAsOf)) {
-                total = total.plus(installment.getPenaltyChargesOutstanding(currency));
+                total.plus(installment.getPenaltyChargesOutstanding(currency));
             }
         }
-        return total;
+        return total.toMoney();
     }
 
     public Money calculateTotalOverdueOn(final List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments,
@@ -36,6 +36,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import org.apache.fineract.infrastructure.core.domain.AbstractAuditableWithUTCDateTimeCustom;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -121,6 +122,10 @@ public class LoanTransaction extends AbstractAuditableWithUTCDateTimeCustom {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER, mappedBy = "loanTransaction")
     private Set<LoanTransactionToRepaymentScheduleMapping> loanTransactionToRepaymentScheduleMappings = new HashSet<>();
 
+    // what the transaction paid on the schedule before it was reversed, needed to reprocess the loan from its date only
+    @Transient
+    private List<LoanTransactionToRepaymentScheduleMapping> repaymentScheduleMappingsBeforeReversal;
+
     protected LoanTransaction() {}
 
     public static LoanTransaction incomePosting(final Loan loan, final Office office, final LocalDate dateOf, final BigDecimal amount,
@@ -345,6 +350,9 @@ public class LoanTransaction extends AbstractAuditableWithUTCDateTimeCustom {
     }
 
     public void reverse() {
+        if (!this.reversed && !this.loanTransactionToRepaymentScheduleMappings.isEmpty()) {
+            this.repaymentScheduleMappingsBeforeReversal = new ArrayList<>(this.loanTransactionToRepaymentScheduleMappings);
+        }
         this.reversed = true;
         this.loanTransactionToRepaymentScheduleMappings.clear();
     }
@@ -783,6 +791,10 @@ public class LoanTransaction extends AbstractAuditableWithUTCDateTimeCustom {
         return this.loanTransactionToRepaymentScheduleMappings;
     }
 
+    public List<LoanTransactionToRepaymentScheduleMapping> getRepaymentScheduleMappingsBeforeReversal() {
+        return this.repaymentScheduleMappingsBeforeReversal == null ? List.of() : this.repaymentScheduleMappingsBeforeReversal;
+    }
+
     public Boolean isAllowTypeTransactionAtTheTimeOfLastUndo() {
         return isDisbursement() || isAccrual() || isRepaymentAtDisbursement();
     }
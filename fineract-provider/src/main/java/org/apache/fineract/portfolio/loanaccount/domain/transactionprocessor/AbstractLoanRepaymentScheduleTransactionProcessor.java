@@ -21,13 +21,18 @@ package org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.loanaccount.data.LoanChargePaidDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
@@ -53,6 +58,18 @@ import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.imp
  */
 public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implements LoanRepaymentScheduleTransactionProcessor {
 
+    private boolean partialReplayEnabled;
+    private boolean verifyPartialReplay;
+
+    /**
+     * Enables {@link #reprocessTransactionsFrom} to only re-process the transactions from the first affected date and,
+     * with <code>verifyPartialReplay</code>, to check the result against re-processing all transactions.
+     */
+    public void configureTransactionReplay(final boolean partialReplayEnabled, final boolean verifyPartialReplay) {
+        this.partialReplayEnabled = partialReplayEnabled;
+        this.verifyPartialReplay = verifyPartialReplay;
+    }
+
     /**
      * Provides support for passing all {@link LoanTransaction}'s so it will completely re-process the entire loan
      * schedule. This is required in cases where the {@link LoanTransaction} being processed is in the past and falls
@@ -64,6 +81,229 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
     public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
             final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
             final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        final ChangedTransactionDetail changedTransactionDetail = reprocessAllTransactions(disbursementDate, transactionsPostDisbursement,
+                currency, installments, charges);
+        reverseChangedTransactions(transactionsPostDisbursement, changedTransactionDetail);
+        return changedTransactionDetail;
+    }
+
+    /**
+     * Re-processes the transactions dated on or after <code>replayFromDate</code> only. What these transactions, and
+     * the <code>reversedTransactions</code>, paid on the installments is taken back using their repayment schedule
+     * mappings after which they are processed again in order, which leaves the schedule as re-processing all
+     * transactions from the disbursement would.
+     *
+     * Falls back to re-processing all transactions when the mappings cannot reproduce that state: when charges are
+     * paid, written off or refunded on or after the date, or the mappings do not add up to the transaction portions.
+     */
+    @Override
+    public ChangedTransactionDetail reprocessTransactionsFrom(final LocalDate replayFromDate,
+            final List<LoanTransaction> reversedTransactions, final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+
+        final List<LoanTransaction> transactionsToUndo = findTransactionsToUndo(replayFromDate, reversedTransactions,
+                transactionsPostDisbursement, currency, installments);
+        if (transactionsToUndo == null) {
+            return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments, charges);
+        }
+
+        for (final LoanTransaction loanTransaction : transactionsToUndo) {
+            for (final LoanTransactionToRepaymentScheduleMapping mapping : repaymentScheduleMappingsOf(loanTransaction)) {
+                mapping.getLoanRepaymentScheduleInstallment().undoTransactionPortions(loanTransaction.getTransactionDate(),
+                        mapping.getPrincipalPortion(currency), mapping.getInterestPortion(currency), loanTransaction.isInterestWaiver());
+            }
+        }
+        final List<LoanTransaction> transactionsToBeProcessed = new ArrayList<>();
+        for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
+            if (!loanTransaction.getTransactionDate().isBefore(replayFromDate)) {
+                transactionsToBeProcessed.add(loanTransaction);
+            }
+        }
+        ChangedTransactionDetail changedTransactionDetail = new ChangedTransactionDetail();
+        processTransactionsInOrder(transactionsToBeProcessed, currency, installments, charges, changedTransactionDetail);
+
+        if (this.verifyPartialReplay) {
+            final List<String> partialReplayResult = describeReplayResult(transactionsPostDisbursement, changedTransactionDetail,
+                    currency, installments);
+            for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
+                if (loanTransaction.getId() == null) {
+                    loanTransaction.getLoanChargesPaid().clear();
+                }
+            }
+            changedTransactionDetail = reprocessAllTransactions(disbursementDate, transactionsPostDisbursement, currency, installments,
+                    charges);
+            verifyReplayResult(replayFromDate, partialReplayResult,
+                    describeReplayResult(transactionsPostDisbursement, changedTransactionDetail, currency, installments));
+        }
+
+        reverseChangedTransactions(transactionsPostDisbursement, changedTransactionDetail);
+        return changedTransactionDetail;
+    }
+
+    /**
+     * Returns false for processors that change installments without recording it in the repayment schedule mappings of
+     * the transaction, these always re-process all transactions.
+     */
+    protected boolean isPartialReplaySupported() {
+        return true;
+    }
+
+    private List<LoanTransaction> findTransactionsToUndo(final LocalDate replayFromDate, final List<LoanTransaction> reversedTransactions,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments) {
+        if (!this.partialReplayEnabled || !isPartialReplaySupported() || replayFromDate == null) {
+            return null;
+        }
+
+        final List<LoanTransaction> transactionsToUndo = new ArrayList<>();
+        for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
+            if (loanTransaction.isWriteOff()) {
+                return null;
+            }
+            if (loanTransaction.getTransactionDate().isBefore(replayFromDate)) {
+                if (loanTransaction.getId() == null) {
+                    return null;
+                }
+            } else if (loanTransaction.isChargePayment() || loanTransaction.isRecoveryRepayment()
+                    || loanTransaction.isRefundForActiveLoan()) {
+                return null;
+            } else if (loanTransaction.getId() != null && (loanTransaction.isRepaymentType() || loanTransaction.isInterestWaiver())) {
+                transactionsToUndo.add(loanTransaction);
+            }
+        }
+        for (final LoanTransaction reversedTransaction : reversedTransactions) {
+            if (!(reversedTransaction.isRepaymentType() || reversedTransaction.isInterestWaiver())
+                    || reversedTransaction.getTransactionDate().isBefore(replayFromDate)) {
+                return null;
+            }
+            transactionsToUndo.add(reversedTransaction);
+        }
+
+        final Set<LoanRepaymentScheduleInstallment> currentInstallments = Collections.newSetFromMap(new IdentityHashMap<>());
+        currentInstallments.addAll(installments);
+        for (final LoanTransaction loanTransaction : transactionsToUndo) {
+            if (!canBeUndone(loanTransaction, currency, currentInstallments)) {
+                return null;
+            }
+        }
+        return transactionsToUndo;
+    }
+
+    private boolean canBeUndone(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final Set<LoanRepaymentScheduleInstallment> currentInstallments) {
+        if (!loanTransaction.getFeeChargesPortion(currency).isZero() || !loanTransaction.getPenaltyChargesPortion(currency).isZero()) {
+            return false;
+        }
+        final MoneyAccumulator principalPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interestPortion = MoneyAccumulator.zero(currency);
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : repaymentScheduleMappingsOf(loanTransaction)) {
+            if (!currentInstallments.contains(mapping.getLoanRepaymentScheduleInstallment())
+                    || !mapping.getFeeChargesPortion(currency).isZero() || !mapping.getPenaltyChargesPortion(currency).isZero()) {
+                return false;
+            }
+            principalPortion.plus(mapping.getPrincipalPortion(currency));
+            interestPortion.plus(mapping.getInterestPortion(currency));
+        }
+        // mappings missing or not matching the portions, e.g. because of unrecognized income
+        return principalPortion.toMoney().isEqualTo(loanTransaction.getPrincipalPortion(currency))
+                && interestPortion.toMoney().isEqualTo(loanTransaction.getInterestPortion(currency));
+    }
+
+    private static Collection<LoanTransactionToRepaymentScheduleMapping> repaymentScheduleMappingsOf(
+            final LoanTransaction loanTransaction) {
+        return loanTransaction.isReversed() ? loanTransaction.getRepaymentScheduleMappingsBeforeReversal()
+                : loanTransaction.getLoanTransactionToRepaymentScheduleMappings();
+    }
+
+    private static void reverseChangedTransactions(final List<LoanTransaction> transactions,
+            final ChangedTransactionDetail changedTransactionDetail) {
+        final Map<Long, LoanTransaction> newTransactionMappings = changedTransactionDetail.getNewTransactionMappings();
+        if (newTransactionMappings.isEmpty()) {
+            return;
+        }
+        for (final LoanTransaction loanTransaction : transactions) {
+            if (loanTransaction.getId() != null && newTransactionMappings.containsKey(loanTransaction.getId())) {
+                loanTransaction.reverse();
+                loanTransaction.updateExternalId(null);
+            }
+        }
+    }
+
+    private static void verifyReplayResult(final LocalDate replayFromDate, final List<String> partialReplayResult,
+            final List<String> fullReplayResult) {
+        if (partialReplayResult.equals(fullReplayResult)) {
+            return;
+        }
+        int index = 0;
+        while (index < partialReplayResult.size() && index < fullReplayResult.size()
+                && partialReplayResult.get(index).equals(fullReplayResult.get(index))) {
+            index++;
+        }
+        throw new IllegalStateException("Re-processing loan transactions from " + replayFromDate
+                + " does not match re-processing all transactions: "
+                + (index < partialReplayResult.size() ? partialReplayResult.get(index) : "<none>") + " instead of "
+                + (index < fullReplayResult.size() ? fullReplayResult.get(index) : "<none>"));
+    }
+
+    /**
+     * Describes everything re-processing transactions changes, one line per installment and transaction, to compare
+     * the result of re-processing from a date with re-processing all transactions.
+     */
+    private static List<String> describeReplayResult(final List<LoanTransaction> transactions,
+            final ChangedTransactionDetail changedTransactionDetail, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments) {
+        final List<String> result = new ArrayList<>();
+        final List<LoanRepaymentScheduleInstallment> installmentsByNumber = new ArrayList<>(installments);
+        installmentsByNumber.sort(LoanRepaymentScheduleInstallment.installmentNumberComparator);
+        for (final LoanRepaymentScheduleInstallment installment : installmentsByNumber) {
+            result.add("installment " + installment.getInstallmentNumber() + ": principal "
+                    + amountOf(installment.getPrincipalCompleted(currency)) + ", interest "
+                    + amountOf(installment.getInterestPaid(currency)) + ", interest waived "
+                    + amountOf(installment.getInterestWaived(currency)) + ", fees "
+                    + amountOf(installment.getFeeChargesPaid(currency)) + ", penalties "
+                    + amountOf(installment.getPenaltyChargesPaid(currency)) + ", in advance "
+                    + amountOf(installment.getTotalPaidInAdvance(currency)) + ", late " + amountOf(installment.getTotalPaidLate(currency))
+                    + ", obligations met " + installment.isObligationsMet() + " on " + installment.getObligationsMetOnDate());
+        }
+        int index = 0;
+        for (final LoanTransaction loanTransaction : transactions) {
+            result.add(describeTransaction("transaction " + index++ + " (" + loanTransaction.getId() + ")", loanTransaction, currency));
+        }
+        for (final Map.Entry<Long, LoanTransaction> newTransaction : new TreeMap<>(changedTransactionDetail.getNewTransactionMappings())
+                .entrySet()) {
+            result.add(describeTransaction("replacement of " + newTransaction.getKey(), newTransaction.getValue(), currency));
+        }
+        return result;
+    }
+
+    private static String describeTransaction(final String label, final LoanTransaction loanTransaction, final MonetaryCurrency currency) {
+        final StringBuilder description = new StringBuilder(label).append(": principal ")
+                .append(amountOf(loanTransaction.getPrincipalPortion(currency))).append(", interest ")
+                .append(amountOf(loanTransaction.getInterestPortion(currency))).append(", fees ")
+                .append(amountOf(loanTransaction.getFeeChargesPortion(currency))).append(", penalties ")
+                .append(amountOf(loanTransaction.getPenaltyChargesPortion(currency))).append(", overpayment ")
+                .append(amountOf(loanTransaction.getOverPaymentPortion(currency)));
+        final List<LoanTransactionToRepaymentScheduleMapping> mappings = new ArrayList<>(
+                loanTransaction.getLoanTransactionToRepaymentScheduleMappings());
+        mappings.sort(Comparator.comparing(mapping -> mapping.getLoanRepaymentScheduleInstallment().getDueDate()));
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : mappings) {
+            description.append("; due ").append(mapping.getLoanRepaymentScheduleInstallment().getDueDate()).append(" principal ")
+                    .append(amountOf(mapping.getPrincipalPortion(currency))).append(", interest ")
+                    .append(amountOf(mapping.getInterestPortion(currency))).append(", fees ")
+                    .append(amountOf(mapping.getFeeChargesPortion(currency))).append(", penalties ")
+                    .append(amountOf(mapping.getPenaltyChargesPortion(currency)));
+        }
+        return description.toString();
+    }
+
+    private static String amountOf(final Money money) {
+        return money.getAmount().stripTrailingZeros().toPlainString();
+    }
+
+    private ChangedTransactionDetail reprocessAllTransactions(final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
 
         if (charges != null) {
             for (final LoanCharge loanCharge : charges) {
@@ -140,7 +380,14 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             }
         }
 
-        for (final LoanTransaction loanTransaction : transactionstoBeProcessed) {
+        processTransactionsInOrder(transactionstoBeProcessed, currency, installments, charges, changedTransactionDetail);
+        return changedTransactionDetail;
+    }
+
+    private void processTransactionsInOrder(final List<LoanTransaction> transactions, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges,
+            final ChangedTransactionDetail changedTransactionDetail) {
+        for (final LoanTransaction loanTransaction : transactions) {
 
             if (!loanTransaction.getTypeOf().equals(LoanTransactionType.REFUND_FOR_ACTIVE_LOAN)) {
                 final Comparator<LoanRepaymentScheduleInstallment> byDate = new Comparator<LoanRepaymentScheduleInstallment>() {
@@ -170,15 +417,13 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                     handleTransaction(newLoanTransaction, currency, installments, charges);
                     newLoanTransaction.adjustInterestComponent(currency);
                     /**
-                     * Check if the transaction amounts have changed. If so, reverse the original transaction and update
-                     * changedTransactionDetail accordingly
+                     * Check if the transaction amounts have changed. If so, update changedTransactionDetail accordingly,
+                     * the original transaction is reversed once all transactions are processed
                      **/
                     if (LoanTransaction.transactionAmountsMatch(currency, loanTransaction, newLoanTransaction)) {
                         loanTransaction.updateLoanTransactionToRepaymentScheduleMappings(
                                 newLoanTransaction.getLoanTransactionToRepaymentScheduleMappings());
                     } else {
-                        loanTransaction.reverse();
-                        loanTransaction.updateExternalId(null);
                         changedTransactionDetail.getNewTransactionMappings().put(loanTransaction.getId(), newLoanTransaction);
                     }
                 }
@@ -192,7 +437,6 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                 handleRefund(loanTransaction, currency, installments, charges);
             }
         }
-        return changedTransactionDetail;
     }
 
     /**
@@ -391,25 +635,35 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             final List<LoanRepaymentScheduleInstallment> installments) {
 
         final LocalDate transactionDate = loanTransaction.getTransactionDate();
-        Money principalPortion = Money.zero(currency);
-        Money interestPortion = Money.zero(currency);
-        Money feeChargesPortion = Money.zero(currency);
-        Money penaltychargesPortion = Money.zero(currency);
+        final MoneyAccumulator principalPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interestPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator feeChargesPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltychargesPortion = MoneyAccumulator.zero(currency);
 
         // determine how much is written off in total and breakdown for
         // principal, interest and charges
         for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
 
             if (currentInstallment.isNotFullyPaidOff()) {
-                principalPortion = principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
-                interestPortion = interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
-                feeChargesPortion = feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
-                penaltychargesPortion = penaltychargesPortion
-                        .plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate, currency));
+                principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
+                interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
+                feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
+                penaltychargesPortion.plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate, currency));
             }
         }
 
-        loanTransaction.updateComponentsAndTotal(principalPortion, interestPortion, feeChargesPortion, penaltychargesPortion);
+        loanTransaction.updateComponentsAndTotal(principalPortion.toMoney(), interestPortion.toMoney(), feeChargesPortion.toMoney(),
+                penaltychargesPortion.toMoney());
+    }
+
+    /**
+     * Whether the portions of a transaction allocated to an installment add up to more than zero, i.e. the installment
+     * needs a repayment schedule mapping.
+     */
+    protected static boolean isAnyPortionAllocated(final Money principalPortion, final Money interestPortion, final Money feeChargesPortion,
+            final Money penaltyChargesPortion) {
+        return MoneyAccumulator.of(principalPortion).plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion)
+                .isGreaterThanZero();
     }
 
     // abstract interface
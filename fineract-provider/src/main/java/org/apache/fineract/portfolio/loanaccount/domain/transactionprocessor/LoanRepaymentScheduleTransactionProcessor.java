@@ -36,6 +36,15 @@ public interface LoanRepaymentScheduleTransactionProcessor {
     ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
             MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
 
+    /**
+     * Same as {@link #handleTransaction(LocalDate, List, MonetaryCurrency, List, Set)} but re-processes only the
+     * transactions dated on or after <code>replayFromDate</code> when possible. <code>reversedTransactions</code> are
+     * the transactions reversed since the schedule was last processed.
+     */
+    ChangedTransactionDetail reprocessTransactionsFrom(LocalDate replayFromDate, List<LoanTransaction> reversedTransactions,
+            LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers, MonetaryCurrency currency,
+            List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
+
     void handleWriteOff(LoanTransaction loanTransaction, MonetaryCurrency loanCurrency,
             List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments);
 
@@ -130,7 +130,7 @@ public class CreocoreLoanRepaymentScheduleTransactionProcessor extends AbstractL
             principalPortion = currentInstallment.payPrincipalComponent(transactionDate, transactionAmountRemaining);
             transactionAmountRemaining = transactionAmountRemaining.minus(principalPortion);
         }
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
@@ -174,7 +174,7 @@ public class CreocoreLoanRepaymentScheduleTransactionProcessor extends AbstractL
             transactionAmountRemaining = transactionAmountRemaining.minus(penaltyChargesPortion);
         }
         loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
@@ -83,7 +83,7 @@ public class EarlyPaymentLoanRepaymentScheduleTransactionProcessor extends Abstr
 
             loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
         }
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
@@ -152,7 +152,7 @@ public class EarlyPaymentLoanRepaymentScheduleTransactionProcessor extends Abstr
 
             loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
         }
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
@@ -194,7 +194,7 @@ public class EarlyPaymentLoanRepaymentScheduleTransactionProcessor extends Abstr
         }
 
         loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
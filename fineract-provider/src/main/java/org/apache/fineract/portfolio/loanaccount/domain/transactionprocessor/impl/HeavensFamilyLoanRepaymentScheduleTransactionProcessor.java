@@ -41,6 +41,14 @@ import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.Loa
 @SuppressWarnings("unused")
 public class HeavensFamilyLoanRepaymentScheduleTransactionProcessor extends AbstractLoanRepaymentScheduleTransactionProcessor {
 
+    /**
+     * Payments in advance waive the remaining interest of an installment without a repayment schedule mapping for it.
+     */
+    @Override
+    protected boolean isPartialReplaySupported() {
+        return false;
+    }
+
     /**
      * For late repayments, pay off in the same way as on-time payments, interest first then principal.
      */
@@ -131,7 +139,7 @@ public class HeavensFamilyLoanRepaymentScheduleTransactionProcessor extends Abst
         }
 
         loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
@@ -192,7 +200,7 @@ public class HeavensFamilyLoanRepaymentScheduleTransactionProcessor extends Abst
         }
 
         loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
@@ -236,7 +244,7 @@ public class HeavensFamilyLoanRepaymentScheduleTransactionProcessor extends Abst
         }
 
         loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
-        if (principalPortion.plus(interestPortion).plus(feeChargesPortion).plus(penaltyChargesPortion).isGreaterThanZero()) {
+        if (isAnyPortionAllocated(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion)) {
             transactionMappings.add(LoanTransactionToRepaymentScheduleMapping.createFrom(loanTransaction, currentInstallment,
                     principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion));
         }
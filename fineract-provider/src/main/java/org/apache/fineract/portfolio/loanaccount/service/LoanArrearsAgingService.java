@@ -24,6 +24,8 @@ public interface LoanArrearsAgingService {
 
     void updateLoanArrearsAgeingDetails();
 
+    void rebuildLoanArrearsAgeingDetails();
+
     void updateLoanArrearsAgeingDetailsWithOriginalSchedule(Loan loan);
 
     void updateLoanArrearsAgeingDetails(Loan loan);
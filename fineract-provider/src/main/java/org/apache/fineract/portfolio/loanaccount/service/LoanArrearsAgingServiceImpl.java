@@ -22,11 +22,15 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -59,16 +63,26 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    /**
+     * Number of loans recalculated per transaction.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * Loans modified shortly before the previous run started may have been committed after it read the modified loans,
+     * so they are recalculated once more.
+     */
+    private static final long MODIFIED_SINCE_MARGIN_MINUTES = 60;
 
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
 
@@ -92,14 +106,122 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
                 new LoanForeClosureEventListener());
     }
 
-    @Transactional
+    /**
+     * Brings the arrears ageing of active loans up to date without rebuilding the whole table. Only the loans that may
+     * have changed since the last run are recomputed:
+     * <ul>
+     * <li>loans with an unpaid installment that fell due (after the arrears ageing grace) since the business date of the
+     * last run, or with an installment of the original schedule that did for products ageing arrears on it,</li>
+     * <li>loans modified since the last run, for example by a transaction or a status change,</li>
+     * <li>loans that are still in the table but are no longer active.</li>
+     * </ul>
+     * The first run of a tenant, and any run whose business date is before the one of the last run, rebuilds the table
+     * as {@link #rebuildLoanArrearsAgeingDetails()} does. The table is updated in place and never truncated, so readers
+     * never see it empty.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
     public void updateLoanArrearsAgeingDetails() {
+        final LocalDate businessDate = DateUtils.getBusinessLocalDate();
+        final OffsetDateTime runStart = DateUtils.getOffsetDateTimeOfTenant();
+        final AgeingCheckpoint checkpoint = retrieveCheckpoint();
+        if (checkpoint == null || businessDate.isBefore(checkpoint.businessDate)) {
+            rebuild(businessDate, runStart);
+            return;
+        }
 
-        this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
+        final String gracedBusinessDate = sqlGenerator.subDate(sqlGenerator.currentBusinessDate(),
+                "COALESCE(ml.grace_on_arrears_ageing, 0)", "day");
+        final String gracedLastBusinessDate = sqlGenerator.subDate("?", "COALESCE(ml.grace_on_arrears_ageing, 0)", "day");
+        // products ageing arrears on the original schedule fall due on the dates of the schedule history, not the current one
+        final String candidatesSql = "select mr.loan_id from m_loan_repayment_schedule mr inner join m_loan ml on ml.id = mr.loan_id "
+                + "where ml.loan_status_id = 300 and mr.completed_derived is false and mr.duedate < " + gracedBusinessDate
+                + " and mr.duedate >= " + gracedLastBusinessDate //
+                + " union select mh.loan_id from m_loan_repayment_schedule_history mh inner join m_loan ml on ml.id = mh.loan_id"
+                + " inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id"
+                + " and prd.arrears_based_on_original_schedule = true where ml.loan_status_id = 300 and mh.duedate < "
+                + gracedBusinessDate + " and mh.duedate >= " + gracedLastBusinessDate //
+                + " union select ml.id from m_loan ml where ml.last_modified_on_utc >= ?" //
+                + " union select mla.loan_id from m_loan_arrears_aging mla inner join m_loan ml on ml.id = mla.loan_id"
+                + " where ml.loan_status_id <> 300";
+        final Set<Long> loanIds = new TreeSet<>(this.jdbcTemplate.queryForList(candidatesSql, Long.class, checkpoint.businessDate,
+                checkpoint.businessDate, checkpoint.runStart.minusMinutes(MODIFIED_SINCE_MARGIN_MINUTES)));
+
+        final List<Long> chunk = new ArrayList<>(CHUNK_SIZE);
+        int result = 0;
+        for (final Long loanId : loanIds) {
+            chunk.add(loanId);
+            if (chunk.size() == CHUNK_SIZE) {
+                result += recalculate(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result += recalculate(chunk);
+        }
+        saveCheckpoint(businessDate, runStart, checkpoint);
+
+        log.info("{}: Records affected by updateLoanArrearsAgeingDetails: {} of {} loans recalculated",
+                ThreadLocalContextUtil.getTenant().getName(), result, loanIds.size());
+    }
+
+    /**
+     * Recalculates the arrears ageing of every active loan, one chunk of loans at a time, and removes the rows of
+     * loans that are no longer active. Used for the first run of a tenant and by the "Rebuild Loan Arrears Ageing" job,
+     * for example after the arrears settings of a product changed.
+     */
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_LOAN_ARREARS_AGEING)
+    public void rebuildLoanArrearsAgeingDetails() {
+        rebuild(DateUtils.getBusinessLocalDate(), DateUtils.getOffsetDateTimeOfTenant());
+    }
 
-        final StringBuilder updateSqlBuilder = new StringBuilder(900);
+    private void rebuild(final LocalDate businessDate, final OffsetDateTime runStart) {
+        final String sql = "select ml.id from m_loan ml where ml.loan_status_id = 300 and ml.id > ? order by ml.id "
+                + sqlGenerator.limit(CHUNK_SIZE);
+        int result = 0;
+        long lastLoanId = 0L;
+        List<Long> chunk;
+        do {
+            chunk = this.jdbcTemplate.queryForList(sql, Long.class, lastLoanId);
+            if (!chunk.isEmpty()) {
+                result += recalculate(chunk);
+                lastLoanId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+        result += this.jdbcTemplate.update("delete from m_loan_arrears_aging where loan_id not in "
+                + "(select ml.id from m_loan ml where ml.loan_status_id = 300)");
+        saveCheckpoint(businessDate, runStart, retrieveCheckpoint());
+
+        log.info("{}: Records affected by rebuildLoanArrearsAgeingDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
+    }
+
+    /**
+     * Recalculates the arrears ageing of the given loans in one transaction: rows are updated or inserted for loans in
+     * arrears and deleted for all other loans.
+     */
+    private int recalculate(final List<Long> loanIds) {
+        final Integer result = this.transactionTemplate.execute(status -> {
+            final String loanIdsAsString = loanIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+            final Map<Long, ArrearsAgeing> arrears = new HashMap<>();
+            this.jdbcTemplate.query(currentScheduleArrearsSql(loanIdsAsString), rs -> {
+                final ArrearsAgeing ageing = new ArrearsAgeing(rs.getLong("loanId"),
+                        JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "principalOverdue"),
+                        JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "interestOverdue"),
+                        JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "feeChargesOverdue"),
+                        JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "penaltyChargesOverdue"),
+                        JdbcSupport.getLocalDate(rs, "overdueSince"));
+                arrears.put(ageing.loanId, ageing);
+            });
+            for (final ArrearsAgeing ageing : calculateArrearsWithOriginalSchedule(loanIdsAsString)) {
+                arrears.put(ageing.loanId, ageing);
+            }
+            return saveArrears(loanIds, arrears);
+        });
+        return result == null ? 0 : result;
+    }
+
+    private String currentScheduleArrearsSql(final String loanIdsAsString) {
         final String principalOverdueCalculationSql = "SUM(COALESCE(mr.principal_amount, 0) - coalesce(mr.principal_completed_derived, 0) - coalesce(mr.principal_writtenoff_derived, 0))";
         final String interestOverdueCalculationSql = "SUM(COALESCE(mr.interest_amount, 0) - coalesce(mr.interest_writtenoff_derived, 0) - coalesce(mr.interest_waived_derived, 0) - "
                 + "coalesce(mr.interest_completed_derived, 0))";
@@ -108,74 +230,140 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         final String penaltyChargesOverdueCalculationSql = "SUM(COALESCE(mr.penalty_charges_amount, 0) - coalesce(mr.penalty_charges_writtenoff_derived, 0) - "
                 + "coalesce(mr.penalty_charges_waived_derived, 0) - coalesce(mr.penalty_charges_completed_derived, 0))";
 
-        updateSqlBuilder.append(
-                "INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,interest_overdue_derived,fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,overdue_since_date_derived)");
-        updateSqlBuilder.append("select ml.id as loanId,");
-        updateSqlBuilder.append(principalOverdueCalculationSql + " as principal_overdue_derived,");
-        updateSqlBuilder.append(interestOverdueCalculationSql + " as interest_overdue_derived,");
-        updateSqlBuilder.append(feeChargesOverdueCalculationSql + " as fee_charges_overdue_derived,");
-        updateSqlBuilder.append(penaltyChargesOverdueCalculationSql + " as penalty_charges_overdue_derived,");
-        updateSqlBuilder.append(principalOverdueCalculationSql + "+" + interestOverdueCalculationSql + "+");
-        updateSqlBuilder.append(feeChargesOverdueCalculationSql + "+" + penaltyChargesOverdueCalculationSql + " as total_overdue_derived,");
-        updateSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
-        updateSqlBuilder.append(" FROM m_loan ml ");
-        updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
-        updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
-        updateSqlBuilder.append(" and mr.completed_derived is false ");
-        updateSqlBuilder.append(" and mr.duedate < ")
+        final StringBuilder sqlBuilder = new StringBuilder(900);
+        sqlBuilder.append("select ml.id as loanId,");
+        sqlBuilder.append(principalOverdueCalculationSql + " as principalOverdue,");
+        sqlBuilder.append(interestOverdueCalculationSql + " as interestOverdue,");
+        sqlBuilder.append(feeChargesOverdueCalculationSql + " as feeChargesOverdue,");
+        sqlBuilder.append(penaltyChargesOverdueCalculationSql + " as penaltyChargesOverdue,");
+        sqlBuilder.append("MIN(mr.duedate) as overdueSince ");
+        sqlBuilder.append(" FROM m_loan ml ");
+        sqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        sqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
+        sqlBuilder.append(" WHERE ml.id IN (").append(loanIdsAsString).append(")");
+        sqlBuilder.append(" and ml.loan_status_id = 300 "); // active
+        sqlBuilder.append(" and mr.completed_derived is false ");
+        sqlBuilder.append(" and mr.duedate < ")
                 .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
                 .append(" ");
-        updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = false or prd.arrears_based_on_original_schedule is null) ");
-        updateSqlBuilder.append(" GROUP BY ml.id");
+        sqlBuilder.append(" and (prd.arrears_based_on_original_schedule = false or prd.arrears_based_on_original_schedule is null) ");
+        sqlBuilder.append(" GROUP BY ml.id");
+        return sqlBuilder.toString();
+    }
 
-        List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
-        insertStatements.add(0, updateSqlBuilder.toString());
-        final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
+    private List<ArrearsAgeing> calculateArrearsWithOriginalSchedule(final String loanIdsAsString) {
+        final StringBuilder loanIdentifier = new StringBuilder();
+        loanIdentifier.append("select ml.id as loanId FROM m_loan ml  ");
+        loanIdentifier.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        loanIdentifier.append(
+                "inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = true  ");
+        loanIdentifier.append("WHERE ml.id IN (").append(loanIdsAsString).append(") ");
+        loanIdentifier.append("and ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < ")
+                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
+                .append(" group by ml.id");
+        List<Long> loanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class);
+        if (loanIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final String originalScheduleLoanIds = loanIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(originalScheduleLoanIds, sqlGenerator);
+        Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
+                originalScheduleExtractor);
+
+        List<Map<String, Object>> loanSummary = getLoanSummary(originalScheduleLoanIds);
+        updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
+        return calculateArrears(scheduleDate);
+    }
+
+    /**
+     * Writes the arrears of the given loans with batched updates, inserts the rows that did not exist yet and deletes
+     * the rows of the loans that are not in arrears.
+     */
+    private int saveArrears(final Collection<Long> loanIds, final Map<Long, ArrearsAgeing> arrears) {
         int result = 0;
-        for (int i : results) {
-            result += i;
+        final List<ArrearsAgeing> ageings = new ArrayList<>(arrears.values());
+        if (!ageings.isEmpty()) {
+            final List<Object[]> updateParams = new ArrayList<>(ageings.size());
+            for (final ArrearsAgeing ageing : ageings) {
+                updateParams.add(new Object[] { ageing.principalOverdue, ageing.interestOverdue, ageing.feeOverdue, ageing.penaltyOverdue,
+                        ageing.totalOverdue(), ageing.overdueSince, ageing.loanId });
+            }
+            final int[] updated = this.jdbcTemplate.batchUpdate("UPDATE m_loan_arrears_aging SET principal_overdue_derived = ?, "
+                    + "interest_overdue_derived = ?, fee_charges_overdue_derived = ?, penalty_charges_overdue_derived = ?, "
+                    + "total_overdue_derived = ?, overdue_since_date_derived = ? WHERE loan_id = ?", updateParams);
+            final List<Object[]> insertParams = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    final ArrearsAgeing ageing = ageings.get(i);
+                    insertParams.add(new Object[] { ageing.loanId, ageing.principalOverdue, ageing.interestOverdue, ageing.feeOverdue,
+                            ageing.penaltyOverdue, ageing.totalOverdue(), ageing.overdueSince });
+                } else {
+                    result++;
+                }
+            }
+            if (!insertParams.isEmpty()) {
+                this.jdbcTemplate.batchUpdate("INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,interest_overdue_derived,"
+                        + "fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,overdue_since_date_derived) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", insertParams);
+                result += insertParams.size();
+            }
+        }
+
+        final List<Object[]> deleteParams = new ArrayList<>();
+        for (final Long loanId : loanIds) {
+            if (!arrears.containsKey(loanId)) {
+                deleteParams.add(new Object[] { loanId });
+            }
+        }
+        if (!deleteParams.isEmpty()) {
+            for (final int deleted : this.jdbcTemplate.batchUpdate("DELETE FROM m_loan_arrears_aging WHERE loan_id = ?", deleteParams)) {
+                result += deleted;
+            }
         }
+        return result;
+    }
 
-        log.info("{}: Records affected by updateLoanArrearsAgeingDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
+    private AgeingCheckpoint retrieveCheckpoint() {
+        final List<AgeingCheckpoint> checkpoints = this.jdbcTemplate.query(
+                "select business_date, run_start_utc from m_loan_arrears_aging_checkpoint where id = 1",
+                (rs, rowNum) -> new AgeingCheckpoint(JdbcSupport.getLocalDate(rs, "business_date"),
+                        rs.getObject("run_start_utc", OffsetDateTime.class)));
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    private void saveCheckpoint(final LocalDate businessDate, final OffsetDateTime runStart, final AgeingCheckpoint previous) {
+        if (previous == null) {
+            this.jdbcTemplate.update("insert into m_loan_arrears_aging_checkpoint (id, business_date, run_start_utc) values (1, ?, ?)",
+                    businessDate, runStart);
+        } else {
+            this.jdbcTemplate.update("update m_loan_arrears_aging_checkpoint set business_date = ?, run_start_utc = ? where id = 1",
+                    businessDate, runStart);
+        }
     }
 
     @Override
     public void updateLoanArrearsAgeingDetailsWithOriginalSchedule(final Loan loan) {
-        int count = this.jdbcTemplate.queryForObject("select count(mla.loan_id) from m_loan_arrears_aging mla where mla.loan_id =?",
-                Integer.class, loan.getId());
-        List<String> updateStatement = new ArrayList<>();
         OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loan.getId().toString(), sqlGenerator);
         Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
                 originalScheduleExtractor);
         if (scheduleDate.size() > 0) {
             List<Map<String, Object>> transactions = getLoanSummary(loan.getId(), loan.getLoanSummary());
             updateSchheduleWithPaidDetail(scheduleDate, transactions);
-            createInsertStatements(updateStatement, scheduleDate, count == 0);
-            if (updateStatement.size() == 1) {
-                this.jdbcTemplate.update(updateStatement.get(0));
-            } else {
-                String deletestatement = "DELETE FROM m_loan_arrears_aging WHERE  loan_id=?";
-                this.jdbcTemplate.update(deletestatement, loan.getId()); // NOSONAR
+            final Map<Long, ArrearsAgeing> arrears = new HashMap<>();
+            for (final ArrearsAgeing ageing : calculateArrears(scheduleDate)) {
+                arrears.put(ageing.loanId, ageing);
             }
+            saveArrears(List.of(loan.getId()), arrears);
         }
     }
 
     @Override
     public void updateLoanArrearsAgeingDetails(final Loan loan) {
-        int count = this.jdbcTemplate.queryForObject("select count(mla.loan_id) from m_loan_arrears_aging mla where mla.loan_id =?",
-                Integer.class, loan.getId());
-        String updateStatement = constructUpdateStatement(loan, count == 0);
-        if (updateStatement == null) {
-            String deletestatement = "DELETE FROM m_loan_arrears_aging WHERE  loan_id=?";
-            this.jdbcTemplate.update(deletestatement, loan.getId()); // NOSONAR
-        } else {
-            this.jdbcTemplate.update(updateStatement);
-        }
+        final ArrearsAgeing ageing = calculateArrears(loan);
+        saveArrears(List.of(loan.getId()), ageing == null ? Map.of() : Map.of(loan.getId(), ageing));
     }
 
-    private String constructUpdateStatement(final Loan loan, boolean isInsertStatement) {
-        String updateSql = null;
+    private ArrearsAgeing calculateArrears(final Loan loan) {
         List<LoanRepaymentScheduleInstallment> installments = loan.getRepaymentScheduleInstallments();
         BigDecimal principalOverdue = BigDecimal.ZERO;
         BigDecimal interestOverdue = BigDecimal.ZERO;
@@ -197,43 +385,9 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
         BigDecimal totalOverDue = principalOverdue.add(interestOverdue).add(feeOverdue).add(penaltyOverdue);
         if (totalOverDue.compareTo(BigDecimal.ZERO) > 0) {
-            if (isInsertStatement) {
-                updateSql = constructInsertStatement(loan.getId(), principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                        overDueSince);
-            } else {
-                updateSql = constructUpdateStatement(loan.getId(), principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                        overDueSince);
-            }
+            return new ArrearsAgeing(loan.getId(), principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, overDueSince);
         }
-        return updateSql;
-    }
-
-    private List<String> updateLoanArrearsAgeingDetailsWithOriginalSchedule() {
-        List<String> insertStatement = new ArrayList<>();
-
-        final StringBuilder loanIdentifier = new StringBuilder();
-        loanIdentifier.append("select ml.id as loanId FROM m_loan ml  ");
-        loanIdentifier.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        loanIdentifier.append(
-                "inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = true  ");
-        loanIdentifier.append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < ")
-                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
-                .append(" group by ml.id");
-        List<Long> loanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class);
-        if (!loanIds.isEmpty()) {
-            String loanIdsAsString = loanIds.toString();
-            loanIdsAsString = loanIdsAsString.substring(1, loanIdsAsString.length() - 1);
-            OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString, sqlGenerator);
-            Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
-                    originalScheduleExtractor);
-
-            List<Map<String, Object>> loanSummary = getLoanSummary(loanIdsAsString);
-            updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
-            createInsertStatements(insertStatement, scheduleDate, true);
-        }
-
-        return insertStatement;
-
+        return null;
     }
 
     private List<Map<String, Object>> getLoanSummary(final String loanIdsAsString) {
@@ -270,8 +424,8 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
     }
 
-    private void createInsertStatements(List<String> insertStatement, Map<Long, List<LoanSchedulePeriodData>> scheduleDate,
-            boolean isInsertStatement) {
+    private List<ArrearsAgeing> calculateArrears(Map<Long, List<LoanSchedulePeriodData>> scheduleDate) {
+        final List<ArrearsAgeing> arrears = new ArrayList<>(scheduleDate.size());
         for (Map.Entry<Long, List<LoanSchedulePeriodData>> entry : scheduleDate.entrySet()) {
             final Long loanId = entry.getKey();
             BigDecimal principalOverdue = BigDecimal.ZERO;
@@ -296,49 +450,11 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
                 }
             }
             if (principalOverdue.compareTo(BigDecimal.ZERO) > 0) {
-                String sqlStatement = null;
-                if (isInsertStatement) {
-                    sqlStatement = constructInsertStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                } else {
-                    sqlStatement = constructUpdateStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                }
-                insertStatement.add(sqlStatement);
+                arrears.add(new ArrearsAgeing(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, overDueSince));
             }
 
         }
-    }
-
-    private String constructInsertStatement(final Long loanId, BigDecimal principalOverdue, BigDecimal interestOverdue,
-            BigDecimal feeOverdue, BigDecimal penaltyOverdue, LocalDate overDueSince) {
-        final StringBuilder insertStatementBuilder = new StringBuilder(900);
-        insertStatementBuilder.append("INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,interest_overdue_derived,")
-                .append("fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,overdue_since_date_derived) VALUES(");
-        insertStatementBuilder.append(loanId).append(",");
-        insertStatementBuilder.append(principalOverdue).append(",");
-        insertStatementBuilder.append(interestOverdue).append(",");
-        insertStatementBuilder.append(feeOverdue).append(",");
-        insertStatementBuilder.append(penaltyOverdue).append(",");
-        BigDecimal totalOverDue = principalOverdue.add(interestOverdue).add(feeOverdue).add(penaltyOverdue);
-        insertStatementBuilder.append(totalOverDue).append(",'");
-        insertStatementBuilder.append(this.formatter.format(overDueSince)).append("')");
-        return insertStatementBuilder.toString();
-    }
-
-    private String constructUpdateStatement(final Long loanId, BigDecimal principalOverdue, BigDecimal interestOverdue,
-            BigDecimal feeOverdue, BigDecimal penaltyOverdue, LocalDate overDueSince) {
-        final StringBuilder insertStatementBuilder = new StringBuilder(900);
-        insertStatementBuilder.append("UPDATE m_loan_arrears_aging SET principal_overdue_derived=");
-        insertStatementBuilder.append(principalOverdue).append(", interest_overdue_derived=");
-        insertStatementBuilder.append(interestOverdue).append(", fee_charges_overdue_derived=");
-        insertStatementBuilder.append(feeOverdue).append(", penalty_charges_overdue_derived=");
-        insertStatementBuilder.append(penaltyOverdue).append(", total_overdue_derived=");
-        BigDecimal totalOverDue = principalOverdue.add(interestOverdue).add(feeOverdue).add(penaltyOverdue);
-        insertStatementBuilder.append(totalOverDue).append(",overdue_since_date_derived= '");
-        insertStatementBuilder.append(this.formatter.format(overDueSince)).append("' ");
-        insertStatementBuilder.append("WHERE  loan_id=").append(loanId);
-        return insertStatementBuilder.toString();
+        return arrears;
     }
 
     private void updateSchheduleWithPaidDetail(Map<Long, List<LoanSchedulePeriodData>> scheduleDate,
@@ -479,6 +595,41 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         }
     }
 
+    private static final class ArrearsAgeing {
+
+        private final Long loanId;
+        private final BigDecimal principalOverdue;
+        private final BigDecimal interestOverdue;
+        private final BigDecimal feeOverdue;
+        private final BigDecimal penaltyOverdue;
+        private final LocalDate overdueSince;
+
+        ArrearsAgeing(final Long loanId, final BigDecimal principalOverdue, final BigDecimal interestOverdue, final BigDecimal feeOverdue,
+                final BigDecimal penaltyOverdue, final LocalDate overdueSince) {
+            this.loanId = loanId;
+            this.principalOverdue = principalOverdue;
+            this.interestOverdue = interestOverdue;
+            this.feeOverdue = feeOverdue;
+            this.penaltyOverdue = penaltyOverdue;
+            this.overdueSince = overdueSince;
+        }
+
+        BigDecimal totalOverdue() {
+            return this.principalOverdue.add(this.interestOverdue).add(this.feeOverdue).add(this.penaltyOverdue);
+        }
+    }
+
+    private static final class AgeingCheckpoint {
+
+        private final LocalDate businessDate;
+        private final OffsetDateTime runStart;
+
+        AgeingCheckpoint(final LocalDate businessDate, final OffsetDateTime runStart) {
+            this.businessDate = businessDate;
+            this.runStart = runStart;
+        }
+    }
+
     private void handleArrearsForLoan(Loan loan) {
         if (loan != null && loan.isOpen() && loan.repaymentScheduleDetail().isInterestRecalculationEnabled()
                 && loan.loanProduct().isArrearsBasedOnOriginalSchedule()) {
@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobExecuter;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the repayment dates of loans that fall on or after the start of an unprocessed holiday.
+ *
+ * The loans of a holiday are never loaded together: the loan ids are split into ID-range partitions which are processed
+ * in parallel on the shared {@link JobExecuter} worker pool, each partition reading the ids of the affected loans chunk
+ * by chunk after its last processed loan. Every chunk loads, reschedules and saves its loans in one transaction
+ * together with the partition checkpoint in <code>m_holiday_loan_reschedule</code>, so a failed or interrupted run
+ * resumes where it stopped and no loan is rescheduled twice. The holiday is marked processed once all of its partitions
+ * are done.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanHolidayRescheduleServiceImpl implements LoanHolidayRescheduleService {
+
+    private static final String THREAD_POOL_SIZE_PARAM = "thread-pool-size";
+
+    private final FineractProperties fineractProperties;
+    private final ConfigurationDomainService configurationDomainService;
+    private final HolidayRepositoryWrapper holidayRepository;
+    private final LoanRepositoryWrapper loanRepositoryWrapper;
+    private final LoanUtilService loanUtilService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final JobExecuter jobExecuter;
+
+    @Override
+    @CronTarget(jobName = JobName.APPLY_HOLIDAYS_TO_LOANS)
+    public void applyHolidaysToLoans() throws JobExecutionException {
+        if (!this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled()) {
+            return;
+        }
+        final FineractProperties.FineractHolidayRescheduleProperties properties = this.fineractProperties.getLoan()
+                .getHolidayReschedule();
+        final int threadPoolSize = Math.max(1, resolveThreadPoolSize(properties));
+
+        final List<Holiday> holidays = this.transactionTemplate.execute(status -> this.holidayRepository.findUnprocessed());
+        final List<Throwable> errors = new ArrayList<>();
+        for (final Holiday holiday : holidays) {
+            final List<Throwable> holidayErrors = applyHoliday(holiday.getId(), holiday.getFromDateLocalDate(), threadPoolSize,
+                    properties.getChunkSize());
+            if (holidayErrors.isEmpty()) {
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    final Holiday processedHoliday = this.holidayRepository.findOneWithNotFoundDetection(holiday.getId());
+                    processedHoliday.processed();
+                    this.holidayRepository.save(processedHoliday);
+                    this.jdbcTemplate.update("delete from m_holiday_loan_reschedule where holiday_id = ?", holiday.getId());
+                });
+                log.info("Holiday {} applied to loans", holiday.getId());
+            } else {
+                errors.addAll(holidayErrors);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private List<Throwable> applyHoliday(final Long holidayId, final LocalDate fromDate, final int threadPoolSize, final int chunkSize) {
+        final List<Partition> pending = retrieveOrCreatePartitions(holidayId, threadPoolSize).stream()
+                .filter(partition -> partition.toLoanId == null || partition.lastLoanId < partition.toLoanId)
+                .collect(Collectors.toList());
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        log.info("Applying holiday {} to loans: {} partition(s) on {} thread(s)", holidayId, pending.size(),
+                Math.min(threadPoolSize, pending.size()));
+
+        // one partition per chunk, run on the shared job worker pool
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final String failures = this.jobExecuter.executeJob(pending, (partitions, sb) -> {
+            for (final Partition partition : partitions) {
+                errors.addAll(processPartition(holidayId, fromDate, partition, chunkSize));
+            }
+        }, threadPoolSize, 1);
+        if (!failures.isEmpty()) {
+            // the run was cancelled, unfinished partitions are resumed by the next run
+            errors.add(new IllegalStateException(failures));
+        }
+        return errors;
+    }
+
+    /**
+     * Reschedules the loans of a partition one chunk at a time. A failed chunk is rolled back together with its
+     * checkpoint and stops the partition; the next run starts again with that chunk.
+     */
+    private List<Throwable> processPartition(final Long holidayId, final LocalDate fromDate, final Partition partition,
+            final int chunkSize) {
+        long lastLoanId = partition.lastLoanId;
+        List<Long> chunk;
+        do {
+            chunk = fetchChunk(holidayId, fromDate, partition, lastLoanId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            final List<Long> loanIds = chunk;
+            final Long lastLoanIdOfChunk = loanIds.get(loanIds.size() - 1);
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    final Holiday holiday = this.holidayRepository.findOneWithNotFoundDetection(holidayId);
+                    for (final Long loanId : loanIds) {
+                        final Loan loan = this.loanRepositoryWrapper.findOneWithNotFoundDetection(loanId);
+                        loan.applyHolidayToRepaymentScheduleDates(holiday, this.loanUtilService);
+                        this.loanRepositoryWrapper.save(loan);
+                    }
+                    this.jdbcTemplate.update(
+                            "update m_holiday_loan_reschedule set last_loan_id = ? where holiday_id = ? and partition_number = ?",
+                            lastLoanIdOfChunk, holidayId, partition.partitionNumber);
+                });
+            } catch (RuntimeException e) {
+                log.error("Applying holiday {} to loans {} - {} failed", holidayId, loanIds.get(0), lastLoanIdOfChunk, e);
+                return List.of(e);
+            }
+            lastLoanId = lastLoanIdOfChunk;
+        } while (chunk.size() == chunkSize);
+
+        if (partition.toLoanId != null) {
+            this.jdbcTemplate.update("update m_holiday_loan_reschedule set last_loan_id = ? where holiday_id = ? and partition_number = ?",
+                    partition.toLoanId, holidayId, partition.partitionNumber);
+        }
+        return List.of();
+    }
+
+    /**
+     * Returns the ids of the next loans of the partition that belong, through their client or group, to an office of
+     * the holiday, are not yet closed and have a repayment due on or after the first day of the holiday.
+     */
+    private List<Long> fetchChunk(final Long holidayId, final LocalDate fromDate, final Partition partition, final long afterLoanId,
+            final int chunkSize) {
+        final String loanStatuses = Stream
+                .of(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(), LoanStatus.APPROVED.getValue(), LoanStatus.ACTIVE.getValue())
+                .map(String::valueOf).collect(Collectors.joining(","));
+        final String holidayOffices = "(select ho.office_id from m_holiday_office ho where ho.holiday_id = ?)";
+        final StringBuilder sql = new StringBuilder("select l.id from m_loan l") //
+                .append(" left join m_client c on c.id = l.client_id left join m_group g on g.id = l.group_id") //
+                .append(" where l.id > ?").append(partition.toLoanId == null ? "" : " and l.id <= " + partition.toLoanId) //
+                .append(" and l.loan_status_id in (").append(loanStatuses).append(")") //
+                .append(" and (c.office_id in ").append(holidayOffices).append(" or g.office_id in ").append(holidayOffices).append(")")
+                .append(" and exists (select 1 from m_loan_repayment_schedule mr where mr.loan_id = l.id and mr.duedate >= ?)") //
+                .append(" order by l.id ").append(this.sqlGenerator.limit(chunkSize));
+        return this.jdbcTemplate.queryForList(sql.toString(), Long.class, afterLoanId, holidayId, holidayId, fromDate);
+    }
+
+    /**
+     * Returns the partitions of a holiday, creating them on its first run by splitting the current loan ids into equal
+     * ranges. The last partition is open-ended so that loans created before the holiday is processed are covered.
+     */
+    private List<Partition> retrieveOrCreatePartitions(final Long holidayId, final int partitionCount) {
+        final String sql = "select partition_number, from_loan_id, to_loan_id, last_loan_id from m_holiday_loan_reschedule "
+                + "where holiday_id = ? order by partition_number";
+        final List<Partition> existing = this.jdbcTemplate.query(sql,
+                (rs, rowNum) -> new Partition(rs.getInt("partition_number"), rs.getLong("from_loan_id"),
+                        rs.getObject("to_loan_id", Long.class), rs.getLong("last_loan_id")),
+                holidayId);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+
+        final Long maxLoanId = this.jdbcTemplate.queryForObject("select max(id) from m_loan", Long.class);
+        final long rangeSize = maxLoanId == null ? 1L : Math.max(1L, (maxLoanId + partitionCount - 1) / partitionCount);
+        final int count = maxLoanId == null ? 1 : (int) Math.min(partitionCount, (maxLoanId + rangeSize - 1) / rangeSize);
+        final List<Partition> partitions = new ArrayList<>(count);
+        for (int partitionNumber = 0; partitionNumber < count; partitionNumber++) {
+            final long fromLoanId = partitionNumber * rangeSize + 1;
+            final Long toLoanId = partitionNumber == count - 1 ? null : (partitionNumber + 1) * rangeSize;
+            partitions.add(new Partition(partitionNumber, fromLoanId, toLoanId, fromLoanId - 1));
+        }
+        this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(
+                "insert into m_holiday_loan_reschedule (holiday_id, partition_number, from_loan_id, to_loan_id, last_loan_id) "
+                        + "values (?, ?, ?, ?, ?)",
+                partitions.stream().map(partition -> new Object[] { holidayId, partition.partitionNumber, partition.fromLoanId,
+                        partition.toLoanId, partition.lastLoanId }).collect(Collectors.toList())));
+        return partitions;
+    }
+
+    private int resolveThreadPoolSize(final FineractProperties.FineractHolidayRescheduleProperties properties) {
+        final Object jobParameter = ThreadLocalContextUtil.getJobParams() == null ? null
+                : ThreadLocalContextUtil.getJobParams().get(THREAD_POOL_SIZE_PARAM);
+        return jobParameter == null ? properties.getThreadPoolSize() : Integer.parseInt(String.valueOf(jobParameter));
+    }
+
+    private static final class Partition {
+
+        private final int partitionNumber;
+        private final long fromLoanId;
+        private final Long toLoanId;
+        private final long lastLoanId;
+
+        private Partition(final int partitionNumber, final long fromLoanId, final Long toLoanId, final long lastLoanId) {
+            this.partitionNumber = partitionNumber;
+            this.fromLoanId = fromLoanId;
+            this.toLoanId = toLoanId;
+            this.lastLoanId = lastLoanId;
+        }
+    }
+}
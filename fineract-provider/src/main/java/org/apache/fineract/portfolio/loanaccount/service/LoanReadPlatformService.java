@@ -95,6 +95,12 @@ public interface LoanReadPlatformService {
      */
     Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(Long penaltyWaitPeriod, Boolean backdatePenalties);
 
+    /**
+     * Same as {@link #retrieveAllLoansWithOverdueInstallments(Long, Boolean)} but restricted to a single loan, so that
+     * per-loan callers (e.g. close of business steps) do not have to scan the whole portfolio.
+     */
+    Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoan(Long loanId, Long penaltyWaitPeriod, Boolean backdatePenalties);
+
     Integer retriveLoanCounter(Long groupId, Integer loanType, Long productId);
 
     Integer retriveLoanCounter(Long clientId, Long productId);
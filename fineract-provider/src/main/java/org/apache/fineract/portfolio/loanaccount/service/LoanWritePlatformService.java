@@ -78,8 +78,6 @@ public interface LoanWritePlatformService {
     void applyMeetingDateChanges(Calendar calendar, Collection<CalendarInstance> loanCalendarInstances,
             Boolean reschedulebasedOnMeetingDates, LocalDate presentMeetingDate, LocalDate newMeetingDate);
 
-    void applyHolidaysToLoans();
-
     LoanTransaction initiateLoanTransfer(Loan loan, LocalDate transferDate);
 
     LoanTransaction withdrawLoanTransfer(Loan loan, LocalDate transferDate);
@@ -65,6 +65,8 @@ public class SavingsApiConstants {
     public static final String COMMAND_BLOCK_DEBIT = "blockDebit";
     public static final String COMMAND_UNBLOCK_DEBIT = "unblockDebit";
     public static final String COMMAND_UNBLOCK_CREDIT = "unblockCredit";
+    public static final String COMMAND_ENABLE_HOT_ACCOUNT = "enableHotAccount";
+    public static final String COMMAND_DISABLE_HOT_ACCOUNT = "disableHotAccount";
     public static final String COMMAND_UNLOCK = "unlock";
 
     // general
@@ -82,6 +84,7 @@ public class SavingsApiConstants {
     public static final String statusParamName = "status";
     public static final String subStatusParamName = "subStatus";
     public static final String reasonForBlockParamName = "reasonForBlock";
+    public static final String hotAccountParamName = "hotAccount";
     public static final String clientIdParamName = "clientId";
     public static final String isRetailAccountParamName = "isRetailAccount";
     public static final String autogenerateTransactionIdParamName = "autogenerateTransactionId";
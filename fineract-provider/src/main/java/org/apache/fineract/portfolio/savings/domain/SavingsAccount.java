@@ -52,6 +52,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -110,6 +111,7 @@ import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
 import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
 import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
 import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountBlockedException;
@@ -225,6 +227,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
     @Column(name = "reason_for_block", nullable = true)
     protected String reasonForBlock;
 
+    @Column(name = "hot_account", nullable = false)
+    protected boolean hotAccount;
+
     @Embedded
     protected MonetaryCurrency currency;
 
@@ -309,6 +314,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
     @Embedded
     protected SavingsAccountSummary summary;
 
+    @Embedded
+    protected SavingsAccountInterestCheckpoint interestCheckpoint;
+
     @OrderBy(value = "dateOf, createdDate, id")
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true, fetch = FetchType.LAZY)
     protected List<SavingsAccountTransaction> transactions = new ArrayList<>();
@@ -679,11 +687,14 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
             // update existing transactions so derived balance fields are
             // correct.
-            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, postReversals);
+            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, postReversals,
+                    backdatedTxnsAllowedTill ? null : this.interestCheckpoint);
         }
 
         if (!backdatedTxnsAllowedTill) {
             this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+            updateInterestCheckpoint(postingPeriods, interestPostingUpToDate, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    financialYearBeginningMonth);
         } else {
             this.summary.updateSummaryWithPivotConfig(this.currency, this.savingsAccountTransactionSummaryWrapper, null,
                     this.savingsAccountTransactions);
@@ -1066,10 +1077,15 @@ public class SavingsAccount extends AbstractPersistableCustom {
             openingAccountBalance = Money.zero(this.currency);
         }
 
+        // continue from the last interest checkpoint, if it is still valid
+        final SavingsAccountInterestCheckpoint checkpoint = backdatedTxnsAllowedTill ? null
+                : retrieveValidInterestCheckpoint(upToInterestCalculationDate, isSavingsInterestPostingAtCurrentPeriodEnd,
+                        financialYearBeginningMonth, postInterestOnDate);
+
         // update existing transactions so derived balance fields are
         // correct.
 
-        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, backdatedTxnsAllowedTill, postReversals);
+        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate, backdatedTxnsAllowedTill, postReversals, checkpoint);
 
         // 1. default to calculate interest based on entire history OR
         // 2. determine latest 'posting period' and find interest credited to
@@ -1092,14 +1108,19 @@ public class SavingsAccount extends AbstractPersistableCustom {
         if (postInterestOnDate != null) {
             postedAsOnDates.add(postInterestOnDate);
         }
+        final LocalDate startInterestCalculationLocalDate = checkpoint == null ? getStartInterestCalculationDate()
+                : checkpoint.getCheckpointDate().plusDays(1);
         final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
+                startInterestCalculationLocalDate, upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
                 postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null && !this.getStartInterestCalculationDate().equals(this.getActivationLocalDate())) {
+        if (checkpoint != null) {
+            periodStartingBalance = checkpoint.getBalance(this.currency);
+        } else if (this.startInterestCalculationDate != null
+                && !this.getStartInterestCalculationDate().equals(this.getActivationLocalDate())) {
             LocalDate startInterestCalculationDate = this.startInterestCalculationDate;
             SavingsAccountTransaction transaction = null;
             if (backdatedTxnsAllowedTill) {
@@ -1124,6 +1145,21 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
+        if (backdatedTxnsAllowedTill) {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
+        } else if (checkpoint != null) {
+            orderedNonInterestPostingTransactions = new ArrayList<>();
+            for (final SavingsAccountTransaction transaction : retrieveTransactionsFromInterestCheckpoint(checkpoint)) {
+                if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                        && transaction.isNotReversed() && !transaction.isReversalTransaction()) {
+                    orderedNonInterestPostingTransactions.add(transaction);
+                }
+            }
+        } else {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        }
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -1131,29 +1167,27 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 isUserPosting = true;
             }
 
-            PostingPeriod postingPeriod = null;
-            List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
-            if (backdatedTxnsAllowedTill) {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
-            } else {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
-            }
-
-            postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedNonInterestPostingTransactions,
-                    this.currency, compoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
-                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
-                    isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
-                    isUserPosting, financialYearBeginningMonth);
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
+                    interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
+                    isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
 
             periodStartingBalance = postingPeriod.closingBalance();
 
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
-
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        if (checkpoint != null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), checkpoint.getCompoundInterestValues());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods, checkpoint.getInterestEarned(this.currency),
+                    checkpoint.getOverdraftInterestEarned(this.currency));
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO));
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        }
 
         if (backdatedTxnsAllowedTill) {
             this.summary.updateSummaryWithPivotConfig(this.currency, this.savingsAccountTransactionSummaryWrapper, null,
@@ -1346,19 +1380,35 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate,
             final boolean backdatedTxnsAllowedTill, boolean postReversals) {
+        recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, backdatedTxnsAllowedTill, postReversals, null);
+    }
+
+    /**
+     * With an interest checkpoint only the transactions after the last balance changing transaction on or before the
+     * checkpoint date are recalculated, the older ones did not change since the checkpoint was taken.
+     */
+    protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate,
+            final boolean backdatedTxnsAllowedTill, boolean postReversals, final SavingsAccountInterestCheckpoint checkpoint) {
         Money runningBalance = openingAccountBalance.copy();
 
         List<SavingsAccountTransaction> accountTransactionsSorted = null;
 
+        int firstIndex = 0;
         if (backdatedTxnsAllowedTill) {
             accountTransactionsSorted = retrieveSortedTransactions();
+        } else if (checkpoint != null) {
+            // starts with the anchor, whose running balance is the one at the checkpoint
+            accountTransactionsSorted = retrieveTransactionsFromInterestCheckpoint(checkpoint);
+            runningBalance = accountTransactionsSorted.get(0).getRunningBalance(this.currency);
+            firstIndex = 1;
         } else {
             accountTransactionsSorted = retreiveListOfTransactions();
         }
 
         boolean isTransactionsModified = false;
 
-        for (final SavingsAccountTransaction transaction : accountTransactionsSorted) {
+        for (final SavingsAccountTransaction transaction : accountTransactionsSorted.subList(firstIndex,
+                accountTransactionsSorted.size())) {
             if (transaction.isReversed() || transaction.isReversalTransaction()) {
                 transaction.zeroBalanceFields();
             } else {
@@ -1428,6 +1478,8 @@ public class SavingsAccount extends AbstractPersistableCustom {
         if (isTransactionsModified) {
             if (backdatedTxnsAllowedTill) {
                 accountTransactionsSorted = retrieveSortedTransactions();
+            } else if (checkpoint != null) {
+                accountTransactionsSorted = retrieveTransactionsFromInterestCheckpoint(checkpoint);
             } else {
                 accountTransactionsSorted = retreiveListOfTransactions();
             }
@@ -1436,6 +1488,110 @@ public class SavingsAccount extends AbstractPersistableCustom {
         resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
     }
 
+    /**
+     * Returns the interest checkpoint of the account if the interest up to the given date can be calculated from it,
+     * otherwise drops the checkpoint so that the interest is calculated from the activation of the account again.
+     */
+    private SavingsAccountInterestCheckpoint retrieveValidInterestCheckpoint(final LocalDate upToInterestCalculationDate,
+            final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,
+            final LocalDate postInterestOnDate) {
+        final SavingsAccountInterestCheckpoint checkpoint = this.interestCheckpoint;
+        if (checkpoint == null) {
+            return null;
+        }
+        final LocalDate checkpointDate = checkpoint.getCheckpointDate();
+        final boolean valid = isInterestCheckpointSupported() && checkpointDate != null
+                && checkpointDate.isBefore(upToInterestCalculationDate)
+                && (postInterestOnDate == null || postInterestOnDate.isAfter(checkpointDate))
+                && checkpoint.isValidFor(this.transactions,
+                        interestCheckpointSettings(isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth))
+                && this.transactions.stream().anyMatch(transaction -> isInterestCheckpointAnchor(transaction, checkpointDate));
+        if (!valid) {
+            this.interestCheckpoint = null;
+            return null;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Moves the interest checkpoint to the end of the last of the given posting periods whose interest was posted.
+     */
+    private void updateInterestCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate,
+            final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth) {
+        if (!isInterestCheckpointSupported()) {
+            this.interestCheckpoint = null;
+            return;
+        }
+        int lastPostedPeriodIndex = -1;
+        for (int i = 0; i < postingPeriods.size(); i++) {
+            if (!postingPeriods.get(i).dateOfPostingTransaction().isAfter(interestPostingUpToDate)) {
+                lastPostedPeriodIndex = i;
+            }
+        }
+        if (lastPostedPeriodIndex >= 0) {
+            this.interestCheckpoint = SavingsAccountInterestCheckpoint.createFrom(this.interestCheckpoint, postingPeriods,
+                    lastPostedPeriodIndex, this.transactions,
+                    interestCheckpointSettings(isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth), this.currency);
+        }
+    }
+
+    private boolean isInterestCheckpointSupported() {
+        return depositAccountType().isSavingsDeposit() && !isTransferInterestToOtherAccount()
+                && (this.startInterestCalculationDate == null || this.startInterestCalculationDate.equals(getActivationLocalDate()));
+    }
+
+    private int interestCheckpointSettings(final boolean isSavingsInterestPostingAtCurrentPeriodEnd,
+            final Integer financialYearBeginningMonth) {
+        return Objects.hash(stripTrailingZeros(this.nominalAnnualInterestRate), this.interestCompoundingPeriodType,
+                this.interestPostingPeriodType, this.interestCalculationType, this.interestCalculationDaysInYearType,
+                stripTrailingZeros(this.minBalanceForInterestCalculation), stripTrailingZeros(this.nominalAnnualInterestRateOverdraft),
+                stripTrailingZeros(this.minOverdraftForInterestCalculation), this.lockedInUntilDate,
+                isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth);
+    }
+
+    private static BigDecimal stripTrailingZeros(final BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+
+    /**
+     * Returns the transactions from the anchor of the interest checkpoint on, sorted as by
+     * {@link #retreiveListOfTransactions()}. The anchor is the last transaction on or before the checkpoint date that
+     * changes the balance; the calculation restarts from its running balance. Only the returned transactions are
+     * sorted, the older ones are passed over once to find the anchor.
+     */
+    private List<SavingsAccountTransaction> retrieveTransactionsFromInterestCheckpoint(final SavingsAccountInterestCheckpoint checkpoint) {
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>(this.transactions);
+        int anchorIndex = -1;
+        for (int i = 0; i < transactions.size(); i++) {
+            final SavingsAccountTransaction transaction = transactions.get(i);
+            // a later transaction comparing equal stays after the anchor in the stable sort, so it becomes the anchor
+            if (isInterestCheckpointAnchor(transaction, checkpoint.getCheckpointDate())
+                    && (anchorIndex < 0 || transactionComparator.compare(transaction, transactions.get(anchorIndex)) >= 0)) {
+                anchorIndex = i;
+            }
+        }
+        if (anchorIndex < 0) {
+            throw new IllegalStateException("No transaction on or before the interest checkpoint " + checkpoint.getCheckpointDate());
+        }
+        final SavingsAccountTransaction anchor = transactions.get(anchorIndex);
+        final List<SavingsAccountTransaction> transactionsFromAnchor = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            final int comparison = transactionComparator.compare(transactions.get(i), anchor);
+            if (comparison > 0 || (comparison == 0 && i >= anchorIndex)) {
+                transactionsFromAnchor.add(transactions.get(i));
+            }
+        }
+        transactionsFromAnchor.sort(transactionComparator);
+        return transactionsFromAnchor;
+    }
+
+    private static boolean isInterestCheckpointAnchor(final SavingsAccountTransaction transaction, final LocalDate checkpointDate) {
+        return transaction.isNotReversed() && !transaction.isReversalTransaction()
+                && !(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                && !transaction.transactionLocalDate().isAfter(checkpointDate);
+    }
+
     protected void resetAccountTransactionsEndOfDayBalances(final List<SavingsAccountTransaction> accountTransactionsSorted,
             final LocalDate interestPostingUpToDate) {
         // loop over transactions in reverse
@@ -4124,6 +4280,19 @@ public class SavingsAccount extends AbstractPersistableCustom {
         this.reasonForBlock = reasonForBlock;
     }
 
+    public boolean isHotAccount() {
+        return this.hotAccount;
+    }
+
+    public Map<String, Object> updateHotAccount(final boolean hotAccount) {
+        final Map<String, Object> actualChanges = new LinkedHashMap<>();
+        if (this.hotAccount != hotAccount) {
+            this.hotAccount = hotAccount;
+            actualChanges.put(SavingsApiConstants.hotAccountParamName, hotAccount);
+        }
+        return actualChanges;
+    }
+
     public Map<String, Object> block() {
 
         final Map<String, Object> actualChanges = new LinkedHashMap<>();
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+
+/**
+ * State of the interest calculation of a {@link SavingsAccount} at the end of an interest posting period that was
+ * already posted: the balance without interest postings, the compounding state and the interest earned up to then.
+ * The interest of the later posting periods can be calculated from it without going over the older transactions again.
+ *
+ * The checkpoint remembers how many transactions, and how many reversed ones, the account had up to its date and a hash
+ * of the interest settings of the account. A backdated transaction, an undo or a change of the interest settings no
+ * longer matches and the next calculation starts from the activation of the account again.
+ *
+ * The compounding state is not rounded by the calculation (it works with 9 decimals), so it is stored with
+ * {@value #COMPOUNDING_SCALE} decimals to continue exactly where the full calculation would be. The other amounts are
+ * rounded to the currency already.
+ */
+@Embeddable
+public class SavingsAccountInterestCheckpoint {
+
+    static final int COMPOUNDING_SCALE = 18;
+
+    @Column(name = "interest_checkpoint_date")
+    private LocalDate checkpointDate;
+
+    @Column(name = "interest_checkpoint_balance", scale = 6, precision = 19)
+    private BigDecimal balance;
+
+    @Column(name = "interest_checkpoint_compounded", scale = COMPOUNDING_SCALE, precision = 38)
+    private BigDecimal compoundedInterest;
+
+    @Column(name = "interest_checkpoint_uncompounded", scale = COMPOUNDING_SCALE, precision = 38)
+    private BigDecimal uncompoundedInterest;
+
+    @Column(name = "interest_checkpoint_earned", scale = 6, precision = 19)
+    private BigDecimal interestEarned;
+
+    @Column(name = "interest_checkpoint_overdraft_earned", scale = 6, precision = 19)
+    private BigDecimal overdraftInterestEarned;
+
+    @Column(name = "interest_checkpoint_txn_count")
+    private Integer transactionCount;
+
+    @Column(name = "interest_checkpoint_reversed_count")
+    private Integer reversedTransactionCount;
+
+    @Column(name = "interest_checkpoint_settings")
+    private Integer settings;
+
+    protected SavingsAccountInterestCheckpoint() {
+        //
+    }
+
+    private SavingsAccountInterestCheckpoint(final LocalDate checkpointDate, final BigDecimal balance,
+            final CompoundInterestValues compoundInterestValues, final BigDecimal interestEarned, final BigDecimal overdraftInterestEarned,
+            final int[] transactionCounts, final int settings) {
+        this.checkpointDate = checkpointDate;
+        this.balance = balance;
+        this.compoundedInterest = compoundInterestValues.getcompoundedInterest();
+        this.uncompoundedInterest = compoundInterestValues.getuncompoundedInterest();
+        this.interestEarned = interestEarned;
+        this.overdraftInterestEarned = overdraftInterestEarned;
+        this.transactionCount = transactionCounts[0];
+        this.reversedTransactionCount = transactionCounts[1];
+        this.settings = settings;
+    }
+
+    /**
+     * Creates the checkpoint at the end of the posting period <code>lastPeriodIndex</code> of the given periods, which
+     * were calculated starting from <code>previous</code> (or from the activation of the account if there is none).
+     * Returns null if the compounding state has more decimals than can be stored, the interest is then calculated from
+     * the activation of the account again.
+     */
+    public static SavingsAccountInterestCheckpoint createFrom(final SavingsAccountInterestCheckpoint previous,
+            final List<PostingPeriod> postingPeriods, final int lastPeriodIndex, final List<SavingsAccountTransaction> transactions,
+            final int settings, final MonetaryCurrency currency) {
+        Money earned = previous == null ? Money.zero(currency) : previous.getInterestEarned(currency);
+        Money overdraftEarned = previous == null ? Money.zero(currency) : previous.getOverdraftInterestEarned(currency);
+        // same split as SavingsAccountSummary.updateFromInterestPeriodSummaries
+        for (int i = 0; i <= lastPeriodIndex; i++) {
+            final PostingPeriod period = postingPeriods.get(i);
+            if (CollectionUtils.isNotEmpty(period.interests())) {
+                for (Money interest : period.interests()) {
+                    interest = interest == null ? Money.zero(currency) : interest;
+                    if (interest.isGreaterThanZero()) {
+                        earned = earned.plus(interest);
+                    } else {
+                        overdraftEarned = overdraftEarned.plus(interest);
+                    }
+                }
+            }
+        }
+        final PostingPeriod lastPeriod = postingPeriods.get(lastPeriodIndex);
+        final CompoundInterestValues compoundInterestValues = lastPeriod.getClosingCompoundInterestValues();
+        if (compoundInterestValues.getcompoundedInterest().scale() > COMPOUNDING_SCALE
+                || compoundInterestValues.getuncompoundedInterest().scale() > COMPOUNDING_SCALE) {
+            return null;
+        }
+        final LocalDate checkpointDate = lastPeriod.getPeriodInterval().endDate();
+        return new SavingsAccountInterestCheckpoint(checkpointDate, lastPeriod.closingBalance().getAmount(),
+                compoundInterestValues, earned.getAmount(), overdraftEarned.getAmount(),
+                countTransactionsUpTo(transactions, checkpointDate), settings);
+    }
+
+    /**
+     * Returns true if no transaction on or before the checkpoint date was added or reversed and the interest settings
+     * did not change since the checkpoint was taken.
+     */
+    public boolean isValidFor(final List<SavingsAccountTransaction> transactions, final int currentSettings) {
+        if (this.checkpointDate == null || this.settings == null || this.settings != currentSettings) {
+            return false;
+        }
+        final int[] counts = countTransactionsUpTo(transactions, this.checkpointDate);
+        return this.transactionCount != null && this.transactionCount == counts[0] && this.reversedTransactionCount != null
+                && this.reversedTransactionCount == counts[1];
+    }
+
+    private static int[] countTransactionsUpTo(final List<SavingsAccountTransaction> transactions, final LocalDate date) {
+        final int[] counts = new int[2];
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (!transaction.transactionLocalDate().isAfter(date)) {
+                counts[0]++;
+                if (transaction.isReversed()) {
+                    counts[1]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    public LocalDate getCheckpointDate() {
+        return this.checkpointDate;
+    }
+
+    public Money getBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.balance);
+    }
+
+    public CompoundInterestValues getCompoundInterestValues() {
+        return new CompoundInterestValues(zeroIfNull(this.compoundedInterest), zeroIfNull(this.uncompoundedInterest));
+    }
+
+    public Money getInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.interestEarned);
+    }
+
+    public Money getOverdraftInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.overdraftInterestEarned);
+    }
+
+    private static BigDecimal zeroIfNull(final BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
@@ -259,8 +259,16 @@ public final class SavingsAccountSummary {
     }
 
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
-        Money totalEarned = Money.zero(currency);
-        Money overdraftEarned = Money.zero(currency);
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency), Money.zero(currency));
+    }
+
+    /**
+     * Updates the interest earned from the given posting periods, adding the interest earned in the periods before them.
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBefore, final Money overdraftInterestEarnedBefore) {
+        Money totalEarned = interestEarnedBefore;
+        Money overdraftEarned = overdraftInterestEarnedBefore;
         LocalDate interestCalculationDate = DateUtils.getLocalDateOfTenant();
         for (final PostingPeriod period : allPostingPeriods) {
             if (CollectionUtils.isNotEmpty(period.interests())) {
@@ -41,13 +41,23 @@ public class CompoundInterestHelper {
     public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
             LocalDate lockUntil, Boolean interestTransferEnabled) {
 
-        // sum up the 'rounded' values that are posted each posting period
-        Money interestEarned = Money.zero(currency);
-
         // total interest earned in previous periods but not yet recognised
         BigDecimal compoundedInterest = BigDecimal.ZERO;
         BigDecimal unCompoundedInterest = BigDecimal.ZERO;
         final CompoundInterestValues compoundInterestValues = new CompoundInterestValues(compoundedInterest, unCompoundedInterest);
+        return calculateInterestForAllPostingPeriods(currency, allPeriods, lockUntil, interestTransferEnabled, compoundInterestValues);
+    }
+
+    /**
+     * Same as {@link #calculateInterestForAllPostingPeriods(MonetaryCurrency, List, LocalDate, Boolean)} but continues
+     * from the given compounding state, the state at the end of each posting period is kept on the period.
+     */
+    public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
+            LocalDate lockUntil, Boolean interestTransferEnabled, final CompoundInterestValues compoundInterestValues) {
+
+        // sum up the 'rounded' values that are posted each posting period
+        Money interestEarned = Money.zero(currency);
+
         for (final PostingPeriod postingPeriod : allPeriods) {
 
             final BigDecimal interestEarnedThisPeriod = postingPeriod.calculateInterest(compoundInterestValues);
@@ -60,6 +70,7 @@ public class CompoundInterestHelper {
                     || (lockUntil != null && !postingPeriod.dateOfPostingTransaction().isAfter(lockUntil)))) {
                 compoundInterestValues.setcompoundedInterest(BigDecimal.ZERO);
             }
+            postingPeriod.setClosingCompoundInterestValues(compoundInterestValues);
         }
 
         return interestEarned;
@@ -67,6 +67,9 @@ public final class PostingPeriod {
 
     private Integer financialYearBeginningMonth;
 
+    // compounding state carried over to the next posting period
+    private CompoundInterestValues closingCompoundInterestValues;
+
     public static PostingPeriod createFrom(final LocalDateInterval periodInterval, final Money periodStartingBalance,
             final List<SavingsAccountTransaction> orderedListOfTransactions, final MonetaryCurrency currency,
             final SavingsCompoundingInterestPeriodType interestCompoundingPeriodType,
@@ -542,6 +545,15 @@ public final class PostingPeriod {
         return this.periodInterval;
     }
 
+    public CompoundInterestValues getClosingCompoundInterestValues() {
+        return this.closingCompoundInterestValues;
+    }
+
+    void setClosingCompoundInterestValues(final CompoundInterestValues compoundInterestValues) {
+        this.closingCompoundInterestValues = new CompoundInterestValues(compoundInterestValues.getcompoundedInterest(),
+                compoundInterestValues.getuncompoundedInterest());
+    }
+
     public boolean isUserPosting() {
         return this.isUserPosting;
     }
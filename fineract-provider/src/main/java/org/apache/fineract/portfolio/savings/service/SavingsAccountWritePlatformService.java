@@ -107,6 +107,8 @@ public interface SavingsAccountWritePlatformService {
 
     CommandProcessingResult unblockCredits(Long savingsId, JsonCommand command);
 
+    CommandProcessingResult updateHotAccount(Long savingsId, boolean hotAccount);
+
     CommandProcessingResult blockDebits(Long savingsId, JsonCommand command);
 
     CommandProcessingResult unblockDebits(Long savingsId, JsonCommand command);
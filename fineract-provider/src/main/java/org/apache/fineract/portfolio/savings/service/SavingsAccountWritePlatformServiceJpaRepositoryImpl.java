@@ -178,6 +178,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
 
     private final CodeValueRepositoryWrapper codeValueRepositoryWrapper;
     private final PaymentTypeRepositoryWrapper repositoryWrapper;
+    private final SavingsHotAccountRegistry hotAccountRegistry;
 
     @Autowired
     public SavingsAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -203,7 +204,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final JdbcTemplate jdbcTemplate, final SavingsAccountInterestPostingService savingsAccountInterestPostingService,
             final CodeValueRepositoryWrapper codeValueRepositoryWrapper,
             final VaultTribeCustomSavingsAccountTransactionRepository vaultTribeCustomSavingsAccountTransactionRepository,
-            final PaymentTypeRepositoryWrapper repositoryWrapper) {
+            final PaymentTypeRepositoryWrapper repositoryWrapper, final SavingsHotAccountRegistry hotAccountRegistry) {
         this.context = context;
         this.savingAccountRepositoryWrapper = savingAccountRepositoryWrapper;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
@@ -235,6 +236,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.vaultTribeCustomSavingsAccountTransactionRepository = vaultTribeCustomSavingsAccountTransactionRepository;
         this.repositoryWrapper = repositoryWrapper;
+        this.hotAccountRegistry = hotAccountRegistry;
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(SavingsAccountWritePlatformServiceJpaRepositoryImpl.class);
@@ -2202,6 +2204,21 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
                 .withClientId(account.clientId()).withGroupId(account.groupId()).withSavingsId(savingsId).with(changes).build();
     }
 
+    @Transactional
+    @Override
+    public CommandProcessingResult updateHotAccount(final Long savingsId, final boolean hotAccount) {
+        this.context.authenticatedUser();
+
+        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, false);
+        final Map<String, Object> changes = account.updateHotAccount(hotAccount);
+        if (!changes.isEmpty()) {
+            this.savingAccountRepositoryWrapper.save(account);
+            this.hotAccountRegistry.invalidate();
+        }
+        return new CommandProcessingResultBuilder().withEntityId(savingsId).withOfficeId(account.officeId())
+                .withClientId(account.clientId()).withGroupId(account.groupId()).withSavingsId(savingsId).with(changes).build();
+    }
+
     @Transactional
     @Override
     public CommandProcessingResult blockDebits(final Long savingsId, final JsonCommand command) {
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the ids of the savings accounts of each tenant that are flagged as hot accounts, so that deciding whether a
+ * deposit or withdrawal goes through the {@link SavingsHotAccountWriter} does not cost a query per request.
+ *
+ * The ids are reloaded every <code>fineract.savings.hot-account.refresh-interval</code> seconds and whenever the flag of
+ * an account is changed on this node.
+ */
+@Component
+public class SavingsHotAccountRegistry {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long refreshIntervalNanos;
+    private final Map<String, HotAccounts> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SavingsHotAccountRegistry(final JdbcTemplate jdbcTemplate, final FineractProperties fineractProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshIntervalNanos = TimeUnit.SECONDS.toNanos(fineractProperties.getSavings().getHotAccount().getRefreshInterval());
+    }
+
+    public boolean isHotAccount(final Long savingsId) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (savingsId == null || tenant == null) {
+            return false;
+        }
+        HotAccounts hotAccounts = this.tenants.get(tenant.getTenantIdentifier());
+        if (hotAccounts == null || System.nanoTime() - hotAccounts.loadedAt > this.refreshIntervalNanos) {
+            hotAccounts = load();
+            this.tenants.put(tenant.getTenantIdentifier(), hotAccounts);
+        }
+        return hotAccounts.savingsIds.contains(savingsId);
+    }
+
+    /**
+     * Forgets the hot accounts of the current tenant, once the current transaction has committed if there is one.
+     */
+    public void invalidate() {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) {
+            return;
+        }
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    SavingsHotAccountRegistry.this.tenants.remove(tenantIdentifier);
+                }
+            });
+        } else {
+            this.tenants.remove(tenantIdentifier);
+        }
+    }
+
+    private HotAccounts load() {
+        final long loadedAt = System.nanoTime();
+        final Set<Long> savingsIds = new HashSet<>(
+                this.jdbcTemplate.queryForList("select sa.id from m_savings_account sa where sa.hot_account = true", Long.class));
+        return new HotAccounts(loadedAt, savingsIds);
+    }
+
+    private static final class HotAccounts {
+
+        private final long loadedAt;
+        private final Set<Long> savingsIds;
+
+        HotAccounts(final long loadedAt, final Set<Long> savingsIds) {
+            this.loadedAt = loadedAt;
+            this.savingsIds = savingsIds;
+        }
+    }
+}
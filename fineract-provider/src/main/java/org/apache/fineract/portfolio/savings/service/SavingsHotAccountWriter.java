@@ -0,0 +1,263 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotApprovedByCheckerException;
+import org.apache.fineract.commands.service.CommandProcessingService;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies the deposits and withdrawals of hot savings accounts (see {@link SavingsHotAccountRegistry}) on a single
+ * writer per account instead of on the request threads.
+ *
+ * Accounts are spread over <code>fineract.savings.hot-account.stripes</code> writer threads by tenant and account id,
+ * so all writes of an account are applied one after the other in arrival order. A writer takes up to
+ * <code>fineract.savings.hot-account.max-batch-size</code> queued writes at a time and runs the writes of each account
+ * in one transaction, so the account and its transactions are loaded and locked once per batch instead of once per
+ * write, and concurrent writes of the account no longer wait for each other's locks or deadlock. When a batch fails it
+ * is rolled back and its writes are run again one by one, so every request still gets its own result or error. A
+ * write that fails on its own with a lock conflict is handed back to the request thread, which retries it as any other
+ * command.
+ */
+@Slf4j
+@Component
+public class SavingsHotAccountWriter {
+
+    private static final Set<String> HOT_ACCOUNT_PERMISSIONS = Set.of("DEPOSIT_SAVINGSACCOUNT", "WITHDRAWAL_SAVINGSACCOUNT");
+
+    private final CommandProcessingService processAndLogCommandService;
+    private final SavingsHotAccountRegistry hotAccountRegistry;
+    private final TransactionTemplate batchTransactionTemplate;
+    private final FineractProperties.FineractSavingsHotAccountProperties properties;
+    private final List<Stripe> stripes = new ArrayList<>();
+
+    @Autowired
+    public SavingsHotAccountWriter(final CommandProcessingService processAndLogCommandService,
+            final SavingsHotAccountRegistry hotAccountRegistry, final PlatformTransactionManager transactionManager,
+            final FineractProperties fineractProperties) {
+        this.processAndLogCommandService = processAndLogCommandService;
+        this.hotAccountRegistry = hotAccountRegistry;
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = fineractProperties.getSavings().getHotAccount();
+        if (this.properties.isEnabled()) {
+            for (int i = 0; i < this.properties.getStripes(); i++) {
+                final Stripe stripe = new Stripe();
+                final Thread thread = new Thread(stripe, "savings-hot-account-" + (i + 1));
+                thread.setDaemon(true);
+                thread.start();
+                this.stripes.add(stripe);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.stripes.forEach(Stripe::stop);
+    }
+
+    /**
+     * Whether the command is a deposit or withdrawal of a hot account that is not part of an enclosing transaction (such
+     * as a batch request), and so can be applied by the writer of the account.
+     */
+    public boolean isHotAccountWrite(final CommandWrapper wrapper) {
+        return !this.stripes.isEmpty() && HOT_ACCOUNT_PERMISSIONS.contains(wrapper.getTaskPermissionName())
+                && !TransactionSynchronizationManager.isActualTransactionActive()
+                && this.hotAccountRegistry.isHotAccount(wrapper.getSavingsId());
+    }
+
+    /**
+     * Queues the command on the writer of its account and waits until it has been committed.
+     *
+     * @return the result of the command, or <code>null</code> if the caller should process the command itself: the queue
+     *         of the writer is full, or the write was rolled back on a lock conflict and is to be retried with the
+     *         deadlock retries of the caller
+     */
+    public CommandProcessingResult process(final CommandWrapper wrapper, final JsonCommand command, final boolean approvedByChecker) {
+        final HotAccountWrite write = new HotAccountWrite(wrapper, command, approvedByChecker);
+        final Stripe stripe = this.stripes.get(Math.floorMod(write.accountKey.hashCode(), this.stripes.size()));
+        if (!stripe.writes.offer(write)) {
+            log.debug("Queue of hot account writer is full, processing write to savings account {} directly", wrapper.getSavingsId());
+            return null;
+        }
+        try {
+            return Uninterruptibles.getUninterruptibly(write.result);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CannotAcquireLockException || e.getCause() instanceof ObjectOptimisticLockingFailureException) {
+                // not retried on the writer, sleeping between the retries would hold up the other accounts of the stripe
+                log.debug("Write to hot savings account {} hit a lock conflict, retrying it directly", wrapper.getSavingsId());
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void runBatch(final List<HotAccountWrite> batch) {
+        if (batch.size() > 1) {
+            try {
+                final List<CommandProcessingResult> results = runInContext(batch.get(0),
+                        () -> this.batchTransactionTemplate.execute(status -> {
+                            final List<CommandProcessingResult> processed = new ArrayList<>(batch.size());
+                            for (final HotAccountWrite write : batch) {
+                                setContext(write);
+                                processed.add(this.processAndLogCommandService.processAndLogCommand(write.wrapper, write.command,
+                                        write.approvedByChecker));
+                            }
+                            return processed;
+                        }));
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(results.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Batch of {} writes to savings account {} failed, running them one by one", batch.size(),
+                        batch.get(0).wrapper.getSavingsId(), e);
+            }
+        }
+        for (final HotAccountWrite write : batch) {
+            try {
+                write.result.complete(runInContext(write, () -> runSingle(write)));
+            } catch (RuntimeException e) {
+                write.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private CommandProcessingResult runSingle(final HotAccountWrite write) {
+        try {
+            return this.processAndLogCommandService.processAndLogCommand(write.wrapper, write.command, write.approvedByChecker);
+        } catch (final RollbackTransactionAsCommandIsNotApprovedByCheckerException e) {
+            return this.processAndLogCommandService.logCommand(e.getCommandSourceResult());
+        }
+    }
+
+    private static <T> T runInContext(final HotAccountWrite write, final Supplier<T> supplier) {
+        setContext(write);
+        try {
+            return supplier.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.reset();
+        }
+    }
+
+    private static void setContext(final HotAccountWrite write) {
+        ThreadLocalContextUtil.init(write.context);
+        if (write.authentication != null) {
+            SecurityContextHolder.getContext().setAuthentication(write.authentication);
+        } else {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private final class Stripe implements Runnable {
+
+        private final BlockingQueue<HotAccountWrite> writes = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        private volatile boolean running = true;
+        private volatile Thread thread;
+
+        void stop() {
+            this.running = false;
+            final Thread current = this.thread;
+            if (current != null) {
+                current.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            this.thread = Thread.currentThread();
+            final List<HotAccountWrite> drained = new ArrayList<>(properties.getMaxBatchSize());
+            while (this.running) {
+                try {
+                    drained.add(this.writes.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                this.writes.drainTo(drained, properties.getMaxBatchSize() - 1);
+                final Map<String, List<HotAccountWrite>> byAccount = new LinkedHashMap<>();
+                drained.forEach(write -> byAccount.computeIfAbsent(write.accountKey, key -> new ArrayList<>()).add(write));
+                drained.clear();
+                for (final List<HotAccountWrite> batch : byAccount.values()) {
+                    try {
+                        runBatch(batch);
+                    } catch (RuntimeException e) {
+                        log.error("Hot account writer failed", e);
+                        batch.forEach(write -> write.result.completeExceptionally(e));
+                    }
+                }
+            }
+            final List<HotAccountWrite> remaining = new ArrayList<>();
+            this.writes.drainTo(remaining);
+            remaining.forEach(write -> write.result.completeExceptionally(new IllegalStateException("Hot account writer stopped")));
+        }
+    }
+
+    private static final class HotAccountWrite {
+
+        private final CommandWrapper wrapper;
+        private final JsonCommand command;
+        private final boolean approvedByChecker;
+        private final FineractContext context;
+        private final Authentication authentication;
+        private final String accountKey;
+        private final CompletableFuture<CommandProcessingResult> result = new CompletableFuture<>();
+
+        HotAccountWrite(final CommandWrapper wrapper, final JsonCommand command, final boolean approvedByChecker) {
+            this.wrapper = wrapper;
+            this.command = command;
+            this.approvedByChecker = approvedByChecker;
+            this.context = ThreadLocalContextUtil.getContext();
+            this.authentication = SecurityContextHolder.getContext().getAuthentication();
+            this.accountKey = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + wrapper.getSavingsId();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import static org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusT
 
 import java.time.LocalDate;
 import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -30,7 +31,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
-import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.ExceptionHelper;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
@@ -55,8 +55,6 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
 
@@ -135,46 +133,18 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
     @Override
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     public void postInterestForAccountsThreaded(Map<String, String> jobParameters) throws JobExecutionException {
-
+        // job parameters (number-of-threads, chunk-size) drive the shared job execution pool
+        ThreadLocalContextUtil.setJobParams(jobParameters == null ? null : new HashMap<String, Object>(jobParameters));
         try {
-            Thread nonInterestRecalculationThread = new Thread(new SavingsInterestRunnable());
-            nonInterestRecalculationThread.start();
-            nonInterestRecalculationThread.join();
-        } catch (InterruptedException e) {
-            logger.error("Thread Interrupted for Post  : " + e.getMessage());
-        }
-    }
-
-    private class SavingsInterestRunnable implements Runnable {
-
-        final FineractPlatformTenant tenant;
-        final Authentication auth;
-        final Map<String, Object> jobParams;
-        final LocalDate jobRunDate;
-
-        public SavingsInterestRunnable() {
-            this.tenant = ThreadLocalContextUtil.getTenant();
-            if (SecurityContextHolder.getContext() == null) {
-                this.auth = null;
-            } else {
-                this.auth = SecurityContextHolder.getContext().getAuthentication();
-            }
-
-            this.jobParams = ThreadLocalContextUtil.getJobParams();
-            this.jobRunDate = DateUtils.getLocalDateOfTenant();
-        }
-
-        @Override
-        public void run() {
-            ThreadLocalContextUtil.setTenant(tenant);
-            ThreadLocalContextUtil.setJobParams(jobParams);
-            if (this.auth != null) {
-                SecurityContextHolder.getContext().setAuthentication(this.auth);
-            }
+            final LocalDate jobRunDate = DateUtils.getLocalDateOfTenant();
             final List<Long> activeSavingsAccounts = savingAccountReadPlatformService.retrieveActiveSavingAccountsWithZeroInterest();
             activeSavingsAccounts.addAll(savingAccountReadPlatformService.retrieveActiveOverdraftSavingAccounts());
-            JobRunner<List<Long>> runner = new SavingsInterestJobRunner(jobRunDate);
-            jobExecuter.executeJob(activeSavingsAccounts, runner);
+            final String errors = jobExecuter.executeJob(activeSavingsAccounts, new SavingsInterestJobRunner(jobRunDate));
+            if (!errors.isEmpty()) {
+                logger.warn("Post interest for savings finished with errors: {}", errors);
+            }
+        } finally {
+            ThreadLocalContextUtil.setJobParams(null);
         }
     }
 
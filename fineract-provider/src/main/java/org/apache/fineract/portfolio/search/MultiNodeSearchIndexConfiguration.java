@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search;
+
+import java.util.UUID;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractMultiNodeCacheProperties;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.portfolio.search.service.SearchIndexChangeListener;
+import org.apache.fineract.portfolio.search.service.SearchIndexChangePublisher;
+import org.apache.fineract.portfolio.search.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+/**
+ * Keeps the search indexes of all nodes up to date: the entities changed by a command are broadcast over the cache
+ * invalidation topic of the multi-node cache, and reloaded into the index by the other nodes.
+ */
+@Configuration
+@ConditionalOnProperty({ "fineract.cache.multi-node.enabled", "fineract.search.index.enabled" })
+public class MultiNodeSearchIndexConfiguration {
+
+    @Autowired
+    private FineractProperties fineractProperties;
+
+    private final String origin = UUID.randomUUID().toString();
+
+    @Bean
+    public SearchIndexChangePublisher searchIndexChangePublisher() {
+        final JmsTemplate jmsTemplate = new JmsTemplate(new CachingConnectionFactory(searchIndexChangeConnectionFactory()));
+        jmsTemplate.setPubSubDomain(true);
+        return new SearchIndexChangePublisher(jmsTemplate, getProperties().getTopic(), this.origin);
+    }
+
+    @Bean
+    public DefaultMessageListenerContainer searchIndexChangeListenerContainer(final SearchIndexService searchIndexService,
+            final TenantDetailsService tenantDetailsService) {
+        final DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(searchIndexChangeConnectionFactory());
+        container.setPubSubDomain(true);
+        container.setDestinationName(getProperties().getTopic());
+        container.setMessageSelector(SearchIndexChangePublisher.MESSAGE_SELECTOR);
+        container.setMessageListener(new SearchIndexChangeListener(searchIndexService, tenantDetailsService, this.origin));
+        return container;
+    }
+
+    private ActiveMQConnectionFactory searchIndexChangeConnectionFactory() {
+        return new ActiveMQConnectionFactory(getProperties().getBrokerUrl());
+    }
+
+    private FineractMultiNodeCacheProperties getProperties() {
+        return this.fineractProperties.getCache().getMultiNode();
+    }
+}
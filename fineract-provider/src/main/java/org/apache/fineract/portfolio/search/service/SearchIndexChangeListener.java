@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+
+/**
+ * Reloads the entities changed on the other nodes into the search index of this node. Messages sent by this node itself
+ * are ignored, its index was already refreshed when they were published.
+ */
+@Slf4j
+public class SearchIndexChangeListener implements MessageListener {
+
+    private final SearchIndexService searchIndexService;
+    private final TenantDetailsService tenantDetailsService;
+    private final String origin;
+
+    public SearchIndexChangeListener(final SearchIndexService searchIndexService, final TenantDetailsService tenantDetailsService,
+            final String origin) {
+        this.searchIndexService = searchIndexService;
+        this.tenantDetailsService = tenantDetailsService;
+        this.origin = origin;
+    }
+
+    @Override
+    public void onMessage(final Message message) {
+        if (!(message instanceof MapMessage)) {
+            log.warn("Ignoring unexpected search index change message {}", message);
+            return;
+        }
+        try {
+            final MapMessage mapMessage = (MapMessage) message;
+            if (this.origin.equals(mapMessage.getString(SearchIndexChangePublisher.ORIGIN_PROPERTY))) {
+                return;
+            }
+            final String tenantIdentifier = mapMessage.getString(SearchIndexChangePublisher.TENANT_PROPERTY);
+            final Map<SearchIndexEntityType, Set<Long>> ids = ids(mapMessage);
+            if (tenantIdentifier == null || ids.isEmpty()) {
+                return;
+            }
+            ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById(tenantIdentifier));
+            try {
+                this.searchIndexService.refreshChangedOnOtherNode(ids);
+            } finally {
+                ThreadLocalContextUtil.reset();
+            }
+        } catch (JMSException | RuntimeException e) {
+            log.error("Could not apply search index change message {}", message, e);
+        }
+    }
+
+    private static Map<SearchIndexEntityType, Set<Long>> ids(final MapMessage message) throws JMSException {
+        final Map<SearchIndexEntityType, Set<Long>> ids = new EnumMap<>(SearchIndexEntityType.class);
+        for (final SearchIndexEntityType type : SearchIndexEntityType.values()) {
+            final String value = message.getString(type.name());
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            final Set<Long> typeIds = new LinkedHashSet<>();
+            for (final String id : value.split(SearchIndexChangePublisher.ID_SEPARATOR)) {
+                typeIds.add(Long.valueOf(id));
+            }
+            ids.put(type, typeIds);
+        }
+        return ids;
+    }
+}
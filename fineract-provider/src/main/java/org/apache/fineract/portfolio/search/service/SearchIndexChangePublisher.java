@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.jms.MapMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Broadcasts the entities a command changed to the other nodes of the cluster, so they reload them into their search
+ * index. The messages share the cache invalidation topic and are told apart by their <code>kind</code> property.
+ *
+ * It is only called once the transaction of the command committed, so another node cannot read the entities before the
+ * change is visible in the database.
+ */
+@Slf4j
+public class SearchIndexChangePublisher {
+
+    static final String KIND_PROPERTY = "kind";
+    static final String KIND = "searchIndex";
+    public static final String MESSAGE_SELECTOR = KIND_PROPERTY + " = '" + KIND + "'";
+    static final String ORIGIN_PROPERTY = "origin";
+    static final String TENANT_PROPERTY = "tenant";
+    static final String ID_SEPARATOR = ",";
+
+    private final JmsTemplate jmsTemplate;
+    private final String topic;
+    private final String origin;
+
+    public SearchIndexChangePublisher(final JmsTemplate jmsTemplate, final String topic, final String origin) {
+        this.jmsTemplate = jmsTemplate;
+        this.topic = topic;
+        this.origin = origin;
+    }
+
+    public void publish(final String tenantIdentifier, final Map<SearchIndexEntityType, Set<Long>> ids) {
+        try {
+            this.jmsTemplate.send(this.topic, session -> {
+                final MapMessage message = session.createMapMessage();
+                message.setStringProperty(KIND_PROPERTY, KIND);
+                message.setString(ORIGIN_PROPERTY, this.origin);
+                message.setString(TENANT_PROPERTY, tenantIdentifier);
+                for (final Map.Entry<SearchIndexEntityType, Set<Long>> entry : ids.entrySet()) {
+                    message.setString(entry.getKey().name(),
+                            entry.getValue().stream().map(String::valueOf).collect(Collectors.joining(ID_SEPARATOR)));
+                }
+                return message;
+            });
+        } catch (JmsException e) {
+            // the other nodes pick the change up with the next rebuild of their index
+            log.error("Could not broadcast the search index change of {} in tenant {}", ids, tenantIdentifier, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+
+public interface SearchIndexService {
+
+    /**
+     * Returns the ids of the entities matching the search, per type, or null when the search has to be done in the
+     * database: the index is disabled, not built yet for the tenant, or cannot answer the search.
+     */
+    Map<SearchIndexEntityType, List<Long>> findMatches(SearchConditions searchConditions);
+
+    /**
+     * Reloads the entities the command changed into the index, once its transaction committed.
+     */
+    void refreshAfterCommit(String entityName, CommandProcessingResult result);
+
+    /**
+     * Reloads the entities a command on another node changed into the index of the current tenant.
+     */
+    void refreshChangedOnOtherNode(Map<SearchIndexEntityType, Set<Long>> ids);
+
+    void rebuildSearchIndex();
+}
@@ -0,0 +1,353 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps a {@link TenantSearchIndex} per tenant on this node.
+ *
+ * The index of a tenant is built in the background on its first search, and rebuilt by the <code>Rebuild Search
+ * Index</code> job. In between, the entities changed by the commands are reloaded into it after their commit: with the
+ * multi-node cache enabled they are broadcast through a {@link SearchIndexChangePublisher}, so the other nodes reload
+ * them as well. The search reads the matched rows, with the office hierarchy and the original <code>like</code>
+ * condition, from the database.
+ */
+@Slf4j
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private static final Map<SearchIndexEntityType, String> SELECTS = Map.of(SearchIndexEntityType.CLIENT,
+            "select c.id, c.account_no, c.display_name, c.external_id, c.mobile_no from m_client c", SearchIndexEntityType.LOAN,
+            "select l.id, l.account_no, l.external_id from m_loan l", SearchIndexEntityType.SAVING,
+            "select s.id, s.account_no, s.external_id from m_savings_account s", SearchIndexEntityType.SHARE,
+            "select s.id, s.account_no, s.external_id from m_share_account s", SearchIndexEntityType.CLIENTIDENTIFIER,
+            "select ci.id, ci.document_key from m_client_identifier ci", SearchIndexEntityType.GROUP,
+            "select g.id, g.account_no, g.display_name, g.external_id, g.id from m_group g");
+
+    private static final Map<SearchIndexEntityType, String> ID_COLUMNS = Map.of(SearchIndexEntityType.CLIENT, "c.id",
+            SearchIndexEntityType.LOAN, "l.id", SearchIndexEntityType.SAVING, "s.id", SearchIndexEntityType.SHARE, "s.id",
+            SearchIndexEntityType.CLIENTIDENTIFIER, "ci.id", SearchIndexEntityType.GROUP, "g.id");
+
+    private static final Map<String, SearchIndexEntityType> COMMAND_ENTITY_TYPES = Map.ofEntries(
+            Map.entry("CLIENT", SearchIndexEntityType.CLIENT), Map.entry("CLIENTIDENTIFIER", SearchIndexEntityType.CLIENTIDENTIFIER),
+            Map.entry("LOAN", SearchIndexEntityType.LOAN), Map.entry("GLIMLOAN", SearchIndexEntityType.LOAN),
+            Map.entry("SAVINGSACCOUNT", SearchIndexEntityType.SAVING), Map.entry("FIXEDDEPOSITACCOUNT", SearchIndexEntityType.SAVING),
+            Map.entry("RECURRINGDEPOSITACCOUNT", SearchIndexEntityType.SAVING), Map.entry("GSIMACCOUNT", SearchIndexEntityType.SAVING),
+            Map.entry("SHAREACCOUNT", SearchIndexEntityType.SHARE), Map.entry("GROUP", SearchIndexEntityType.GROUP),
+            Map.entry("CENTER", SearchIndexEntityType.GROUP));
+
+    private static final Set<String> GROUP_ACCOUNT_ENTITIES = Set.of("GLIMLOAN", "GSIMACCOUNT");
+
+    private static final String GLIM_ACCOUNTS = "select l.id from m_loan l join m_loan changed on changed.glim_id = l.glim_id"
+            + " where changed.id = ?";
+
+    private static final String GSIM_ACCOUNTS = "select s.id from m_savings_account s join m_savings_account changed"
+            + " on changed.gsim_id = s.gsim_id where changed.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final FineractProperties fineractProperties;
+    private final SearchIndexChangePublisher changePublisher;
+    private final Map<String, TenantSearchIndex> indexes = new ConcurrentHashMap<>();
+    private final Set<String> tenantsBeingBuilt = ConcurrentHashMap.newKeySet();
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "search-index-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public SearchIndexServiceImpl(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager,
+            final FineractProperties fineractProperties, final ObjectProvider<SearchIndexChangePublisher> changePublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fineractProperties = fineractProperties;
+        this.changePublisher = changePublisher.getIfAvailable();
+        // PostgreSQL only honours the fetch size when not in auto-commit mode
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.buildExecutor.shutdownNow();
+    }
+
+    @Override
+    public Map<SearchIndexEntityType, List<Long>> findMatches(final SearchConditions searchConditions) {
+        final FineractProperties.FineractSearchIndexProperties properties = this.fineractProperties.getSearch().getIndex();
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (!properties.isEnabled() || tenantIdentifier == null) {
+            return null;
+        }
+        final TenantSearchIndex index = this.indexes.get(tenantIdentifier);
+        if (index == null || !index.isBuilt()) {
+            buildInBackground(tenantIdentifier);
+            return null;
+        }
+        return index.search(searchConditions.getSearchQuery(), Boolean.TRUE.equals(searchConditions.getExactMatch()),
+                searchedTypes(searchConditions), properties.getMaxMatches());
+    }
+
+    @Override
+    public void refreshAfterCommit(final String entityName, final CommandProcessingResult result) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (result == null || tenantIdentifier == null || !this.fineractProperties.getSearch().getIndex().isEnabled()
+                || (this.changePublisher == null && !this.indexes.containsKey(tenantIdentifier))) {
+            return;
+        }
+        final Map<SearchIndexEntityType, Set<Long>> ids = changedIds(entityName, result);
+        if (ids.isEmpty()) {
+            return;
+        }
+        final boolean withGroupAccounts = GROUP_ACCOUNT_ENTITIES.contains(entityName) || isSet(result.getGlimId())
+                || isSet(result.getGsimId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    refresh(tenantIdentifier, ids, withGroupAccounts);
+                }
+            });
+        } else {
+            refresh(tenantIdentifier, ids, withGroupAccounts);
+        }
+    }
+
+    @Override
+    public void refreshChangedOnOtherNode(final Map<SearchIndexEntityType, Set<Long>> ids) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (tenantIdentifier == null || !this.indexes.containsKey(tenantIdentifier)) {
+            return;
+        }
+        for (final Map.Entry<SearchIndexEntityType, Set<Long>> entry : ids.entrySet()) {
+            for (final Long id : entry.getValue()) {
+                refresh(tenantIdentifier, entry.getKey(), id);
+            }
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildSearchIndex() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (!this.fineractProperties.getSearch().getIndex().isEnabled() || tenantIdentifier == null) {
+            log.info("Search index is disabled, nothing to rebuild");
+            return;
+        }
+        build(tenantIdentifier);
+    }
+
+    private void buildInBackground(final String tenantIdentifier) {
+        if (!this.tenantsBeingBuilt.add(tenantIdentifier)) {
+            return;
+        }
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        try {
+            this.buildExecutor.execute(() -> {
+                ThreadLocalContextUtil.init(context);
+                try {
+                    build(tenantIdentifier);
+                } catch (RuntimeException e) {
+                    log.error("Building the search index of tenant {} failed, searches keep using the database", tenantIdentifier, e);
+                } finally {
+                    this.tenantsBeingBuilt.remove(tenantIdentifier);
+                    ThreadLocalContextUtil.reset();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.tenantsBeingBuilt.remove(tenantIdentifier);
+        }
+    }
+
+    private void build(final String tenantIdentifier) {
+        final long startTime = System.currentTimeMillis();
+        final TenantSearchIndex index = this.indexes.computeIfAbsent(tenantIdentifier, k -> new TenantSearchIndex());
+        final long startSequence = index.currentSequence();
+        final TenantSearchIndex.Builder builder = TenantSearchIndex.builder();
+        final int fetchSize = this.fineractProperties.getSearch().getIndex().getFetchSize();
+        for (final Map.Entry<SearchIndexEntityType, String> select : SELECTS.entrySet()) {
+            final SearchIndexEntityType type = select.getKey();
+            this.readOnlyTransactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.query(con -> {
+                final PreparedStatement ps = con.prepareStatement(select.getValue(), ResultSet.TYPE_FORWARD_ONLY, // NOSONAR
+                        ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, (RowCallbackHandler) rs -> builder.add(type, rs.getLong(1), values(rs))));
+        }
+        index.replaceSnapshot(builder, startSequence);
+        log.info("Built the search index of tenant {} with {} entries in {} ms", tenantIdentifier, index.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    private void refresh(final String tenantIdentifier, final Map<SearchIndexEntityType, Set<Long>> ids,
+            final boolean withGroupAccounts) {
+        if (withGroupAccounts) {
+            // a GLIM or GSIM command changes all the accounts of the group, the result only names the last one
+            addGroupAccounts(tenantIdentifier, ids, SearchIndexEntityType.LOAN, GLIM_ACCOUNTS);
+            addGroupAccounts(tenantIdentifier, ids, SearchIndexEntityType.SAVING, GSIM_ACCOUNTS);
+        }
+        for (final Map.Entry<SearchIndexEntityType, Set<Long>> entry : ids.entrySet()) {
+            for (final Long id : entry.getValue()) {
+                refresh(tenantIdentifier, entry.getKey(), id);
+            }
+        }
+        if (this.changePublisher != null) {
+            this.changePublisher.publish(tenantIdentifier, ids);
+        }
+    }
+
+    private void addGroupAccounts(final String tenantIdentifier, final Map<SearchIndexEntityType, Set<Long>> ids,
+            final SearchIndexEntityType type, final String sql) {
+        final Set<Long> accountIds = ids.get(type);
+        if (accountIds == null) {
+            return;
+        }
+        for (final Long id : List.copyOf(accountIds)) {
+            try {
+                accountIds.addAll(this.jdbcTemplate.queryForList(sql, Long.class, id));
+            } catch (RuntimeException e) {
+                log.warn("Could not find the group accounts of {} {} in tenant {}", type, id, tenantIdentifier, e);
+            }
+        }
+    }
+
+    private void refresh(final String tenantIdentifier, final SearchIndexEntityType type, final Long id) {
+        final TenantSearchIndex index = this.indexes.get(tenantIdentifier);
+        if (index == null) {
+            return;
+        }
+        try {
+            final String sql = SELECTS.get(type) + " where " + ID_COLUMNS.get(type) + " = ?";
+            final List<String[]> rows = this.jdbcTemplate.query(sql, (rs, rowNum) -> values(rs), id); // NOSONAR
+            if (rows.isEmpty()) {
+                index.remove(type, id);
+            } else {
+                index.update(type, id, rows.get(0));
+            }
+        } catch (RuntimeException e) {
+            // the rebuild picks the change up, the command itself succeeded
+            log.warn("Could not refresh {} {} in the search index of tenant {}", type, id, tenantIdentifier, e);
+        }
+    }
+
+    private static String[] values(final ResultSet rs) throws SQLException {
+        final int columnCount = rs.getMetaData().getColumnCount();
+        final String[] values = new String[columnCount - 1];
+        for (int i = 2; i <= columnCount; i++) {
+            values[i - 2] = rs.getString(i);
+        }
+        return values;
+    }
+
+    /**
+     * The entity of the command and all the clients, groups and accounts its result refers to: a command on a loan or a
+     * client identifier can change the client as well.
+     */
+    static Map<SearchIndexEntityType, Set<Long>> changedIds(final String entityName, final CommandProcessingResult result) {
+        final Map<SearchIndexEntityType, Set<Long>> ids = new EnumMap<>(SearchIndexEntityType.class);
+        final SearchIndexEntityType type = COMMAND_ENTITY_TYPES.get(entityName);
+        if (type != null) {
+            final Long id = switch (type) {
+                case CLIENT -> result.getClientId();
+                case LOAN -> result.getLoanId();
+                case SAVING -> result.getSavingsId();
+                case GROUP -> result.getGroupId();
+                default -> null;
+            };
+            addId(ids, type, id != null ? id : result.resourceId());
+        }
+        addId(ids, SearchIndexEntityType.CLIENT, result.getClientId());
+        addId(ids, SearchIndexEntityType.GROUP, result.getGroupId());
+        addId(ids, SearchIndexEntityType.LOAN, result.getLoanId());
+        addId(ids, SearchIndexEntityType.SAVING, result.getSavingsId());
+        return ids;
+    }
+
+    private static void addId(final Map<SearchIndexEntityType, Set<Long>> ids, final SearchIndexEntityType type, final Long id) {
+        if (isSet(id)) {
+            ids.computeIfAbsent(type, k -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    private static boolean isSet(final Long id) {
+        // some results carry 0 instead of null, e.g. the GSIM id of a savings account outside of a GSIM
+        return id != null && id > 0;
+    }
+
+    private static Set<SearchIndexEntityType> searchedTypes(final SearchConditions searchConditions) {
+        final Set<SearchIndexEntityType> types = EnumSet.noneOf(SearchIndexEntityType.class);
+        if (searchConditions.isClientSearch()) {
+            types.add(SearchIndexEntityType.CLIENT);
+        }
+        if (searchConditions.isLoanSeach()) {
+            types.add(SearchIndexEntityType.LOAN);
+        }
+        if (searchConditions.isSavingSeach()) {
+            types.add(SearchIndexEntityType.SAVING);
+        }
+        if (searchConditions.isShareSeach()) {
+            types.add(SearchIndexEntityType.SHARE);
+        }
+        if (searchConditions.isClientIdentifierSearch()) {
+            types.add(SearchIndexEntityType.CLIENTIDENTIFIER);
+        }
+        if (searchConditions.isGroupSearch()) {
+            types.add(SearchIndexEntityType.GROUP);
+        }
+        return types;
+    }
+
+    private static String currentTenantIdentifier() {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant == null ? null : tenant.getTenantIdentifier();
+    }
+}
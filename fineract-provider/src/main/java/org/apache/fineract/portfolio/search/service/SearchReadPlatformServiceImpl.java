@@ -22,12 +22,18 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.data.OfficeHierarchyData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
 import org.apache.fineract.portfolio.client.domain.ClientEnumerations;
 import org.apache.fineract.portfolio.group.domain.GroupingTypeEnumerations;
@@ -55,96 +61,156 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
+    private final SearchIndexService searchIndexService;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Autowired
     public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final NamedParameterJdbcTemplate namedParameterJdbcTemplate,
-            final LoanProductReadPlatformService loanProductReadPlatformService,
-            final OfficeReadPlatformService officeReadPlatformService) {
+            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService,
+            final SearchIndexService searchIndexService, final OfficeHierarchyService officeHierarchyService) {
         this.context = context;
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
         this.loanProductReadPlatformService = loanProductReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
+        this.searchIndexService = searchIndexService;
+        this.officeHierarchyService = officeHierarchyService;
     }
 
     @Override
     public Collection<SearchData> retriveMatchingData(final SearchConditions searchConditions) {
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-
-        final SearchMapper rm = new SearchMapper();
+        final Long officeId = currentUser.getOffice().getId();
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
-        params.addValue("hierarchy", hierarchy + "%");
+        final SearchMapper rm = new SearchMapper(this.searchIndexService.findMatches(searchConditions), params,
+                this.officeHierarchyService.retrieveOfficeHierarchy(), officeId);
+
         if (searchConditions.getExactMatch()) {
             params.addValue("search", searchConditions.getSearchQuery());
         } else {
             params.addValue("search", "%" + searchConditions.getSearchQuery() + "%");
         }
-        return this.namedParameterJdbcTemplate.query(rm.searchSchema(searchConditions), params, rm);
+        final String sql = rm.searchSchema(searchConditions);
+        if (sql == null) {
+            return new ArrayList<>();
+        }
+        return this.namedParameterJdbcTemplate.query(sql, params, rm);
     }
 
     private static final class SearchMapper implements RowMapper<SearchData> {
 
+        private final Map<SearchIndexEntityType, List<Long>> indexMatches;
+        private final MapSqlParameterSource params;
+        private final OfficeHierarchyData officeHierarchy;
+        private final Long officeId;
+
+        SearchMapper(final Map<SearchIndexEntityType, List<Long>> indexMatches, final MapSqlParameterSource params,
+                final OfficeHierarchyData officeHierarchy, final Long officeId) {
+            this.indexMatches = indexMatches;
+            this.params = params;
+            this.officeHierarchy = officeHierarchy;
+            this.officeId = officeId;
+        }
+
+        /**
+         * Returns null when no type is searched or the search index matched nothing of the searched types.
+         */
         public String searchSchema(final SearchConditions searchConditions) {
 
             final String union = " union ";
+            final String clientScope = this.officeHierarchy.sqlScope("c.office_id", this.officeId);
+            final String groupScope = this.officeHierarchy.sqlScope("g.office_id", this.officeId);
             final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
                     + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as subEntityType, null as parentType "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
+                    + " from m_client c join m_office o on o.id = c.office_id where " + clientScope + " and "
+                    + indexMatches(SearchIndexEntityType.CLIENT, "c.id")
+                    + "(c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
 
             final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
                     + " , coalesce(c.id,g.id) as parentId, coalesce(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, null as subEntityType, CASE WHEN g.id is null THEN 'client' ELSE 'group' END as parentType "
-                    + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)) ";
+                    + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_product_loan pl on pl.id=l.product_id where (c.office_id IS NULL OR " + clientScope + ") and "
+                    + indexMatches(SearchIndexEntityType.LOAN, "l.id") + "(l.account_no like :search or l.external_id like :search)) ";
 
             final String savingMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
                     + " , coalesce(c.id,g.id) as parentId, coalesce(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, s.deposit_type_enum as subEntityType, CASE WHEN g.id is null THEN 'client' ELSE 'group' END as parentType "
-                    + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
+                    + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_savings_product sp on sp.id=s.product_id "
+                    + " where (c.office_id IS NULL OR " + clientScope + ") and "
+                    + indexMatches(SearchIndexEntityType.SAVING, "s.id")
+                    + "(s.account_no like :search or s.external_id like :search)) ";
 
             final String shareMatchSql = " (select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
                     + " , c.id as parentId, c.display_name as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, null as subEntityType, 'client' as parentType "
-                    + " from m_share_account s left join m_client c on s.client_id = c.id left join m_office o on o.id = c.office_id left join m_share_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
+                    + " from m_share_account s left join m_client c on s.client_id = c.id left join m_share_product sp on sp.id=s.product_id "
+                    + " where (c.office_id IS NULL OR " + clientScope + ") and "
+                    + indexMatches(SearchIndexEntityType.SHARE, "s.id")
+                    + "(s.account_no like :search or s.external_id like :search)) ";
 
             final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
                     + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as subEntityType, null as parentType "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :search ) ";
+                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id "
+                    + " where " + clientScope + " and " + indexMatches(SearchIndexEntityType.CLIENTIDENTIFIER, "ci.id")
+                    + "ci.document_key like :search ) ";
             final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
                     + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as subEntityType, null as parentType "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
+                    + " from m_group g join m_office o on o.id = g.office_id where " + groupScope + " and "
+                    + indexMatches(SearchIndexEntityType.GROUP, "g.id")
+                    + "(g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
             final StringBuilder sql = new StringBuilder();
 
-            if (searchConditions.isClientSearch()) {
+            if (searchConditions.isClientSearch() && isMatchedByIndex(SearchIndexEntityType.CLIENT)) {
                 sql.append(clientMatchSql).append(union);
             }
 
-            if (searchConditions.isLoanSeach()) {
+            if (searchConditions.isLoanSeach() && isMatchedByIndex(SearchIndexEntityType.LOAN)) {
                 sql.append(loanMatchSql).append(union);
             }
 
-            if (searchConditions.isSavingSeach()) {
+            if (searchConditions.isSavingSeach() && isMatchedByIndex(SearchIndexEntityType.SAVING)) {
                 sql.append(savingMatchSql).append(union);
             }
 
-            if (searchConditions.isShareSeach()) {
+            if (searchConditions.isShareSeach() && isMatchedByIndex(SearchIndexEntityType.SHARE)) {
                 sql.append(shareMatchSql).append(union);
             }
 
-            if (searchConditions.isClientIdentifierSearch()) {
+            if (searchConditions.isClientIdentifierSearch() && isMatchedByIndex(SearchIndexEntityType.CLIENTIDENTIFIER)) {
                 sql.append(clientIdentifierMatchSql).append(union);
             }
 
-            if (searchConditions.isGroupSearch()) {
+            if (searchConditions.isGroupSearch() && isMatchedByIndex(SearchIndexEntityType.GROUP)) {
                 sql.append(groupMatchSql).append(union);
             }
 
+            if (sql.length() == 0) {
+                return null;
+            }
             sql.replace(sql.lastIndexOf(union), sql.length(), "");
 
             // remove last occurrence of "union all" string
             return sql.toString();
         }
 
+        /**
+         * A type the search index has no match for is left out of the search. The index of every node is kept up to date
+         * with the changes made on all nodes, so an empty result can be trusted.
+         */
+        private boolean isMatchedByIndex(final SearchIndexEntityType type) {
+            return this.indexMatches == null || this.indexMatches.containsKey(type);
+        }
+
+        /**
+         * Restricts the rows to the ones the search index matched, the <code>like</code> condition that follows is still
+         * checked on them as the index may not have applied the latest change yet.
+         */
+        private String indexMatches(final SearchIndexEntityType type, final String idColumn) {
+            if (this.indexMatches == null || !this.indexMatches.containsKey(type)) {
+                return "";
+            }
+            final String parameterName = type.name().toLowerCase(Locale.ROOT) + "Ids";
+            this.params.addValue(parameterName, this.indexMatches.get(type));
+            return idColumn + " in (:" + parameterName + ") and ";
+        }
+
         @Override
         public SearchData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final Long entityId = JdbcSupport.getLong(rs, "entityId");
@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the values the search API matches on (account numbers, names, external ids, mobile numbers and
+ * document keys) of the entities of one tenant.
+ *
+ * Every value is split into trigrams, for each of which the index keeps the entities having it. A search looks up the
+ * entities of the rarest trigram of the search term and checks their values contain the term, instead of scanning
+ * all rows with a <code>like '%term%'</code>. Terms shorter than a trigram or with SQL wildcards are not answered by
+ * the index.
+ *
+ * The bulk of the index is an immutable snapshot built from the database. Entities changed afterwards are kept in a
+ * small concurrent map on top of it, which replaces their snapshot entry, until the next rebuild folds them in.
+ */
+public final class TenantSearchIndex {
+
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final char SEPARATOR = '\u0000';
+    private static final int TYPE_SHIFT = 56;
+    private static final long ID_MASK = (1L << TYPE_SHIFT) - 1;
+    private static final SearchIndexEntityType[] TYPES = SearchIndexEntityType.values();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Change> changes = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+
+    public boolean isBuilt() {
+        return this.snapshot != null;
+    }
+
+    /**
+     * The number of entities in the snapshot and changed since it was built.
+     */
+    public int size() {
+        final Snapshot current = this.snapshot;
+        return (current == null ? 0 : current.keys.length) + this.changes.size();
+    }
+
+    /**
+     * To be read before loading the entities for a rebuild, and passed to {@link #replaceSnapshot(Builder, long)}.
+     */
+    public long currentSequence() {
+        return this.sequence.get();
+    }
+
+    /**
+     * Replaces the snapshot with the one built, keeping the changes made since <code>startSequence</code>, which the
+     * rebuild may not have seen.
+     */
+    public void replaceSnapshot(final Builder builder, final long startSequence) {
+        this.snapshot = builder.build();
+        this.changes.values().removeIf(change -> change.sequence < startSequence);
+    }
+
+    public void update(final SearchIndexEntityType type, final Long id, final String... values) {
+        this.changes.put(key(type, id), new Change(text(values), this.sequence.incrementAndGet()));
+    }
+
+    public void remove(final SearchIndexEntityType type, final Long id) {
+        this.changes.put(key(type, id), new Change(null, this.sequence.incrementAndGet()));
+    }
+
+    /**
+     * Returns the ids of the entities of the given types with a value containing the term, or equal to it on an exact
+     * match, ignoring case. Returns null when the index cannot answer: it is not built yet, the term is too short or has
+     * SQL wildcards, or more than <code>maxMatches</code> entities match.
+     */
+    public Map<SearchIndexEntityType, List<Long>> search(final String term, final boolean exactMatch,
+            final Set<SearchIndexEntityType> types, final int maxMatches) {
+        final Snapshot current = this.snapshot;
+        if (current == null || term == null || term.length() < TRIGRAM_LENGTH || term.indexOf('%') >= 0 || term.indexOf('_') >= 0
+                || term.indexOf(SEPARATOR) >= 0) {
+            return null;
+        }
+        final String normalizedTerm = term.toLowerCase(Locale.ROOT);
+        final String pattern = exactMatch ? SEPARATOR + normalizedTerm + SEPARATOR : normalizedTerm;
+        final Map<SearchIndexEntityType, List<Long>> matches = new EnumMap<>(SearchIndexEntityType.class);
+        int matchCount = 0;
+
+        final int[] candidates = current.rarestPostings(normalizedTerm);
+        for (final int ordinal : candidates) {
+            final long key = current.keys[ordinal];
+            final SearchIndexEntityType type = type(key);
+            if (types.contains(type) && !this.changes.containsKey(key) && current.texts[ordinal].contains(pattern)) {
+                if (++matchCount > maxMatches) {
+                    return null;
+                }
+                matches.computeIfAbsent(type, k -> new ArrayList<>()).add(key & ID_MASK);
+            }
+        }
+        for (final Map.Entry<Long, Change> change : this.changes.entrySet()) {
+            final String text = change.getValue().text;
+            final SearchIndexEntityType type = type(change.getKey());
+            if (text != null && types.contains(type) && text.contains(pattern)) {
+                if (++matchCount > maxMatches) {
+                    return null;
+                }
+                matches.computeIfAbsent(type, k -> new ArrayList<>()).add(change.getKey() & ID_MASK);
+            }
+        }
+        return matches;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static long key(final SearchIndexEntityType type, final Long id) {
+        return ((long) type.ordinal() << TYPE_SHIFT) | id;
+    }
+
+    private static SearchIndexEntityType type(final long key) {
+        return TYPES[(int) (key >>> TYPE_SHIFT)];
+    }
+
+    /**
+     * The values, lower cased and each enclosed in separators so that an exact match is a <code>contains</code> too.
+     */
+    private static String text(final String... values) {
+        final StringBuilder text = new StringBuilder().append(SEPARATOR);
+        for (final String value : values) {
+            if (value != null && !value.isEmpty()) {
+                text.append(value.toLowerCase(Locale.ROOT)).append(SEPARATOR);
+            }
+        }
+        return text.toString();
+    }
+
+    private static long trigram(final CharSequence value, final int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private static final class Change {
+
+        private final String text;
+        private final long sequence;
+
+        Change(final String text, final long sequence) {
+            this.text = text;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private static final int[] NONE = new int[0];
+
+        private final long[] keys;
+        private final String[] texts;
+        private final Map<Long, int[]> postings;
+
+        Snapshot(final long[] keys, final String[] texts, final Map<Long, int[]> postings) {
+            this.keys = keys;
+            this.texts = texts;
+            this.postings = postings;
+        }
+
+        int[] rarestPostings(final String term) {
+            int[] rarest = null;
+            for (int i = 0; i + TRIGRAM_LENGTH <= term.length(); i++) {
+                final int[] ordinals = this.postings.get(trigram(term, i));
+                if (ordinals == null) {
+                    return NONE;
+                }
+                if (rarest == null || ordinals.length < rarest.length) {
+                    rarest = ordinals;
+                }
+            }
+            return rarest;
+        }
+    }
+
+    /**
+     * Collects the entities of a rebuild. Not thread safe.
+     */
+    public static final class Builder {
+
+        private long[] keys = new long[1024];
+        private final List<String> texts = new ArrayList<>();
+        private final Map<Long, IntList> postings = new HashMap<>();
+
+        private Builder() {}
+
+        public Builder add(final SearchIndexEntityType type, final Long id, final String... values) {
+            final int ordinal = this.texts.size();
+            if (ordinal == this.keys.length) {
+                this.keys = Arrays.copyOf(this.keys, ordinal * 2);
+            }
+            this.keys[ordinal] = key(type, id);
+            final String text = text(values);
+            this.texts.add(text);
+
+            // trigrams spanning two values are skipped, a term never contains the separator
+            int valueStart = 1;
+            for (int i = 1; i < text.length(); i++) {
+                if (text.charAt(i) == SEPARATOR) {
+                    for (int start = valueStart; start + TRIGRAM_LENGTH <= i; start++) {
+                        this.postings.computeIfAbsent(trigram(text, start), k -> new IntList()).addUnlessLast(ordinal);
+                    }
+                    valueStart = i + 1;
+                }
+            }
+            return this;
+        }
+
+        private Snapshot build() {
+            final Map<Long, int[]> frozenPostings = new HashMap<>(this.postings.size() * 4 / 3 + 1);
+            for (final Map.Entry<Long, IntList> posting : this.postings.entrySet()) {
+                frozenPostings.put(posting.getKey(), posting.getValue().toArray());
+            }
+            return new Snapshot(Arrays.copyOf(this.keys, this.texts.size()), this.texts.toArray(new String[0]), frozenPostings);
+        }
+    }
+
+    /**
+     * Growable list of ascending ordinals, without the boxing of a <code>List&lt;Integer&gt;</code>.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        /**
+         * Adds the ordinal unless it is the last one added, as the same trigram may occur several times in the values
+         * of one entity.
+         */
+        void addUnlessLast(final int value) {
+            if (this.size > 0 && this.values[this.size - 1] == value) {
+                return;
+            }
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JournalEntryCollectorTest {
+
+    @Mock
+    private JournalEntryRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditorAware<Long> auditorAware;
+
+    @Mock
+    private Office office;
+
+    @Mock
+    private GLAccount account;
+
+    private JournalEntryCollector underTest;
+
+    @BeforeEach
+    public void setUp() {
+        given(auditorAware.getCurrentAuditor()).willReturn(Optional.of(1L));
+        given(office.getId()).willReturn(1L);
+        given(account.getId()).willReturn(2L);
+        underTest = new JournalEntryCollector(repository, jdbcTemplate, auditorAware);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCollectedEntriesAreWrittenInOneBatch() {
+        underTest.collect(() -> {
+            underTest.add(entry("L1", JournalEntryType.DEBIT, "10.00"));
+            underTest.add(entry("L1", JournalEntryType.CREDIT, "7.50"));
+            underTest.add(entry("L1", JournalEntryType.CREDIT, "2.5"));
+        });
+
+        final ArgumentCaptor<List<Object[]>> params = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), params.capture());
+        assertEquals(3, params.getValue().size());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void testUnbalancedEntriesAreRejected() {
+        assertThrows(JournalEntryInvalidException.class, () -> underTest.collect(() -> {
+            underTest.add(entry("L1", JournalEntryType.DEBIT, "10"));
+            underTest.add(entry("L1", JournalEntryType.CREDIT, "9"));
+        }));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void testEntryOutsideCollectIsSavedRightAway() {
+        final JournalEntry entry = entry("L1", JournalEntryType.DEBIT, "10");
+        underTest.add(entry);
+
+        verify(repository, times(1)).saveAndFlush(entry);
+    }
+
+    private JournalEntry entry(final String transactionId, final JournalEntryType type, final String amount) {
+        return JournalEntry.createNew(office, null, account, "USD", transactionId, false, LocalDate.of(2022, 1, 1), type,
+                new BigDecimal(amount), null, 1, 1L, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+public class LoanCOBBusinessStepServiceTest {
+
+    private LoanCOBBusinessStep first;
+    private LoanCOBBusinessStep second;
+    private FineractProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        first = mock(LoanCOBBusinessStep.class);
+        second = mock(LoanCOBBusinessStep.class);
+        given(first.getEnumStyledName()).willReturn("FIRST");
+        given(second.getEnumStyledName()).willReturn("SECOND");
+
+        properties = new FineractProperties();
+        properties.setCob(new FineractProperties.FineractCobProperties());
+        properties.getCob().setLoan(new FineractProperties.FineractLoanCobProperties());
+    }
+
+    @Test
+    public void testStepsRunInConfiguredOrder() {
+        properties.getCob().getLoan().setBusinessSteps(List.of("SECOND", "FIRST"));
+        final Loan loan = mock(Loan.class);
+        given(second.execute(loan)).willReturn(loan);
+        given(first.execute(loan)).willReturn(loan);
+
+        final LoanCOBBusinessStepService service = new LoanCOBBusinessStepService(List.of(first, second), properties);
+        assertSame(loan, service.run(loan));
+
+        final InOrder order = inOrder(second, first);
+        order.verify(second).execute(loan);
+        order.verify(first).execute(loan);
+    }
+
+    @Test
+    public void testAllStepsAreUsedWhenNothingIsConfigured() {
+        final LoanCOBBusinessStepService service = new LoanCOBBusinessStepService(List.of(first, second), properties);
+        assertEquals(List.of(first, second), service.getOrderedSteps());
+    }
+
+    @Test
+    public void testUnknownStepIsRejected() {
+        properties.getCob().getLoan().setBusinessSteps(List.of("UNKNOWN"));
+        assertThrows(IllegalStateException.class, () -> new LoanCOBBusinessStepService(List.of(first, second), properties));
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.loanrepayment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.bulkimport.constants.LoanRepaymentConstants;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRow;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowMapper;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.apache.fineract.portfolio.paymenttype.data.PaymentTypeData;
+import org.apache.fineract.portfolio.paymenttype.service.PaymentTypeReadPlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LoanRepaymentImportHandlerTest {
+
+    private static final String DATE_FORMAT = "dd MMMM yyyy";
+
+    private final LoanReadPlatformService loanReadPlatformService = mock(LoanReadPlatformService.class);
+    private final PaymentTypeReadPlatformService paymentTypeReadPlatformService = mock(PaymentTypeReadPlatformService.class);
+    private ImportRowMapper mapper;
+
+    @BeforeEach
+    public void setUp() {
+        given(this.paymentTypeReadPlatformService.retrieveAllPaymentTypes())
+                .willReturn(List.of(PaymentTypeData.instance(3L, "Cash"), PaymentTypeData.instance(4L, "Cheque")));
+        given(this.loanReadPlatformService.retrieveLoanIdByAccountNumber("000000012")).willReturn(12L);
+        this.mapper = new LoanRepaymentImportHandler(mock(PortfolioCommandSourceWritePlatformService.class), this.loanReadPlatformService,
+                this.paymentTypeReadPlatformService).newRowMapper("en", DATE_FORMAT);
+    }
+
+    @Test
+    public void testRowIsMappedToRepaymentCommand() {
+        final ImportRow row = row(5, "000000012-John Doe", "250.5", "15 March 2022", "Cheque");
+
+        assertEquals("000000012", this.mapper.getOrderingKey(row));
+        final CommandWrapper command = this.mapper.toCommand(row);
+
+        assertEquals(12L, command.getLoanId());
+        assertEquals("/loans/12/transactions/template?command=repayment", command.getHref());
+        final JsonObject json = JsonParser.parseString(command.getJson()).getAsJsonObject();
+        assertEquals("250.5", json.get("transactionAmount").getAsString());
+        assertEquals(LocalDate.of(2022, 3, 15).format(DateTimeFormatter.ofPattern(DATE_FORMAT)), json.get("transactionDate").getAsString());
+        assertEquals(4L, json.get("paymentTypeId").getAsLong());
+        assertEquals("CHQ-1", json.get("accountNumber").getAsString());
+        assertEquals(77, json.get("checkNumber").getAsInt());
+        assertEquals("en", json.get("locale").getAsString());
+        assertEquals(DATE_FORMAT, json.get("dateFormat").getAsString());
+    }
+
+    @Test
+    public void testLoanIdIsLookedUpOncePerAccount() {
+        this.mapper.toCommand(row(1, "000000012", "10", "15 March 2022", "Cash"));
+        this.mapper.toCommand(row(2, "000000012-John Doe", "20", "16 March 2022", "Cash"));
+
+        verify(this.loanReadPlatformService, times(1)).retrieveLoanIdByAccountNumber("000000012");
+    }
+
+    @Test
+    public void testInvalidRowsAreRejected() {
+        assertThrows(GeneralPlatformDomainRuleException.class, () -> this.mapper.toCommand(row(1, null, "10", "15 March 2022", "Cash")));
+        assertThrows(GeneralPlatformDomainRuleException.class,
+                () -> this.mapper.toCommand(row(1, "000000099", "10", "15 March 2022", "Cash")));
+        assertThrows(GeneralPlatformDomainRuleException.class,
+                () -> this.mapper.toCommand(row(1, "000000012", "ten", "15 March 2022", "Cash")));
+        assertThrows(GeneralPlatformDomainRuleException.class,
+                () -> this.mapper.toCommand(row(1, "000000012", "10", "2022-03-15", "Cash")));
+    }
+
+    private static ImportRow row(final int rowIndex, final String loanAccount, final String amount, final String date,
+            final String paymentType) {
+        final List<String> values = new ArrayList<>(Arrays.asList(new String[LoanRepaymentConstants.STATUS_COL + 1]));
+        values.set(LoanRepaymentConstants.LOAN_ACCOUNT_NO_COL, loanAccount);
+        values.set(LoanRepaymentConstants.AMOUNT_COL, amount);
+        values.set(LoanRepaymentConstants.REPAID_ON_DATE_COL, date);
+        values.set(LoanRepaymentConstants.REPAYMENT_TYPE_COL, paymentType);
+        values.set(LoanRepaymentConstants.ACCOUNT_NO_COL, "CHQ-1");
+        values.set(LoanRepaymentConstants.CHECK_NO_COL, "77");
+        return new ImportRow(rowIndex, values);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CsvImportRowReaderTest {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy", Locale.ENGLISH);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadsQuotedValuesAcrossLines() throws IOException {
+        final File file = write("Office,Client,Amount\r\nHead Office,\"Doe, John\",100.50\n\"Branch \"\"A\"\"\",\"Line 1\nLine 2\",\n");
+
+        final List<ImportRow> rows = new ArrayList<>();
+        new CsvImportRowReader(file).read(null, rows::add);
+
+        assertEquals(3, rows.size());
+        assertEquals(1, rows.get(1).getRowIndex());
+        assertEquals("Doe, John", rows.get(1).getString(1));
+        assertEquals(new BigDecimal("100.50"), rows.get(1).getDecimal(2));
+        assertEquals("Branch \"A\"", rows.get(2).getString(0));
+        assertEquals("Line 1\nLine 2", rows.get(2).getString(1));
+        assertNull(rows.get(2).getString(2));
+        assertNull(rows.get(2).getString(7));
+    }
+
+    @Test
+    public void testReadsLastRowWithoutLineBreakAndSkipsByteOrderMark() throws IOException {
+        final File file = write("\uFEFFAccount,Amount\n000000012,5");
+
+        final List<ImportRow> rows = new ArrayList<>();
+        new CsvImportRowReader(file).read(null, rows::add);
+
+        assertEquals(2, rows.size());
+        assertEquals("Account", rows.get(0).getString(0));
+        assertEquals(Integer.valueOf(5), rows.get(1).getInteger(1));
+    }
+
+    @Test
+    public void testReadsDatesAsTextOrExcelSerialNumbers() {
+        final ImportRow row = new ImportRow(1, Arrays.asList("15 March 2022", "44635", "2022-03-15"));
+
+        assertEquals(LocalDate.of(2022, 3, 15), row.getDate(0, DATE_FORMAT));
+        assertEquals(LocalDate.of(2022, 3, 15), row.getDate(1, DATE_FORMAT));
+        assertThrows(GeneralPlatformDomainRuleException.class, () -> row.getDate(2, DATE_FORMAT));
+    }
+
+    @Test
+    public void testFingerprintIgnoresStatusColumnAndTrailingEmptyCells() {
+        final String fingerprint = new ImportRow(3, Arrays.asList("000000012", "100", null)).getFingerprint(3);
+
+        assertEquals(fingerprint, new ImportRow(3, Arrays.asList("000000012", " 100 ", null, "Imported")).getFingerprint(3));
+        assertNotEquals(fingerprint, new ImportRow(3, Arrays.asList("000000012", "101")).getFingerprint(3));
+        assertNotEquals(fingerprint, new ImportRow(4, Arrays.asList("000000012", "100")).getFingerprint(3));
+        assertNotEquals(fingerprint, new ImportRow(3, Arrays.asList("000000012", null, "100")).getFingerprint(3));
+    }
+
+    private File write(final String content) throws IOException {
+        final Path file = this.tempDir.resolve("import.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file.toFile();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class XlsxImportRowReaderTest {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy", Locale.ENGLISH);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadsRowsOfNamedSheetWithEmptyCells() throws IOException {
+        final File file = write(workbook -> {
+            workbook.createSheet("Extras").createRow(0).createCell(0).setCellValue("ignored");
+            final Sheet sheet = workbook.createSheet("LoanRepayment");
+            final Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Account");
+            header.createCell(1).setCellValue("Amount");
+            header.createCell(3).setCellValue("Repaid On");
+            final CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd mmmm yyyy"));
+            final Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("000000012");
+            row.createCell(1).setCellValue(1234.5);
+            row.createCell(3).setCellValue(44635);
+            row.getCell(3).setCellStyle(dateStyle);
+            sheet.createRow(3).createCell(1).setCellValue(100);
+        });
+
+        final List<ImportRow> rows = new ArrayList<>();
+        new XlsxImportRowReader(file).read("LoanRepayment", rows::add);
+
+        assertEquals(3, rows.size());
+        assertEquals(0, rows.get(0).getRowIndex());
+        assertEquals("Repaid On", rows.get(0).getString(3));
+        assertEquals(1, rows.get(1).getRowIndex());
+        assertEquals("000000012", rows.get(1).getString(0));
+        assertEquals(new BigDecimal("1234.5"), rows.get(1).getDecimal(1));
+        assertNull(rows.get(1).getString(2));
+        assertEquals(LocalDate.of(2022, 3, 15), rows.get(1).getDate(3, DATE_FORMAT));
+        assertEquals(3, rows.get(2).getRowIndex());
+        assertNull(rows.get(2).getString(0));
+        assertEquals(Integer.valueOf(100), rows.get(2).getInteger(1));
+    }
+
+    @Test
+    public void testMissingSheetIsRejected() throws IOException {
+        final File file = write(workbook -> workbook.createSheet("Other"));
+
+        assertThrows(GeneralPlatformDomainRuleException.class, () -> new XlsxImportRowReader(file).read("LoanRepayment", row -> {}));
+    }
+
+    private File write(final WorkbookWriter writer) throws IOException {
+        final Path file = this.tempDir.resolve("import.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            writer.write(workbook);
+            workbook.write(out);
+        }
+        return file.toFile();
+    }
+
+    private interface WorkbookWriter {
+
+        void write(XSSFWorkbook workbook);
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.CommandWrapperBuilder;
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRow;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.ImportRowMapper;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.stream.StreamingImportHandler;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+public class StreamingImportServiceImplTest {
+
+    private static final int STATUS_COL = 2;
+    private static final String FILE_HASH = "c0ffee";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PortfolioCommandSourceWritePlatformService commandService = mock(PortfolioCommandSourceWritePlatformService.class);
+    private final StreamingImportHandler handler = mock(StreamingImportHandler.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final Set<String> importedFingerprints = Collections.synchronizedSet(new HashSet<>());
+    private StreamingImportServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>());
+
+        final FineractProperties properties = new FineractProperties();
+        properties.setBulkImport(new FineractProperties.FineractBulkImportProperties());
+        properties.getBulkImport().setWorkerCount(3);
+        properties.getBulkImport().setQueueCapacity(4);
+        properties.getBulkImport().setGroupSize(2);
+        properties.getBulkImport().setProgressInterval(1000);
+        properties.getBulkImport().setImportedRowRetentionDays(30);
+        this.underTest = new StreamingImportServiceImpl(this.jdbcTemplate, this.commandService, this.transactionManager, properties);
+
+        given(this.handler.getEntityType()).willReturn(GlobalEntityType.LOAN_TRANSACTIONS);
+        given(this.handler.getSheetName()).willReturn("LoanRepayment");
+        given(this.handler.getPrimaryColumn()).willReturn(1);
+        given(this.handler.getStatusColumn()).willReturn(STATUS_COL);
+        given(this.handler.newRowMapper(any(), any())).willReturn(new ImportRowMapper() {
+
+            @Override
+            public String getOrderingKey(final ImportRow row) {
+                return row.getString(0);
+            }
+
+            @Override
+            public CommandWrapper toCommand(final ImportRow row) {
+                if ("invalid".equals(row.getString(1))) {
+                    throw new GeneralPlatformDomainRuleException("error.msg.import.invalid", "Invalid row");
+                }
+                return new CommandWrapperBuilder().withJson(row.getString(0) + ":" + row.getString(1)).build();
+            }
+        });
+        given(this.commandService.logCommandSource(any())).willAnswer(invocation -> {
+            final String json = invocation.<CommandWrapper>getArgument(0).getJson();
+            if (json.endsWith(":fail")) {
+                throw new GeneralPlatformDomainRuleException("error.msg.repayment.failed", "Repayment failed");
+            }
+            this.transactionManager.record(json);
+            return null;
+        });
+        given(this.jdbcTemplate.queryForObject(startsWith("select count(*) from m_import_row_imported"), eq(Integer.class), any(), any(),
+                any())).willAnswer(invocation -> this.importedFingerprints
+                        .contains(invocation.<String>getArgument(3) + ":" + invocation.<String>getArgument(4)) ? 1 : 0);
+        given(this.jdbcTemplate.update(startsWith("insert into m_import_row_imported"), any(), any(), any(), any(), any()))
+                .willAnswer(invocation -> {
+                    this.transactionManager.record("imported:" + invocation.getArgument(5));
+                    return 1;
+                });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.underTest.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testRowsOfOneAccountRunInFileOrder() {
+        final List<ImportRow> rows = new ArrayList<>();
+        rows.add(row(0, "Account", "Amount"));
+        for (int rowIndex = 1; rowIndex <= 40; rowIndex++) {
+            rows.add(row(rowIndex, "account-" + (rowIndex % 5), String.valueOf(rowIndex)));
+        }
+        rows.add(row(41, "account-1", null));
+
+        final Count count = this.underTest.process(1L, FILE_HASH, this.handler, (sheetName, consumer) -> rows.forEach(consumer), "en",
+                "dd MMMM yyyy");
+
+        assertEquals(40, count.getSuccessCount());
+        assertEquals(0, count.getErrorCount());
+        final Map<String, List<Integer>> amountsByAccount = this.transactionManager.committed().stream()
+                .filter(entry -> entry.startsWith("account-")).map(entry -> entry.split(":")).collect(Collectors
+                        .groupingBy(entry -> entry[0], Collectors.mapping(entry -> Integer.valueOf(entry[1]), Collectors.toList())));
+        assertEquals(5, amountsByAccount.size());
+        amountsByAccount.values().forEach(amounts -> {
+            assertEquals(8, amounts.size());
+            final List<Integer> sorted = new ArrayList<>(amounts);
+            Collections.sort(sorted);
+            assertEquals(sorted, amounts);
+        });
+    }
+
+    @Test
+    public void testFailedGroupIsRunAgainRowByRow() {
+        final List<ImportRow> rows = Arrays.asList(row(1, "A", "10"), row(2, "A", "fail"), row(3, "A", "30"), row(4, "A", "invalid"),
+                row(5, "A", "50"));
+
+        final Count count = this.underTest.process(1L, FILE_HASH, this.handler, (sheetName, consumer) -> rows.forEach(consumer), "en",
+                "dd MMMM yyyy");
+
+        assertEquals(3, count.getSuccessCount());
+        assertEquals(2, count.getErrorCount());
+        assertEquals(Arrays.asList("A:10", "imported:1", "A:30", "imported:3", "A:50", "imported:5"), this.transactionManager.committed());
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<Object[]>> errors = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(startsWith("insert into m_import_document_error"), errors.capture());
+        assertEquals(Set.of(2, 4), errors.getValue().stream().map(error -> (Integer) error[1]).collect(Collectors.toSet()));
+        verify(this.jdbcTemplate).update(startsWith("update m_import_document"), eq(5), eq(3), eq(2), eq(1L));
+    }
+
+    @Test
+    public void testRowsImportedBeforeAreSkipped() {
+        final ImportRow importedBefore = row(1, "A", "10");
+        this.importedFingerprints.add(FILE_HASH + ":" + importedBefore.getFingerprint(STATUS_COL));
+        final List<ImportRow> rows = Arrays.asList(importedBefore, new ImportRow(2, Arrays.asList("A", "20", "Imported")),
+                row(3, "A", "30"), row(4, "B", "40"));
+
+        final Count count = this.underTest.process(1L, FILE_HASH, this.handler, (sheetName, consumer) -> rows.forEach(consumer), "en",
+                "dd MMMM yyyy");
+
+        assertEquals(2, count.getSuccessCount());
+        assertEquals(0, count.getErrorCount());
+        final List<String> committed = this.transactionManager.committed();
+        assertTrue(committed.containsAll(Arrays.asList("A:30", "B:40")));
+        assertEquals(4, committed.size());
+        verify(this.jdbcTemplate).update(startsWith("update m_import_document"), eq(2), eq(2), eq(0), eq(1L));
+    }
+
+    @Test
+    public void testRowsImportedFromAnotherFileAreNotSkipped() {
+        final ImportRow importedFromOtherFile = row(1, "A", "10");
+        this.importedFingerprints.add("other-file:" + importedFromOtherFile.getFingerprint(STATUS_COL));
+
+        final Count count = this.underTest.process(1L, FILE_HASH, this.handler,
+                (sheetName, consumer) -> List.of(importedFromOtherFile).forEach(consumer), "en", "dd MMMM yyyy");
+
+        assertEquals(1, count.getSuccessCount());
+        assertEquals(Arrays.asList("A:10", "imported:1"), this.transactionManager.committed());
+    }
+
+    @Test
+    public void testImportRecordsTheFileHashAndExpiresOldImportedRows() {
+        final LocalDateTime before = DateUtils.getLocalDateTimeOfTenant().minusDays(30);
+
+        this.underTest.process(1L, FILE_HASH, this.handler, (sheetName, consumer) -> {}, "en", "dd MMMM yyyy");
+
+        verify(this.jdbcTemplate).update("update m_import_document set file_hash = ? where id = ?", FILE_HASH, 1L);
+        final ArgumentCaptor<LocalDateTime> expiredBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(this.jdbcTemplate).update(startsWith("delete from m_import_row_imported"), expiredBefore.capture());
+        assertFalse(expiredBefore.getValue().isBefore(before));
+        assertTrue(expiredBefore.getValue().isBefore(before.plusMinutes(1)));
+    }
+
+    private static ImportRow row(final int rowIndex, final String account, final String amount) {
+        return new ImportRow(rowIndex, Arrays.asList(account, amount));
+    }
+
+    /**
+     * Keeps what a worker records inside a transaction until it commits, so the rows of a group that is rolled back are
+     * not reported as imported.
+     */
+    private static final class RecordingTransactionManager implements PlatformTransactionManager {
+
+        private final ThreadLocal<List<String>> pending = new ThreadLocal<>();
+        private final List<String> committed = Collections.synchronizedList(new ArrayList<>());
+
+        void record(final String entry) {
+            final List<String> transaction = this.pending.get();
+            if (transaction == null) {
+                this.committed.add(entry);
+            } else {
+                transaction.add(entry);
+            }
+        }
+
+        List<String> committed() {
+            synchronized (this.committed) {
+                return new ArrayList<>(this.committed);
+            }
+        }
+
+        @Override
+        public TransactionStatus getTransaction(final TransactionDefinition definition) {
+            this.pending.set(new ArrayList<>());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(final TransactionStatus status) {
+            this.committed.addAll(this.pending.get());
+            this.pending.remove();
+        }
+
+        @Override
+        public void rollback(final TransactionStatus status) {
+            this.pending.remove();
+        }
+    }
+}
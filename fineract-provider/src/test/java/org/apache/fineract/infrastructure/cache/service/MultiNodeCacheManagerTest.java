@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+/**
+ * Runs two cache "nodes" against the embedded ActiveMQ broker.
+ */
+public class MultiNodeCacheManagerTest {
+
+    private static final String BROKER_URL = "vm://multi-node-cache-test?broker.persistent=false&broker.useJmx=false";
+    private static final String TOPIC = "fineract.cache.invalidation.test";
+
+    private ConcurrentMapCacheManager firstLocal;
+    private ConcurrentMapCacheManager secondLocal;
+    private MultiNodeCacheManager first;
+    private DefaultMessageListenerContainer firstContainer;
+    private DefaultMessageListenerContainer secondContainer;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        firstLocal = new ConcurrentMapCacheManager("users", "charges");
+        secondLocal = new ConcurrentMapCacheManager("users", "charges");
+
+        final JmsTemplate jmsTemplate = new JmsTemplate(new CachingConnectionFactory(new ActiveMQConnectionFactory(BROKER_URL)));
+        jmsTemplate.setPubSubDomain(true);
+        first = new MultiNodeCacheManager(firstLocal, new CacheInvalidationPublisher(jmsTemplate, TOPIC, "first"));
+
+        firstContainer = startListener(firstLocal, "first");
+        secondContainer = startListener(secondLocal, "second");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        firstContainer.shutdown();
+        secondContainer.shutdown();
+    }
+
+    @Test
+    public void testEvictIsBroadcastToOtherNodes() throws InterruptedException {
+        first.getCache("users").put("defaultuser1", "first");
+        secondLocal.getCache("users").put("defaultuser1", "second");
+        secondLocal.getCache("users").put("defaultuser2", "second");
+
+        first.getCache("users").evict("defaultuser1");
+
+        assertNull(firstLocal.getCache("users").get("defaultuser1"));
+        awaitEvicted(secondLocal.getCache("users"), "defaultuser1");
+        assertNotNull(secondLocal.getCache("users").get("defaultuser2"));
+    }
+
+    @Test
+    public void testClearIsBroadcastToOtherNodes() throws InterruptedException {
+        secondLocal.getCache("charges").put("defaultch", "charges");
+        secondLocal.getCache("users").put("defaultuser1", "second");
+
+        first.getCache("charges").clear();
+
+        awaitEvicted(secondLocal.getCache("charges"), "defaultch");
+        assertEquals("second", secondLocal.getCache("users").get("defaultuser1").get());
+    }
+
+    private static DefaultMessageListenerContainer startListener(final ConcurrentMapCacheManager localCacheManager, final String origin)
+            throws InterruptedException {
+        final DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(new ActiveMQConnectionFactory(BROKER_URL));
+        container.setPubSubDomain(true);
+        container.setDestinationName(TOPIC);
+        container.setMessageListener(new CacheInvalidationListener(localCacheManager, origin));
+        container.afterPropertiesSet();
+        container.start();
+        // messages sent to a topic before the consumer is subscribed are lost
+        for (int i = 0; i < 100 && !container.isRegisteredWithDestination(); i++) {
+            Thread.sleep(50);
+        }
+        return container;
+    }
+
+    private static void awaitEvicted(final Cache cache, final String key) throws InterruptedException {
+        for (int i = 0; i < 100 && cache.get(key) != null; i++) {
+            Thread.sleep(50);
+        }
+        assertNull(cache.get(key));
+    }
+}
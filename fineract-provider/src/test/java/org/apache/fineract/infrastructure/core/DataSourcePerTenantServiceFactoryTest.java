@@ -222,6 +222,28 @@ public class DataSourcePerTenantServiceFactoryTest {
         assertEquals(MASTER_DB_AUTO_COMMIT_ENABLED, hikariConfig.isAutoCommit());
     }
 
+    @Test
+    void testCreateNewDataSourceFor_ShouldUseTenantPoolSizing() {
+        // given
+        FineractProperties.FineractModeProperties modeProperties = createModeProps(true, true, true, true);
+        given(fineractProperties.getMode()).willReturn(modeProperties);
+        given(tenantConnection.getMinIdle()).willReturn(3);
+        given(tenantConnection.getMinEvictableIdleTimeMillis()).willReturn(60000);
+        given(tenantConnection.isLogAbandoned()).willReturn(true);
+        given(tenantConnection.getRemoveAbandonedTimeout()).willReturn(60);
+
+        // when
+        underTest.createNewDataSourceFor(defaultTenant.getConnection());
+
+        // then
+        verify(hikariDataSourceFactory).create(hikariConfigCaptor.capture());
+        HikariConfig hikariConfig = hikariConfigCaptor.getValue();
+        assertEquals(3, hikariConfig.getMinimumIdle());
+        assertEquals(MASTER_DB_MAX_ACTIVE, hikariConfig.getMaximumPoolSize());
+        assertEquals(60000L, hikariConfig.getIdleTimeout());
+        assertEquals(60000L, hikariConfig.getLeakDetectionThreshold());
+    }
+
     private FineractProperties.FineractModeProperties createModeProps(boolean readEnabled, boolean writeEnabled, boolean batchWorkerEnabled,
             boolean batchManagerEnabled) {
         FineractProperties.FineractModeProperties modeProperties = new FineractProperties.FineractModeProperties();
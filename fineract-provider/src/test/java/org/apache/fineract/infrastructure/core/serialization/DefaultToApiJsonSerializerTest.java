@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.fineract.infrastructure.core.exception.UnsupportedParameterException;
+import org.apache.fineract.infrastructure.core.service.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DefaultToApiJsonSerializerTest {
+
+    private static final Set<String> SUPPORTED_PARAMETERS = Set.of("id", "name", "description");
+
+    private GoogleGsonSerializerHelper helper;
+    private DefaultToApiJsonSerializer<Item> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        this.helper = new GoogleGsonSerializerHelper();
+        this.serializer = new DefaultToApiJsonSerializer<>(new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson(),
+                new ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson(), new CommandProcessingResultJsonSerializer(), this.helper);
+    }
+
+    @Test
+    public void testPartialResponseSerializerIsReusedForSameFields() {
+        assertSame(this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("id", "name")),
+                this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("name", "id")));
+        assertNotSame(this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("id", "name")),
+                this.helper.createGsonBuilderForPartialResponseFiltering(true, Set.of("id", "name")));
+        assertNotSame(this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("id", "name")),
+                this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("id")));
+
+        assertSame(this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, Set.of("id")),
+                this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, Set.of("id")));
+    }
+
+    @Test
+    public void testUnsupportedFieldIsRejectedWhenSerializerIsCached() {
+        this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, Set.of("id"));
+
+        assertThrows(UnsupportedParameterException.class, () -> this.helper
+                .createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, false, Set.of("id", "unknown")));
+    }
+
+    @Test
+    public void testCacheIsClearedWhenFull() {
+        final Object first = this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("field0"));
+        for (int i = 1; i <= GoogleGsonSerializerHelper.MAX_CACHED_SERIALIZERS; i++) {
+            this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("field" + i));
+        }
+
+        assertNotSame(first, this.helper.createGsonBuilderForPartialResponseFiltering(false, Set.of("field0")));
+    }
+
+    @Test
+    public void testStreamedPageIsSameAsSerializedPage() throws IOException {
+        final Page<Item> page = new Page<>(List.of(new Item(1L, "first", "\u00e9t\u00e9"), new Item(2L, "second", null)), 2);
+
+        for (final Set<String> fields : List.of(Set.<String>of(), Set.of("id", "description"))) {
+            for (final boolean prettyPrint : new boolean[] { false, true }) {
+                final ApiRequestJsonSerializationSettings settings = ApiRequestJsonSerializationSettings.from(prettyPrint, fields, false,
+                        false, false);
+
+                assertEquals(this.serializer.serialize(settings, page, SUPPORTED_PARAMETERS),
+                        stream(this.serializer.serializeToStream(settings, page, SUPPORTED_PARAMETERS)));
+            }
+        }
+    }
+
+    @Test
+    public void testStreamingRejectsUnsupportedFieldBeforeWriting() {
+        final ApiRequestJsonSerializationSettings settings = ApiRequestJsonSerializationSettings.from(false, Set.of("unknown"), false,
+                false, false);
+
+        assertThrows(UnsupportedParameterException.class,
+                () -> this.serializer.serializeToStream(settings, new Page<>(List.of(), 0), SUPPORTED_PARAMETERS));
+    }
+
+    private static String stream(final StreamingOutput output) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        output.write(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Item {
+
+        private final Long id;
+        private final String name;
+        private final String description;
+
+        Item(final Long id, final String name, final String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.domain.ReadReplicaRouting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionHandle;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SimpleConnectionHandle;
+import org.springframework.orm.jpa.DefaultJpaDialect;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final DataSourcePerTenantServiceFactory factory = mock(DataSourcePerTenantServiceFactory.class);
+    private final ReadReplicaLagChecker lagChecker = mock(ReadReplicaLagChecker.class);
+    private TomcatJdbcDataSourcePerTenantService underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractPlatformTenantConnection connection = mock(FineractPlatformTenantConnection.class);
+        given(connection.getConnectionId()).willReturn(1L);
+        final FineractPlatformTenant tenant = mock(FineractPlatformTenant.class);
+        given(tenant.getConnection()).willReturn(connection);
+        ThreadLocalContextUtil.setTenant(tenant);
+
+        given(factory.createNewDataSourceFor(connection)).willReturn(primary);
+        given(factory.createNewReadReplicaDataSourceFor(connection)).willReturn(replica);
+        given(factory.hasReadReplica(connection)).willReturn(true);
+
+        final FineractProperties properties = new FineractProperties();
+        properties.setMode(new FineractProperties.FineractModeProperties());
+        properties.getMode().setReadEnabled(true);
+        properties.getMode().setWriteEnabled(true);
+        properties.setReadReplica(new FineractProperties.FineractReadReplicaProperties());
+        properties.getReadReplica().setEnabled(true);
+
+        underTest = new TomcatJdbcDataSourcePerTenantService(mock(DataSource.class), factory, lagChecker, properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+        ThreadLocalContextUtil.clearReadReplicaRouting();
+    }
+
+    @Test
+    public void testPrimaryDataSourceIsCreatedOnce() {
+        assertSame(primary, underTest.retrieveDataSource());
+        assertSame(primary, underTest.retrieveDataSource());
+        verify(factory, times(1)).createNewDataSourceFor(any());
+    }
+
+    @Test
+    public void testReportRequestUsesReplica() {
+        given(lagChecker.isUsable(1L, replica)).willReturn(true);
+        ThreadLocalContextUtil.setReadReplicaRouting(ReadReplicaRouting.REPLICA);
+
+        assertSame(replica, underTest.retrieveDataSource());
+    }
+
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() {
+        given(lagChecker.isUsable(1L, replica)).willReturn(false);
+        ThreadLocalContextUtil.setReadReplicaRouting(ReadReplicaRouting.REPLICA);
+
+        assertSame(primary, underTest.retrieveDataSource());
+    }
+
+    @Test
+    public void testReadOnlyRoutingOutsideReadOnlyTransactionUsesPrimary() {
+        given(lagChecker.isUsable(1L, replica)).willReturn(true);
+        ThreadLocalContextUtil.setReadReplicaRouting(ReadReplicaRouting.READ_ONLY_TRANSACTIONS);
+
+        assertSame(primary, underTest.retrieveDataSource());
+    }
+
+    @Test
+    public void testReadOnlyTransactionUsesReplica() throws SQLException {
+        given(lagChecker.isUsable(1L, replica)).willReturn(true);
+        ThreadLocalContextUtil.setReadReplicaRouting(ReadReplicaRouting.READ_ONLY_TRANSACTIONS);
+
+        runInTransaction(true);
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    public void testReadWriteTransactionUsesPrimary() throws SQLException {
+        given(lagChecker.isUsable(1L, replica)).willReturn(true);
+        ThreadLocalContextUtil.setReadReplicaRouting(ReadReplicaRouting.READ_ONLY_TRANSACTIONS);
+
+        runInTransaction(false);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    /**
+     * Runs a statement in a JPA transaction whose dialect takes the JDBC connection while the transaction begins, the
+     * way EclipseLink does, so before the transaction is marked read-only.
+     */
+    private void runInTransaction(final boolean readOnly) throws SQLException {
+        final Connection connection = mock(Connection.class);
+        given(primary.getConnection()).willReturn(connection);
+        given(replica.getConnection()).willReturn(connection);
+
+        final RoutingDataSourceServiceFactory serviceFactory = mock(RoutingDataSourceServiceFactory.class);
+        given(serviceFactory.determineDataSourceService()).willReturn(underTest);
+        final RoutingDataSource routingDataSource = new RoutingDataSource();
+        ReflectionTestUtils.setField(routingDataSource, "dataSourceServiceFactory", serviceFactory);
+        routingDataSource.setDefaultAutoCommit(true);
+        routingDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        routingDataSource.afterPropertiesSet();
+
+        final EntityTransaction entityTransaction = mock(EntityTransaction.class);
+        given(entityTransaction.isActive()).willReturn(true);
+        final EntityManager entityManager = mock(EntityManager.class);
+        given(entityManager.getTransaction()).willReturn(entityTransaction);
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        given(entityManagerFactory.createEntityManager()).willReturn(entityManager);
+
+        final AtomicReference<Connection> transactionConnection = new AtomicReference<>();
+        final JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManager.setDataSource(routingDataSource);
+        transactionManager.setJpaDialect(new DefaultJpaDialect() {
+
+            @Override
+            public Object beginTransaction(final EntityManager em, final TransactionDefinition definition) throws SQLException {
+                final Connection con = routingDataSource.getConnection();
+                con.setAutoCommit(false);
+                transactionConnection.set(con);
+                em.getTransaction().begin();
+                return null;
+            }
+
+            @Override
+            public ConnectionHandle getJdbcConnection(final EntityManager em, final boolean readOnlyTransaction) {
+                return new SimpleConnectionHandle(transactionConnection.get());
+            }
+        });
+
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(routingDataSource).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
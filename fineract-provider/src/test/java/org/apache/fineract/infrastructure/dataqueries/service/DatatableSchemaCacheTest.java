@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationPublisher;
+import org.apache.fineract.infrastructure.cache.service.MultiNodeCacheManager;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractDatatableProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractDatatableSchemaCacheProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+public class DatatableSchemaCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<ResultsetColumnHeaderData>> loader = () -> {
+        loads.incrementAndGet();
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
+        columnHeaders.add(ResultsetColumnHeaderData.basic("client_id", "bigint"));
+        columnHeaders.add(ResultsetColumnHeaderData.basic("created_at", "datetime"));
+        return columnHeaders;
+    };
+
+    private final ObjectProvider<MultiNodeCacheManager> noMultiNodeCacheManager = multiNodeCacheManager(null);
+    private JCacheCacheManager localCacheManager;
+    private DatatableSchemaCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        localCacheManager = mock(JCacheCacheManager.class);
+        given(localCacheManager.getCache(DatatableSchemaCache.CACHE_NAME))
+                .willReturn(new ConcurrentMapCache(DatatableSchemaCache.CACHE_NAME));
+        cache = new DatatableSchemaCache(properties(true), localCacheManager, noMultiNodeCacheManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testColumnHeadersAreLoadedOncePerSchemaVersion() {
+        cache.getColumnHeaders("dt_client_extra", loader);
+        cache.getColumnHeaders("dt_client_extra", loader);
+        assertEquals(1, loads.get());
+
+        cache.invalidate();
+        cache.getColumnHeaders("dt_client_extra", loader);
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getVersion());
+    }
+
+    @Test
+    public void testCallersCannotChangeCachedColumnHeaders() {
+        cache.getColumnHeaders("dt_client_extra", loader).remove(1);
+        assertEquals(2, cache.getColumnHeaders("dt_client_extra", loader).size());
+    }
+
+    @Test
+    public void testTenantsDoNotShareColumnHeaders() {
+        cache.getColumnHeaders("dt_client_extra", loader);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null));
+        cache.getColumnHeaders("dt_client_extra", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysLoads() {
+        cache = new DatatableSchemaCache(properties(false), localCacheManager, noMultiNodeCacheManager);
+        cache.getColumnHeaders("dt_client_extra", loader);
+        cache.getColumnHeaders("dt_client_extra", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testColumnHeadersAreKeptInTheSharedCache() {
+        cache.getColumnHeaders("dt_client_extra", loader);
+        // another instance over the same cache finds the entry
+        new DatatableSchemaCache(properties(true), localCacheManager, noMultiNodeCacheManager).getColumnHeaders("dt_client_extra",
+                loader);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testInvalidationIsBroadcastWithMultiNodeCache() {
+        final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+        cache = new DatatableSchemaCache(properties(true), localCacheManager,
+                multiNodeCacheManager(new MultiNodeCacheManager(localCacheManager, publisher)));
+
+        cache.getColumnHeaders("dt_client_extra", loader);
+        cache.invalidate();
+        cache.getColumnHeaders("dt_client_extra", loader);
+
+        assertEquals(2, loads.get());
+        verify(publisher).publishClear(DatatableSchemaCache.CACHE_NAME);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MultiNodeCacheManager> multiNodeCacheManager(final MultiNodeCacheManager multiNodeCacheManager) {
+        final ObjectProvider<MultiNodeCacheManager> provider = mock(ObjectProvider.class);
+        given(provider.getIfAvailable()).willReturn(multiNodeCacheManager);
+        return provider;
+    }
+
+    private static FineractProperties properties(final boolean enabled) {
+        final FineractDatatableSchemaCacheProperties schemaCache = new FineractDatatableSchemaCacheProperties();
+        schemaCache.setEnabled(enabled);
+        schemaCache.setMaxSize(100);
+        schemaCache.setTimeToLive(300);
+        final FineractDatatableProperties datatable = new FineractDatatableProperties();
+        datatable.setSchemaCache(schemaCache);
+        final FineractProperties properties = new FineractProperties();
+        properties.setDatatable(datatable);
+        return properties;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseIndependentQueryService;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class GenericDataServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+    private GenericDataServiceImpl genericDataService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        final FineractProperties.FineractReportProperties reportProperties = new FineractProperties.FineractReportProperties();
+        reportProperties.setFetchSize(100);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setReport(reportProperties);
+        this.genericDataService = new GenericDataServiceImpl(mock(RoutingDataSource.class), this.jdbcTemplate,
+                mock(DatabaseIndependentQueryService.class), mock(PlatformTransactionManager.class), fineractProperties,
+                mock(DatatableSchemaCache.class));
+        ReflectionTestUtils.setField(this.genericDataService, "jdbcTemplate", this.jdbcTemplate);
+        given(this.connection.prepareStatement(anyString(), anyInt(), anyInt())).willReturn(this.preparedStatement);
+    }
+
+    @Test
+    public void testStreamedRowsAreFormattedLikeTheMaterialisedResultSet() throws Exception {
+        final ResultSet rs = resultSet(new String[] { "id", "DATE", "DATETIME", "note" },
+                new Object[] { 7L, Date.valueOf("2022-06-01"), Timestamp.valueOf("2022-06-01 10:15:30"), null });
+        willAnswer(invocation -> {
+            final PreparedStatementCreator creator = invocation.getArgument(0);
+            creator.createPreparedStatement(this.connection);
+            final ResultSetExtractor<?> extractor = invocation.getArgument(1);
+            return extractor.extractData(rs);
+        }).given(this.jdbcTemplate).query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class));
+
+        final List<String> columnNames = new ArrayList<>();
+        final List<List<String>> rows = new ArrayList<>();
+        final List<Boolean> finished = new ArrayList<>();
+        this.genericDataService.streamGenericResultSet("select * from m_note", new GenericResultsetRowHandler() {
+
+            @Override
+            public void processColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) {
+                columnHeaders.forEach(columnHeader -> columnNames.add(columnHeader.getColumnName()));
+            }
+
+            @Override
+            public void processRow(final List<String> row) {
+                rows.add(row);
+            }
+
+            @Override
+            public void finish() {
+                finished.add(true);
+            }
+        });
+
+        verify(this.connection).prepareStatement("select * from m_note", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        verify(this.preparedStatement).setFetchSize(100);
+        assertEquals(List.of("id", "DATE", "DATETIME", "note"), columnNames);
+        assertEquals(List.of(Arrays.asList("7", "2022-06-01", "2022-06-01 10:15:30.0", null)), rows);
+        assertEquals(List.of(true), finished);
+    }
+
+    private static ResultSet resultSet(final String[] columnLabels, final Object[] row) throws Exception {
+        final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        given(metaData.getColumnCount()).willReturn(columnLabels.length);
+        final ResultSet rs = mock(ResultSet.class);
+        given(rs.getMetaData()).willReturn(metaData);
+        given(rs.next()).willReturn(true, false);
+        for (int i = 0; i < columnLabels.length; i++) {
+            given(metaData.getColumnLabel(i + 1)).willReturn(columnLabels[i]);
+            given(metaData.getColumnTypeName(i + 1)).willReturn("VARCHAR");
+            given(rs.getObject(i + 1)).willReturn(row[i]);
+        }
+        return rs;
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
+import org.apache.fineract.infrastructure.dataqueries.exception.ReportNotFoundException;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.SqlInjectionPreventerService;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+public class ReadReportingServiceImplTest {
+
+    private static final List<ResultsetColumnHeaderData> COLUMN_HEADERS = List.of(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"));
+    private static final List<List<String>> ROWS = List.of(List.of("1", "Say \"hi\""), Arrays.asList("2", null));
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final GenericDataService genericDataService = mock(GenericDataService.class);
+    private final SqlRowSet reportSql = mock(SqlRowSet.class);
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private ReadReportingServiceImpl readReportingService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        final SqlInjectionPreventerService sqlInjectionPreventerService = mock(SqlInjectionPreventerService.class);
+        given(sqlInjectionPreventerService.encodeSql(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(this.jdbcTemplate.queryForRowSet(anyString(), eq("Client Listing"))).willReturn(this.reportSql);
+        given(this.reportSql.next()).willReturn(true);
+        given(this.reportSql.getString("the_sql")).willReturn("select id, name from m_client");
+
+        final Office office = mock(Office.class);
+        given(office.getHierarchy()).willReturn(".");
+        final AppUser currentUser = mock(AppUser.class);
+        given(currentUser.getOffice()).willReturn(office);
+        given(currentUser.getId()).willReturn(1L);
+        final PlatformSecurityContext context = mock(PlatformSecurityContext.class);
+        given(context.authenticatedUser()).willReturn(currentUser);
+
+        given(this.genericDataService.wrapSQL(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(this.genericDataService.replace(anyString(), anyString(), anyString())).willAnswer(
+                invocation -> invocation.<String>getArgument(0).replace(invocation.getArgument(1), invocation.<String>getArgument(2)));
+        willAnswer(invocation -> {
+            final GenericResultsetRowHandler rowHandler = invocation.getArgument(1);
+            rowHandler.processColumnHeaders(COLUMN_HEADERS);
+            // the column headers are sent before the first row is read
+            assertFalse(this.out.toString(StandardCharsets.UTF_8).isEmpty());
+            for (List<String> row : ROWS) {
+                rowHandler.processRow(row);
+            }
+            rowHandler.finish();
+            return null;
+        }).given(this.genericDataService).streamGenericResultSet(anyString(), any(GenericResultsetRowHandler.class));
+
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        given(sqlGenerator.currentBusinessDate()).willReturn("'2022-06-01'");
+        given(sqlGenerator.currentTenantDateTime()).willReturn("'2022-06-01 10:15:30'");
+
+        this.readReportingService = new ReadReportingServiceImpl(this.jdbcTemplate, context, this.genericDataService,
+                sqlInjectionPreventerService, sqlGenerator, new FineractProperties());
+    }
+
+    @Test
+    public void testCsvIsStreamedWithQuotedTextAndPlainNumbers() throws Exception {
+        final StreamingOutput output = this.readReportingService.retrieveReportCSV("Client Listing", "report", Map.of(), false);
+        output.write(this.out);
+
+        verify(this.genericDataService).streamGenericResultSet(eq("select id, name from m_client"), any(GenericResultsetRowHandler.class));
+        assertEquals("\"id\",\"name\"\n1,\"Say \"\"hi\"\"\"\n2,\n", this.out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testJsonIsStreamedInTheFormatOfTheGenericResultset() throws Exception {
+        final StreamingOutput output = this.readReportingService.retrieveReportJson("Client Listing", "report", Map.of(), false, false);
+        output.write(this.out);
+
+        final List<ResultsetRowData> rows = ROWS.stream().map(ResultsetRowData::create).collect(Collectors.toList());
+        final String expected = GoogleGsonSerializerHelper.createGsonBuilder(false).create()
+                .toJson(new GenericResultsetData(COLUMN_HEADERS, rows));
+        assertEquals(expected, this.out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnknownReportFailsBeforeTheResponseIsStreamed() {
+        given(this.reportSql.next()).willReturn(false);
+
+        assertThrows(ReportNotFoundException.class,
+                () -> this.readReportingService.retrieveReportCSV("Client Listing", "report", Map.of(), false));
+        verify(this.genericDataService, never()).streamGenericResultSet(anyString(), any(GenericResultsetRowHandler.class));
+    }
+}
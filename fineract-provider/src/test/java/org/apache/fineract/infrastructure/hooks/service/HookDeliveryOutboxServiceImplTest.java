@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+public class HookDeliveryOutboxServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+    private final FineractProperties.FineractHookDeliveryProperties properties = new FineractProperties.FineractHookDeliveryProperties();
+    private HookDeliveryOutboxServiceImpl outboxService;
+
+    @BeforeEach
+    public void setUp() {
+        this.properties.setMaxAttempts(3);
+        this.properties.setRetryDelay(30);
+        this.properties.setMaxRetryDelay(3600);
+        final FineractProperties.FineractHookProperties hookProperties = new FineractProperties.FineractHookProperties();
+        hookProperties.setDelivery(this.properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setHook(hookProperties);
+        given(this.sqlGenerator.limit(3)).willReturn("limit 3");
+        this.outboxService = new HookDeliveryOutboxServiceImpl(this.jdbcTemplate, this.sqlGenerator, fineractProperties);
+    }
+
+    @Test
+    public void testOnlyDeliveriesWhoseLeaseWasTakenAreClaimed() {
+        given(this.jdbcTemplate.query(anyString(), any(RowMapper.class), any(Timestamp.class)))
+                .willReturn(List.of(delivery(1L, 0), delivery(2L, 0), delivery(3L, 1)));
+        given(this.jdbcTemplate.batchUpdate(anyString(), anyList())).willReturn(new int[] { 1, 0, 1 });
+        final LocalDateTime before = LocalDateTime.now().withNano(0);
+
+        final List<HookDeliveryData> claimed = this.outboxService.claimDue(3);
+
+        assertEquals(List.of(1L, 3L), claimed.stream().map(HookDeliveryData::getId).collect(Collectors.toList()));
+        verify(this.jdbcTemplate).query(startsWith("select "), any(RowMapper.class), any(Timestamp.class));
+        final ArgumentCaptor<List<Object[]>> params = batchParams();
+        verify(this.jdbcTemplate).batchUpdate(
+                eq("update m_hook_delivery set next_attempt_time = ? where id = ? and next_attempt_time <= ?"), params.capture());
+        assertEquals(3, params.getValue().size());
+        final LocalDateTime leasedUntil = ((Timestamp) params.getValue().get(0)[0]).toLocalDateTime();
+        assertFalse(leasedUntil.isBefore(before.plusSeconds(HookDeliveryOutboxServiceImpl.LEASE_SECONDS)));
+        assertEquals(2L, params.getValue().get(1)[1]);
+    }
+
+    @Test
+    public void testFailedDeliveryIsRescheduledWithBackOff() {
+        final LocalDateTime before = LocalDateTime.now().withNano(0);
+
+        this.outboxService.failed(delivery(5L, 1), "java.net.ConnectException: refused");
+
+        final ArgumentCaptor<Timestamp> nextAttempt = ArgumentCaptor.forClass(Timestamp.class);
+        verify(this.jdbcTemplate).update(eq("update m_hook_delivery set attempts = ?, last_error = ?, next_attempt_time = ? where id = ?"),
+                eq(2), eq("java.net.ConnectException: refused"), nextAttempt.capture(), eq(5L));
+        assertFalse(nextAttempt.getValue().toLocalDateTime().isBefore(before.plusSeconds(60)));
+        verify(this.jdbcTemplate, never()).update(startsWith("insert into m_hook_delivery_dead_letter"), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testDeliveryMovesToTheDeadLetterTableAfterTheLastAttempt() {
+        this.outboxService.failed(delivery(5L, 2), "java.net.ConnectException: refused");
+
+        verify(this.jdbcTemplate).update(startsWith("insert into m_hook_delivery_dead_letter"), eq(3),
+                eq("java.net.ConnectException: refused"), any(Timestamp.class), eq(5L));
+        verify(this.jdbcTemplate).update("delete from m_hook_delivery where id = ?", 5L);
+        verify(this.jdbcTemplate, never()).update(startsWith("update m_hook_delivery set attempts"), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testRetryDelayBacksOffExponentiallyUpToTheMaximum() {
+        final FineractProperties.FineractHookDeliveryProperties properties = new FineractProperties.FineractHookDeliveryProperties();
+        properties.setRetryDelay(30);
+        properties.setMaxRetryDelay(3600);
+
+        assertEquals(30, HookDeliveryOutboxServiceImpl.retryDelay(1, properties));
+        assertEquals(60, HookDeliveryOutboxServiceImpl.retryDelay(2, properties));
+        assertEquals(1920, HookDeliveryOutboxServiceImpl.retryDelay(7, properties));
+        assertEquals(3600, HookDeliveryOutboxServiceImpl.retryDelay(8, properties));
+        assertEquals(3600, HookDeliveryOutboxServiceImpl.retryDelay(1000, properties));
+    }
+
+    private static HookDeliveryData delivery(final Long id, final int attempts) {
+        return new HookDeliveryData(id, 10L, "CLIENT", "CREATE", "{}", attempts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> batchParams() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class HookDeliveryServiceImplTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private final HookDeliveryOutboxService outboxService = mock(HookDeliveryOutboxService.class);
+    private final HookRepository hookRepository = mock(HookRepository.class);
+    private final HookProcessorProvider hookProcessorProvider = mock(HookProcessorProvider.class);
+    private final HookProcessor processor = mock(HookProcessor.class);
+    private final Hook webHook = hook(1L, true);
+    private final Hook otherWebHook = hook(2L, true);
+    private HookDeliveryServiceImpl deliveryService;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 15));
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+
+        final FineractProperties.FineractHookDeliveryProperties properties = new FineractProperties.FineractHookDeliveryProperties();
+        properties.setPoolSize(2);
+        properties.setQueueCapacity(10);
+        properties.setBatchSize(3);
+        final FineractProperties.FineractHookProperties hookProperties = new FineractProperties.FineractHookProperties();
+        hookProperties.setDelivery(properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setHook(hookProperties);
+
+        given(this.hookRepository.findById(1L)).willReturn(Optional.of(this.webHook));
+        given(this.hookRepository.findById(2L)).willReturn(Optional.of(this.otherWebHook));
+        given(this.hookProcessorProvider.getProcessor(any(Hook.class))).willReturn(this.processor);
+        this.deliveryService = new HookDeliveryServiceImpl(this.outboxService, this.hookRepository, this.hookProcessorProvider,
+                fineractProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        this.deliveryService.shutdown();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testEventsAreDeliveredInTheTenantContextOnlyAfterTheTransactionCommitted() throws Exception {
+        given(this.outboxService.retrieve(List.of(11L))).willReturn(List.of(delivery(11L, 1L, "{\"id\":1}", 0)));
+        final List<String> tenants = new CopyOnWriteArrayList<>();
+        willAnswer(invocation -> {
+            tenants.add(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+            return null;
+        }).given(this.processor).process(any(Hook.class), anyString(), anyString(), anyString(), any(FineractContext.class));
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.deliveryService.deliverAfterCommit(List.of(11L));
+
+        verify(this.outboxService, never()).retrieve(any());
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(this.outboxService, timeout(WAIT_MILLIS)).delivered(11L);
+        verify(this.processor).process(eq(this.webHook), eq("{\"id\":1}"), eq("CLIENT"), eq("CREATE"), any(FineractContext.class));
+        assertEquals(List.of("default"), tenants);
+    }
+
+    @Test
+    public void testFailedDeliveryHoldsBackTheRemainingEventsOfTheSameHookOnly() throws Exception {
+        final HookDeliveryData failing = delivery(11L, 1L, "first", 0);
+        given(this.outboxService.claimDue(3)).willReturn(List.of(failing, delivery(12L, 1L, "second", 0), delivery(13L, 2L, "third", 0)),
+                List.of());
+        willThrow(new IllegalStateException("endpoint down")).given(this.processor).process(any(Hook.class), eq("first"), anyString(),
+                anyString(), any(FineractContext.class));
+
+        this.deliveryService.deliverPendingHookEvents();
+
+        verify(this.outboxService).failed(failing, "java.lang.IllegalStateException: endpoint down");
+        verify(this.processor, never()).process(any(Hook.class), eq("second"), anyString(), anyString(), any(FineractContext.class));
+        verify(this.outboxService, never()).delivered(12L);
+        verify(this.processor).process(eq(this.otherWebHook), eq("third"), anyString(), anyString(), any(FineractContext.class));
+        verify(this.outboxService).delivered(13L);
+    }
+
+    @Test
+    public void testJobDeliveringOnItsOwnThreadKeepsItsContext() throws Exception {
+        final FineractProperties.FineractHookDeliveryProperties properties = new FineractProperties.FineractHookDeliveryProperties();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setBatchSize(3);
+        final FineractProperties.FineractHookProperties hookProperties = new FineractProperties.FineractHookProperties();
+        hookProperties.setDelivery(properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setHook(hookProperties);
+        final HookDeliveryServiceImpl busyDeliveryService = new HookDeliveryServiceImpl(this.outboxService, this.hookRepository,
+                this.hookProcessorProvider, fineractProperties);
+
+        final Hook thirdWebHook = hook(3L, true);
+        given(this.hookRepository.findById(3L)).willReturn(Optional.of(thirdWebHook));
+        given(this.outboxService.claimDue(3)).willReturn(List.of(delivery(11L, 1L, "first", 0), delivery(12L, 2L, "second", 0),
+                delivery(13L, 3L, "third", 0)), List.of());
+        final Thread job = Thread.currentThread();
+        final CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            if (Thread.currentThread() == job) {
+                // the first hook blocks the only worker and the second one fills the queue
+                assertEquals("third", invocation.getArgument(1));
+                release.countDown();
+            } else {
+                release.await();
+            }
+            return null;
+        }).given(this.processor).process(any(Hook.class), anyString(), anyString(), anyString(), any(FineractContext.class));
+
+        try {
+            busyDeliveryService.deliverPendingHookEvents();
+        } finally {
+            busyDeliveryService.shutdown();
+        }
+
+        verify(this.outboxService).delivered(11L);
+        verify(this.outboxService).delivered(12L);
+        verify(this.outboxService).delivered(13L);
+        assertEquals("default", ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        assertEquals(LocalDate.of(2022, 6, 15), ThreadLocalContextUtil.getBusinessDate());
+    }
+
+    @Test
+    public void testEventsOfAnInactiveHookAreDiscarded() throws Exception {
+        final Hook inactiveHook = hook(1L, false);
+        given(this.hookRepository.findById(1L)).willReturn(Optional.of(inactiveHook));
+        given(this.outboxService.claimDue(3)).willReturn(List.of(delivery(11L, 1L, "first", 0)), List.of());
+
+        this.deliveryService.deliverPendingHookEvents();
+
+        verify(this.processor, never()).process(any(Hook.class), anyString(), anyString(), anyString(), any(FineractContext.class));
+        verify(this.outboxService).delivered(11L);
+    }
+
+    private static Hook hook(final Long id, final boolean active) {
+        final Hook hook = mock(Hook.class);
+        given(hook.getId()).willReturn(id);
+        given(hook.isActive()).willReturn(active);
+        return hook;
+    }
+
+    private static HookDeliveryData delivery(final Long id, final Long hookId, final String payload, final int attempts) {
+        return new HookDeliveryData(id, hookId, "CLIENT", "CREATE", payload, attempts);
+    }
+}
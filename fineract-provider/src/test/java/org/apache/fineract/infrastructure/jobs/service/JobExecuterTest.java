@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JobExecuterTest {
+
+    private static final FineractPlatformTenant DEFAULT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+
+    private JobExecuter jobExecuter;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractProperties.FineractJobProperties jobProperties = new FineractProperties.FineractJobProperties();
+        jobProperties.setExecutorPoolSize(2);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setJob(jobProperties);
+        this.jobExecuter = new JobExecuter(fineractProperties);
+
+        ThreadLocalContextUtil.setTenant(DEFAULT);
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 1))));
+        ThreadLocalContextUtil.setJobParams(Map.of(JobExecuter.NUMBER_OF_THREADS_PARAM, "2"));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("mifos", null));
+        JobExecuter.drainStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.jobExecuter.shutdown();
+        JobExecuter.drainStatistics();
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.reset();
+        Thread.interrupted();
+    }
+
+    @Test
+    public void testParallelRunProcessesAllChunksAndKeepsTheOutputInChunkOrder() {
+        final AtomicInteger processed = new AtomicInteger();
+
+        final String output = this.jobExecuter.executeJob(ids(10), (chunk, sb) -> {
+            assertEquals(DEFAULT, ThreadLocalContextUtil.getTenant());
+            assertEquals("mifos", SecurityContextHolder.getContext().getAuthentication().getName());
+            processed.addAndGet(chunk.size());
+            sb.append(chunk);
+        }, 2, 3);
+
+        assertEquals("[0, 1, 2][3, 4, 5][6, 7, 8][9]", output);
+        assertEquals(10, processed.get());
+        final JobExecutionStatistics stats = JobExecuter.drainStatistics();
+        assertEquals(4, stats.getChunks());
+        assertEquals(10, stats.getItems());
+        assertEquals(0, stats.getSkippedChunks());
+    }
+
+    @Test
+    public void testWorkersDoNotKeepTheContextOfAFinishedRun() throws Exception {
+        this.jobExecuter.executeJob(ids(4), (chunk, sb) -> sb.append(chunk), 2, 1);
+
+        final ExecutorService executorService = (ExecutorService) ReflectionTestUtils.getField(this.jobExecuter, "executorService");
+        for (int i = 0; i < 4; i++) {
+            executorService.submit(() -> {
+                assertNull(ThreadLocalContextUtil.getTenant());
+                assertNull(ThreadLocalContextUtil.getJobParams());
+                assertNull(SecurityContextHolder.getContext().getAuthentication());
+                assertThrows(IllegalArgumentException.class, ThreadLocalContextUtil::getBusinessDates);
+            }).get();
+        }
+    }
+
+    @Test
+    public void testInterruptingTheCallerSkipsTheRemainingChunksOfAnInlineRun() {
+        final AtomicInteger processed = new AtomicInteger();
+
+        this.jobExecuter.executeJob(ids(5), (chunk, sb) -> {
+            processed.incrementAndGet();
+            Thread.currentThread().interrupt();
+        }, 1, 1);
+
+        assertTrue(Thread.interrupted());
+        assertEquals(1, processed.get());
+        final JobExecutionStatistics stats = JobExecuter.drainStatistics();
+        assertEquals(1, stats.getChunks());
+        assertEquals(4, stats.getSkippedChunks());
+    }
+
+    @Test
+    public void testInterruptingTheCallerSkipsTheRemainingChunksOfAParallelRun() {
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger processed = new AtomicInteger();
+
+        final String output = this.jobExecuter.executeJob(ids(20), (chunk, sb) -> {
+            if (processed.incrementAndGet() == 1) {
+                caller.interrupt();
+            }
+            sleep(20);
+        }, 2, 1);
+
+        assertTrue(Thread.interrupted());
+        assertTrue(output.startsWith("Thread Interrupted for "), output);
+        assertTrue(processed.get() < 20);
+        assertTrue(JobExecuter.drainStatistics().getSkippedChunks() > 0);
+    }
+
+    @Test
+    public void testShutdownSkipsTheRemainingChunksOfAnInlineRun() {
+        final AtomicInteger processed = new AtomicInteger();
+
+        this.jobExecuter.executeJob(ids(5), (chunk, sb) -> {
+            processed.incrementAndGet();
+            this.jobExecuter.shutdown();
+        }, 1, 1);
+
+        assertEquals(1, processed.get());
+        assertEquals(4, JobExecuter.drainStatistics().getSkippedChunks());
+    }
+
+    private static List<Integer> ids(final int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
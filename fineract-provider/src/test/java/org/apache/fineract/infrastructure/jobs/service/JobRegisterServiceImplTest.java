@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractModeProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.domain.SchedulerDetail;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JobRegisterServiceImplTest {
+
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+
+    private final SchedularWritePlatformService schedularWritePlatformService = mock(SchedularWritePlatformService.class);
+    private final TenantDetailsService tenantDetailsService = mock(TenantDetailsService.class);
+    private final SchedulerJobStateRegistry jobStateRegistry = mock(SchedulerJobStateRegistry.class);
+    private final ScheduledJobDetail inactiveJob = mock(ScheduledJobDetail.class);
+    private final JobRegisterServiceImpl service = new JobRegisterServiceImpl();
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(TENANT);
+        final FineractModeProperties mode = new FineractModeProperties();
+        mode.setBatchManagerEnabled(true);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setMode(mode);
+        fineractProperties.setNodeId("1");
+        ReflectionTestUtils.setField(this.service, "fineractProperties", fineractProperties);
+        ReflectionTestUtils.setField(this.service, "schedularWritePlatformService", this.schedularWritePlatformService);
+        ReflectionTestUtils.setField(this.service, "tenantDetailsService", this.tenantDetailsService);
+        ReflectionTestUtils.setField(this.service, "jobParameterRepository", mock(JobParameterRepository.class));
+        ReflectionTestUtils.setField(this.service, "jobStateRegistry", this.jobStateRegistry);
+
+        given(this.inactiveJob.isActiveSchedular()).willReturn(false);
+        given(this.inactiveJob.getNodeId()).willReturn(1);
+        given(this.inactiveJob.getJobKey()).willReturn("Apply Holidays To LoansJobDetail1 _ DEFAULT");
+        given(this.inactiveJob.getSchedulerGroup()).willReturn((short) 0);
+        given(this.schedularWritePlatformService.retriveSchedulerDetail()).willReturn(mock(SchedulerDetail.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testLoadingTheJobsDropsTheJobStateOnceTheyAreSavedAsNotRunning() {
+        given(this.tenantDetailsService.findAllTenants()).willReturn(List.of(TENANT));
+        given(this.schedularWritePlatformService.retrieveAllJobs("1")).willReturn(List.of(this.inactiveJob));
+
+        this.service.loadAllJobs();
+
+        final InOrder inOrder = inOrder(this.inactiveJob, this.schedularWritePlatformService, this.jobStateRegistry);
+        inOrder.verify(this.inactiveJob).updateCurrentlyRunningStatus(false);
+        inOrder.verify(this.schedularWritePlatformService).saveOrUpdate(this.inactiveJob);
+        inOrder.verify(this.jobStateRegistry).jobStateChanged();
+    }
+
+    @Test
+    public void testReschedulingAJobDropsTheJobStateOnceItIsSavedAsNotRunning() {
+        given(this.schedularWritePlatformService.findByJobId(anyLong())).willReturn(this.inactiveJob);
+
+        this.service.rescheduleJob(7L);
+
+        final InOrder inOrder = inOrder(this.inactiveJob, this.schedularWritePlatformService, this.jobStateRegistry);
+        inOrder.verify(this.inactiveJob).updateCurrentlyRunningStatus(false);
+        inOrder.verify(this.schedularWritePlatformService).saveOrUpdate(this.inactiveJob);
+        inOrder.verify(this.jobStateRegistry).jobStateChanged();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.cache.service.MultiNodeCacheManager;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class SchedulerJobStateRegistryTest {
+
+    private static final FineractPlatformTenant DEFAULT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+    private static final FineractPlatformTenant OTHER = new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final JCacheCacheManager localCacheManager = mock(JCacheCacheManager.class);
+    private SchedulerJobStateRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(DEFAULT);
+        given(this.localCacheManager.getCache(SchedulerJobStateRegistry.CACHE_NAME))
+                .willReturn(new ConcurrentMapCache(SchedulerJobStateRegistry.CACHE_NAME));
+        given(this.jdbcTemplate.queryForList(anyString(), eq(String.class))).willReturn(List.of("Apply Holidays To Loans"));
+        this.registry = new SchedulerJobStateRegistry(this.jdbcTemplate, this.localCacheManager, multiNodeCacheManager(null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testJobsBlockingUpdatesAreReadOncePerTenantUntilAJobStateChanges() {
+        assertEquals(List.of("Apply Holidays To Loans"), this.registry.getJobsBlockingUpdates());
+        assertEquals(List.of("Apply Holidays To Loans"), this.registry.getJobsBlockingUpdates());
+        verify(this.jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class));
+
+        ThreadLocalContextUtil.setTenant(OTHER);
+        this.registry.getJobsBlockingUpdates();
+        verify(this.jdbcTemplate, times(2)).queryForList(anyString(), eq(String.class));
+
+        this.registry.jobStateChanged();
+        this.registry.getJobsBlockingUpdates();
+        ThreadLocalContextUtil.setTenant(DEFAULT);
+        this.registry.getJobsBlockingUpdates();
+        verify(this.jdbcTemplate, times(3)).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    public void testMultiNodeCacheIsUsedWhenConfigured() {
+        final MultiNodeCacheManager multiNodeCacheManager = mock(MultiNodeCacheManager.class);
+        final ConcurrentMapCache multiNodeCache = new ConcurrentMapCache(SchedulerJobStateRegistry.CACHE_NAME);
+        given(multiNodeCacheManager.getCache(SchedulerJobStateRegistry.CACHE_NAME)).willReturn(multiNodeCache);
+        this.registry = new SchedulerJobStateRegistry(this.jdbcTemplate, this.localCacheManager,
+                multiNodeCacheManager(multiNodeCacheManager));
+
+        this.registry.getJobsBlockingUpdates();
+
+        assertEquals(List.of("Apply Holidays To Loans"), multiNodeCache.get("default").get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MultiNodeCacheManager> multiNodeCacheManager(final MultiNodeCacheManager multiNodeCacheManager) {
+        final ObjectProvider<MultiNodeCacheManager> provider = mock(ObjectProvider.class);
+        given(provider.getIfAvailable()).willReturn(multiNodeCacheManager);
+        return provider;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VerifiedCredentialCacheTest {
+
+    private static final String HASH = "{bcrypt}$2a$10$hash";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VerifiedCredentialCache underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractProperties properties = new FineractProperties();
+        properties.setSecurity(new FineractProperties.FineractSecurityProperties());
+        properties.getSecurity().setBasicauth(new FineractProperties.FineractBasicAuthProperties());
+        properties.getSecurity().getBasicauth().setCredentialCache(new FineractProperties.FineractCredentialCacheProperties());
+        properties.getSecurity().getBasicauth().getCredentialCache().setEnabled(true);
+        properties.getSecurity().getBasicauth().getCredentialCache().setTimeToLive(60);
+        properties.getSecurity().getBasicauth().getCredentialCache().setMaxSize(2);
+        underTest = new VerifiedCredentialCache(properties, meterRegistry);
+        setTenant("default");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testVerifiedCredentialIsRemembered() {
+        assertFalse(underTest.isVerified("mifos", "password", HASH));
+        underTest.put("mifos", "password", HASH);
+
+        assertTrue(underTest.isVerified("mifos", "password", HASH));
+        assertFalse(underTest.isVerified("mifos", "wrong", HASH));
+        assertEquals(1.0, meterRegistry.counter("fineract.security.credential.cache", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("fineract.security.credential.cache", "result", "miss").count());
+    }
+
+    @Test
+    public void testCredentialIsNotSharedBetweenTenants() {
+        underTest.put("mifos", "password", HASH);
+        setTenant("other");
+
+        assertFalse(underTest.isVerified("mifos", "password", HASH));
+    }
+
+    @Test
+    public void testChangedPasswordHashIsNotVerified() {
+        underTest.put("mifos", "password", HASH);
+
+        assertFalse(underTest.isVerified("mifos", "password", "{bcrypt}$2a$10$other"));
+    }
+
+    @Test
+    public void testInvalidateForgetsUser() {
+        underTest.put("mifos", "password", HASH);
+        underTest.put("other", "password", HASH);
+
+        underTest.invalidate("mifos");
+
+        assertFalse(underTest.isVerified("mifos", "password", HASH));
+        assertTrue(underTest.isVerified("other", "password", HASH));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        underTest.put("first", "password", HASH);
+        underTest.put("second", "password", HASH);
+        underTest.put("third", "password", HASH);
+
+        assertEquals(1.0, meterRegistry.get("fineract.security.credential.cache.size").gauge().value());
+        assertTrue(underTest.isVerified("third", "password", HASH));
+    }
+
+    private static void setTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, tenantIdentifier, "Asia/Kolkata", null));
+    }
+}
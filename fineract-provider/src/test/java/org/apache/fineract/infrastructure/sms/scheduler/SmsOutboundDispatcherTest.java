@@ -0,0 +1,280 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractSmsDispatchProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractSmsProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+public class SmsOutboundDispatcherTest {
+
+    private static final String PENDING = "select smo.id as id";
+    private static final String MOVE_STATUS = "update sms_messages_outbound set status_enum = ? where id = ? and status_enum = ?";
+    private static final Pattern INTERNAL_ID = Pattern.compile("\"internalId\":(\\d+)");
+    private static final Integer PENDING_STATUS = SmsMessageStatusType.PENDING.getValue();
+    private static final Integer WAITING_STATUS = SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+    private final SmsConfigUtils smsConfigUtils = mock(SmsConfigUtils.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final FineractSmsDispatchProperties properties = new FineractSmsDispatchProperties();
+    private final List<List<Long>> sentBatches = Collections.synchronizedList(new ArrayList<>());
+    private SmsOutboundDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 15));
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+
+        this.properties.setClaimSize(100);
+        this.properties.setBatchSize(10);
+        this.properties.setMaxInFlight(2);
+        given(this.sqlGenerator.limit(anyInt())).willAnswer(invocation -> "limit " + invocation.getArgument(0));
+        given(this.jdbcTemplate.batchUpdate(eq(MOVE_STATUS), anyList()))
+                .willAnswer(invocation -> allUpdated(invocation.<List<Object[]>>getArgument(1)));
+        given(this.smsConfigUtils.getMessageGateWayRequestURI(eq("sms"), anyString())).willAnswer(invocation -> {
+            final List<Long> ids = new ArrayList<>();
+            final Matcher matcher = INTERNAL_ID.matcher(invocation.<String>getArgument(1));
+            while (matcher.find()) {
+                ids.add(Long.valueOf(matcher.group(1)));
+            }
+            this.sentBatches.add(ids);
+            return Map.of("uri", URI.create("http://localhost/sms"), "entity", HttpEntity.EMPTY);
+        });
+        givenGatewayResponds(HttpStatus.ACCEPTED);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (this.dispatcher != null) {
+            this.dispatcher.shutdown();
+        }
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testDeliveryStatusesMapToMessageStatuses() {
+        assertEquals(SmsMessageStatusType.INVALID, SmsOutboundDispatcher.statusOfDeliveryReport(0));
+        assertEquals(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT, SmsOutboundDispatcher.statusOfDeliveryReport(150));
+        assertEquals(SmsMessageStatusType.SENT, SmsOutboundDispatcher.statusOfDeliveryReport(200));
+        assertEquals(SmsMessageStatusType.DELIVERED, SmsOutboundDispatcher.statusOfDeliveryReport(300));
+        assertEquals(SmsMessageStatusType.FAILED, SmsOutboundDispatcher.statusOfDeliveryReport(400));
+    }
+
+    @Test
+    public void testUnknownDeliveryStatusKeepsMessageStatus() {
+        assertNull(SmsOutboundDispatcher.statusOfDeliveryReport(250));
+    }
+
+    @Test
+    public void testOnlyMessagesClaimedByThisRunAreSent() {
+        createDispatcher();
+        givenPending(0L, 1L, 2L, 3L);
+        given(this.jdbcTemplate.batchUpdate(eq(MOVE_STATUS), anyList())).willReturn(new int[] { 1, 0, 1 });
+
+        assertEquals(2, this.dispatcher.dispatchPending());
+
+        assertEquals(List.of(List.of(1L, 3L)), this.sentBatches);
+        final List<Object[]> claim = movedStatuses().get(0);
+        assertArrayEquals(new Object[] { WAITING_STATUS, 1L, PENDING_STATUS }, claim.get(0));
+        assertEquals(3, claim.size());
+    }
+
+    @Test
+    public void testPendingMessagesAreReadPageByPageAfterTheLastId() {
+        this.properties.setClaimSize(2);
+        createDispatcher();
+        givenPending(0L, 1L, 2L);
+        givenPending(2L, 3L);
+
+        assertEquals(3, this.dispatcher.dispatchPending());
+
+        verify(this.jdbcTemplate).query(endsWith(" limit 2"), any(RowMapper.class), eq(PENDING_STATUS), eq(0L));
+        verify(this.jdbcTemplate).query(startsWith(PENDING), any(RowMapper.class), eq(PENDING_STATUS), eq(2L));
+        verify(this.jdbcTemplate).query(startsWith(PENDING), any(RowMapper.class), eq(PENDING_STATUS), eq(3L));
+        verify(this.jdbcTemplate, times(3)).query(startsWith(PENDING), any(RowMapper.class), eq(PENDING_STATUS), any(Long.class));
+        assertEquals(List.of(1L, 2L, 3L), this.sentBatches.stream().flatMap(List::stream).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testMessagesOfARejectedRequestArePutBackToPending() {
+        givenGatewayResponds(HttpStatus.BAD_REQUEST);
+        this.properties.setBatchSize(2);
+        createDispatcher();
+        givenPending(0L, 1L, 2L, 3L);
+
+        assertEquals(3, this.dispatcher.dispatchPending());
+
+        final List<List<Object[]>> moved = movedStatuses();
+        assertEquals(3, moved.size());
+        final List<Long> released = new ArrayList<>();
+        for (final List<Object[]> release : moved.subList(1, 3)) {
+            for (final Object[] params : release) {
+                assertEquals(PENDING_STATUS, params[0]);
+                assertEquals(WAITING_STATUS, params[2]);
+                released.add((Long) params[1]);
+            }
+        }
+        Collections.sort(released);
+        assertEquals(List.of(1L, 2L, 3L), released);
+    }
+
+    @Test
+    public void testMessagesOfAProviderAreSentAtMostAtItsRateLimit() {
+        this.properties.setBatchSize(1);
+        this.properties.setProviderRateLimit(4);
+        createDispatcher();
+        givenPending(0L, 1L, 2L, 3L, 4L, 5L);
+
+        final long start = System.nanoTime();
+        assertEquals(5, this.dispatcher.dispatchPending());
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // the first message goes at once, every following one waits a quarter of a second
+        assertTrue(elapsedMillis >= 900, "5 messages at 4 per second took " + elapsedMillis + " ms");
+        assertEquals(5, this.sentBatches.size());
+    }
+
+    @Test
+    public void testNoMoreThanMaxInFlightRequestsRunAtOnce() {
+        this.properties.setBatchSize(1);
+        createDispatcher();
+        givenPending(0L, LongStream.rangeClosed(1, 8).boxed().toArray(Long[]::new));
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        given(this.restTemplate.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .willAnswer(invocation -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(50);
+                    running.decrementAndGet();
+                    return new ResponseEntity<>(HttpStatus.ACCEPTED);
+                });
+
+        assertEquals(8, this.dispatcher.dispatchPending());
+
+        assertEquals(8, this.sentBatches.size());
+        assertEquals(0, running.get());
+        assertTrue(maxRunning.get() <= 2, maxRunning.get() + " requests ran at once");
+    }
+
+    private void createDispatcher() {
+        final FineractSmsProperties sms = new FineractSmsProperties();
+        sms.setDispatch(this.properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setSms(sms);
+        this.dispatcher = new SmsOutboundDispatcher(this.jdbcTemplate, this.sqlGenerator, mock(PlatformTransactionManager.class),
+                this.smsConfigUtils, mock(SmsMessageRepository.class), mock(NotificationSenderService.class), fineractProperties);
+        ReflectionTestUtils.setField(this.dispatcher, "restTemplate", this.restTemplate);
+    }
+
+    private void givenGatewayResponds(final HttpStatus status) {
+        given(this.restTemplate.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .willReturn(new ResponseEntity<>(status));
+    }
+
+    private void givenPending(final long afterId, final Long... ids) {
+        given(this.jdbcTemplate.query(startsWith(PENDING), any(RowMapper.class), eq(PENDING_STATUS), eq(afterId)))
+                .willAnswer(invocation -> {
+                    final RowMapper<?> mapper = invocation.getArgument(1);
+                    final List<Object> page = new ArrayList<>();
+                    for (final Long id : ids) {
+                        final ResultSet rs = mock(ResultSet.class);
+                        given(rs.getLong("id")).willReturn(id);
+                        given(rs.getString("mobileNo")).willReturn("+100000000" + id);
+                        given(rs.getString("message")).willReturn("message " + id);
+                        given(rs.getLong("providerId")).willReturn(5L);
+                        page.add(mapper.mapRow(rs, page.size()));
+                    }
+                    return page;
+                });
+    }
+
+    private List<List<Object[]>> movedStatuses() {
+        final ArgumentCaptor<List<Object[]>> params = listCaptor();
+        verify(this.jdbcTemplate, atLeastOnce()).batchUpdate(eq(MOVE_STATUS), params.capture());
+        return params.getAllValues();
+    }
+
+    private static int[] allUpdated(final List<Object[]> params) {
+        final int[] updated = new int[params.size()];
+        Arrays.fill(updated, 1);
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.eventandlistener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.notification.data.NotificationData;
+import org.junit.jupiter.api.Test;
+
+public class ActiveMQNotificationEventListenerTest {
+
+    private final NotificationEventListener notificationEventListener = mock(NotificationEventListener.class);
+    private final TenantDetailsService tenantDetailsService = mock(TenantDetailsService.class);
+    private final ActiveMQNotificationEventListener listener = new ActiveMQNotificationEventListener(this.notificationEventListener,
+            this.tenantDetailsService);
+
+    @Test
+    public void testBatchIsStoredTenantByTenantInTheContextOfItsTenant() throws Exception {
+        final FineractPlatformTenant defaultTenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+        final FineractPlatformTenant otherTenant = new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null);
+        given(this.tenantDetailsService.loadTenantById("default")).willReturn(defaultTenant);
+        given(this.tenantDetailsService.loadTenantById("other")).willReturn(otherTenant);
+        final List<FineractPlatformTenant> tenants = new ArrayList<>();
+        final List<List<NotificationData>> received = new ArrayList<>();
+        willAnswer(invocation -> {
+            tenants.add(ThreadLocalContextUtil.getTenant());
+            received.add(invocation.getArgument(0));
+            return null;
+        }).given(this.notificationEventListener).receive(anyList());
+        final NotificationData first = notification(1L, "default");
+        final NotificationData second = notification(2L, "other");
+        final NotificationData third = notification(3L, "default");
+        final TextMessage message = mock(TextMessage.class);
+        given(message.getText()).willReturn(NotificationBatchCodec.encode(List.of(first, second, third)));
+
+        this.listener.onMessage(message, mock(Session.class));
+
+        assertEquals(List.of(defaultTenant, otherTenant), tenants);
+        assertEquals(List.of(List.of(first, third), List.of(second)), received);
+        assertNull(ThreadLocalContextUtil.getTenant());
+    }
+
+    private static NotificationData notification(final Long objectId, final String tenantIdentifier) {
+        return new NotificationData("loan", objectId, "approved", 1L, "Loan approved", false, false, tenantIdentifier, null,
+                new HashSet<>(Set.of(3L)));
+    }
+}
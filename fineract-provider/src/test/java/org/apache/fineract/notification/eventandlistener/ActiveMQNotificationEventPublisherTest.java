@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.eventandlistener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.jms.Destination;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractNotificationBatchProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractNotificationProperties;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.notification.data.NotificationData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ActiveMQNotificationEventPublisherTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private final JmsTemplate jmsTemplate = mock(JmsTemplate.class);
+    private final FineractNotificationBatchProperties properties = new FineractNotificationBatchProperties();
+    private ActiveMQNotificationEventPublisher publisher;
+
+    @BeforeEach
+    public void setUp() {
+        this.properties.setMaxSize(3);
+        this.properties.setFlushInterval(60_000);
+        this.properties.setQueueCapacity(10);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (this.publisher != null) {
+            this.publisher.stopFlushing();
+        }
+    }
+
+    @Test
+    public void testNotificationOfARolledBackTransactionIsDropped() throws Exception {
+        createPublisher();
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.publisher.broadcastNotification(notification(1L));
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        this.publisher.stopFlushing();
+
+        verify(this.jmsTemplate, never()).send(any(Destination.class), any(MessageCreator.class));
+    }
+
+    @Test
+    public void testNotificationOfACommittedTransactionIsQueuedUntilTheFlush() throws Exception {
+        createPublisher();
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.publisher.broadcastNotification(notification(1L));
+        verify(this.jmsTemplate, never()).send(any(Destination.class), any(MessageCreator.class));
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        this.publisher.stopFlushing();
+
+        assertEquals(List.of(List.of(notification(1L))), sentBatches(1));
+    }
+
+    @Test
+    public void testFullBatchIsSentWithoutWaitingForTheInterval() throws Exception {
+        createPublisher();
+
+        for (long objectId = 1; objectId <= 3; objectId++) {
+            this.publisher.broadcastNotification(notification(objectId));
+        }
+
+        verify(this.jmsTemplate, timeout(WAIT_MILLIS)).send(any(Destination.class), any(MessageCreator.class));
+        assertEquals(List.of(List.of(notification(1L), notification(2L), notification(3L))), sentBatches(1));
+    }
+
+    @Test
+    public void testPendingNotificationsAreSentEveryInterval() throws Exception {
+        this.properties.setFlushInterval(50);
+        createPublisher();
+        this.publisher.startFlushing();
+
+        this.publisher.broadcastNotification(notification(1L));
+        this.publisher.broadcastNotification(notification(2L));
+
+        verify(this.jmsTemplate, timeout(WAIT_MILLIS).atLeastOnce()).send(any(Destination.class), any(MessageCreator.class));
+        final List<NotificationData> sent = new ArrayList<>();
+        sentBatches().forEach(sent::addAll);
+        assertEquals(List.of(notification(1L), notification(2L)), sent);
+    }
+
+    @Test
+    public void testNotificationIsSentOnTheCallerThreadWhenTheBufferIsFull() throws Exception {
+        this.properties.setQueueCapacity(1);
+        createPublisher();
+
+        this.publisher.broadcastNotification(notification(1L));
+        this.publisher.broadcastNotification(notification(2L));
+
+        assertEquals(List.of(List.of(notification(2L))), sentBatches(1));
+    }
+
+    @Test
+    public void testNotificationIsSentOnTheCallerThreadOnceStopped() throws Exception {
+        createPublisher();
+        this.publisher.stopFlushing();
+
+        this.publisher.broadcastNotification(notification(1L));
+
+        assertEquals(List.of(List.of(notification(1L))), sentBatches(1));
+    }
+
+    private void createPublisher() {
+        final FineractNotificationProperties notification = new FineractNotificationProperties();
+        notification.setBatch(this.properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setNotification(notification);
+        this.publisher = new ActiveMQNotificationEventPublisher(this.jmsTemplate, mock(JmsTemplate.class), mock(FromJsonHelper.class),
+                fineractProperties);
+    }
+
+    private List<List<NotificationData>> sentBatches(final int count) throws Exception {
+        final List<List<NotificationData>> batches = sentBatches();
+        assertEquals(count, batches.size());
+        return batches;
+    }
+
+    private List<List<NotificationData>> sentBatches() throws Exception {
+        final ArgumentCaptor<MessageCreator> creators = ArgumentCaptor.forClass(MessageCreator.class);
+        verify(this.jmsTemplate, atLeastOnce()).send(any(Destination.class), creators.capture());
+        final List<List<NotificationData>> batches = new ArrayList<>();
+        for (final MessageCreator creator : creators.getAllValues()) {
+            final Session session = mock(Session.class);
+            final ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+            given(session.createTextMessage(anyString())).willReturn(mock(TextMessage.class));
+            creator.createMessage(session);
+            verify(session).createTextMessage(body.capture());
+            batches.add(NotificationBatchCodec.decode(body.getValue()));
+        }
+        return batches;
+    }
+
+    private static NotificationData notification(final Long objectId) {
+        return new NotificationData("loan", objectId, "approved", 1L, "Loan approved", false, false, "default", null, Set.of(3L));
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.eventandlistener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.notification.data.NotificationData;
+import org.junit.jupiter.api.Test;
+
+public class NotificationBatchCodecTest {
+
+    @Test
+    public void testBatchSurvivesEncodingAndDecoding() {
+        final NotificationData loanApproved = new NotificationData("loan", 7L, "approved", 1L, "Loan approved", false, false, "default",
+                2L, Set.of(3L, 4L));
+        final NotificationData clientCreated = new NotificationData("client", 8L, "created", 1L, "New client created", true, false,
+                "other", null, Set.of(5L));
+
+        final List<NotificationData> decoded = NotificationBatchCodec
+                .decode(NotificationBatchCodec.encode(List.of(loanApproved, clientCreated)));
+
+        assertEquals(List.of(loanApproved, clientCreated), decoded);
+    }
+}
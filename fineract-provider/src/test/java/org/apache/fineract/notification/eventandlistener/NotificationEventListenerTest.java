@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.eventandlistener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.notification.data.NotificationData;
+import org.apache.fineract.notification.service.NotificationWritePlatformService;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.junit.jupiter.api.Test;
+
+public class NotificationEventListenerTest {
+
+    private final NotificationWritePlatformService notificationWritePlatformService = mock(NotificationWritePlatformService.class);
+    private final AppUserRepository appUserRepository = mock(AppUserRepository.class);
+    private final NotificationEventListener listener = new NotificationEventListener(this.notificationWritePlatformService,
+            this.appUserRepository);
+
+    @Test
+    public void testOfficeScopedNotificationOnlyReachesUsersOfItsOffice() {
+        given(this.appUserRepository.findAllById(Set.of(3L, 4L, 5L))).willReturn(List.of(user(3L, 10L), user(4L, 11L), user(5L, 10L)));
+        final NotificationData officeScoped = notification(10L, 5L, 3L, 4L, 5L);
+        final NotificationData unscoped = notification(null, 2L, 2L, 3L, 4L);
+
+        this.listener.receive(List.of(officeScoped, unscoped));
+
+        assertEquals(Set.of(3L), officeScoped.getUserIds());
+        assertEquals(Set.of(3L, 4L), unscoped.getUserIds());
+        verify(this.notificationWritePlatformService).notify(List.of(officeScoped, unscoped));
+    }
+
+    @Test
+    public void testUsersAreNotLoadedWithoutOfficeScopedNotifications() {
+        final NotificationData unscoped = notification(null, 2L, 2L, 3L);
+
+        this.listener.receive(List.of(unscoped));
+
+        assertEquals(Set.of(3L), unscoped.getUserIds());
+        verify(this.appUserRepository, never()).findAllById(any());
+        verify(this.notificationWritePlatformService).notify(List.of(unscoped));
+    }
+
+    private static NotificationData notification(final Long officeId, final Long actorId, final Long... userIds) {
+        return new NotificationData("loan", 7L, "approved", actorId, "Loan approved", false, false, "default", officeId,
+                new HashSet<>(Set.of(userIds)));
+    }
+
+    private static AppUser user(final Long userId, final Long officeId) {
+        final Office office = mock(Office.class);
+        given(office.getId()).willReturn(officeId);
+        final AppUser user = mock(AppUser.class);
+        given(user.getId()).willReturn(userId);
+        given(user.getOffice()).willReturn(office);
+        return user;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class MoneyAccumulatorTest {
+
+    private static final MonetaryCurrency USD = new MonetaryCurrency("USD", 2, null);
+    private static final MonetaryCurrency IN_MULTIPLES_OF_50 = new MonetaryCurrency("XOF", 0, 50);
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", null);
+    }
+
+    @Test
+    public void testSumOfMoneyIsSameAsChainedPlus() {
+        final List<String> amounts = List.of("10.005", "0.333", "-4.12", "0", "1000000.999", "7.1");
+
+        assertSameAsChainedPlus(USD, amounts);
+        assertSameAsChainedPlus(IN_MULTIPLES_OF_50, amounts);
+        assertSameAsChainedPlus(IN_MULTIPLES_OF_50, List.of("20", "20", "20", "-80", "130"));
+    }
+
+    @Test
+    public void testBigDecimalTermsAreRoundedLikeMoney() {
+        Money expected = Money.zero(USD);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(USD);
+        for (final String amount : List.of("0.004", "0.004", "0.004", "1.125")) {
+            expected = expected.plus(new BigDecimal(amount));
+            accumulator.plus(new BigDecimal(amount));
+        }
+        accumulator.plus((BigDecimal) null);
+
+        assertEquals(expected.getAmount(), accumulator.toMoney().getAmount());
+        assertEquals(new BigDecimal("1.12"), accumulator.toMoney().getAmount());
+    }
+
+    @Test
+    public void testMinus() {
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(USD);
+        assertTrue(accumulator.isZero());
+
+        accumulator.plus(Money.of(USD, new BigDecimal("12.50"))).minus(Money.of(USD, new BigDecimal("2.25")));
+
+        assertTrue(accumulator.isGreaterThanZero());
+        assertEquals(new BigDecimal("10.25"), accumulator.toMoney().getAmount());
+    }
+
+    @Test
+    public void testStartingFromMoney() {
+        final Money start = Money.of(IN_MULTIPLES_OF_50, BigDecimal.valueOf(100));
+
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(start).plus(Money.of(IN_MULTIPLES_OF_50, BigDecimal.valueOf(50)));
+
+        assertEquals(start.plus(Money.of(IN_MULTIPLES_OF_50, BigDecimal.valueOf(50))).getAmount(), accumulator.toMoney().getAmount());
+        assertEquals(BigDecimal.valueOf(100), start.getAmount());
+        assertThrows(UnsupportedOperationException.class, () -> accumulator.plus(Money.of(USD, BigDecimal.TEN)));
+    }
+
+    @Test
+    public void testDifferentCurrencyIsRejected() {
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(USD);
+
+        assertThrows(UnsupportedOperationException.class, () -> accumulator.plus(Money.of(IN_MULTIPLES_OF_50, BigDecimal.TEN)));
+    }
+
+    private static void assertSameAsChainedPlus(final MonetaryCurrency currency, final List<String> amounts) {
+        Money expected = Money.zero(currency);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(currency);
+        for (final String amount : amounts) {
+            final Money money = Money.of(currency, new BigDecimal(amount));
+            expected = expected.plus(money);
+            accumulator.plus(money);
+        }
+        assertEquals(expected.getAmount(), accumulator.toMoney().getAmount());
+    }
+}
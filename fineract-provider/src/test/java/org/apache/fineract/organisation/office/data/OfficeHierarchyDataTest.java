@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class OfficeHierarchyDataTest {
+
+    private static OfficeHierarchyData hierarchy() {
+        final Map<Long, Long> parentIdByOfficeId = new HashMap<>();
+        parentIdByOfficeId.put(1L, null);
+        parentIdByOfficeId.put(2L, 1L);
+        parentIdByOfficeId.put(3L, 2L);
+        parentIdByOfficeId.put(4L, 2L);
+        parentIdByOfficeId.put(5L, 1L);
+        return OfficeHierarchyData.of(parentIdByOfficeId);
+    }
+
+    @Test
+    public void testDescendantsIncludeTheOfficeAndAllOfficesBelowIt() {
+        final OfficeHierarchyData hierarchy = hierarchy();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), hierarchy.getDescendantIds(1L));
+        assertEquals(List.of(2L, 3L, 4L), hierarchy.getDescendantIds(2L));
+        assertEquals(List.of(5L), hierarchy.getDescendantIds(5L));
+        assertEquals(List.of(), hierarchy.getDescendantIds(99L));
+    }
+
+    @Test
+    public void testSqlScope() {
+        final OfficeHierarchyData hierarchy = hierarchy();
+
+        assertEquals(OfficeHierarchyData.UNRESTRICTED_SCOPE, hierarchy.sqlScope("o.id", 1L));
+        assertEquals("o.id in (2,3,4)", hierarchy.sqlScope("o.id", 2L));
+        assertEquals("o.id in (select oc.descendant_id from m_office_closure oc where oc.ancestor_id = 99)",
+                hierarchy.sqlScope("o.id", 99L));
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import javax.persistence.EntityManager;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractBusinessEventAsyncProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractBusinessEventProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.client.ClientCreateBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.share.ShareProductDividentsCreateBusinessEvent;
+import org.apache.fineract.portfolio.client.domain.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AsyncBusinessEventDispatcherImplTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final FineractBusinessEventAsyncProperties properties = new FineractBusinessEventAsyncProperties();
+    private AsyncBusinessEventDispatcherImpl dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 15));
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+
+        this.properties.setPoolSize(1);
+        this.properties.setQueueCapacity(10);
+        this.properties.setBatchSize(2);
+        this.properties.setMaxAttempts(3);
+        this.properties.setRetryDelay(30);
+        this.properties.setMaxRetryDelay(600);
+        given(this.sqlGenerator.limit(2)).willReturn("limit 2");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (this.dispatcher != null) {
+            this.dispatcher.shutdown();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testListenerRunsOnlyAfterTheTransactionCommitted() {
+        final BusinessEventListener<ShareProductDividentsCreateBusinessEvent> listener = listener();
+        createDispatcher(false);
+        this.dispatcher.addListener(ShareProductDividentsCreateBusinessEvent.class, listener);
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.dispatcher.dispatchAfterCommit(new ShareProductDividentsCreateBusinessEvent(7L));
+
+        verify(listener, never()).onBusinessEvent(any());
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        final ArgumentCaptor<ShareProductDividentsCreateBusinessEvent> event = ArgumentCaptor
+                .forClass(ShareProductDividentsCreateBusinessEvent.class);
+        verify(listener, timeout(WAIT_MILLIS)).onBusinessEvent(event.capture());
+        assertEquals(7L, event.getValue().get());
+        verify(this.jdbcTemplate, never()).update(any(PreparedStatementCreator.class), any(KeyHolder.class));
+    }
+
+    @Test
+    public void testEventRejectedByAFullQueueIsDeliveredOnTheCallerWhichKeepsItsContext() throws Exception {
+        this.properties.setQueueCapacity(1);
+        final BusinessEventListener<ShareProductDividentsCreateBusinessEvent> listener = listener();
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> inlineTenants = new CopyOnWriteArrayList<>();
+        final Thread caller = Thread.currentThread();
+        willAnswer(invocation -> {
+            if (Thread.currentThread() == caller) {
+                inlineTenants.add(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+            } else {
+                release.await();
+            }
+            return null;
+        }).given(listener).onBusinessEvent(any());
+        createDispatcher(false);
+        this.dispatcher.addListener(ShareProductDividentsCreateBusinessEvent.class, listener);
+        final UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken("mifos", null);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+
+        try {
+            // the first one blocks the only worker, the second one fills the queue
+            for (long id = 1; id <= 3; id++) {
+                this.dispatcher.dispatchAfterCommit(new ShareProductDividentsCreateBusinessEvent(id));
+            }
+            assertSame(auth, SecurityContextHolder.getContext().getAuthentication());
+        } finally {
+            release.countDown();
+            SecurityContextHolder.clearContext();
+        }
+
+        assertEquals(List.of("default"), inlineTenants);
+        assertEquals("default", ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        assertEquals(LocalDate.of(2022, 6, 15), ThreadLocalContextUtil.getBusinessDate());
+        verify(listener, timeout(WAIT_MILLIS).times(3)).onBusinessEvent(any());
+    }
+
+    @Test
+    public void testOutboxRecordsTheEntityClassAndTheListenerReloadsTheEntity() throws Exception {
+        final BusinessEventListener<ClientCreateBusinessEvent> listener = listener();
+        createDispatcher(true);
+        this.dispatcher.addListener(ClientCreateBusinessEvent.class, listener);
+        final ArgumentCaptor<PreparedStatementCreator> insert = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        willAnswer(invocation -> {
+            invocation.<GeneratedKeyHolder>getArgument(1).getKeyList().add(Map.of("id", 11L));
+            return 1;
+        }).given(this.jdbcTemplate).update(insert.capture(), any(KeyHolder.class));
+        final Client client = generatedSubclassOfClient(5L);
+        final Client reloaded = generatedSubclassOfClient(5L);
+        given(this.entityManager.find(Client.class, 5L)).willReturn(reloaded);
+
+        this.dispatcher.dispatchAfterCommit(new ClientCreateBusinessEvent(client));
+
+        final ArgumentCaptor<ClientCreateBusinessEvent> event = ArgumentCaptor.forClass(ClientCreateBusinessEvent.class);
+        verify(listener, timeout(WAIT_MILLIS)).onBusinessEvent(event.capture());
+        assertSame(reloaded, event.getValue().get());
+        verify(this.jdbcTemplate, timeout(WAIT_MILLIS)).update("delete from m_business_event_outbox where id = ?", 11L);
+
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        given(connection.prepareStatement(anyString(), any(String[].class))).willReturn(statement);
+        insert.getValue().createPreparedStatement(connection);
+        verify(statement).setString(1, ClientCreateBusinessEvent.class.getName());
+        verify(statement).setString(2, Client.class.getName());
+        verify(statement).setLong(3, 5L);
+        verify(statement).setString(4, listener.getClass().getName());
+        final ArgumentCaptor<Timestamp> leasedUntil = ArgumentCaptor.forClass(Timestamp.class);
+        final ArgumentCaptor<Timestamp> created = ArgumentCaptor.forClass(Timestamp.class);
+        verify(statement).setTimestamp(eq(5), leasedUntil.capture());
+        verify(statement).setTimestamp(eq(6), created.capture());
+        assertEquals(AsyncBusinessEventDispatcherImpl.LEASE_SECONDS,
+                Duration.between(created.getValue().toLocalDateTime(), leasedUntil.getValue().toLocalDateTime()).getSeconds());
+    }
+
+    @Test
+    public void testDeliveryJobOnlyRunsTheDeliveriesItCouldLease() throws Exception {
+        final BusinessEventListener<ShareProductDividentsCreateBusinessEvent> listener = listener();
+        createDispatcher(true);
+        this.dispatcher.addListener(ShareProductDividentsCreateBusinessEvent.class, listener);
+        givenDue(listener, row(1L, 7L, 0), row(2L, 8L, 0));
+        final ArgumentCaptor<List<Object[]>> lease = listCaptor();
+        given(this.jdbcTemplate.batchUpdate(startsWith("update m_business_event_outbox set next_attempt_time = ?"), lease.capture()))
+                .willReturn(new int[] { 1, 0 });
+
+        this.dispatcher.deliverPendingBusinessEvents();
+
+        final ArgumentCaptor<ShareProductDividentsCreateBusinessEvent> event = ArgumentCaptor
+                .forClass(ShareProductDividentsCreateBusinessEvent.class);
+        verify(listener).onBusinessEvent(event.capture());
+        assertEquals(7L, event.getValue().get());
+        verify(this.jdbcTemplate).update("delete from m_business_event_outbox where id = ?", 1L);
+        verify(this.jdbcTemplate, never()).update("delete from m_business_event_outbox where id = ?", 2L);
+
+        final Object[] first = lease.getValue().get(0);
+        assertEquals(1L, first[1]);
+        assertEquals(AsyncBusinessEventDispatcherImpl.LEASE_SECONDS,
+                Duration.between(((Timestamp) first[2]).toLocalDateTime(), ((Timestamp) first[0]).toLocalDateTime()).getSeconds());
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedLaterUntilMaxAttempts() throws Exception {
+        final BusinessEventListener<ShareProductDividentsCreateBusinessEvent> listener = listener();
+        willThrow(new IllegalStateException("listener failed")).given(listener).onBusinessEvent(any());
+        createDispatcher(true);
+        this.dispatcher.addListener(ShareProductDividentsCreateBusinessEvent.class, listener);
+        givenDue(listener, row(1L, 7L, 0), row(2L, 8L, 2));
+        given(this.jdbcTemplate.batchUpdate(anyString(), anyList())).willReturn(new int[] { 1, 1 });
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> this.dispatcher.deliverPendingBusinessEvents());
+
+        assertEquals(2, exception.getCauses().size());
+        verify(this.jdbcTemplate).update(startsWith("update m_business_event_outbox set attempts = ?"), eq(1), anyString(),
+                any(Timestamp.class), eq(1L));
+        verify(this.jdbcTemplate).update("delete from m_business_event_outbox where id = ?", 2L);
+        verify(this.jdbcTemplate, never()).update("delete from m_business_event_outbox where id = ?", 1L);
+    }
+
+    @Test
+    public void testRetryDelayDoublesUpToTheMaximum() {
+        assertEquals(30, AsyncBusinessEventDispatcherImpl.retryDelay(1, this.properties));
+        assertEquals(60, AsyncBusinessEventDispatcherImpl.retryDelay(2, this.properties));
+        assertEquals(480, AsyncBusinessEventDispatcherImpl.retryDelay(5, this.properties));
+        assertEquals(600, AsyncBusinessEventDispatcherImpl.retryDelay(6, this.properties));
+        assertEquals(600, AsyncBusinessEventDispatcherImpl.retryDelay(1000, this.properties));
+
+        this.properties.setMaxRetryDelay(10);
+        assertEquals(30, AsyncBusinessEventDispatcherImpl.retryDelay(4, this.properties));
+    }
+
+    @Test
+    public void testValueTypeIsTheEntityClassOfTheValue() {
+        assertEquals(Client.class.getName(), AsyncBusinessEventDispatcherImpl.valueType(generatedSubclassOfClient(5L)));
+        assertEquals(Long.class.getName(), AsyncBusinessEventDispatcherImpl.valueType(7L));
+        assertNull(AsyncBusinessEventDispatcherImpl.valueType(null));
+    }
+
+    private void createDispatcher(final boolean outboxEnabled) {
+        this.properties.setOutboxEnabled(outboxEnabled);
+        final FineractBusinessEventProperties businessEvent = new FineractBusinessEventProperties();
+        businessEvent.setAsync(this.properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setBusinessEvent(businessEvent);
+        this.dispatcher = new AsyncBusinessEventDispatcherImpl(this.jdbcTemplate, this.sqlGenerator, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), fineractProperties);
+        ReflectionTestUtils.setField(this.dispatcher, "entityManager", this.entityManager);
+    }
+
+    private void givenDue(final BusinessEventListener<?> listener, final Object[]... rows) {
+        given(this.jdbcTemplate.query(startsWith("select "), any(RowMapper.class), any(Timestamp.class))).willAnswer(invocation -> {
+            final RowMapper<?> mapper = invocation.getArgument(1);
+            final List<Object> due = new ArrayList<>();
+            for (final Object[] row : rows) {
+                final ResultSet rs = mock(ResultSet.class);
+                given(rs.getLong("id")).willReturn((Long) row[0]);
+                given(rs.getString("eventType")).willReturn(ShareProductDividentsCreateBusinessEvent.class.getName());
+                given(rs.getString("valueType")).willReturn(Long.class.getName());
+                given(rs.getLong("valueId")).willReturn((Long) row[1]);
+                given(rs.getString("listener")).willReturn(listener.getClass().getName());
+                given(rs.getInt("attempts")).willReturn((Integer) row[2]);
+                due.add(mapper.mapRow(rs, due.size()));
+            }
+            return due;
+        }).willReturn(List.of());
+    }
+
+    private static Object[] row(final Long id, final Long valueId, final int attempts) {
+        return new Object[] { id, valueId, attempts };
+    }
+
+    /**
+     * A client the way a generated subclass carries it: an instance of the entity whose own class is no entity.
+     */
+    private static Client generatedSubclassOfClient(final Long id) {
+        final Client client = mock(Client.class, withSettings().withoutAnnotations());
+        given(client.getId()).willReturn(id);
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends BusinessEvent<?>> BusinessEventListener<T> listener() {
+        return mock(BusinessEventListener.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
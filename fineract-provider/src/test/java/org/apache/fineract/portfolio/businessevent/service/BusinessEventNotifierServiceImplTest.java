@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.portfolio.businessevent.domain.share.ShareProductDividentsCreateBusinessEvent;
+import org.junit.jupiter.api.Test;
+
+public class BusinessEventNotifierServiceImplTest {
+
+    private final AsyncBusinessEventDispatcher asyncBusinessEventDispatcher = mock(AsyncBusinessEventDispatcher.class);
+    private final BusinessEventNotifierServiceImpl underTest = new BusinessEventNotifierServiceImpl(asyncBusinessEventDispatcher);
+
+    @Test
+    public void testPostListenersRunInlineAndEventIsHandedToAsyncDispatcher() {
+        final List<Long> received = new ArrayList<>();
+        underTest.addPostBusinessEventListener(ShareProductDividentsCreateBusinessEvent.class, event -> received.add(event.get()));
+        final ShareProductDividentsCreateBusinessEvent event = new ShareProductDividentsCreateBusinessEvent(7L);
+
+        underTest.notifyPostBusinessEvent(event);
+
+        assertEquals(List.of(7L), received);
+        verify(asyncBusinessEventDispatcher).dispatchAfterCommit(event);
+    }
+
+    @Test
+    public void testAsyncPostListenersAreRegisteredWithDispatcherOnly() {
+        final List<Long> received = new ArrayList<>();
+        underTest.addAsyncPostBusinessEventListener(ShareProductDividentsCreateBusinessEvent.class, event -> received.add(event.get()));
+
+        underTest.notifyPreBusinessEvent(new ShareProductDividentsCreateBusinessEvent(7L));
+
+        assertEquals(List.of(), received);
+        verify(asyncBusinessEventDispatcher).addListener(any(), any());
+        verify(asyncBusinessEventDispatcher, never()).dispatchAfterCommit(any());
+    }
+}
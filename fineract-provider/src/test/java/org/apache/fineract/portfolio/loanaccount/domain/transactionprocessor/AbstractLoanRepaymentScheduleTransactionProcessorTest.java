@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests re-processing loan transactions from a date, with the result verified against re-processing all of them.
+ */
+public class AbstractLoanRepaymentScheduleTransactionProcessorTest {
+
+    private static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2022, 1, 1);
+
+    private final MonetaryCurrency currency = new MonetaryCurrency("USD", 2, null);
+    private final Set<LoanCharge> charges = new HashSet<>();
+    private List<LoanRepaymentScheduleInstallment> installments;
+    private AbstractLoanRepaymentScheduleTransactionProcessor underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 1))));
+        installments = new ArrayList<>();
+        installments.add(installment(1, DISBURSEMENT_DATE, LocalDate.of(2022, 2, 1)));
+        installments.add(installment(2, LocalDate.of(2022, 2, 1), LocalDate.of(2022, 3, 1)));
+        installments.add(installment(3, LocalDate.of(2022, 3, 1), LocalDate.of(2022, 4, 1)));
+        underTest = new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
+        underTest.configureTransactionReplay(true, true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", null);
+    }
+
+    @Test
+    public void testBackdatedRepaymentIsReprocessedFromItsDate() {
+        final LoanTransaction first = repayment(1L, LocalDate.of(2022, 2, 1), 110);
+        final LoanTransaction second = repayment(2L, LocalDate.of(2022, 3, 1), 110);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(first, second), currency, installments, charges);
+
+        final LoanTransaction backdated = repayment(null, LocalDate.of(2022, 1, 15), 50);
+        final ChangedTransactionDetail changedTransactionDetail = underTest.reprocessTransactionsFrom(backdated.getTransactionDate(),
+                List.of(), DISBURSEMENT_DATE, List.of(backdated, first, second), currency, installments, charges);
+
+        assertTrue(changedTransactionDetail.getNewTransactionMappings().isEmpty());
+        assertMoney(50, backdated.getPrincipalPortion(currency));
+        assertTrue(installments.get(0).isObligationsMet());
+        assertEquals(LocalDate.of(2022, 2, 1), installments.get(0).getObligationsMetOnDate());
+        assertMoney(50, installments.get(2).getPrincipalCompleted(currency));
+    }
+
+    @Test
+    public void testAdjustedRepaymentIsTakenBackFromTheSchedule() {
+        final LoanTransaction first = repayment(1L, LocalDate.of(2022, 2, 1), 110);
+        final LoanTransaction second = repayment(2L, LocalDate.of(2022, 3, 1), 110);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(first, second), currency, installments, charges);
+
+        first.reverse();
+        underTest.reprocessTransactionsFrom(first.getTransactionDate(), List.of(first), DISBURSEMENT_DATE, List.of(second), currency,
+                installments, charges);
+
+        assertTrue(installments.get(0).isObligationsMet());
+        assertEquals(LocalDate.of(2022, 3, 1), installments.get(0).getObligationsMetOnDate());
+        assertFalse(installments.get(1).isObligationsMet());
+        assertTrue(installments.get(1).getPrincipalCompleted(currency).isZero());
+        assertTrue(installments.get(0).getTotalPaidLate(currency).isGreaterThanZero());
+    }
+
+    @Test
+    public void testRepaymentAdjustedToANewAmountIsReprocessedFromItsDate() {
+        final LoanTransaction first = repayment(1L, LocalDate.of(2022, 2, 1), 110);
+        final LoanTransaction second = repayment(2L, LocalDate.of(2022, 3, 1), 110);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(first, second), currency, installments, charges);
+
+        first.reverse();
+        final LoanTransaction adjusted = repayment(null, LocalDate.of(2022, 2, 1), 60);
+        underTest.reprocessTransactionsFrom(first.getTransactionDate(), List.of(first), DISBURSEMENT_DATE, List.of(adjusted, second),
+                currency, installments, charges);
+
+        assertMoney(60, adjusted.getPrincipalPortion(currency));
+        assertTrue(installments.get(0).isObligationsMet());
+        assertEquals(LocalDate.of(2022, 3, 1), installments.get(0).getObligationsMetOnDate());
+        assertMoney(60, installments.get(1).getPrincipalCompleted(currency));
+        assertFalse(installments.get(1).isObligationsMet());
+    }
+
+    @Test
+    public void testInterestWaiverIsTakenBackAndReprocessed() {
+        final LoanTransaction waiver = waiver(1L, LocalDate.of(2022, 2, 1), 10);
+        final LoanTransaction repayment = repayment(2L, LocalDate.of(2022, 3, 1), 100);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(waiver, repayment), currency, installments, charges);
+
+        final LoanTransaction backdated = repayment(null, LocalDate.of(2022, 1, 15), 50);
+        underTest.reprocessTransactionsFrom(backdated.getTransactionDate(), List.of(), DISBURSEMENT_DATE,
+                List.of(backdated, waiver, repayment), currency, installments, charges);
+
+        assertMoney(10, waiver.getInterestPortion(currency));
+        assertMoney(10, installments.get(0).getInterestWaived(currency));
+        assertTrue(installments.get(0).isObligationsMet());
+        assertMoney(50, installments.get(1).getPrincipalCompleted(currency));
+    }
+
+    @Test
+    public void testAllTransactionsAreReprocessedWhenTheMappingsDoNotMatchThePortions() {
+        final LoanTransaction first = repayment(1L, LocalDate.of(2022, 2, 1), 110);
+        final LoanTransaction second = repayment(2L, LocalDate.of(2022, 3, 1), 110);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(first, second), currency, installments, charges);
+        first.getLoanTransactionToRepaymentScheduleMappings().clear();
+
+        final LoanTransaction backdated = repayment(null, LocalDate.of(2022, 1, 15), 50);
+        underTest.reprocessTransactionsFrom(backdated.getTransactionDate(), List.of(), DISBURSEMENT_DATE, List.of(backdated, first, second),
+                currency, installments, charges);
+
+        assertFalse(first.getLoanTransactionToRepaymentScheduleMappings().isEmpty());
+        assertEquals(LocalDate.of(2022, 2, 1), installments.get(0).getObligationsMetOnDate());
+        assertMoney(100, installments.get(1).getPrincipalCompleted(currency));
+        assertMoney(50, installments.get(2).getPrincipalCompleted(currency));
+    }
+
+    @Test
+    public void testAllTransactionsAreReprocessedWhenANewTransactionIsDatedBeforeTheReplayDate() {
+        final LoanTransaction first = repayment(1L, LocalDate.of(2022, 2, 1), 110);
+        final LoanTransaction second = repayment(2L, LocalDate.of(2022, 3, 1), 110);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(first, second), currency, installments, charges);
+
+        final LoanTransaction backdated = repayment(null, LocalDate.of(2022, 1, 15), 50);
+        underTest.reprocessTransactionsFrom(second.getTransactionDate(), List.of(), DISBURSEMENT_DATE, List.of(backdated, first, second),
+                currency, installments, charges);
+
+        assertMoney(50, backdated.getPrincipalPortion(currency));
+        assertMoney(50, installments.get(2).getPrincipalCompleted(currency));
+    }
+
+    @Test
+    public void testWriteOffAddsUpTheOutstandingPortionsOfAllInstallments() {
+        final LoanTransaction repayment = repayment(1L, LocalDate.of(2022, 2, 1), 110);
+        underTest.handleTransaction(DISBURSEMENT_DATE, List.of(repayment), currency, installments, charges);
+
+        final LoanTransaction writeOff = LoanTransaction.writeoff(null, null, LocalDate.of(2022, 3, 15), null);
+        underTest.handleWriteOff(writeOff, currency, installments);
+
+        assertMoney(200, writeOff.getPrincipalPortion(currency));
+        assertMoney(20, writeOff.getInterestPortion(currency));
+        assertTrue(writeOff.getFeeChargesPortion(currency).isZero());
+        assertMoney(220, writeOff.getAmount(currency));
+        assertTrue(installments.get(2).isObligationsMet());
+    }
+
+    private LoanRepaymentScheduleInstallment installment(final int number, final LocalDate fromDate, final LocalDate dueDate) {
+        return new LoanRepaymentScheduleInstallment(null, number, fromDate, dueDate, BigDecimal.valueOf(100), BigDecimal.valueOf(10),
+                BigDecimal.ZERO, BigDecimal.ZERO, false, null);
+    }
+
+    private LoanTransaction repayment(final Long id, final LocalDate date, final int amount) {
+        final LoanTransaction repayment = LoanTransaction.repayment(null, Money.of(currency, BigDecimal.valueOf(amount)), null, date, null);
+        ReflectionTestUtils.setField(repayment, "id", id);
+        return repayment;
+    }
+
+    private LoanTransaction waiver(final Long id, final LocalDate date, final int amount) {
+        final Money waived = Money.of(currency, BigDecimal.valueOf(amount));
+        final LoanTransaction waiver = LoanTransaction.waiver(null, null, waived, date, waived, Money.zero(currency));
+        ReflectionTestUtils.setField(waiver, "id", id);
+        return waiver;
+    }
+
+    private void assertMoney(final int expected, final Money actual) {
+        assertEquals(Money.of(currency, BigDecimal.valueOf(expected)).getAmount(), actual.getAmount());
+    }
+}
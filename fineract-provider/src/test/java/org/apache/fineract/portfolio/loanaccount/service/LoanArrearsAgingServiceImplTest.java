@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class LoanArrearsAgingServiceImplTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 15);
+    private static final LocalDate LAST_BUSINESS_DATE = LocalDate.of(2022, 6, 14);
+    private static final OffsetDateTime LAST_RUN_START = OffsetDateTime.of(2022, 6, 14, 23, 0, 0, 0, ZoneOffset.UTC);
+    private static final String CANDIDATES = "select mr.loan_id from m_loan_repayment_schedule mr";
+    private static final String ACTIVE_LOANS = "select ml.id from m_loan ml where ml.loan_status_id = 300 and ml.id > ?";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+    private LoanArrearsAgingServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, BUSINESS_DATE);
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+
+        given(this.transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(this.sqlGenerator.currentBusinessDate()).willReturn("?");
+        given(this.sqlGenerator.subDate(anyString(), anyString(), anyString())).willAnswer(
+                invocation -> invocation.getArgument(0) + " - " + invocation.getArgument(1));
+        given(this.sqlGenerator.limit(500)).willReturn("limit 500");
+        given(this.jdbcTemplate.batchUpdate(startsWith("DELETE"), anyList())).willAnswer(invocation -> new int[invocation
+                .<List<Object[]>>getArgument(1).size()]);
+        this.service = new LoanArrearsAgingServiceImpl(this.jdbcTemplate, this.transactionTemplate,
+                mock(BusinessEventNotifierService.class), this.sqlGenerator);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testCandidatesIncludeInstallmentsOfTheOriginalScheduleDueSinceTheLastRun() throws Exception {
+        givenCheckpoint(LAST_BUSINESS_DATE);
+        final ArgumentCaptor<String> candidatesSql = ArgumentCaptor.forClass(String.class);
+        given(this.jdbcTemplate.queryForList(candidatesSql.capture(), eq(Long.class), eq(LAST_BUSINESS_DATE), eq(LAST_BUSINESS_DATE),
+                eq(LAST_RUN_START.minusMinutes(60)))).willReturn(List.of());
+
+        this.service.updateLoanArrearsAgeingDetails();
+
+        assertTrue(candidatesSql.getValue().startsWith(CANDIDATES));
+        assertTrue(candidatesSql.getValue().contains(" union select mh.loan_id from m_loan_repayment_schedule_history mh"));
+        assertTrue(candidatesSql.getValue().contains("prd.arrears_based_on_original_schedule = true"));
+        verify(this.transactionTemplate, never()).execute(any());
+        verify(this.jdbcTemplate).update(startsWith("update m_loan_arrears_aging_checkpoint"), eq(BUSINESS_DATE),
+                any(OffsetDateTime.class));
+    }
+
+    @Test
+    public void testCandidatesAreRecalculatedInChunks() throws Exception {
+        givenCheckpoint(LAST_BUSINESS_DATE);
+        given(this.jdbcTemplate.queryForList(startsWith(CANDIDATES), eq(Long.class), any(), any(), any()))
+                .willReturn(LongStream.rangeClosed(1, 1201).boxed().collect(Collectors.toList()));
+
+        this.service.updateLoanArrearsAgeingDetails();
+
+        verify(this.transactionTemplate, times(3)).execute(any());
+        // none of the loans is in arrears, so all their rows are deleted
+        final ArgumentCaptor<List<Object[]>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate, times(3)).batchUpdate(startsWith("DELETE"), deleted.capture());
+        assertEquals(List.of(500, 500, 201), deleted.getAllValues().stream().map(List::size).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testArrearsAreUpdatedInsertedOrDeleted() throws Exception {
+        givenCheckpoint(LAST_BUSINESS_DATE);
+        given(this.jdbcTemplate.queryForList(startsWith(CANDIDATES), eq(Long.class), any(), any(), any())).willReturn(List.of(1L, 2L, 3L));
+        final ResultSet rs = mock(ResultSet.class);
+        given(rs.getLong("loanId")).willReturn(1L, 2L);
+        given(rs.getBigDecimal(anyString())).willReturn(BigDecimal.TEN);
+        given(rs.getDate("overdueSince")).willReturn(Date.valueOf(LocalDate.of(2022, 5, 1)));
+        willAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).given(this.jdbcTemplate).query(contains("as principalOverdue"), any(RowCallbackHandler.class));
+        // loan 1 has a row already, loan 2 not
+        given(this.jdbcTemplate.batchUpdate(startsWith("UPDATE m_loan_arrears_aging"), anyList())).willAnswer(invocation -> invocation
+                .<List<Object[]>>getArgument(1).stream().mapToInt(params -> params[6].equals(1L) ? 1 : 0).toArray());
+
+        this.service.updateLoanArrearsAgeingDetails();
+
+        final ArgumentCaptor<List<Object[]>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(startsWith("INSERT INTO m_loan_arrears_aging"), inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertArrayEquals(new Object[] { 2L, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.valueOf(40),
+                LocalDate.of(2022, 5, 1) }, inserted.getValue().get(0));
+        final ArgumentCaptor<List<Object[]>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(startsWith("DELETE"), deleted.capture());
+        assertEquals(1, deleted.getValue().size());
+        assertArrayEquals(new Object[] { 3L }, deleted.getValue().get(0));
+    }
+
+    @Test
+    public void testFirstRunRebuildsAndSavesTheCheckpoint() {
+        given(this.jdbcTemplate.queryForList(startsWith(ACTIVE_LOANS), eq(Long.class), eq(0L))).willReturn(List.of(5L, 6L));
+
+        this.service.updateLoanArrearsAgeingDetails();
+
+        verify(this.transactionTemplate).execute(any());
+        verify(this.jdbcTemplate).update(startsWith("delete from m_loan_arrears_aging where loan_id not in"));
+        verify(this.jdbcTemplate).update(startsWith("insert into m_loan_arrears_aging_checkpoint"), eq(BUSINESS_DATE),
+                any(OffsetDateTime.class));
+        verify(this.jdbcTemplate, never()).queryForList(startsWith(CANDIDATES), eq(Long.class), any(), any(), any());
+    }
+
+    @Test
+    public void testBusinessDateBeforeTheLastRunRebuilds() throws Exception {
+        givenCheckpoint(BUSINESS_DATE.plusDays(1));
+
+        this.service.updateLoanArrearsAgeingDetails();
+
+        verify(this.jdbcTemplate).queryForList(startsWith(ACTIVE_LOANS), eq(Long.class), eq(0L));
+        verify(this.jdbcTemplate, never()).queryForList(startsWith(CANDIDATES), eq(Long.class), any(), any(), any());
+        verify(this.jdbcTemplate).update(startsWith("update m_loan_arrears_aging_checkpoint"), eq(BUSINESS_DATE),
+                any(OffsetDateTime.class));
+    }
+
+    @Test
+    public void testRebuildWalksActiveLoansByIdInChunks() throws Exception {
+        givenCheckpoint(LAST_BUSINESS_DATE);
+        given(this.jdbcTemplate.queryForList(startsWith(ACTIVE_LOANS), eq(Long.class), eq(0L)))
+                .willReturn(LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList()));
+        given(this.jdbcTemplate.queryForList(startsWith(ACTIVE_LOANS), eq(Long.class), eq(500L))).willReturn(List.of(501L));
+
+        this.service.rebuildLoanArrearsAgeingDetails();
+
+        verify(this.transactionTemplate, times(2)).execute(any());
+        verify(this.jdbcTemplate, never()).queryForList(startsWith(ACTIVE_LOANS), eq(Long.class), eq(501L));
+        verify(this.jdbcTemplate).update(startsWith("delete from m_loan_arrears_aging where loan_id not in"));
+        verify(this.jdbcTemplate).update(startsWith("update m_loan_arrears_aging_checkpoint"), eq(BUSINESS_DATE),
+                any(OffsetDateTime.class));
+    }
+
+    private void givenCheckpoint(final LocalDate businessDate) throws Exception {
+        final ResultSet rs = mock(ResultSet.class);
+        given(rs.getDate("business_date")).willReturn(Date.valueOf(businessDate));
+        given(rs.getObject("run_start_utc", OffsetDateTime.class)).willReturn(LAST_RUN_START);
+        given(this.jdbcTemplate.query(startsWith("select business_date, run_start_utc"), any(RowMapper.class)))
+                .willAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(rs, 0)));
+    }
+}
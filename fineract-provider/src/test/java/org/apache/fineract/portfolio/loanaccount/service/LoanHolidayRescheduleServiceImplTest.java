@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractHolidayRescheduleProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractLoanProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobExecuter;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class LoanHolidayRescheduleServiceImplTest {
+
+    private static final Long HOLIDAY_ID = 1L;
+    private static final LocalDate FROM_DATE = LocalDate.of(2022, 6, 20);
+    private static final String PARTITIONS = "select partition_number, from_loan_id, to_loan_id, last_loan_id "
+            + "from m_holiday_loan_reschedule";
+    private static final String CHUNK = "select l.id from m_loan l";
+    private static final String CHECKPOINT = "update m_holiday_loan_reschedule set last_loan_id = ?";
+
+    private final FineractHolidayRescheduleProperties properties = new FineractHolidayRescheduleProperties();
+    private final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+    private final HolidayRepositoryWrapper holidayRepository = mock(HolidayRepositoryWrapper.class);
+    private final LoanRepositoryWrapper loanRepositoryWrapper = mock(LoanRepositoryWrapper.class);
+    private final LoanUtilService loanUtilService = mock(LoanUtilService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+    private final Holiday holiday = mock(Holiday.class);
+    private final JobExecuter jobExecuter = new JobExecuter(new FineractProperties());
+    private LoanHolidayRescheduleServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 15));
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+
+        this.properties.setThreadPoolSize(3);
+        this.properties.setChunkSize(2);
+        final FineractLoanProperties loan = new FineractLoanProperties();
+        loan.setHolidayReschedule(this.properties);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setLoan(loan);
+
+        given(this.transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(this.transactionTemplate).executeWithoutResult(any());
+        given(this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled()).willReturn(true);
+        given(this.holiday.getId()).willReturn(HOLIDAY_ID);
+        given(this.holiday.getFromDateLocalDate()).willReturn(FROM_DATE);
+        given(this.holidayRepository.findUnprocessed()).willReturn(List.of(this.holiday));
+        given(this.holidayRepository.findOneWithNotFoundDetection(HOLIDAY_ID)).willReturn(this.holiday);
+        given(this.sqlGenerator.limit(2)).willReturn("limit 2");
+        given(this.jdbcTemplate.queryForList(startsWith(CHUNK), eq(Long.class), anyLong(), eq(HOLIDAY_ID), eq(HOLIDAY_ID), eq(FROM_DATE)))
+                .willReturn(List.of());
+
+        this.service = new LoanHolidayRescheduleServiceImpl(fineractProperties, this.configurationDomainService, this.holidayRepository,
+                this.loanRepositoryWrapper, this.loanUtilService, this.jdbcTemplate, this.transactionTemplate, this.sqlGenerator,
+                this.jobExecuter);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.jobExecuter.shutdown();
+        JobExecuter.drainStatistics();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void testFirstRunSplitsTheLoanIdsIntoPartitionsWithAnOpenEndedLastOne() throws Exception {
+        givenPartitions();
+        given(this.jdbcTemplate.queryForObject("select max(id) from m_loan", Long.class)).willReturn(10L);
+        final ArgumentCaptor<List<Object[]>> inserted = listCaptor();
+        given(this.jdbcTemplate.batchUpdate(startsWith("insert into m_holiday_loan_reschedule"), inserted.capture()))
+                .willReturn(new int[3]);
+
+        this.service.applyHolidaysToLoans();
+
+        assertEquals(3, inserted.getValue().size());
+        assertArrayEquals(new Object[] { HOLIDAY_ID, 0, 1L, 4L, 0L }, inserted.getValue().get(0));
+        assertArrayEquals(new Object[] { HOLIDAY_ID, 1, 5L, 8L, 4L }, inserted.getValue().get(1));
+        assertArrayEquals(new Object[] { HOLIDAY_ID, 2, 9L, null, 8L }, inserted.getValue().get(2));
+
+        final List<String> chunkSql = chunkSql(3);
+        assertTrue(chunkSql.stream().anyMatch(sql -> sql.contains(" where l.id > ? and l.id <= 4 ")));
+        assertTrue(chunkSql.stream().anyMatch(sql -> sql.contains(" where l.id > ? and l.id <= 8 ")));
+        assertTrue(chunkSql.stream().anyMatch(sql -> !sql.contains("l.id <=")));
+        verify(this.jdbcTemplate).update(startsWith(CHECKPOINT), eq(4L), eq(HOLIDAY_ID), eq(0));
+        verify(this.jdbcTemplate).update(startsWith(CHECKPOINT), eq(8L), eq(HOLIDAY_ID), eq(1));
+        verify(this.jdbcTemplate, never()).update(startsWith(CHECKPOINT), any(), eq(HOLIDAY_ID), eq(2));
+        verify(this.holiday).processed();
+        verify(this.jdbcTemplate).update("delete from m_holiday_loan_reschedule where holiday_id = ?", HOLIDAY_ID);
+    }
+
+    @Test
+    public void testRerunResumesEveryUnfinishedPartitionAfterItsCheckpoint() throws Exception {
+        givenPartitions(partition(0, 1L, 4L, 4L), partition(1, 5L, 8L, 6L), partition(2, 9L, null, 12L));
+
+        this.service.applyHolidaysToLoans();
+
+        verify(this.jdbcTemplate, never()).queryForObject("select max(id) from m_loan", Long.class);
+        verify(this.jdbcTemplate, never()).batchUpdate(startsWith("insert"), anyList());
+        verify(this.jdbcTemplate, times(2)).queryForList(startsWith(CHUNK), eq(Long.class), anyLong(), eq(HOLIDAY_ID), eq(HOLIDAY_ID),
+                eq(FROM_DATE));
+        verify(this.jdbcTemplate).queryForList(contains(" and l.id <= 8 "), eq(Long.class), eq(6L), eq(HOLIDAY_ID), eq(HOLIDAY_ID),
+                eq(FROM_DATE));
+        verify(this.jdbcTemplate).queryForList(startsWith(CHUNK), eq(Long.class), eq(12L), eq(HOLIDAY_ID), eq(HOLIDAY_ID),
+                eq(FROM_DATE));
+        verify(this.holiday).processed();
+    }
+
+    @Test
+    public void testEveryChunkReschedulesItsLoansAndMovesTheCheckpoint() throws Exception {
+        givenPartitions(partition(0, 1L, null, 0L));
+        givenChunk(0L, 3L, 5L);
+        givenChunk(5L, 7L);
+        final List<Loan> loans = List.of(givenLoan(3L), givenLoan(5L), givenLoan(7L));
+
+        this.service.applyHolidaysToLoans();
+
+        for (final Loan loan : loans) {
+            verify(loan).applyHolidayToRepaymentScheduleDates(this.holiday, this.loanUtilService);
+            verify(this.loanRepositoryWrapper).save(loan);
+        }
+        verify(this.jdbcTemplate).update(startsWith(CHECKPOINT), eq(5L), eq(HOLIDAY_ID), eq(0));
+        verify(this.jdbcTemplate).update(startsWith(CHECKPOINT), eq(7L), eq(HOLIDAY_ID), eq(0));
+        verify(this.jdbcTemplate, times(2)).queryForList(startsWith(CHUNK), eq(Long.class), anyLong(), eq(HOLIDAY_ID), eq(HOLIDAY_ID),
+                eq(FROM_DATE));
+        verify(this.holiday).processed();
+    }
+
+    @Test
+    public void testChunkOnlySelectsLoansWithARepaymentDueFromTheFirstDayOfTheHoliday() throws Exception {
+        givenPartitions(partition(0, 1L, null, 0L));
+
+        this.service.applyHolidaysToLoans();
+
+        final String sql = chunkSql(1).get(0);
+        assertTrue(sql.contains(" and exists (select 1 from m_loan_repayment_schedule mr where mr.loan_id = l.id and mr.duedate >= ?)"));
+        assertTrue(sql.endsWith(" order by l.id limit 2"));
+        verify(this.jdbcTemplate).queryForList(anyString(), eq(Long.class), eq(0L), eq(HOLIDAY_ID), eq(HOLIDAY_ID), eq(FROM_DATE));
+    }
+
+    @Test
+    public void testFailedChunkKeepsItsCheckpointAndTheHolidayUnprocessed() {
+        givenPartitions(partition(0, 1L, null, 0L));
+        givenChunk(0L, 3L, 5L);
+        givenLoan(3L);
+        final Loan failing = givenLoan(5L);
+        willThrow(new IllegalStateException("reschedule failed")).given(failing).applyHolidayToRepaymentScheduleDates(this.holiday,
+                this.loanUtilService);
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, () -> this.service.applyHolidaysToLoans());
+
+        assertEquals(1, exception.getCauses().size());
+        verify(this.jdbcTemplate, never()).update(startsWith(CHECKPOINT), any(), eq(HOLIDAY_ID), eq(0));
+        verify(this.holiday, never()).processed();
+        verify(this.jdbcTemplate, never()).update("delete from m_holiday_loan_reschedule where holiday_id = ?", HOLIDAY_ID);
+    }
+
+    private void givenPartitions(final Object[]... rows) {
+        given(this.jdbcTemplate.query(startsWith(PARTITIONS), any(RowMapper.class), eq(HOLIDAY_ID))).willAnswer(invocation -> {
+            final RowMapper<?> mapper = invocation.getArgument(1);
+            final List<Object> partitions = new ArrayList<>();
+            for (final Object[] row : rows) {
+                final ResultSet rs = mock(ResultSet.class);
+                given(rs.getInt("partition_number")).willReturn((Integer) row[0]);
+                given(rs.getLong("from_loan_id")).willReturn((Long) row[1]);
+                given(rs.getObject("to_loan_id", Long.class)).willReturn((Long) row[2]);
+                given(rs.getLong("last_loan_id")).willReturn((Long) row[3]);
+                partitions.add(mapper.mapRow(rs, partitions.size()));
+            }
+            return partitions;
+        });
+    }
+
+    private static Object[] partition(final int partitionNumber, final Long fromLoanId, final Long toLoanId, final Long lastLoanId) {
+        return new Object[] { partitionNumber, fromLoanId, toLoanId, lastLoanId };
+    }
+
+    private void givenChunk(final long afterLoanId, final Long... loanIds) {
+        given(this.jdbcTemplate.queryForList(startsWith(CHUNK), eq(Long.class), eq(afterLoanId), eq(HOLIDAY_ID), eq(HOLIDAY_ID),
+                eq(FROM_DATE))).willReturn(List.of(loanIds));
+    }
+
+    private Loan givenLoan(final Long loanId) {
+        final Loan loan = mock(Loan.class);
+        given(this.loanRepositoryWrapper.findOneWithNotFoundDetection(loanId)).willReturn(loan);
+        return loan;
+    }
+
+    private List<String> chunkSql(final int times) {
+        final ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(this.jdbcTemplate, times(times)).queryForList(sql.capture(), eq(Long.class), anyLong(), eq(HOLIDAY_ID), eq(HOLIDAY_ID),
+                eq(FROM_DATE));
+        return sql.getAllValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
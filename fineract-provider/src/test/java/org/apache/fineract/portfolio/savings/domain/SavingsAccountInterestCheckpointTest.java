@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import javax.persistence.Column;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestHelper;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks that the interest calculated from a stored checkpoint is the same as the one of a calculation over the whole
+ * history, as done by {@link SavingsAccount#calculateInterestUsing}.
+ */
+public class SavingsAccountInterestCheckpointTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+    private static final BigDecimal INTEREST_RATE = new BigDecimal("0.0725");
+    private static final LocalDate ACTIVATION = LocalDate.of(2021, 10, 4);
+    private static final LocalDate UP_TO = LocalDate.of(2022, 6, 30);
+    private static final int SETTINGS = 42;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, UP_TO);
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", null);
+    }
+
+    @Test
+    public void testCheckpointAtEveryPeriodEndMatchesFullCalculation() throws IllegalAccessException {
+        for (final SavingsCompoundingInterestPeriodType compounding : List.of(SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsCompoundingInterestPeriodType.QUATERLY)) {
+            final List<SavingsAccountTransaction> transactions = transactions();
+            final List<PostingPeriod> full = calculate(postingPeriods(), Money.zero(CURRENCY), transactions, compounding,
+                    new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO));
+            for (int lastPostedPeriod = 0; lastPostedPeriod < full.size() - 1; lastPostedPeriod++) {
+                assertResumesLikeFullCalculation(full, lastPostedPeriod, transactions, compounding);
+            }
+        }
+    }
+
+    @Test
+    public void testBackdatedTransactionInvalidatesCheckpoint() throws IllegalAccessException {
+        final List<SavingsAccountTransaction> transactions = transactions();
+        final List<PostingPeriod> full = calculate(postingPeriods(), Money.zero(CURRENCY), transactions,
+                SavingsCompoundingInterestPeriodType.DAILY, new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO));
+        // end of January 2022
+        final SavingsAccountInterestCheckpoint checkpoint = persisted(
+                SavingsAccountInterestCheckpoint.createFrom(null, full, 4, transactions, SETTINGS, CURRENCY));
+        assertEquals(LocalDate.of(2022, 1, 31), checkpoint.getCheckpointDate());
+        assertTrue(checkpoint.isValidFor(transactions, SETTINGS));
+        assertFalse(checkpoint.isValidFor(transactions, SETTINGS + 1));
+
+        transactions.add(deposit(LocalDate.of(2022, 5, 2), "50.00"));
+        assertTrue(checkpoint.isValidFor(transactions, SETTINGS));
+
+        final List<SavingsAccountTransaction> reversed = transactions();
+        reversed.get(1).reverse();
+        assertFalse(checkpoint.isValidFor(reversed, SETTINGS));
+
+        transactions.add(deposit(LocalDate.of(2021, 12, 20), "999.99"));
+        assertFalse(checkpoint.isValidFor(transactions, SETTINGS));
+
+        // the full calculation that follows takes a new checkpoint, which again continues like the full calculation
+        updateBalances(transactions);
+        final List<PostingPeriod> recalculated = calculate(postingPeriods(), Money.zero(CURRENCY), transactions,
+                SavingsCompoundingInterestPeriodType.DAILY, new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO));
+        assertFalse(recalculated.get(5).interest().isEqualTo(full.get(5).interest()));
+        assertResumesLikeFullCalculation(recalculated, 4, transactions, SavingsCompoundingInterestPeriodType.DAILY);
+    }
+
+    private static void assertResumesLikeFullCalculation(final List<PostingPeriod> full, final int lastPostedPeriod,
+            final List<SavingsAccountTransaction> transactions, final SavingsCompoundingInterestPeriodType compounding)
+            throws IllegalAccessException {
+        final SavingsAccountInterestCheckpoint checkpoint = persisted(
+                SavingsAccountInterestCheckpoint.createFrom(null, full, lastPostedPeriod, transactions, SETTINGS, CURRENCY));
+        assertTrue(checkpoint.isValidFor(transactions, SETTINGS));
+
+        final List<LocalDateInterval> laterPeriods = postingPeriods().subList(lastPostedPeriod + 1, full.size());
+        assertEquals(checkpoint.getCheckpointDate().plusDays(1), laterPeriods.get(0).startDate());
+        final List<PostingPeriod> resumed = calculate(laterPeriods, checkpoint.getBalance(CURRENCY),
+                transactionsFromAnchor(transactions, checkpoint.getCheckpointDate()), compounding, checkpoint.getCompoundInterestValues());
+
+        for (int i = 0; i < resumed.size(); i++) {
+            final PostingPeriod expected = full.get(lastPostedPeriod + 1 + i);
+            final PostingPeriod actual = resumed.get(i);
+            final String message = compounding + " from checkpoint " + checkpoint.getCheckpointDate() + ", period " + i;
+            assertEquals(expected.interest().getAmount(), actual.interest().getAmount(), message);
+            assertEquals(expected.closingBalance().getAmount(), actual.closingBalance().getAmount(), message);
+            assertEquals(0, expected.getClosingCompoundInterestValues().getcompoundedInterest()
+                    .compareTo(actual.getClosingCompoundInterestValues().getcompoundedInterest()), message);
+            assertEquals(0, expected.getClosingCompoundInterestValues().getuncompoundedInterest()
+                    .compareTo(actual.getClosingCompoundInterestValues().getuncompoundedInterest()), message);
+        }
+    }
+
+    private static List<PostingPeriod> calculate(final List<LocalDateInterval> intervals, final Money startingBalance,
+            final List<SavingsAccountTransaction> transactions, final SavingsCompoundingInterestPeriodType compounding,
+            final CompoundInterestValues compoundInterestValues) {
+        final List<PostingPeriod> periods = new ArrayList<>();
+        Money periodStartingBalance = startingBalance;
+        for (final LocalDateInterval interval : intervals) {
+            final PostingPeriod period = PostingPeriod.createFrom(interval, periodStartingBalance, transactions, CURRENCY, compounding,
+                    SavingsInterestCalculationType.DAILY_BALANCE, INTEREST_RATE, 365, UP_TO, List.of(), false, Money.zero(CURRENCY), false,
+                    BigDecimal.ZERO, Money.zero(CURRENCY), false, 1);
+            periodStartingBalance = period.closingBalance();
+            periods.add(period);
+        }
+        new CompoundInterestHelper().calculateInterestForAllPostingPeriods(CURRENCY, periods, null, false, compoundInterestValues);
+        return periods;
+    }
+
+    /**
+     * Monthly posting periods from the activation up to the end of June 2022.
+     */
+    private static List<LocalDateInterval> postingPeriods() {
+        final List<LocalDateInterval> periods = new ArrayList<>();
+        LocalDate start = ACTIVATION;
+        while (start.isBefore(UP_TO)) {
+            final LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
+            periods.add(LocalDateInterval.create(start, end));
+            start = end.plusDays(1);
+        }
+        return periods;
+    }
+
+    private static List<SavingsAccountTransaction> transactions() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(ACTIVATION, "15000.00"));
+        transactions.add(deposit(LocalDate.of(2021, 11, 17), "2345.67"));
+        transactions.add(withdrawal(LocalDate.of(2022, 1, 1), "1000.01"));
+        transactions.add(deposit(LocalDate.of(2022, 2, 28), "123.45"));
+        transactions.add(withdrawal(LocalDate.of(2022, 4, 10), "777.77"));
+        updateBalances(transactions);
+        return transactions;
+    }
+
+    /**
+     * Sets the running balances and balance end dates as SavingsAccount.recalculateDailyBalances does.
+     */
+    private static void updateBalances(final List<SavingsAccountTransaction> transactions) {
+        transactions.sort(new SavingsAccountTransactionComparator());
+        Money runningBalance = Money.zero(CURRENCY);
+        for (final SavingsAccountTransaction transaction : transactions) {
+            runningBalance = transaction.isDeposit() ? runningBalance.plus(transaction.getAmount(CURRENCY))
+                    : runningBalance.minus(transaction.getAmount(CURRENCY));
+            transaction.updateRunningBalance(runningBalance);
+        }
+        LocalDate endOfBalanceDate = UP_TO;
+        for (int i = transactions.size() - 1; i >= 0; i--) {
+            transactions.get(i).updateCumulativeBalanceAndDates(CURRENCY, endOfBalanceDate);
+            endOfBalanceDate = transactions.get(i).transactionLocalDate().minusDays(1);
+        }
+    }
+
+    /**
+     * The transactions from the last one on or before the checkpoint date on, as the account restarts from it.
+     */
+    private static List<SavingsAccountTransaction> transactionsFromAnchor(final List<SavingsAccountTransaction> transactions,
+            final LocalDate checkpointDate) {
+        int anchor = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            if (!transactions.get(i).transactionLocalDate().isAfter(checkpointDate)) {
+                anchor = i;
+            }
+        }
+        return transactions.subList(anchor, transactions.size());
+    }
+
+    /**
+     * Applies the scale of the database columns, as the checkpoint is read back from the database.
+     */
+    private static SavingsAccountInterestCheckpoint persisted(final SavingsAccountInterestCheckpoint checkpoint)
+            throws IllegalAccessException {
+        for (final Field field : SavingsAccountInterestCheckpoint.class.getDeclaredFields()) {
+            final Column column = field.getAnnotation(Column.class);
+            if (column != null && BigDecimal.class.equals(field.getType())) {
+                field.setAccessible(true);
+                final BigDecimal value = (BigDecimal) field.get(checkpoint);
+                if (value != null) {
+                    field.set(checkpoint, value.setScale(column.scale(), RoundingMode.HALF_UP));
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    private static SavingsAccountTransaction deposit(final LocalDate date, final String amount) {
+        return SavingsAccountTransaction.deposit(null, null, null, date, Money.of(CURRENCY, new BigDecimal(amount)),
+                date.atStartOfDay(), null, null);
+    }
+
+    private static SavingsAccountTransaction withdrawal(final LocalDate date, final String amount) {
+        return SavingsAccountTransaction.withdrawal(null, null, null, date, Money.of(CURRENCY, new BigDecimal(amount)),
+                date.atStartOfDay(), null, null);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.CommandProcessingService;
+import org.apache.fineract.commands.service.CommandWrapperBuilder;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractSavingsHotAccountProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractSavingsProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+public class SavingsHotAccountWriterTest {
+
+    private final CommandProcessingService commandProcessingService = mock(CommandProcessingService.class);
+    private final SavingsHotAccountRegistry hotAccountRegistry = mock(SavingsHotAccountRegistry.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    private SavingsHotAccountWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        setContext();
+        given(this.hotAccountRegistry.isHotAccount(1L)).willReturn(true);
+        given(this.commandProcessingService.processAndLogCommand(any(CommandWrapper.class), any(JsonCommand.class), anyBoolean()))
+                .willAnswer(invocation -> {
+                    final JsonCommand command = invocation.getArgument(1);
+                    if (this.processed.isEmpty()) {
+                        this.firstWriteStarted.countDown();
+                        this.releaseFirstWrite.await(10, TimeUnit.SECONDS);
+                    }
+                    this.processed.add(command.json());
+                    return new CommandProcessingResultBuilder().withSavingsId(command.getSavingsId()).withTransactionId(command.json())
+                            .build();
+                });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.releaseFirstWrite.countDown();
+        this.callers.shutdownNow();
+        if (this.writer != null) {
+            this.writer.shutdown();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testOnlyDepositsAndWithdrawalsOfHotAccountsAreQueued() {
+        this.writer = writer(true, 10);
+        assertTrue(this.writer.isHotAccountWrite(new CommandWrapperBuilder().savingsAccountDeposit(1L).build()));
+        assertTrue(this.writer.isHotAccountWrite(new CommandWrapperBuilder().savingsAccountWithdrawal(1L).build()));
+        assertFalse(this.writer.isHotAccountWrite(new CommandWrapperBuilder().savingsAccountDeposit(2L).build()));
+        assertFalse(this.writer.isHotAccountWrite(new CommandWrapperBuilder().approveSavingsAccountApplication(1L).build()));
+    }
+
+    @Test
+    public void testDisabledWriterQueuesNothing() {
+        this.writer = writer(false, 10);
+        assertFalse(this.writer.isHotAccountWrite(new CommandWrapperBuilder().savingsAccountDeposit(1L).build()));
+        verify(this.hotAccountRegistry, never()).isHotAccount(any());
+    }
+
+    @Test
+    public void testWritesQueuedWhileBusyRunInOneTransactionPerAccountInArrivalOrder() throws Exception {
+        this.writer = writer(true, 10);
+        final Future<CommandProcessingResult> first = submit(1L, "a1");
+        assertTrue(this.firstWriteStarted.await(10, TimeUnit.SECONDS));
+        final Future<CommandProcessingResult> second = submit(1L, "a2");
+        awaitQueued(1);
+        final Future<CommandProcessingResult> other = submit(2L, "b1");
+        awaitQueued(2);
+        final Future<CommandProcessingResult> third = submit(1L, "a3");
+        awaitQueued(3);
+
+        this.releaseFirstWrite.countDown();
+
+        assertEquals("a1", first.get(10, TimeUnit.SECONDS).getTransactionId());
+        assertEquals("a2", second.get(10, TimeUnit.SECONDS).getTransactionId());
+        assertEquals("a3", third.get(10, TimeUnit.SECONDS).getTransactionId());
+        assertEquals("b1", other.get(10, TimeUnit.SECONDS).getTransactionId());
+        // the writes of an account stay in order, the other account follows in its own batch
+        assertEquals(List.of("a1", "a2", "a3", "b1"), this.processed);
+        // a2 and a3 share a transaction, a1 and b1 are single writes in their own transaction
+        verify(this.transactionManager, times(1)).getTransaction(any(TransactionDefinition.class));
+    }
+
+    @Test
+    public void testFullQueueLeavesTheWriteToTheCaller() throws Exception {
+        this.writer = writer(true, 1);
+        final Future<CommandProcessingResult> first = submit(1L, "a1");
+        assertTrue(this.firstWriteStarted.await(10, TimeUnit.SECONDS));
+        final Future<CommandProcessingResult> second = submit(1L, "a2");
+        awaitQueued(1);
+
+        assertNull(this.writer.process(deposit(1L), command(1L, "a3"), false));
+
+        this.releaseFirstWrite.countDown();
+        assertEquals("a1", first.get(10, TimeUnit.SECONDS).getTransactionId());
+        assertEquals("a2", second.get(10, TimeUnit.SECONDS).getTransactionId());
+        assertEquals(List.of("a1", "a2"), this.processed);
+    }
+
+    @Test
+    public void testLockConflictLeavesTheWriteToTheCallerRetries() {
+        this.releaseFirstWrite.countDown();
+        given(this.commandProcessingService.processAndLogCommand(any(CommandWrapper.class), any(JsonCommand.class), anyBoolean()))
+                .willThrow(new CannotAcquireLockException("deadlock"));
+        this.writer = writer(true, 10);
+
+        assertNull(this.writer.process(deposit(1L), command(1L, "a1"), false));
+    }
+
+    private Future<CommandProcessingResult> submit(final Long savingsId, final String json) {
+        return this.callers.submit(() -> {
+            setContext();
+            try {
+                return this.writer.process(deposit(savingsId), command(savingsId, json), false);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        });
+    }
+
+    private void awaitQueued(final int count) throws InterruptedException {
+        final List<?> stripes = (List<?>) ReflectionTestUtils.getField(this.writer, "stripes");
+        final BlockingQueue<?> writes = (BlockingQueue<?>) ReflectionTestUtils.getField(stripes.get(0), "writes");
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (writes.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, writes.size());
+    }
+
+    private SavingsHotAccountWriter writer(final boolean enabled, final int queueCapacity) {
+        final FineractSavingsHotAccountProperties hotAccount = new FineractSavingsHotAccountProperties();
+        hotAccount.setEnabled(enabled);
+        hotAccount.setStripes(1);
+        hotAccount.setQueueCapacity(queueCapacity);
+        hotAccount.setMaxBatchSize(10);
+        final FineractSavingsProperties savings = new FineractSavingsProperties();
+        savings.setHotAccount(hotAccount);
+        final FineractProperties properties = new FineractProperties();
+        properties.setSavings(savings);
+        return new SavingsHotAccountWriter(this.commandProcessingService, this.hotAccountRegistry, this.transactionManager, properties);
+    }
+
+    private static CommandWrapper deposit(final Long savingsId) {
+        return new CommandWrapperBuilder().savingsAccountDeposit(savingsId).build();
+    }
+
+    private static JsonCommand command(final Long savingsId, final String json) {
+        return JsonCommand.from(json, null, null, "SAVINGSACCOUNT", null, null, null, null, null, savingsId, null, null, null, null,
+                null);
+    }
+
+    private static void setContext() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final HashMap<BusinessDateType, LocalDate> businessDates = new HashMap<>();
+        businessDates.put(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 30));
+        ThreadLocalContextUtil.setBusinessDates(businessDates);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.jms.MapMessage;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+/**
+ * Runs two search index "nodes" against the embedded ActiveMQ broker.
+ */
+public class SearchIndexChangeListenerTest {
+
+    private static final String BROKER_URL = "vm://search-index-change-test?broker.persistent=false&broker.useJmx=false";
+    private static final String TOPIC = "fineract.cache.invalidation.test";
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+    private final SearchIndexService firstIndex = mock(SearchIndexService.class);
+    private final SearchIndexService secondIndex = mock(SearchIndexService.class);
+    private final TenantDetailsService tenantDetailsService = mock(TenantDetailsService.class);
+    private JmsTemplate jmsTemplate;
+    private SearchIndexChangePublisher first;
+    private DefaultMessageListenerContainer firstContainer;
+    private DefaultMessageListenerContainer secondContainer;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        given(this.tenantDetailsService.loadTenantById("default")).willReturn(this.tenant);
+
+        this.jmsTemplate = new JmsTemplate(new CachingConnectionFactory(new ActiveMQConnectionFactory(BROKER_URL)));
+        this.jmsTemplate.setPubSubDomain(true);
+        this.first = new SearchIndexChangePublisher(this.jmsTemplate, TOPIC, "first");
+
+        this.firstContainer = startListener(this.firstIndex, "first");
+        this.secondContainer = startListener(this.secondIndex, "second");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.firstContainer.shutdown();
+        this.secondContainer.shutdown();
+    }
+
+    @Test
+    public void testChangesAreReloadedByTheOtherNodesInTheTenantOfTheChange() {
+        final AtomicReference<FineractPlatformTenant> tenantOfRefresh = new AtomicReference<>();
+        willAnswer(invocation -> {
+            tenantOfRefresh.set(ThreadLocalContextUtil.getTenant());
+            return null;
+        }).given(this.secondIndex).refreshChangedOnOtherNode(any());
+
+        this.first.publish("default", Map.of(SearchIndexEntityType.LOAN, Set.of(4L, 5L), SearchIndexEntityType.CLIENT, Set.of(3L)));
+
+        verify(this.secondIndex, timeout(5000))
+                .refreshChangedOnOtherNode(Map.of(SearchIndexEntityType.LOAN, Set.of(4L, 5L), SearchIndexEntityType.CLIENT, Set.of(3L)));
+        assertEquals(this.tenant, tenantOfRefresh.get());
+        verify(this.firstIndex, after(500).never()).refreshChangedOnOtherNode(any());
+    }
+
+    @Test
+    public void testCacheInvalidationsOnTheSameTopicAreNotDelivered() {
+        this.jmsTemplate.send(TOPIC, session -> {
+            final MapMessage message = session.createMapMessage();
+            message.setString("origin", "first");
+            message.setString("cacheName", "users");
+            return message;
+        });
+
+        verify(this.secondIndex, after(500).never()).refreshChangedOnOtherNode(any());
+        verify(this.tenantDetailsService, never()).loadTenantById(any());
+    }
+
+    private DefaultMessageListenerContainer startListener(final SearchIndexService searchIndexService, final String origin)
+            throws InterruptedException {
+        final DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(new ActiveMQConnectionFactory(BROKER_URL));
+        container.setPubSubDomain(true);
+        container.setDestinationName(TOPIC);
+        container.setMessageSelector(SearchIndexChangePublisher.MESSAGE_SELECTOR);
+        container.setMessageListener(new SearchIndexChangeListener(searchIndexService, this.tenantDetailsService, origin));
+        container.afterPropertiesSet();
+        container.start();
+        // messages sent to a topic before the consumer is subscribed are lost
+        for (int i = 0; i < 100 && !container.isRegisteredWithDestination(); i++) {
+            Thread.sleep(50);
+        }
+        return container;
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class SearchIndexServiceImplTest {
+
+    private static final String SELECT_LOAN = "select l.id, l.account_no, l.external_id from m_loan l where l.id = ?";
+    private static final String SELECT_CLIENT = "select c.id, c.account_no, c.display_name, c.external_id, c.mobile_no from m_client c"
+            + " where c.id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private SearchIndexChangePublisher changePublisher;
+    private FineractProperties fineractProperties;
+    private SearchIndexServiceImpl searchIndexService;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractProperties.FineractSearchIndexProperties indexProperties = new FineractProperties.FineractSearchIndexProperties();
+        indexProperties.setEnabled(true);
+        indexProperties.setMaxMatches(100);
+        indexProperties.setFetchSize(100);
+        final FineractProperties.FineractSearchProperties searchProperties = new FineractProperties.FineractSearchProperties();
+        searchProperties.setIndex(indexProperties);
+        this.fineractProperties = new FineractProperties();
+        this.fineractProperties.setSearch(searchProperties);
+
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.changePublisher = mock(SearchIndexChangePublisher.class);
+        this.searchIndexService = createSearchIndexService(this.changePublisher);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.searchIndexService.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testChangedIdsIncludeAllEntitiesOfTheResult() {
+        final CommandProcessingResult loanResult = new CommandProcessingResultBuilder().withEntityId(11L).withLoanId(5L).withClientId(3L)
+                .withGroupId(2L).build();
+        assertEquals(Map.of(SearchIndexEntityType.LOAN, Set.of(5L), SearchIndexEntityType.CLIENT, Set.of(3L), SearchIndexEntityType.GROUP,
+                Set.of(2L)), SearchIndexServiceImpl.changedIds("LOAN", loanResult));
+
+        final CommandProcessingResult identifierResult = new CommandProcessingResultBuilder().withEntityId(7L).withClientId(3L).build();
+        assertEquals(Map.of(SearchIndexEntityType.CLIENTIDENTIFIER, Set.of(7L), SearchIndexEntityType.CLIENT, Set.of(3L)),
+                SearchIndexServiceImpl.changedIds("CLIENTIDENTIFIER", identifierResult));
+    }
+
+    @Test
+    public void testChangedIdsIgnoreUnsetIds() {
+        final CommandProcessingResult result = new CommandProcessingResultBuilder().withEntityId(8L).withSavingsId(8L).withGsimId(0L)
+                .build();
+        assertEquals(Map.of(SearchIndexEntityType.SAVING, Set.of(8L)), SearchIndexServiceImpl.changedIds("SAVINGSACCOUNT", result));
+        assertEquals(Map.of(), SearchIndexServiceImpl.changedIds("OFFICE", new CommandProcessingResultBuilder().build()));
+    }
+
+    @Test
+    public void testRefreshReloadsAllChangedEntities() {
+        this.searchIndexService.rebuildSearchIndex();
+
+        this.searchIndexService.refreshAfterCommit("LOAN",
+                new CommandProcessingResultBuilder().withEntityId(5L).withLoanId(5L).withClientId(3L).build());
+
+        verify(this.jdbcTemplate).query(eq(SELECT_LOAN), any(RowMapper.class), eq(5L));
+        verify(this.jdbcTemplate).query(eq(SELECT_CLIENT), any(RowMapper.class), eq(3L));
+        verify(this.jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    public void testRefreshOfGlimCommandReloadsAllLoansOfTheGroup() {
+        given(this.jdbcTemplate.queryForList(startsWith("select l.id from m_loan l join m_loan changed"), eq(Long.class), eq(5L)))
+                .willReturn(List.of(4L, 5L, 6L));
+        this.searchIndexService.rebuildSearchIndex();
+
+        this.searchIndexService.refreshAfterCommit("GLIMLOAN",
+                new CommandProcessingResultBuilder().withEntityId(5L).withLoanId(5L).build());
+
+        verify(this.jdbcTemplate).query(eq(SELECT_LOAN), any(RowMapper.class), eq(4L));
+        verify(this.jdbcTemplate).query(eq(SELECT_LOAN), any(RowMapper.class), eq(5L));
+        verify(this.jdbcTemplate).query(eq(SELECT_LOAN), any(RowMapper.class), eq(6L));
+    }
+
+    @Test
+    public void testRefreshIsSkippedUntilTheIndexIsBuilt() {
+        this.searchIndexService.refreshAfterCommit("LOAN", new CommandProcessingResultBuilder().withEntityId(5L).withLoanId(5L).build());
+
+        verify(this.jdbcTemplate, never()).query(eq(SELECT_LOAN), any(RowMapper.class), eq(5L));
+    }
+
+    @Test
+    public void testRefreshIsBroadcastToTheOtherNodesEvenWithoutALocalIndex() {
+        given(this.jdbcTemplate.queryForList(startsWith("select l.id from m_loan l join m_loan changed"), eq(Long.class), eq(5L)))
+                .willReturn(List.of(4L, 5L));
+
+        this.searchIndexService.refreshAfterCommit("GLIMLOAN",
+                new CommandProcessingResultBuilder().withEntityId(5L).withLoanId(5L).withClientId(3L).build());
+
+        verify(this.changePublisher).publish("default", Map.of(SearchIndexEntityType.LOAN, Set.of(4L, 5L), SearchIndexEntityType.CLIENT,
+                Set.of(3L)));
+    }
+
+    @Test
+    public void testRefreshIsNotBroadcastWhenTheIndexIsDisabled() {
+        this.fineractProperties.getSearch().getIndex().setEnabled(false);
+
+        this.searchIndexService.refreshAfterCommit("LOAN", new CommandProcessingResultBuilder().withEntityId(5L).withLoanId(5L).build());
+
+        verify(this.changePublisher, never()).publish(anyString(), any());
+    }
+
+    @Test
+    public void testChangesOfOtherNodesAreReloadedWithoutBroadcastingThemAgain() {
+        this.searchIndexService.rebuildSearchIndex();
+
+        this.searchIndexService.refreshChangedOnOtherNode(Map.of(SearchIndexEntityType.CLIENT, Set.of(3L)));
+
+        verify(this.jdbcTemplate).query(eq(SELECT_CLIENT), any(RowMapper.class), eq(3L));
+        verify(this.changePublisher, never()).publish(anyString(), any());
+    }
+
+    @Test
+    public void testChangesOfOtherNodesAreIgnoredWithoutALocalIndex() {
+        this.searchIndexService.refreshChangedOnOtherNode(Map.of(SearchIndexEntityType.CLIENT, Set.of(3L)));
+
+        verify(this.jdbcTemplate, never()).query(eq(SELECT_CLIENT), any(RowMapper.class), eq(3L));
+    }
+
+    private SearchIndexServiceImpl createSearchIndexService(final SearchIndexChangePublisher publisher) {
+        final ObjectProvider<SearchIndexChangePublisher> provider = publisherProvider();
+        given(provider.getIfAvailable()).willReturn(publisher);
+        return new SearchIndexServiceImpl(this.jdbcTemplate, mock(PlatformTransactionManager.class), this.fineractProperties, provider);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<SearchIndexChangePublisher> publisherProvider() {
+        return mock(ObjectProvider.class);
+    }
+}
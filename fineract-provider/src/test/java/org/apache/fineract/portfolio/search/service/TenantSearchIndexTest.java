@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TenantSearchIndexTest {
+
+    private static final Set<SearchIndexEntityType> ALL_TYPES = EnumSet.allOf(SearchIndexEntityType.class);
+
+    private TenantSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        this.index = new TenantSearchIndex();
+        this.index.replaceSnapshot(TenantSearchIndex.builder() //
+                .add(SearchIndexEntityType.CLIENT, 1L, "000000001", "John Smith", "EXT-1", "0711000111") //
+                .add(SearchIndexEntityType.CLIENT, 2L, "000000002", "Jane Smithson", null, "0711000222") //
+                .add(SearchIndexEntityType.LOAN, 1L, "000000003", "LOAN-EXT-1") //
+                .add(SearchIndexEntityType.CLIENTIDENTIFIER, 7L, "AB123456"), this.index.currentSequence());
+    }
+
+    @Test
+    public void testSearchMatchesAnyValueIgnoringCase() {
+        assertEquals(Map.of(SearchIndexEntityType.CLIENT, List.of(1L, 2L)), this.index.search("SMITH", false, ALL_TYPES, 10));
+        assertEquals(Map.of(SearchIndexEntityType.CLIENT, List.of(2L)), this.index.search("000222", false, ALL_TYPES, 10));
+        assertEquals(Map.of(SearchIndexEntityType.CLIENT, List.of(1L), SearchIndexEntityType.LOAN, List.of(1L)),
+                this.index.search("ext-1", false, ALL_TYPES, 10));
+        assertEquals(Map.of(), this.index.search("smyth", false, ALL_TYPES, 10));
+    }
+
+    @Test
+    public void testSearchIsRestrictedToTypes() {
+        assertEquals(Map.of(SearchIndexEntityType.LOAN, List.of(1L)),
+                this.index.search("ext-1", false, EnumSet.of(SearchIndexEntityType.LOAN), 10));
+    }
+
+    @Test
+    public void testExactMatchMatchesWholeValues() {
+        assertEquals(Map.of(SearchIndexEntityType.CLIENTIDENTIFIER, List.of(7L)), this.index.search("ab123456", true, ALL_TYPES, 10));
+        assertEquals(Map.of(), this.index.search("ab1234", true, ALL_TYPES, 10));
+        assertEquals(Map.of(), this.index.search("smith", true, ALL_TYPES, 10));
+    }
+
+    @Test
+    public void testSearchLeavesUnsupportedTermsToTheDatabase() {
+        assertNull(this.index.search("jo", false, ALL_TYPES, 10));
+        assertNull(this.index.search("j%n", false, ALL_TYPES, 10));
+        assertNull(this.index.search("jo_n", false, ALL_TYPES, 10));
+        assertNull(this.index.search("smith", false, ALL_TYPES, 1));
+        assertNull(new TenantSearchIndex().search("smith", false, ALL_TYPES, 10));
+    }
+
+    @Test
+    public void testChangesReplaceSnapshotEntries() {
+        this.index.update(SearchIndexEntityType.CLIENT, 1L, "000000001", "John Doe", "EXT-1", "0711000111");
+        this.index.update(SearchIndexEntityType.CLIENT, 3L, "000000004", "Mary Smith", null, null);
+        this.index.remove(SearchIndexEntityType.CLIENT, 2L);
+
+        assertEquals(Map.of(SearchIndexEntityType.CLIENT, List.of(3L)), this.index.search("smith", false, ALL_TYPES, 10));
+        assertEquals(Map.of(SearchIndexEntityType.CLIENT, List.of(1L)), this.index.search("john doe", false, ALL_TYPES, 10));
+    }
+
+    @Test
+    public void testRebuildKeepsChangesMadeWhileLoading() {
+        final long startSequence = this.index.currentSequence();
+        this.index.update(SearchIndexEntityType.CLIENT, 3L, "000000004", "Mary Smith", null, null);
+        final TenantSearchIndex.Builder builder = TenantSearchIndex.builder().add(SearchIndexEntityType.CLIENT, 1L, "000000001",
+                "John Smith", "EXT-1", "0711000111");
+        this.index.replaceSnapshot(builder, startSequence);
+
+        assertEquals(Map.of(SearchIndexEntityType.CLIENT, List.of(1L, 3L)), this.index.search("smith", false, ALL_TYPES, 10));
+        assertEquals(2, this.index.size());
+    }
+
+    @Test
+    public void testTrigramsDoNotSpanValues() {
+        assertTrue(this.index.isBuilt());
+        // "1jo" only exists across the account number and the name of client 1
+        assertEquals(Map.of(), this.index.search("1jo", false, ALL_TYPES, 10));
+        assertFalse(this.index.search("mit", false, ALL_TYPES, 10).isEmpty());
+    }
+}